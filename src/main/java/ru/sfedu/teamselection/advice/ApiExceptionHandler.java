@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.sfedu.teamselection.dto.ErrorResponse;
 import ru.sfedu.teamselection.exception.BusinessException;
 import ru.sfedu.teamselection.exception.ForbiddenException;
+import ru.sfedu.teamselection.exception.TooManyRequestsException;
 
 @Slf4j
 @RestControllerAdvice
@@ -45,6 +46,14 @@ public class ApiExceptionHandler {
         return buildResponse(HttpStatus.FORBIDDEN, ex, req);
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequests(
+            TooManyRequestsException ex, HttpServletRequest req
+    ) {
+        log.warn(ex.getMessage());
+        return buildResponse(HttpStatus.TOO_MANY_REQUESTS, ex, req);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleServerError(
             Exception ex, HttpServletRequest req
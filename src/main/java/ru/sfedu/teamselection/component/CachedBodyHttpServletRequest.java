@@ -1,30 +1,152 @@
 package ru.sfedu.teamselection.component;
 
+import jakarta.servlet.ReadListener;
 import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
 import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import org.springframework.util.StreamUtils;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
+/**
+ * Запрос, который сохраняет копию начала тела по мере того, как его читает обработчик.
+ * Тело не вычитывается заранее: если обработчик его не читает, копия остается пустой.
+ * Бинарные тела (файлы, изображения) не копируются, копия ограничена {@code maxCapturedBytes}.
+ */
 public class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
-    private byte[] cachedBody;
+    private final int maxCapturedBytes;
+    private final boolean captureSkipped;
 
-    public CachedBodyHttpServletRequest(HttpServletRequest request) throws IOException {
+    private ByteArrayOutputStream cachedBody;
+    private boolean truncated;
+
+    private ServletInputStream inputStream;
+    private BufferedReader reader;
+
+    public CachedBodyHttpServletRequest(HttpServletRequest request, int maxCapturedBytes) {
         super(request);
-        this.cachedBody = StreamUtils.copyToByteArray(request.getInputStream());
+        this.maxCapturedBytes = maxCapturedBytes;
+        this.captureSkipped = isBinary(request.getContentType());
     }
 
     @Override
-    public ServletInputStream getInputStream() {
-        return new CachedBodyServletInputStream(this.cachedBody);
+    public ServletInputStream getInputStream() throws IOException {
+        if (inputStream == null) {
+            ServletInputStream original = getRequest().getInputStream();
+            inputStream = captureSkipped ? original : new TeeServletInputStream(original);
+        }
+        return inputStream;
     }
 
     @Override
-    public BufferedReader getReader() {
-        ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(this.cachedBody);
-        return new BufferedReader(new InputStreamReader(byteArrayInputStream));
+    public BufferedReader getReader() throws IOException {
+        if (reader == null) {
+            reader = new BufferedReader(new InputStreamReader(getInputStream(), getCharset()));
+        }
+        return reader;
+    }
+
+    /**
+     * @return true, если тело бинарное и не копировалось
+     */
+    public boolean isCaptureSkipped() {
+        return captureSkipped;
+    }
+
+    /**
+     * @return true, если прочитанное тело длиннее {@code maxCapturedBytes} и сохранено только его начало
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * @return прочитанная обработчиком часть тела запроса
+     */
+    public String getCachedBodyAsString() {
+        return cachedBody == null ? "" : cachedBody.toString(getCharset());
+    }
+
+    private Charset getCharset() {
+        String encoding = getCharacterEncoding();
+        return encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+    }
+
+    private void capture(byte[] b, int off, int len) {
+        if (cachedBody == null) {
+            cachedBody = new ByteArrayOutputStream(Math.min(Math.max(getContentLength(), len), maxCapturedBytes));
+        }
+        int room = maxCapturedBytes - cachedBody.size();
+        if (len > room) {
+            truncated = true;
+        }
+        if (room > 0) {
+            cachedBody.write(b, off, Math.min(len, room));
+        }
+    }
+
+    private void capture(int b) {
+        if (cachedBody == null) {
+            cachedBody = new ByteArrayOutputStream();
+        }
+        if (cachedBody.size() < maxCapturedBytes) {
+            cachedBody.write(b);
+        } else {
+            truncated = true;
+        }
+    }
+
+    private static boolean isBinary(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        return contentType.contains("multipart/form-data")
+                || contentType.contains("octet-stream")
+                || contentType.contains("image/")
+                || contentType.contains("video/");
+    }
+
+    private final class TeeServletInputStream extends ServletInputStream {
+        private final ServletInputStream delegate;
+
+        private TeeServletInputStream(ServletInputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            if (b != -1) {
+                capture(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = delegate.read(b, off, len);
+            if (count > 0) {
+                capture(b, off, count);
+            }
+            return count;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            delegate.setReadListener(listener);
+        }
     }
 }
@@ -6,61 +6,175 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpServletResponseWrapper;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
-import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 
+/**
+ * Ответ, который пишет тело напрямую в исходный поток и при необходимости сохраняет копию его начала для аудита.
+ * Копирование включается {@link #enableCapture()} и выполняется только для JSON-ответов
+ * не длиннее {@code maxCapturedBytes}, более длинное тело обрезается.
+ */
 public final class CachedBodyHttpServletResponse extends HttpServletResponseWrapper {
-    private final ByteArrayOutputStream cachedContent;
-    private final ServletOutputStream outputStream;
-    private final PrintWriter writer;
-    private final String contentType;
+    private final int maxCapturedBytes;
 
-    public CachedBodyHttpServletResponse(HttpServletResponse response) {
+    private ByteArrayOutputStream cachedContent;
+    private boolean captureEnabled;
+    /**
+     * null, пока тело не начали писать
+     */
+    private Boolean jsonContent;
+    private boolean truncated;
+
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    public CachedBodyHttpServletResponse(HttpServletResponse response, int maxCapturedBytes) {
         super(response);
-        this.cachedContent = new ByteArrayOutputStream();
-        this.outputStream = new CachedServletOutputStream();
-        this.writer = new PrintWriter(outputStream);
-        this.contentType = response.getContentType();
+        this.maxCapturedBytes = maxCapturedBytes;
+    }
+
+    /**
+     * Включает сохранение копии тела ответа. Должно вызываться до начала записи тела
+     */
+    public void enableCapture() {
+        this.captureEnabled = true;
     }
 
     @Override
-    public ServletOutputStream getOutputStream() {
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new TeeServletOutputStream(getResponse().getOutputStream());
+        }
         return outputStream;
     }
 
     @Override
-    public PrintWriter getWriter() {
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
         return writer;
     }
 
     @Override
-    public String getContentType() {
-        return this.contentType;
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    /**
+     * @return true, если копирование было включено, но тело ответа оказалось не JSON и не сохранялось
+     */
+    public boolean isCaptureSkipped() {
+        return captureEnabled && Boolean.FALSE.equals(jsonContent);
+    }
+
+    /**
+     * @return true, если тело длиннее {@code maxCapturedBytes} и сохранено только его начало
+     */
+    public boolean isTruncated() {
+        return truncated;
     }
 
     public String getCachedContentAsString() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return cachedContent == null ? "" : cachedContent.toString(StandardCharsets.UTF_8);
+    }
+
+    private boolean shouldCapture() {
+        if (!captureEnabled) {
+            return false;
+        }
+        if (jsonContent == null) {
+            jsonContent = isJson(getContentType());
+        }
+        return jsonContent;
+    }
+
+    private void capture(byte[] b, int off, int len) {
+        if (cachedContent == null) {
+            cachedContent = new ByteArrayOutputStream(Math.min(len, maxCapturedBytes));
+        }
+        int room = maxCapturedBytes - cachedContent.size();
+        if (len > room) {
+            truncated = true;
+        }
+        if (room > 0) {
+            cachedContent.write(b, off, Math.min(len, room));
+        }
+    }
+
+    private void capture(int b) {
+        if (cachedContent == null) {
+            cachedContent = new ByteArrayOutputStream();
+        }
+        if (cachedContent.size() < maxCapturedBytes) {
+            cachedContent.write(b);
+        } else {
+            truncated = true;
+        }
+    }
+
+    private static boolean isJson(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
         try {
-            return cachedContent.toString("UTF-8");
-        } catch (UnsupportedEncodingException e) {
-            return cachedContent.toString();
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return "json".equals(mediaType.getSubtype()) || "json".equals(mediaType.getSubtypeSuffix());
+        } catch (InvalidMediaTypeException e) {
+            return false;
         }
     }
 
-    private final class CachedServletOutputStream extends ServletOutputStream {
+    private final class TeeServletOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+
+        private TeeServletOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
         @Override
         public void write(int b) throws IOException {
-            cachedContent.write(b);
-            getResponse().getOutputStream().write(b);
+            if (shouldCapture()) {
+                capture(b);
+            }
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (shouldCapture()) {
+                capture(b, off, len);
+            }
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
         }
 
         @Override
         public boolean isReady() {
-            return true;
+            return delegate.isReady();
         }
 
         @Override
         public void setWriteListener(WriteListener listener) {
-            // Not implemented
+            delegate.setWriteListener(listener);
         }
     }
 }
@@ -1,20 +1,22 @@
 package ru.sfedu.teamselection.config.logging;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StreamUtils;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.WebUtils;
 import ru.sfedu.teamselection.component.CachedBodyHttpServletRequest;
 import ru.sfedu.teamselection.component.CachedBodyHttpServletResponse;
 import ru.sfedu.teamselection.service.audit.AuditService;
@@ -24,41 +26,24 @@ import ru.sfedu.teamselection.service.audit.AuditService;
 @Component
 public class AuditableInterceptor implements HandlerInterceptor {
     private final AuditService auditService;
+    private final ObjectMapper objectMapper;
 
     @Override
     public boolean preHandle(
             @NotNull HttpServletRequest request,
             @NotNull HttpServletResponse response,
             @NotNull Object handler
-    ) throws Exception {
+    ) {
         if (handler instanceof HandlerMethod handlerMethod) {
             var annotation = handlerMethod.getMethodAnnotation(Auditable.class);
             if (annotation != null) {
-                CachedBodyHttpServletRequest cachedRequest = new CachedBodyHttpServletRequest(request);
-
-                AuditDetails auditDetails = getAuditDetails((OAuth2AuthenticationToken) request.getUserPrincipal());
+                CachedBodyHttpServletResponse cachedResponse =
+                        WebUtils.getNativeResponse(response, CachedBodyHttpServletResponse.class);
+                if (cachedResponse != null) {
+                    cachedResponse.enableCapture();
+                }
                 request.setAttribute(AUDIT_POINT, annotation.auditPoint());
-                UUID traceId = UUID.randomUUID();
-                request.setAttribute(TRACE_ID, traceId);
-
-                CompletableFuture.runAsync(() -> {
-                    try {
-                        String auditPoint = annotation.auditPoint() + REQUEST_POSTFIX;
-                        String payload = isReadableContent(request)
-                                ? getRequestBody(cachedRequest)
-                                : NOT_SERIALIZABLE_PLACEHOLDER;
-
-                        auditService.log(
-                                traceId,
-                                auditDetails,
-                                auditPoint,
-                                request.getRemoteAddr(),
-                                payload
-                        );
-                    } catch (Exception ex) {
-                        log.warn("Error while saving audit for request {} {}", traceId, request.getRequestURI());
-                    }
-                });
+                request.setAttribute(TRACE_ID, UUID.randomUUID());
             } else {
                 log.warn("Skip saving audit for request {}, method is not annotated", request.getRequestURI());
             }
@@ -66,6 +51,10 @@ public class AuditableInterceptor implements HandlerInterceptor {
         return true;
     }
 
+    /**
+     * Записи о запросе и ответе ставятся в очередь после обработки:
+     * тело запроса к этому моменту уже прочитано обработчиком и скопировано {@link CachedBodyHttpServletRequest}
+     */
     @Override
     public void afterCompletion(
             @NotNull HttpServletRequest request,
@@ -78,63 +67,80 @@ public class AuditableInterceptor implements HandlerInterceptor {
 
             if (annotation != null) {
                 AuditDetails auditDetails = getAuditDetails((OAuth2AuthenticationToken) request.getUserPrincipal());
-
-                var cachedResponse = (CachedBodyHttpServletResponse) response;
-
-
-                    try {
-                        UUID traceId = (UUID) request.getAttribute(TRACE_ID);
-
-                        String auditPoint = annotation.auditPoint() + RESPONSE_POSTFIX;
-                        String payload = isReadableResponse(response)
-                                ? cachedResponse.getCachedContentAsString()
-                                : NOT_SERIALIZABLE_PLACEHOLDER;
-
-                        auditService.log(
-                                traceId,
-                                auditDetails,
-                                auditPoint,
-                                null,
-                                payload
-                        );
-                    } catch (Exception e) {
-                        log.error("Error logging response: {}", e.getMessage());
-                    }
-               // });
+                UUID traceId = (UUID) request.getAttribute(TRACE_ID);
+
+                try {
+                    auditService.log(
+                            traceId,
+                            auditDetails,
+                            annotation.auditPoint() + REQUEST_POSTFIX,
+                            request.getRemoteAddr(),
+                            getRequestBody(WebUtils.getNativeRequest(request, CachedBodyHttpServletRequest.class))
+                    );
+                } catch (Exception e) {
+                    log.warn("Error while saving audit for request {} {}", traceId, request.getRequestURI());
+                }
+
+                try {
+                    auditService.log(
+                            traceId,
+                            auditDetails,
+                            annotation.auditPoint() + RESPONSE_POSTFIX,
+                            null,
+                            getResponseBody(WebUtils.getNativeResponse(response, CachedBodyHttpServletResponse.class))
+                    );
+                } catch (Exception e) {
+                    log.error("Error logging response: {}", e.getMessage());
+                }
             } else {
                 log.warn("Not saving audit - response code is {}", response.getStatus());
             }
         }
     }
 
-    private String getRequestBody(CachedBodyHttpServletRequest request) {
-        try {
-            return StreamUtils.copyToString(request.getInputStream(), StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            return "[UNABLE TO READ BODY]";
+    private String getRequestBody(CachedBodyHttpServletRequest request) throws JsonProcessingException {
+        if (request == null || request.isCaptureSkipped()) {
+            return NOT_SERIALIZABLE_PLACEHOLDER;
         }
+        return toJsonPayload(request.getCachedBodyAsString(), request.isTruncated(), isJson(request.getContentType()));
     }
 
-    private boolean isReadableContent(HttpServletRequest request) {
-        String contentType = request.getContentType();
-        if (contentType == null) {
-            return true;
+    private String getResponseBody(CachedBodyHttpServletResponse response) throws JsonProcessingException {
+        if (response == null || response.isCaptureSkipped()) {
+            return NOT_SERIALIZABLE_PLACEHOLDER;
         }
+        return toJsonPayload(
+                response.getCachedContentAsString(),
+                response.isTruncated(),
+                isJson(response.getContentType())
+        );
+    }
 
-        // Не логируем бинарный контент
-        return !contentType.contains("multipart/form-data")
-                && !contentType.contains("octet-stream")
-                && !contentType.contains("image/")
-                && !contentType.contains("video/");
+    /**
+     * Обрезанный или не-JSON текст невалиден для jsonb, поэтому такое тело сохраняется строкой внутри объекта.
+     * Тело с JSON-типом содержимого сохраняется как есть, только если действительно разбирается как JSON
+     */
+    private String toJsonPayload(String body, boolean truncated, boolean json) throws JsonProcessingException {
+        if (body.isBlank() || (json && !truncated && isValidJson(body))) {
+            return body;
+        }
+        Map<String, Object> wrapped = new LinkedHashMap<>();
+        wrapped.put("truncated", truncated);
+        wrapped.put("body", body);
+        return objectMapper.writeValueAsString(wrapped);
     }
 
-    private boolean isReadableResponse(HttpServletResponse response) {
-        String contentType = response.getHeader("Content-Type");
-        if (contentType == null) {
+    private boolean isJson(String contentType) {
+        return contentType != null && contentType.contains("json");
+    }
+
+    private boolean isValidJson(String body) {
+        try {
+            objectMapper.reader().with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS).readTree(body);
             return true;
+        } catch (JsonProcessingException e) {
+            return false;
         }
-
-        return contentType.equals("application/json");
     }
 
     private AuditDetails getAuditDetails(OAuth2AuthenticationToken token) {
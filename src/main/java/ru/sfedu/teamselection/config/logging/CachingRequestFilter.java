@@ -5,18 +5,25 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import ru.sfedu.teamselection.component.CachedBodyHttpServletRequest;
 import ru.sfedu.teamselection.component.CachedBodyHttpServletResponse;
 
 @Slf4j
-@RequiredArgsConstructor
 @Component
 public class CachingRequestFilter extends OncePerRequestFilter {
+    /**
+     * Сколько байт тела запроса и ответа сохраняется для аудита
+     */
+    private final int maxCapturedBytes;
+
+    public CachingRequestFilter(@Value("${app.audit.max-payload-bytes:65536}") int maxCapturedBytes) {
+        this.maxCapturedBytes = maxCapturedBytes;
+    }
 
     @Override
     public void doFilterInternal(
@@ -24,8 +31,8 @@ public class CachingRequestFilter extends OncePerRequestFilter {
             @NotNull HttpServletResponse response,
             @NotNull FilterChain chain
     ) throws IOException, ServletException {
-        CachedBodyHttpServletRequest cachedRequest = new CachedBodyHttpServletRequest(request);
-        CachedBodyHttpServletResponse cachedResponse = new CachedBodyHttpServletResponse(response);
+        CachedBodyHttpServletRequest cachedRequest = new CachedBodyHttpServletRequest(request, maxCapturedBytes);
+        CachedBodyHttpServletResponse cachedResponse = new CachedBodyHttpServletResponse(response, maxCapturedBytes);
 
         chain.doFilter(cachedRequest, cachedResponse);
     }
@@ -0,0 +1,80 @@
+package ru.sfedu.teamselection.config.security;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.session.SessionInformation;
+import org.springframework.security.core.session.SessionRegistryImpl;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+
+/**
+ * Реестр сессий с индексом почта -> id сессий.
+ * Индекс обновляется вместе с реестром: при регистрации сессии после входа
+ * и при ее удалении (SessionDestroyedEvent, смена id сессии, истечение).
+ * Поиск сессий пользователя по почте не перебирает всех пользователей реестра.
+ */
+@Slf4j
+public class EmailIndexedSessionRegistry extends SessionRegistryImpl {
+    private final Map<String, Set<String>> sessionIdsByEmail = new ConcurrentHashMap<>();
+
+    @Override
+    public void registerNewSession(String sessionId, Object principal) {
+        super.registerNewSession(sessionId, principal);
+        String email = emailOf(principal);
+        if (email == null) {
+            return;
+        }
+        sessionIdsByEmail.compute(email, (key, sessionIds) -> {
+            Set<String> result = sessionIds == null ? ConcurrentHashMap.newKeySet() : sessionIds;
+            result.add(sessionId);
+            return result;
+        });
+    }
+
+    @Override
+    public void removeSessionInformation(String sessionId) {
+        SessionInformation info = getSessionInformation(sessionId);
+        super.removeSessionInformation(sessionId);
+        if (info == null) {
+            return;
+        }
+        String email = emailOf(info.getPrincipal());
+        if (email == null) {
+            return;
+        }
+        sessionIdsByEmail.computeIfPresent(email, (key, sessionIds) -> {
+            sessionIds.remove(sessionId);
+            return sessionIds.isEmpty() ? null : sessionIds;
+        });
+    }
+
+    /**
+     * Помечает истекшими все сессии пользователей с указанными почтами
+     * @param emails почты пользователей
+     * @return число сессий, помеченных истекшими
+     */
+    public int expireSessions(Collection<String> emails) {
+        int expired = 0;
+        for (String email : emails) {
+            Set<String> sessionIds = sessionIdsByEmail.get(email);
+            if (sessionIds == null) {
+                continue;
+            }
+            for (String sessionId : sessionIds) {
+                SessionInformation info = getSessionInformation(sessionId);
+                if (info != null && !info.isExpired()) {
+                    log.info("Destroying {} session to change role", email);
+                    info.expireNow();
+                    expired++;
+                }
+            }
+        }
+        return expired;
+    }
+
+    private static String emailOf(Object principal) {
+        return principal instanceof OidcUser oidc ? oidc.getEmail() : null;
+    }
+}
@@ -4,6 +4,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
 import java.util.logging.Logger;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
@@ -11,6 +12,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.SortDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -26,13 +28,20 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import ru.sfedu.teamselection.config.logging.Auditable;
 import ru.sfedu.teamselection.domain.User;
+import ru.sfedu.teamselection.dto.PageResponse;
 import ru.sfedu.teamselection.dto.application.ApplicationCreationDto;
+import ru.sfedu.teamselection.dto.application.ApplicationDecisionDto;
+import ru.sfedu.teamselection.dto.application.ApplicationDecisionResultDto;
 import ru.sfedu.teamselection.dto.application.ApplicationDto;
 import ru.sfedu.teamselection.dto.application.ApplicationResponseDto;
+import ru.sfedu.teamselection.mapper.PageResponseMapper;
 import ru.sfedu.teamselection.mapper.application.ApplicationDtoMapper;
 import ru.sfedu.teamselection.mapper.application.ApplicationMapper;
+import ru.sfedu.teamselection.repository.specification.KeysetPage;
+import ru.sfedu.teamselection.repository.specification.KeysetRequest;
 import ru.sfedu.teamselection.service.ApplicationService;
 import ru.sfedu.teamselection.service.UserService;
+import ru.sfedu.teamselection.service.application.ApplicationDecisionService;
 
 
 @RestController
@@ -45,18 +54,23 @@ public class ApplicationController {
     public static final String FIND_BY_ID = "/api/v1/applications/{id}";
     @SuppressWarnings("checkstyle:MultipleStringLiterals")
     public static final String FIND_ALL = "/api/v1/applications";
+    public static final String SCROLL_ALL = "/api/v1/applications/scroll";
     public static final String DELETE_APPLICATION = "/api/v1/applications/{id}";
     public static final String CREATE_APPLICATION = "/api/v1/applications";
     public static final String UPDATE_APPLICATION = "/api/v1/applications";
+    public static final String DECIDE_APPLICATIONS = "/api/v1/applications/decisions";
 
     public static final String FIND_BY_TEAM_AND_STUDENT =
             "/api/v1/applications/team/{teamId}/student/{studentId}";
 
     private final ApplicationService applicationService;
+    private final ApplicationDecisionService applicationDecisionService;
     private final ApplicationMapper applicationMapper;
 
     private final ApplicationDtoMapper applicationDtoMapper;
 
+    private final PageResponseMapper pageResponseMapper;
+
     private final UserService userService;
 
     @Operation(method = "GET", summary = "Получение списка заявок с пагинацией, сортировкой и фильтром по треку")
@@ -76,6 +90,24 @@ public class ApplicationController {
         return ResponseEntity.ok(page);
     }
 
+    @Operation(method = "GET", summary = "Получение списка заявок с пагинацией курсором и фильтром по треку")
+    @GetMapping(SCROLL_ALL)
+    @Auditable(auditPoint = "Application.Scroll")
+    public ResponseEntity<PageResponse<ApplicationDto>> scroll(
+            @RequestParam(name = "track_id", required = false) Long trackId,
+            @RequestParam(name = "status", required = false) String status,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "with_total", defaultValue = "false") boolean withTotal,
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            @SortDefault(sort = "id", direction = Sort.Direction.ASC) Sort sort
+    ) {
+        LOGGER.info("ENTER scroll(trackId=" + trackId + ", sort=" + sort + ")");
+        KeysetPage<ApplicationDto> page = applicationService
+                .scroll(trackId, status, new KeysetRequest(sort, cursor, size, withTotal))
+                .map(applicationDtoMapper::mapToDto);
+        return ResponseEntity.ok(pageResponseMapper.toDto(page));
+    }
+
     @Operation(
             method = "POST",
             summary = "Создание заявки"
@@ -109,6 +141,22 @@ public class ApplicationController {
         return ResponseEntity.ok(result);
     }
 
+    @Operation(
+            method = "PUT",
+            summary = "Пакетное изменение статусов заявок",
+            description = "Решения применяются по порядку в одной транзакции; "
+                    + "для каждого решения возвращается результат, неприменимые решения пропускаются"
+    )
+    @PutMapping(DECIDE_APPLICATIONS)
+    @Auditable(auditPoint = "Application.Decide")
+    public ResponseEntity<List<ApplicationDecisionResultDto>> decide(
+            @RequestBody List<ApplicationDecisionDto> decisions
+    ) {
+        LOGGER.info("ENTER decide(%d) endpoint".formatted(decisions.size()));
+        User current = userService.getCurrentUser();
+        return ResponseEntity.ok(applicationDecisionService.decide(decisions, current));
+    }
+
     @Operation(
             method = "GET",
             summary = "Получение заявки по его id",
@@ -0,0 +1,116 @@
+package ru.sfedu.teamselection.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.sfedu.teamselection.config.logging.Auditable;
+import ru.sfedu.teamselection.dto.export.ExportJobCreationDto;
+import ru.sfedu.teamselection.dto.export.ExportJobDto;
+import ru.sfedu.teamselection.mapper.export.ExportJobDtoMapper;
+import ru.sfedu.teamselection.service.report.ConsolidatedReportService;
+import ru.sfedu.teamselection.service.report.ExportJob;
+import ru.sfedu.teamselection.service.report.ExportJobService;
+
+@RestController
+@Tag(name = "ExportController", description = "API для фоновых выгрузок студентов и команд")
+@RequiredArgsConstructor
+@CrossOrigin
+public class ExportController {
+
+    private final ExportJobService exportJobService;
+    private final ExportJobDtoMapper exportJobDtoMapper;
+    private final ConsolidatedReportService consolidatedReportService;
+
+    private static final Logger LOGGER = Logger.getLogger(ExportController.class.getName());
+
+    public static final String CREATE_EXPORT_JOB = "/api/v1/exports";
+    public static final String GET_EXPORT_JOB = "/api/v1/exports/{id}";
+    public static final String DOWNLOAD_EXPORT_JOB = "/api/v1/exports/{id}/file";
+    public static final String CONSOLIDATED_REPORT = "/api/v1/exports/consolidated";
+
+    private static final String XLSX_CONTENT_TYPE =
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    @Operation(
+            method = "POST",
+            summary = "Постановка выгрузки трека в очередь. Повторный запрос при неизменных данных "
+                    + "возвращает уже существующую задачу"
+    )
+    @PostMapping(value = CREATE_EXPORT_JOB, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Auditable(auditPoint = "Export.CreateExportJob")
+    public ResponseEntity<ExportJobDto> createExportJob(@Valid @RequestBody ExportJobCreationDto dto) {
+        LOGGER.info("ENTER createExportJob(%d, %s, %s) endpoint"
+                .formatted(dto.getTrackId(), dto.getEntity(), dto.getFormat()));
+        ExportJob job = exportJobService.submit(dto.getTrackId(), dto.getEntity(), dto.getFormat());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(exportJobDtoMapper.mapToDto(job));
+    }
+
+    @Operation(method = "GET", summary = "Статус задачи выгрузки")
+    @GetMapping(value = GET_EXPORT_JOB, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Auditable(auditPoint = "Export.GetExportJob")
+    public ResponseEntity<ExportJobDto> getExportJob(@PathVariable("id") UUID id) {
+        return ResponseEntity.ok(exportJobDtoMapper.mapToDto(exportJobService.findByIdOrElseThrow(id)));
+    }
+
+    @Operation(method = "GET", summary = "Скачивание готового файла выгрузки")
+    @GetMapping(DOWNLOAD_EXPORT_JOB)
+    @Auditable(auditPoint = "Export.DownloadExportJob")
+    public ResponseEntity<Resource> downloadExportJob(@PathVariable("id") UUID id) {
+        LOGGER.info("ENTER downloadExportJob(%s) endpoint".formatted(id));
+        ExportJob job = exportJobService.findByIdOrElseThrow(id);
+        Path file = exportJobService.getResultFile(id);
+        String filename = job.getKey().entity().name().toLowerCase()
+                + "_track_" + job.getKey().trackId()
+                + "." + job.getKey().format().getExtension();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType(job.getKey().format().getContentType()))
+                .body(new FileSystemResource(file));
+    }
+
+    @Operation(
+            method = "GET",
+            summary = "Сводный отчет в Excel: лист на каждый выбранный трек или трек периода и лист сводки"
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(value = CONSOLIDATED_REPORT, produces = XLSX_CONTENT_TYPE)
+    @Auditable(auditPoint = "Export.ConsolidatedReport")
+    public ResponseEntity<StreamingResponseBody> consolidatedReport(
+            @RequestParam(value = "track_id", required = false) List<Long> trackIds,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate to
+    ) {
+        LOGGER.info("ENTER consolidatedReport(%s, %s, %s) endpoint".formatted(trackIds, from, to));
+        // треки проверяются до начала ответа, чтобы ошибка вернулась обычным статусом
+        List<Long> tracks = consolidatedReportService.resolveTracks(trackIds, from, to);
+        StreamingResponseBody body = out -> consolidatedReportService.writeReport(tracks, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"consolidated_report.xlsx\"")
+                .contentType(MediaType.parseMediaType(XLSX_CONTENT_TYPE))
+                .body(body);
+    }
+}
@@ -0,0 +1,78 @@
+package ru.sfedu.teamselection.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.logging.Logger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import ru.sfedu.teamselection.config.logging.Auditable;
+import ru.sfedu.teamselection.dto.importing.ImportResultDto;
+import ru.sfedu.teamselection.enums.ExportFormat;
+import ru.sfedu.teamselection.service.importing.ImportService;
+
+@RestController
+@Tag(name = "ImportController", description = "API для массовой загрузки студентов и команд из CSV и XLSX")
+@RequiredArgsConstructor
+@CrossOrigin
+public class ImportController {
+
+    private final ImportService importService;
+
+    private static final Logger LOGGER = Logger.getLogger(ImportController.class.getName());
+
+    public static final String IMPORT_STUDENTS = "/api/v1/imports/students";
+    public static final String IMPORT_TEAMS = "/api/v1/imports/teams";
+
+    @Operation(
+            method = "POST",
+            summary = "Загрузка студентов. Столбцы: fio, email, track, course, group_number, technologies, "
+                    + "about_self, contacts"
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(
+            value = IMPORT_STUDENTS,
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @Auditable(auditPoint = "Import.ImportStudents")
+    public ResponseEntity<ImportResultDto> importStudents(@RequestParam("file") MultipartFile file)
+            throws IOException {
+        LOGGER.info("ENTER importStudents(%s, %d bytes) endpoint"
+                .formatted(file.getOriginalFilename(), file.getSize()));
+        ExportFormat format = ExportFormat.ofFilename(file.getOriginalFilename());
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(importService.importStudents(in, format));
+        }
+    }
+
+    @Operation(
+            method = "POST",
+            summary = "Загрузка команд из студентов без команды. Столбцы: name, track, captain_email, members, "
+                    + "project_type, project_description, technologies"
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(
+            value = IMPORT_TEAMS,
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @Auditable(auditPoint = "Import.ImportTeams")
+    public ResponseEntity<ImportResultDto> importTeams(@RequestParam("file") MultipartFile file)
+            throws IOException {
+        LOGGER.info("ENTER importTeams(%s, %d bytes) endpoint"
+                .formatted(file.getOriginalFilename(), file.getSize()));
+        ExportFormat format = ExportFormat.ofFilename(file.getOriginalFilename());
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(importService.importTeams(in, format));
+        }
+    }
+}
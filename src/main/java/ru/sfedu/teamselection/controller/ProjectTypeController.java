@@ -11,9 +11,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 import ru.sfedu.teamselection.api.ProjectTypeApi;
 import ru.sfedu.teamselection.config.logging.Auditable;
+import ru.sfedu.teamselection.domain.ProjectType;
 import ru.sfedu.teamselection.dto.ProjectTypeDto;
 import ru.sfedu.teamselection.mapper.ProjectTypeMapper;
 import ru.sfedu.teamselection.repository.ProjectTypeRepository;
+import ru.sfedu.teamselection.service.ReferenceCacheService;
+import ru.sfedu.teamselection.service.SearchOptionsService;
 
 @RestController
 @RequiredArgsConstructor
@@ -21,6 +24,8 @@ import ru.sfedu.teamselection.repository.ProjectTypeRepository;
 public class ProjectTypeController implements ProjectTypeApi {
     private final ProjectTypeRepository projectTypeRepository;
     private final ProjectTypeMapper projectTypeDtoMapper;
+    private final ReferenceCacheService referenceCacheService;
+    private final SearchOptionsService searchOptionsService;
 
     @Override
     @Auditable(auditPoint = "ProjectType.FindAll")
@@ -36,6 +41,8 @@ public class ProjectTypeController implements ProjectTypeApi {
         ProjectTypeDto result = projectTypeDtoMapper.mapToDto(
                 projectTypeRepository.save(projectTypeDtoMapper.mapToEntity(projectTypeDto))
         );
+        referenceCacheService.evict(ProjectType.class);
+        searchOptionsService.invalidateAll();
         return ResponseEntity.ok(result);
     }
 
@@ -50,6 +57,8 @@ public class ProjectTypeController implements ProjectTypeApi {
         }
 
         projectTypeRepository.deleteById(id);
+        referenceCacheService.evict(ProjectType.class);
+        searchOptionsService.invalidateAll();
 
         return ResponseEntity.ok("Project type with id: " + id + " was deleted");
     }
@@ -30,6 +30,7 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.sfedu.teamselection.config.logging.Auditable;
 import ru.sfedu.teamselection.domain.User;
 import ru.sfedu.teamselection.dto.PageResponse;
@@ -38,9 +39,13 @@ import ru.sfedu.teamselection.dto.student.StudentCreationDto;
 import ru.sfedu.teamselection.dto.student.StudentDto;
 import ru.sfedu.teamselection.dto.student.StudentSearchOptionsDto;
 import ru.sfedu.teamselection.dto.team.TeamDto;
+import ru.sfedu.teamselection.enums.TechnologyMatch;
 import ru.sfedu.teamselection.mapper.PageResponseMapper;
 import ru.sfedu.teamselection.mapper.student.StudentDtoMapper;
 import ru.sfedu.teamselection.mapper.team.TeamDtoMapper;
+import ru.sfedu.teamselection.repository.specification.KeysetPage;
+import ru.sfedu.teamselection.repository.specification.KeysetRequest;
+import ru.sfedu.teamselection.repository.specification.NameSearch;
 import ru.sfedu.teamselection.service.StudentExportService;
 import ru.sfedu.teamselection.service.StudentService;
 import ru.sfedu.teamselection.service.TeamService;
@@ -67,6 +72,7 @@ public class StudentController {
     public static final String GET_SEARCH_OPTIONS = "/api/v1/students/filters";
     public static final String GET_AVAILABLE_STUDENTS = "/api/v1/students/available";
 
+
     private final TeamService teamService;
     private final StudentService studentService;
     private final  UserService userService;
@@ -108,10 +114,10 @@ public class StudentController {
     @Operation(method = "GET", summary = "Экспорт студентов в CSV по trackId")
     @GetMapping(value = "/api/v1/students/export/csv", produces = "text/csv")
     @Auditable(auditPoint = "Student.ExportCsvByTrack.Csv")
-    public ResponseEntity<byte[]> exportCsvByTrack(
+    public ResponseEntity<StreamingResponseBody> exportCsvByTrack(
             @RequestParam("trackId") Long trackId) {
-        byte[] csvData = studentExportService.exportStudentsToCsvByTrack(trackId);
-        String filename = buildReportFilename(trackId);
+        StreamingResponseBody csvData = out -> studentExportService.writeStudentsCsvByTrack(trackId, out);
+        String filename = buildReportFilename(trackId, "csv");
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, buildContentDispositionHeader(filename))
                 .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
@@ -127,10 +133,10 @@ public class StudentController {
             produces = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"
     )
     @Auditable(auditPoint = "Student.ExportCsvByTrack.Exel")
-    public ResponseEntity<byte[]> exportExcelByTrack(
+    public ResponseEntity<StreamingResponseBody> exportExcelByTrack(
             @RequestParam("trackId") Long trackId) {
-        byte[] xlsxData = studentExportService.exportStudentsToExcelByTrack(trackId);
-        String filename = buildReportFilename(trackId);
+        StreamingResponseBody xlsxData = out -> studentExportService.writeStudentsExcelByTrack(trackId, out);
+        String filename = buildReportFilename(trackId, "xlsx");
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, buildContentDispositionHeader(filename))
                 .contentType(MediaType.parseMediaType(
@@ -149,38 +155,72 @@ public class StudentController {
                 @Parameter(name = "has_team", description = "Состоит ли в команде", in = ParameterIn.QUERY),
                 @Parameter(name = "is_captain", description = "Является ли капитаном", in = ParameterIn.QUERY),
                 @Parameter(name = "technologies", description = "Список ID технологий", in = ParameterIn.QUERY),
+                @Parameter(name = "technologies_match", description = "any или all", in = ParameterIn.QUERY),
                 @Parameter(name = "page", description = "Номер страницы", example = "0", in = ParameterIn.QUERY),
                 @Parameter(name = "size", description = "Размер страницы", example = "10", in = ParameterIn.QUERY),
-                @Parameter(name = "sort", description = "Сортировка (field,asc|desc)", example = "name,asc", in = ParameterIn.QUERY)
+                @Parameter(name = "fuzzy", description = "С учетом опечаток", in = ParameterIn.QUERY),
+                @Parameter(name = "keyset", description = "Пагинация курсором", in = ParameterIn.QUERY),
+                @Parameter(name = "cursor", description = "Курсор из next_cursor", in = ParameterIn.QUERY),
+                @Parameter(name = "with_total", description = "Общее число записей", in = ParameterIn.QUERY),
+                @Parameter(name = "sort", description = "Сортировка (field,asc|desc, relevance или overlap)", example = "name,asc", in = ParameterIn.QUERY)
             })
     @GetMapping(SEARCH_STUDENTS)
     @Auditable(auditPoint = "Student.Search")
     public ResponseEntity<PageResponse<StudentDto>> searchStudents(
             @RequestParam(value = "input", required = false) String input,
+            @RequestParam(value = "fuzzy", defaultValue = "false") boolean fuzzy,
             @RequestParam(value = "course", required = false) List<Integer> course,
             @RequestParam(value = "group_number", required = false) List<Integer> groupNumber,
             @RequestParam(value = "track_id", required = false) Long trackId,
             @RequestParam(value = "has_team", required = false) Boolean hasTeam,
             @RequestParam(value = "is_captain", required = false) Boolean isCaptain,
             @RequestParam(value = "technologies", required = false) List<Long> technologies,
+            @RequestParam(value = "technologies_match", defaultValue = "any") String technologiesMatch,
             @RequestParam(defaultValue = "0") Integer page,
             @RequestParam(defaultValue = "10") Integer size,
-            @RequestParam(defaultValue = "name,asc") String sort) {
+            @RequestParam(defaultValue = "name,asc") String sort,
+            @RequestParam(value = "keyset", defaultValue = "false") boolean keyset,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "with_total", defaultValue = "false") boolean withTotal) {
 
         String[] sortParams = sort.split(",");
         Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("desc")
                 ? Sort.Direction.DESC
                 : Sort.Direction.ASC;
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortParams[0]));
+        Sort order = Sort.by(direction, sortParams[0]);
+        if (keyset || cursor != null) {
+            KeysetPage<StudentDto> result = studentService.scrollWithDetails(
+                            input,
+                            fuzzy,
+                            trackId,
+                            course,
+                            groupNumber,
+                            hasTeam,
+                            isCaptain,
+                            technologies,
+                            TechnologyMatch.of(technologiesMatch),
+                            new KeysetRequest(order, cursor, size, withTotal)
+                    )
+                    .map(studentDtoMapper::mapToDto);
+            return ResponseEntity.ok(pageResponseMapper.toDto(result));
+        }
+        // relevance: порядок по сходству со строкой поиска задает спецификация
+        Pageable pageable = PageRequest.of(
+                page,
+                size,
+                NameSearch.RELEVANCE_SORT.equals(sortParams[0]) ? Sort.unsorted() : order
+        );
 
-        Page<StudentDto> result = studentService.search(
+        Page<StudentDto> result = studentService.searchWithDetails(
                         input,
+                        fuzzy,
                         trackId,
                         course,
                         groupNumber,
                         hasTeam,
                         isCaptain,
                         technologies,
+                        TechnologyMatch.of(technologiesMatch),
                         pageable
                 )
                 .map(studentDtoMapper::mapToDto);
@@ -318,8 +358,8 @@ public class StudentController {
         return ResponseEntity.ok(result);
     }
 
-    private String buildReportFilename(Long trackId) {
-        return "students_track_" + trackId + ".csv";
+    private String buildReportFilename(Long trackId, String extension) {
+        return "students_track_" + trackId + "." + extension;
     }
 
     private String buildContentDispositionHeader(String filename) {
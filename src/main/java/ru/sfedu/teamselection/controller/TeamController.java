@@ -6,6 +6,7 @@ import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.UUID;
 import java.util.logging.Logger;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -28,6 +29,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.sfedu.teamselection.config.logging.Auditable;
 import ru.sfedu.teamselection.domain.Team;
 import ru.sfedu.teamselection.domain.User;
@@ -35,15 +37,23 @@ import ru.sfedu.teamselection.dto.PageResponse;
 import ru.sfedu.teamselection.dto.student.StudentDto;
 import ru.sfedu.teamselection.dto.team.TeamCreationDto;
 import ru.sfedu.teamselection.dto.team.TeamDto;
+import ru.sfedu.teamselection.dto.team.TeamFormationPlanDto;
+import ru.sfedu.teamselection.dto.team.TeamRecommendationDto;
 import ru.sfedu.teamselection.dto.team.TeamSearchOptionsDto;
 import ru.sfedu.teamselection.dto.team.TeamUpdateDto;
+import ru.sfedu.teamselection.enums.TechnologyMatch;
 import ru.sfedu.teamselection.mapper.PageResponseMapper;
 import ru.sfedu.teamselection.mapper.student.StudentDtoMapper;
 import ru.sfedu.teamselection.mapper.team.TeamDtoMapper;
+import ru.sfedu.teamselection.repository.specification.KeysetPage;
+import ru.sfedu.teamselection.repository.specification.KeysetRequest;
+import ru.sfedu.teamselection.repository.specification.NameSearch;
 import ru.sfedu.teamselection.service.ApplicationService;
 import ru.sfedu.teamselection.service.TeamExportService;
 import ru.sfedu.teamselection.service.TeamService;
 import ru.sfedu.teamselection.service.UserService;
+import ru.sfedu.teamselection.service.formation.TeamFormationService;
+import ru.sfedu.teamselection.service.recommendation.TeamRecommendationService;
 
 @RestController
 @RequestMapping(produces = MediaType.APPLICATION_JSON_VALUE)
@@ -75,8 +85,15 @@ public class TeamController {
     public static final String ADD_STUDENT_TO_TEAM = "/api/v1/teams/{teamId}/students/{studentId}";
 
     public static final String GET_SEARCH_OPTIONS = "/api/v1/teams/filters";
+    public static final String GET_RECOMMENDATIONS = "/api/v1/teams/recommendations";
+    public static final String FORMATION_PLANS = "/api/v1/teams/formation-plans";
+    public static final String FORMATION_PLAN = "/api/v1/teams/formation-plans/{planId}";
+    public static final String APPLY_FORMATION_PLAN = "/api/v1/teams/formation-plans/{planId}/apply";
+
 
     private final TeamExportService teamExportService;
+    private final TeamRecommendationService teamRecommendationService;
+    private final TeamFormationService teamFormationService;
 
 
     @Operation(
@@ -109,36 +126,111 @@ public class TeamController {
             parameters = {
                     @Parameter(name = "input", description = "строка из поиска", in = ParameterIn.QUERY),
                     @Parameter(name = "track_id", description = "ID трека", in = ParameterIn.QUERY),
-                    @Parameter(name = "is_full", description = "Полностью ли укомплектована команда", in = ParameterIn.QUERY),
+                    @Parameter(
+                            name = "is_full",
+                            description = "Полностью ли укомплектована команда",
+                            in = ParameterIn.QUERY
+                    ),
                     @Parameter(name = "project_type", description = "Тип проекта", in = ParameterIn.QUERY),
                     @Parameter(name = "technologies", description = "Список ID технологий", in = ParameterIn.QUERY),
+                    @Parameter(name = "technologies_match", description = "any или all", in = ParameterIn.QUERY),
                     @Parameter(name = "page", description = "Номер страницы", example = "0", in = ParameterIn.QUERY),
                     @Parameter(name = "size", description = "Размер страницы", example = "10", in = ParameterIn.QUERY),
-                    @Parameter(name = "sort", description = "Сортировка (field,asc|desc)", example = "name,asc", in = ParameterIn.QUERY)
+                    @Parameter(name = "fuzzy", description = "С учетом опечаток", in = ParameterIn.QUERY),
+                    @Parameter(name = "keyset", description = "Пагинация курсором", in = ParameterIn.QUERY),
+                    @Parameter(name = "cursor", description = "Курсор из next_cursor", in = ParameterIn.QUERY),
+                    @Parameter(name = "with_total", description = "Общее число записей", in = ParameterIn.QUERY),
+                    @Parameter(
+                            name = "sort",
+                            description = "Сортировка (field,asc|desc, relevance или overlap)",
+                            example = "name,asc",
+                            in = ParameterIn.QUERY
+                    )
             })
     @GetMapping(SEARCH_TEAMS)
     @Auditable(auditPoint = "Team.Search")
     public ResponseEntity<PageResponse<TeamDto>> search(
             @RequestParam(value = "input", required = false) String like,
+            @RequestParam(value = "fuzzy", defaultValue = "false") boolean fuzzy,
             @RequestParam(value = "track_id", required = false) Long trackId,
             @RequestParam(value = "is_full", required = false) Boolean isFull,
             @RequestParam(value = "project_type", required = false) List<String> projectType,
             @RequestParam(value = "technologies", required = false) List<Long> technologies,
+            @RequestParam(value = "technologies_match", defaultValue = "any") String technologiesMatch,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "name,asc") String sort) {
+            @RequestParam(defaultValue = "name,asc") String sort,
+            @RequestParam(value = "keyset", defaultValue = "false") boolean keyset,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "with_total", defaultValue = "false") boolean withTotal) {
 
         String[] sortParams = sort.split(",");
         Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("desc")
                 ? Sort.Direction.DESC
                 : Sort.Direction.ASC;
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortParams[0]));
+        Sort order = Sort.by(direction, sortParams[0]);
+        if (keyset || cursor != null) {
+            KeysetPage<TeamDto> result = teamService.scrollWithDetails(
+                            like,
+                            fuzzy,
+                            trackId,
+                            isFull,
+                            projectType,
+                            technologies,
+                            TechnologyMatch.of(technologiesMatch),
+                            new KeysetRequest(order, cursor, size, withTotal)
+                    )
+                    .map(teamDtoMapper::mapToDto);
+            return ResponseEntity.ok(pageResponseMapper.toDto(result));
+        }
+        // relevance: порядок по сходству со строкой поиска задает спецификация
+        Pageable pageable = PageRequest.of(
+                page,
+                size,
+                NameSearch.RELEVANCE_SORT.equals(sortParams[0]) ? Sort.unsorted() : order
+        );
 
-        Page<TeamDto> result = teamService.search(like, trackId, isFull, projectType, technologies, pageable)
+        Page<TeamDto> result = teamService.searchWithDetails(
+                        like,
+                        fuzzy,
+                        trackId,
+                        isFull,
+                        projectType,
+                        technologies,
+                        TechnologyMatch.of(technologiesMatch),
+                        pageable
+                )
                 .map(teamDtoMapper::mapToDto);
         return ResponseEntity.ok(pageResponseMapper.toDto(result));
     }
 
+    @Operation(
+            method = "GET",
+            summary = "Подбор незаполненных команд трека, в которые может вступить студент",
+            parameters = {
+                    @Parameter(
+                            name = "student_id",
+                            description = "ID студента; по умолчанию текущий, другого студента может указать "
+                                    + "только администратор",
+                            in = ParameterIn.QUERY
+                    ),
+                    @Parameter(name = "project_type", description = "Желаемые типы проекта", in = ParameterIn.QUERY),
+                    @Parameter(name = "limit", description = "Число команд", example = "10", in = ParameterIn.QUERY)
+            })
+    @PreAuthorize("hasRole('ADMIN') or #studentId == null "
+            + "or #studentId.equals(@studentService.getCurrentStudent())")
+    @GetMapping(GET_RECOMMENDATIONS)
+    @Auditable(auditPoint = "Team.GetRecommendations")
+    public ResponseEntity<List<TeamRecommendationDto>> getRecommendations(
+            @RequestParam(value = "student_id", required = false) Long studentId,
+            @RequestParam(value = "project_type", required = false) List<String> projectType,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        LOGGER.info("ENTER getRecommendations(%s) endpoint".formatted(studentId));
+        List<TeamRecommendationDto> result = teamRecommendationService.recommend(studentId, projectType, limit);
+        return ResponseEntity.ok(result);
+    }
+
     @Operation(
             method = "DELETE",
             summary = "Удалить команду по ее id",
@@ -189,9 +281,9 @@ public class TeamController {
 
     @GetMapping(value = "/api/v1/teams/export/csv", produces = "text/csv")
     @Auditable(auditPoint = "Team.ExportTeamsCsv")
-    public ResponseEntity<byte[]> exportTeamsCsv(
+    public ResponseEntity<StreamingResponseBody> exportTeamsCsv(
             @RequestParam("trackId") Long trackId) {
-        byte[] data = teamExportService.exportTeamsToCsvByTrack(trackId);
+        StreamingResponseBody data = out -> teamExportService.writeTeamsCsvByTrack(trackId, out);
         String filename = "teams_track_" + trackId + ".csv";
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION,
@@ -203,9 +295,9 @@ public class TeamController {
     @GetMapping(value = "/api/v1/teams/export/excel", produces =
             "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
     @Auditable(auditPoint = "Team.ExportTeamsExcel")
-    public ResponseEntity<byte[]> exportTeamsExcel(
+    public ResponseEntity<StreamingResponseBody> exportTeamsExcel(
             @RequestParam("trackId") Long trackId) {
-        byte[] data = teamExportService.exportTeamsToExcelByTrack(trackId);
+        StreamingResponseBody data = out -> teamExportService.writeTeamsExcelByTrack(trackId, out);
         String filename = "teams_track_" + trackId + ".xlsx";
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION,
@@ -258,6 +350,59 @@ public class TeamController {
         return ResponseEntity.ok(result);
     }
 
+    @Operation(
+            method = "POST",
+            summary = "Построить план распределения студентов трека без команды по незаполненным командам",
+            description = """
+                План учитывает минимальный и максимальный размер команды и ограничение по второкурсникам трека
+                и подбирает команды по совпадению технологий. План не меняет данные и хранится ограниченное время.
+                """,
+            tags = {"ADMIN"},
+            parameters = {
+                    @Parameter(name = "track_id", description = "ID трека", in = ParameterIn.QUERY)
+            })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(FORMATION_PLANS)
+    @Auditable(auditPoint = "Team.PreviewFormation")
+    public ResponseEntity<TeamFormationPlanDto> previewFormation(@RequestParam(value = "track_id") Long trackId) {
+        LOGGER.info("ENTER previewFormation(%d) endpoint".formatted(trackId));
+        return ResponseEntity.ok(teamFormationService.preview(trackId));
+    }
+
+    @Operation(
+            method = "GET",
+            summary = "Получить построенный план распределения",
+            tags = {"ADMIN"},
+            parameters = {
+                    @Parameter(name = "planId", description = "Id плана", in = ParameterIn.PATH)
+            })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(FORMATION_PLAN)
+    @Auditable(auditPoint = "Team.FindFormationPlan")
+    public ResponseEntity<TeamFormationPlanDto> findFormationPlan(@PathVariable UUID planId) {
+        return ResponseEntity.ok(teamFormationService.findPlan(planId));
+    }
+
+    @Operation(
+            method = "POST",
+            summary = "Применить план распределения",
+            description = """
+                Все студенты плана вступают в команды одной транзакцией.
+                Если после построения плана состав команд или студентов изменился так, что план нарушает
+                ограничения трека, ничего не применяется и план нужно построить заново.
+                """,
+            tags = {"UNSAFE", "ADMIN"},
+            parameters = {
+                    @Parameter(name = "planId", description = "Id плана", in = ParameterIn.PATH)
+            })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(APPLY_FORMATION_PLAN)
+    @Auditable(auditPoint = "Team.ApplyFormation")
+    public ResponseEntity<TeamFormationPlanDto> applyFormation(@PathVariable UUID planId) {
+        LOGGER.info("ENTER applyFormation(%s) endpoint".formatted(planId));
+        return ResponseEntity.ok(teamFormationService.apply(planId));
+    }
+
     @Operation(
             method = "PUT",
             summary = "Изменить данные команды",
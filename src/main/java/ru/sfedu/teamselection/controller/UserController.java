@@ -29,14 +29,17 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.sfedu.teamselection.config.logging.Auditable;
 import ru.sfedu.teamselection.domain.User;
+import ru.sfedu.teamselection.dto.PageResponse;
 import ru.sfedu.teamselection.dto.RoleDto;
 import ru.sfedu.teamselection.dto.UserDto;
 import ru.sfedu.teamselection.dto.UserSearchCriteria;
-import ru.sfedu.teamselection.exception.AzureException;
+import ru.sfedu.teamselection.mapper.PageResponseMapper;
 import ru.sfedu.teamselection.mapper.user.RoleMapper;
 import ru.sfedu.teamselection.mapper.user.UserMapper;
+import ru.sfedu.teamselection.repository.specification.KeysetRequest;
 import ru.sfedu.teamselection.service.PhotoService;
 import ru.sfedu.teamselection.service.UserService;
+import ru.sfedu.teamselection.service.photo.CachedPhoto;
 import ru.sfedu.teamselection.service.security.PermissionLevelUpdate;
 
 @RestController
@@ -49,6 +52,7 @@ public class UserController {
     @SuppressWarnings("checkstyle:MultipleStringLiterals")
     public static final String PUT_USER = "/api/v1/users";
     public static final String FIND_USERS = "/api/v1/users";
+    public static final String SCROLL_USERS = "/api/v1/users/scroll";
     public static final String DELETE_USER = "/api/v1/users/{id}";
     public static final String GET_ROLES = "/api/v1/roles";
     public static final String GRANT_ROLE = "/api/v1/users/{id}/assign-role";
@@ -60,6 +64,7 @@ public class UserController {
 
     private final UserMapper userMapper;
     private final RoleMapper roleDtoMapper;
+    private final PageResponseMapper pageResponseMapper;
 
     @Operation(
             method = "PUT",
@@ -80,7 +85,7 @@ public class UserController {
             requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     description = "Сущность пользователя"
             ))
-    @PreAuthorize("hasRole('ROLE_ADMIN') or @userService.getCurrentUser().getId().equals(#userDto.getId())")
+    @PreAuthorize("hasRole('ROLE_ADMIN') or @userService.getCurrentUserId().equals(#userDto.getId())")
     @PutMapping(value = PUT_USER,
             consumes = MediaType.APPLICATION_JSON_VALUE,
             produces = MediaType.APPLICATION_JSON_VALUE)
@@ -191,6 +196,42 @@ public class UserController {
         return ResponseEntity.ok(result);
     }
 
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    @Operation(summary = "Поиск пользователей с пагинацией курсором")
+    @GetMapping(SCROLL_USERS)
+    @Auditable(auditPoint = "User.ScrollUsers")
+    public ResponseEntity<PageResponse<UserDto>> scrollUsers(
+            @RequestParam(value = "fio",         required = false) String  fio,
+            @RequestParam(value = "email",       required = false) String  email,
+            @RequestParam(value = "role",        required = false) String  role,
+            @RequestParam(value = "course",      required = false) Integer course,
+            @RequestParam(value = "groupNumber", required = false) Integer groupNumber,
+            @RequestParam(value = "trackId",     required = false) Long    trackId,
+            @RequestParam(value = "isEnabled",   required = false) Boolean isEnabled,
+            @RequestParam(value = "cursor",      required = false) String  cursor,
+            @RequestParam(value = "withTotal",   defaultValue = "false") boolean withTotal,
+            @RequestParam(value = "size",        defaultValue = "15") int     size,
+            @RequestParam(value = "sort",        defaultValue = "fio,asc") String sort
+    ) {
+        var criteria = UserSearchCriteria.builder()
+                .fio(fio)
+                .email(email)
+                .role(role)
+                .course(course)
+                .groupNumber(groupNumber)
+                .trackId(trackId)
+                .isEnabled(isEnabled)
+                .build();
+
+        String[] parts = sort.split(",");
+        Sort.Direction dir = parts.length > 1 && parts[1].equalsIgnoreCase("desc")
+                ? Sort.Direction.DESC
+                : Sort.Direction.ASC;
+        KeysetRequest request = new KeysetRequest(Sort.by(dir, parts[0]), cursor, size, withTotal);
+
+        return ResponseEntity.ok(pageResponseMapper.toDto(userService.scroll(criteria, request)));
+    }
+
     @Operation(summary = "Удалить пользователя")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @DeleteMapping(DELETE_USER)
@@ -204,18 +245,17 @@ public class UserController {
     @Auditable(auditPoint = "User.GetPhoto")
     public ResponseEntity<byte[]> getPhoto(
             OAuth2AuthenticationToken authentication,
-            @PathVariable(value = "id") Long id
+            @PathVariable(value = "id") Long id,
+            @Parameter(description = "Желаемая сторона изображения в пикселях, без параметра - оригинал")
+            @RequestParam(value = "size", required = false) Integer size
     ) {
-        byte[] photoBytes;
-        try {
-            photoBytes = photoService.getAzureUserPhoto(id, authentication);
-
-        } catch (AzureException azureException) {
-            photoBytes = photoService.getPlaceholder();
-        }
+        CachedPhoto photo = photoService.getUserPhoto(id, authentication, size);
+        // при совпадении If-None-Match Spring сам ответит 304 без тела
         return ResponseEntity.ok()
-                .contentType(MediaType.IMAGE_PNG)
+                .contentType(MediaType.parseMediaType(photo.contentType()))
+                .eTag(photo.etag())
+                .cacheControl(photoService.getBrowserCacheControl())
                 .header(HttpHeaders.CONTENT_DISPOSITION, "inline")
-                .body(photoBytes);
+                .body(photo.content());
     }
 }
@@ -0,0 +1,13 @@
+package ru.sfedu.teamselection.domain;
+
+/**
+ * Имена регионов кэша второго уровня Hibernate
+ */
+public final class CacheRegions {
+    /**
+     * Регион кэша запросов, в который попадают кэшируемые запросы справочников
+     */
+    public static final String REFERENCE_QUERIES = "reference-queries";
+
+    private CacheRegions() {}
+}
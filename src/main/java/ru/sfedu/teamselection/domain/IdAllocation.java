@@ -0,0 +1,16 @@
+package ru.sfedu.teamselection.domain;
+
+/**
+ * Выделение id сущностей из последовательностей PostgreSQL.
+ * Hibernate берет из последовательности сразу блок id (оптимизатор pooled-lo): значение nextval - начало блока,
+ * остальные id блока раздаются в памяти. Поэтому вставки не ждут сгенерированный ключ и группируются в JDBC batch.
+ * Шаг последовательностей в базе (миграция V2.02) должен совпадать с размером блока
+ */
+public final class IdAllocation {
+    /**
+     * Размер блока id и шаг последовательностей
+     */
+    public static final int BLOCK_SIZE = 50;
+
+    private IdAllocation() {}
+}
@@ -1,10 +1,12 @@
 package ru.sfedu.teamselection.domain;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -13,6 +15,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entity representing project type that can be selected while creating a team
@@ -24,9 +28,16 @@ import lombok.Setter;
 @AllArgsConstructor
 @Entity
 @Table(name = "project_types")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class ProjectType {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "project_types_id_seq")
+    @SequenceGenerator(
+            name = "project_types_id_seq",
+            sequenceName = "project_types_id_seq",
+            allocationSize = IdAllocation.BLOCK_SIZE
+    )
     private Long id;
 
     @Size(min = 3, max = 32)
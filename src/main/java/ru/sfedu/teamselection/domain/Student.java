@@ -3,6 +3,7 @@ package ru.sfedu.teamselection.domain;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -13,6 +14,7 @@ import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Size;
 import java.util.ArrayList;
@@ -34,9 +36,15 @@ import ru.sfedu.teamselection.domain.application.Application;
 @AllArgsConstructor
 @Entity
 @Table(name = "students")
+@EntityListeners(TrackDataChangeListener.class)
 public class Student {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "students_id_seq")
+    @SequenceGenerator(
+            name = "students_id_seq",
+            sequenceName = "students_id_seq",
+            allocationSize = IdAllocation.BLOCK_SIZE
+    )
     private Long id;
 
     @Column
@@ -3,6 +3,7 @@ package ru.sfedu.teamselection.domain;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -12,6 +13,7 @@ import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
@@ -23,6 +25,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 import ru.sfedu.teamselection.domain.application.Application;
 
@@ -34,9 +37,16 @@ import ru.sfedu.teamselection.domain.application.Application;
 @AllArgsConstructor
 @Entity
 @Table(name = "teams")
+@DynamicUpdate
+@EntityListeners(TrackDataChangeListener.class)
 public class Team {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "teams_id_seq")
+    @SequenceGenerator(
+            name = "teams_id_seq",
+            sequenceName = "teams_id_seq",
+            allocationSize = IdAllocation.BLOCK_SIZE
+    )
     private Long id;
 
     @Column
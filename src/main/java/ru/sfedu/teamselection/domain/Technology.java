@@ -1,5 +1,6 @@
 package ru.sfedu.teamselection.domain;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -10,6 +11,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.util.ArrayList;
 import java.util.List;
@@ -18,6 +20,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entity of various technologies/skills used or required in a team project or specific traits of a student
@@ -29,9 +33,16 @@ import lombok.Setter;
 @AllArgsConstructor
 @Entity
 @Table(name = "technologies")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Technology {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "technologies_id_seq")
+    @SequenceGenerator(
+            name = "technologies_id_seq",
+            sequenceName = "technologies_id_seq",
+            allocationSize = IdAllocation.BLOCK_SIZE
+    )
     private Long id;
 
     private String name;
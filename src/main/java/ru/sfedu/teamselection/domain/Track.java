@@ -1,6 +1,7 @@
 package ru.sfedu.teamselection.domain;
 
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -10,6 +11,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Size;
 import java.time.LocalDate;
@@ -20,6 +22,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.sfedu.teamselection.enums.TrackType;
 
 
@@ -30,9 +34,16 @@ import ru.sfedu.teamselection.enums.TrackType;
 @AllArgsConstructor
 @Entity
 @Table(name = "tracks")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Track {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tracks_id_seq")
+    @SequenceGenerator(
+            name = "tracks_id_seq",
+            sequenceName = "tracks_id_seq",
+            allocationSize = IdAllocation.BLOCK_SIZE
+    )
     private Long id;
 
     @Column
@@ -0,0 +1,35 @@
+package ru.sfedu.teamselection.domain;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import ru.sfedu.teamselection.service.TrackDataVersionService;
+
+/**
+ * Увеличивает версию данных трека при изменении его студентов и команд.
+ * Версия меняется после фиксации транзакции, в которой изменилась сущность.
+ */
+@Component
+public class TrackDataChangeListener {
+    @Lazy
+    @Autowired
+    private TrackDataVersionService trackDataVersionService;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        Track track = null;
+        if (entity instanceof Student student) {
+            track = student.getCurrentTrack();
+        } else if (entity instanceof Team team) {
+            track = team.getCurrentTrack();
+        }
+        if (track != null) {
+            trackDataVersionService.bumpAfterCommit(track.getId());
+        }
+    }
+}
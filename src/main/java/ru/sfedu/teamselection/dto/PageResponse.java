@@ -1,17 +1,25 @@
 package ru.sfedu.teamselection.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 
+/**
+ * Страница результатов поиска.
+ * При пагинации курсором номер страницы не передается, вместо него следующая страница
+ * запрашивается по {@code nextCursor}, а общее число записей - только если оно было запрошено
+ */
 @Getter
 @Builder
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PageResponse<T> {
     private List<T> content;
-    private int page;
+    private Integer page;
     private int size;
-    private long totalElements;
-    private int totalPages;
+    private Long totalElements;
+    private Integer totalPages;
+    private String nextCursor;
 }
@@ -0,0 +1,27 @@
+package ru.sfedu.teamselection.dto.application;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.sfedu.teamselection.enums.ApplicationStatus;
+
+/**
+ * Решение по одной заявке в пакетном запросе
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ApplicationDecisionDto {
+    @NotNull
+    @JsonProperty(value = "application_id")
+    private Long applicationId;
+
+    @NotNull
+    private ApplicationStatus status;
+}
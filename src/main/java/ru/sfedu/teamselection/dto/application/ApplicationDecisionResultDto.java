@@ -0,0 +1,35 @@
+package ru.sfedu.teamselection.dto.application;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.sfedu.teamselection.enums.ApplicationDecisionOutcome;
+import ru.sfedu.teamselection.enums.ApplicationStatus;
+
+/**
+ * Результат применения решения по одной заявке в пакетном запросе
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ApplicationDecisionResultDto {
+    @JsonProperty(value = "application_id")
+    private Long applicationId;
+
+    /**
+     * Запрошенный статус
+     */
+    private ApplicationStatus status;
+
+    private ApplicationDecisionOutcome outcome;
+
+    /**
+     * Причина, по которой решение не применено
+     */
+    private String message;
+}
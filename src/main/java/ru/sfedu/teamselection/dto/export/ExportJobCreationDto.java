@@ -0,0 +1,22 @@
+package ru.sfedu.teamselection.dto.export;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import ru.sfedu.teamselection.enums.ExportEntity;
+import ru.sfedu.teamselection.enums.ExportFormat;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportJobCreationDto {
+    @NotNull
+    private Long trackId;
+    @NotNull
+    private ExportEntity entity;
+    @NotNull
+    private ExportFormat format;
+}
@@ -0,0 +1,31 @@
+package ru.sfedu.teamselection.dto.export;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.sfedu.teamselection.enums.ExportEntity;
+import ru.sfedu.teamselection.enums.ExportFormat;
+import ru.sfedu.teamselection.enums.ExportJobStatus;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportJobDto {
+    private UUID id;
+    private Long trackId;
+    private ExportEntity entity;
+    private ExportFormat format;
+    private ExportJobStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    /** Размер готового файла в байтах */
+    private Long size;
+    /** Причина ошибки для задач в статусе FAILED */
+    private String error;
+}
@@ -0,0 +1,31 @@
+package ru.sfedu.teamselection.dto.importing;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultDto {
+    @JsonProperty(value = "total_rows")
+    private Integer totalRows;
+
+    private Integer imported;
+
+    /**
+     * Число строк с ошибками; в errors попадают только первые из них
+     */
+    @JsonProperty(value = "error_count")
+    private Integer errorCount;
+
+    @Builder.Default
+    private List<ImportRowErrorDto> errors = new ArrayList<>();
+}
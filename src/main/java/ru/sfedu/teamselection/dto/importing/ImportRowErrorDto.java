@@ -0,0 +1,21 @@
+package ru.sfedu.teamselection.dto.importing;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowErrorDto {
+    /**
+     * Номер строки в файле, начиная с 1 (строка заголовка тоже считается)
+     */
+    private Integer row;
+
+    private String message;
+}
@@ -0,0 +1,24 @@
+package ru.sfedu.teamselection.dto.team;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamFormationAssignmentDto {
+    @JsonProperty(value = "student_id")
+    private Long studentId;
+
+    @JsonProperty(value = "team_id")
+    private Long teamId;
+
+    @JsonProperty(value = "matched_technologies")
+    private Integer matchedTechnologies;
+}
@@ -0,0 +1,45 @@
+package ru.sfedu.teamselection.dto.team;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamFormationPlanDto {
+    @JsonProperty(value = "plan_id")
+    private UUID planId;
+
+    @JsonProperty(value = "track_id")
+    private Long trackId;
+
+    @Builder.Default
+    private List<TeamFormationAssignmentDto> assignments = new ArrayList<>();
+
+    /**
+     * Студенты, для которых не нашлось команды с подходящими ограничениями
+     */
+    @JsonProperty(value = "unassigned_students")
+    @Builder.Default
+    private List<Long> unassignedStudents = new ArrayList<>();
+
+    /**
+     * Команды, которые и после распределения меньше минимального размера трека
+     */
+    @JsonProperty(value = "underfilled_teams")
+    @Builder.Default
+    private List<Long> underfilledTeams = new ArrayList<>();
+
+    @JsonProperty(value = "expires_at")
+    private LocalDateTime expiresAt;
+}
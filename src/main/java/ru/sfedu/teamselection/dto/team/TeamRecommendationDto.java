@@ -0,0 +1,34 @@
+package ru.sfedu.teamselection.dto.team;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamRecommendationDto {
+    @JsonProperty(value = "team_id")
+    private Long teamId;
+
+    private String name;
+
+    @JsonProperty(value = "project_type")
+    private String projectType;
+
+    @JsonProperty(value = "quantity_of_students")
+    private Integer quantityOfStudents;
+
+    @JsonProperty(value = "free_seats")
+    private Integer freeSeats;
+
+    @JsonProperty(value = "matched_technologies")
+    private Integer matchedTechnologies;
+
+    private Double score;
+}
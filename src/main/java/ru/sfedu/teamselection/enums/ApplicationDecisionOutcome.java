@@ -0,0 +1,17 @@
+package ru.sfedu.teamselection.enums;
+
+/**
+ * Итог решения по заявке в пакетном запросе
+ */
+public enum ApplicationDecisionOutcome {
+    APPLIED,
+    /**
+     * Решение нарушает правила смены статуса или ограничения трека
+     */
+    FAILED,
+    /**
+     * У пользователя нет права принимать это решение
+     */
+    FORBIDDEN,
+    NOT_FOUND
+}
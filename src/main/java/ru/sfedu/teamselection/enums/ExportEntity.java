@@ -0,0 +1,9 @@
+package ru.sfedu.teamselection.enums;
+
+/**
+ * Сущность, которую выгружает задача экспорта.
+ */
+public enum ExportEntity {
+    STUDENTS,
+    TEAMS
+}
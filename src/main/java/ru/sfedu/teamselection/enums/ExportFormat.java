@@ -0,0 +1,45 @@
+package ru.sfedu.teamselection.enums;
+
+import java.util.Locale;
+
+/**
+ * Формат файла выгрузки и загрузки.
+ */
+public enum ExportFormat {
+    CSV("csv", "text/csv; charset=UTF-8"),
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Формат по расширению имени файла
+     * @param filename имя файла
+     * @return формат
+     * @throws IllegalArgumentException если расширение не csv и не xlsx
+     */
+    public static ExportFormat ofFilename(String filename) {
+        if (filename != null) {
+            String lower = filename.toLowerCase(Locale.ROOT);
+            for (ExportFormat format : values()) {
+                if (lower.endsWith("." + format.extension)) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Поддерживаются только файлы csv и xlsx");
+    }
+}
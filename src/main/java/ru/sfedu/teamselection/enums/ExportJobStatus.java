@@ -0,0 +1,8 @@
+package ru.sfedu.teamselection.enums;
+
+public enum ExportJobStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,21 @@
+package ru.sfedu.teamselection.enums;
+
+import java.util.Locale;
+
+/**
+ * Режим фильтра по технологиям
+ */
+public enum TechnologyMatch {
+    /**
+     * Есть хотя бы одна из выбранных технологий
+     */
+    ANY,
+    /**
+     * Есть все выбранные технологии
+     */
+    ALL;
+
+    public static TechnologyMatch of(String match) {
+        return TechnologyMatch.valueOf(match.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,15 @@
+package ru.sfedu.teamselection.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Исключение, генерируемое при исчерпании ограниченного ресурса (например, очереди фоновых задач).
+ * Клиенту следует повторить запрос позже.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
@@ -3,6 +3,7 @@ package ru.sfedu.teamselection.mapper;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Component;
 import ru.sfedu.teamselection.dto.PageResponse;
+import ru.sfedu.teamselection.repository.specification.KeysetPage;
 
 @Component
 public class PageResponseMapper {
@@ -12,7 +13,19 @@ public class PageResponseMapper {
                 page.getNumber(),
                 page.getSize(),
                 page.getTotalElements(),
-                page.getTotalPages()
+                page.getTotalPages(),
+                null
+        );
+    }
+
+    public <T> PageResponse<T> toDto(KeysetPage<T> page) {
+        return new PageResponse<>(
+                page.content(),
+                null,
+                page.size(),
+                page.totalElements(),
+                page.totalElements() == null ? null : (int) Math.ceil((double) page.totalElements() / page.size()),
+                page.nextCursor()
         );
     }
 }
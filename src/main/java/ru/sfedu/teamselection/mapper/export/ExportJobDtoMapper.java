@@ -0,0 +1,23 @@
+package ru.sfedu.teamselection.mapper.export;
+
+import org.springframework.stereotype.Component;
+import ru.sfedu.teamselection.dto.export.ExportJobDto;
+import ru.sfedu.teamselection.service.report.ExportJob;
+
+@Component
+public class ExportJobDtoMapper {
+
+    public ExportJobDto mapToDto(ExportJob job) {
+        return ExportJobDto.builder()
+                .id(job.getId())
+                .trackId(job.getKey().trackId())
+                .entity(job.getKey().entity())
+                .format(job.getKey().format())
+                .status(job.getStatus())
+                .createdAt(job.getCreatedAt())
+                .finishedAt(job.getFinishedAt())
+                .size(job.getSize())
+                .error(job.getError())
+                .build();
+    }
+}
@@ -57,7 +57,7 @@ public class TeamDtoMapper implements DtoMapper<TeamDto, Team> {
         if (entity == null) {
             return null;
         }
-        var captain = entityManager.find(Student.class, entity.getCaptainId());
+        var captain = findCaptain(entity);
 
         return TeamDto.builder()
                 .id(entity.getId())
@@ -90,4 +90,23 @@ public class TeamDtoMapper implements DtoMapper<TeamDto, Team> {
                 .currentTrackId(entity.getCurrentTrack().getId())
                 .build();
     }
+
+    /**
+     * Капитан почти всегда состоит в команде, поэтому сначала ищем его среди уже загруженных участников
+     * и только потом обращаемся к entity manager.
+     */
+    private Student findCaptain(Team entity) {
+        Long captainId = entity.getCaptainId();
+        if (captainId == null || captainId < 0) {
+            return null;
+        }
+        if (entity.getStudents() != null) {
+            for (Student student : entity.getStudents()) {
+                if (captainId.equals(student.getId())) {
+                    return student;
+                }
+            }
+        }
+        return entityManager.find(Student.class, captainId);
+    }
 }
@@ -5,12 +5,15 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import ru.sfedu.teamselection.domain.Student;
 import ru.sfedu.teamselection.domain.Team;
 import ru.sfedu.teamselection.domain.application.Application;
+import ru.sfedu.teamselection.repository.projection.ApplicationState;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,5 +37,31 @@ public interface ApplicationRepository extends JpaRepository<Application, Long>,
     @Query("update Application a set a.status = ?1 where a.student = ?2 and a.status = 'sent'")
     void updateStatusByStudent(String status, Student student);
 
+    /**
+     * Снимки заявок по id для проверки решений без загрузки сущностей
+     */
+    @Query("""
+            select new ru.sfedu.teamselection.repository.projection.ApplicationState(
+                a.id, a.type, a.status, a.student.id, a.team.id)
+            from Application a
+            where a.id in :ids
+            """)
+    List<ApplicationState> findStatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Снимки отправленных заявок указанных команд и студентов, которые затрагивает принятие заявки
+     */
+    @Query("""
+            select new ru.sfedu.teamselection.repository.projection.ApplicationState(
+                a.id, a.type, a.status, a.student.id, a.team.id)
+            from Application a
+            where lower(a.status) = 'sent'
+              and (a.team.id in :teamIds or a.student.id in :studentIds)
+            """)
+    List<ApplicationState> findSentStatesByTeamIdInOrStudentIdIn(
+            @Param("teamIds") Collection<Long> teamIds,
+            @Param("studentIds") Collection<Long> studentIds
+    );
+
 
 }
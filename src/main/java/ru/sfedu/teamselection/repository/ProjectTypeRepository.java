@@ -1,7 +1,18 @@
 package ru.sfedu.teamselection.repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.sfedu.teamselection.domain.CacheRegions;
 import ru.sfedu.teamselection.domain.ProjectType;
 
 public interface ProjectTypeRepository extends JpaRepository<ProjectType, Long> {
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.REFERENCE_QUERIES)
+    })
+    List<ProjectType> findAll();
 }
@@ -0,0 +1,18 @@
+package ru.sfedu.teamselection.repository;
+
+/**
+ * Параметры потокового чтения сущностей курсором
+ */
+public final class StreamFetch {
+    /**
+     * Сколько строк драйвер забирает из курсора за один раз.
+     * Столько же сущностей обрабатывается между очистками контекста персистентности
+     */
+    public static final int SIZE = 500;
+    /**
+     * {@link #SIZE} в виде значения подсказки {@code org.hibernate.fetchSize}
+     */
+    public static final String SIZE_HINT = "" + SIZE;
+
+    private StreamFetch() {}
+}
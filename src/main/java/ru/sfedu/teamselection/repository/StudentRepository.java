@@ -1,20 +1,26 @@
 package ru.sfedu.teamselection.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.sfedu.teamselection.domain.Student;
+import ru.sfedu.teamselection.repository.projection.StudentState;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long>, JpaSpecificationExecutor<Student> {
-
     Student findByUserId(Long userId);
 
     boolean existsByUserId(Long userId);
@@ -38,4 +44,91 @@ public interface StudentRepository extends JpaRepository<Student, Long>, JpaSpec
     List<Student> findFreeOrInTeam(@Param("trackId") Long trackId,
                                    @Param("teamId" ) Long teamId);
 
+    /**
+     * Потоковое чтение студентов трека, отсортированных по ФИО.
+     * Стрим должен закрываться вызывающим кодом и читаться внутри транзакции.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = StreamFetch.SIZE_HINT))
+    @Query("""
+        select s
+        from Student s
+        join fetch s.user u
+        join fetch s.currentTrack tr
+        left join fetch s.currentTeam
+        where tr.id = :trackId
+        order by u.fio asc
+    """)
+    Stream<Student> streamAllByTrack(@Param("trackId") Long trackId);
+
+    /**
+     * Различные пары (курс, группа) студентов трека
+     */
+    @Query("""
+        select s.course, s.groupNumber
+        from Student s
+        where s.currentTrack.id = :trackId
+        group by s.course, s.groupNumber
+    """)
+    List<Object[]> findCourseAndGroupPairsByTrack(@Param("trackId") Long trackId);
+
+    /**
+     * Пары (id студента, id технологии) для студентов трека
+     */
+    @Query("""
+        select s.id, tech.id
+        from Student s
+        join s.technologies tech
+        where s.currentTrack.id = :trackId
+    """)
+    List<Object[]> findTechnologyPairsByTrack(@Param("trackId") Long trackId);
+
+    /**
+     * Загрузка студентов по id вместе с пользователем, ролью, треком, текущей командой и технологиями.
+     */
+    @EntityGraph(attributePaths = {"user", "user.role", "currentTrack", "currentTeam", "technologies"})
+    @Query("select s from Student s where s.id in :ids")
+    List<Student> findAllWithTechnologiesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Загрузка студентов по id вместе с историей их команд одним запросом.
+     */
+    @EntityGraph(attributePaths = {"teams", "teams.projectType"})
+    @Query("select s from Student s where s.id in :ids")
+    List<Student> findAllWithTeamsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Загрузка студентов по id вместе с заявками и командами, в которые они поданы, одним запросом.
+     */
+    @EntityGraph(attributePaths = {"applications", "applications.team", "applications.team.projectType"})
+    @Query("select s from Student s where s.id in :ids")
+    List<Student> findAllWithApplicationsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Снимки студентов по id для проверки заявок без загрузки сущностей
+     */
+    @Query("""
+        select new ru.sfedu.teamselection.repository.projection.StudentState(
+            s.id, u.id, s.course, s.hasTeam, ct.id, tr.id)
+        from Student s
+        left join s.user u
+        left join s.currentTeam ct
+        left join s.currentTrack tr
+        where s.id in :ids
+    """)
+    List<StudentState> findStatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Снимки студентов трека без команды для автоматического распределения
+     */
+    @Query("""
+        select new ru.sfedu.teamselection.repository.projection.StudentState(
+            s.id, u.id, s.course, s.hasTeam, ct.id, tr.id)
+        from Student s
+        left join s.user u
+        left join s.currentTeam ct
+        join s.currentTrack tr
+        where tr.id = :trackId and s.hasTeam = false
+        order by s.id
+    """)
+    List<StudentState> findFreeStatesByTrack(@Param("trackId") Long trackId);
 }
@@ -1,12 +1,21 @@
 package ru.sfedu.teamselection.repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.sfedu.teamselection.domain.Team;
+import ru.sfedu.teamselection.repository.projection.TeamCandidate;
+import ru.sfedu.teamselection.repository.projection.TeamState;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface TeamRepository extends JpaRepository<Team, Long>, JpaSpecificationExecutor<Team> {
@@ -22,5 +31,80 @@ public interface TeamRepository extends JpaRepository<Team, Long>, JpaSpecificat
             where s.id = :studentId
 """)
     List<Team> findAllByStudent(Long studentId);
-}
 
+    /**
+     * Потоковое чтение команд трека, отсортированных по названию.
+     * Стрим должен закрываться вызывающим кодом и читаться внутри транзакции.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = StreamFetch.SIZE_HINT))
+    @Query("""
+            select t
+            from Team t
+            join fetch t.currentTrack tr
+            left join fetch t.projectType
+            where tr.id = :trackId
+            order by t.name asc
+""")
+    Stream<Team> streamAllByTrack(@Param("trackId") Long trackId);
+
+    /**
+     * Загрузка команд по id вместе с треком, типом проекта и технологиями одним запросом.
+     */
+    @EntityGraph(attributePaths = {"currentTrack", "projectType", "technologies"})
+    @Query("select t from Team t where t.id in :ids")
+    List<Team> findAllWithTechnologiesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Загрузка команд по id вместе с участниками и их пользователями одним запросом.
+     * Коллекции fetch-join'ятся по отдельности, т.к. одновременная выборка нескольких bag-коллекций невозможна.
+     */
+    @EntityGraph(attributePaths = {"students", "students.user", "students.user.role"})
+    @Query("select t from Team t where t.id in :ids")
+    List<Team> findAllWithStudentsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Загрузка команд по id вместе с заявками, их студентами и пользователями одним запросом.
+     */
+    @EntityGraph(attributePaths = {"applications", "applications.student", "applications.student.user"})
+    @Query("select t from Team t where t.id in :ids")
+    List<Team> findAllWithApplicationsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Пары (id команды, id технологии) для команд трека
+     */
+    @Query("""
+            select t.id, tech.id
+            from Team t
+            join t.technologies tech
+            where t.currentTrack.id = :trackId
+""")
+    List<Object[]> findTechnologyPairsByTrack(@Param("trackId") Long trackId);
+
+    /**
+     * Снимки команд по id вместе с ограничениями трека и числом второкурсников для проверки заявок
+     */
+    @Query("""
+            select new ru.sfedu.teamselection.repository.projection.TeamState(
+                t.id, t.captainId, t.quantityOfStudents, t.isFull,
+                tr.id, tr.maxConstraint, tr.maxSecondCourseConstraint,
+                (select count(s) from Team t2 join t2.students s where t2.id = t.id and s.course = 2))
+            from Team t
+            join t.currentTrack tr
+            where t.id in :ids
+""")
+    List<TeamState> findStatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Незаполненные команды трека с числом второкурсников для подбора команд студенту
+     */
+    @Query("""
+            select new ru.sfedu.teamselection.repository.projection.TeamCandidate(
+                t.id, t.name, pt.name, t.quantityOfStudents, t.isFull,
+                (select count(s) from Team t2 join t2.students s where t2.id = t.id and s.course = 2))
+            from Team t
+            left join t.projectType pt
+            where t.currentTrack.id = :trackId and t.isFull = false
+            order by t.id
+""")
+    List<TeamCandidate> findCandidatesByTrack(@Param("trackId") Long trackId);
+}
@@ -1,13 +1,44 @@
 package ru.sfedu.teamselection.repository;
 
+import jakarta.persistence.QueryHint;
 import java.util.List;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.sfedu.teamselection.domain.CacheRegions;
 import ru.sfedu.teamselection.domain.Technology;
 
 public interface TechnologyRepository extends JpaRepository<Technology, Long> {
     Technology findByName(String name);
 
     @Query("select t from Technology t where t.id in ?1")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.REFERENCE_QUERIES)
+    })
     List<Technology> findAllByIdIn(List<Long> ids);
+
+    /**
+     * Технологии, указанные хотя бы у одного студента трека
+     */
+    @Query("""
+            select distinct t
+            from Student s
+            join s.technologies t
+            where s.currentTrack.id = :trackId
+            """)
+    List<Technology> findAllUsedByStudentsOfTrack(@Param("trackId") Long trackId);
+
+    /**
+     * Технологии, указанные хотя бы у одной команды трека
+     */
+    @Query("""
+            select distinct t
+            from Team tm
+            join tm.technologies t
+            where tm.currentTrack.id = :trackId
+            """)
+    List<Technology> findAllUsedByTeamsOfTrack(@Param("trackId") Long trackId);
 }
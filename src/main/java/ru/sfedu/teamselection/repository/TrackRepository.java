@@ -1,7 +1,15 @@
 package ru.sfedu.teamselection.repository;
 
+import jakarta.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
+import ru.sfedu.teamselection.domain.CacheRegions;
 import ru.sfedu.teamselection.domain.Team;
 import ru.sfedu.teamselection.domain.Track;
 import ru.sfedu.teamselection.enums.TrackType;
@@ -12,6 +20,24 @@ import java.util.Optional;
 public interface TrackRepository extends JpaRepository<Track, Long> {
 //    List<Track> findAllByType(String type);
 
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.REFERENCE_QUERIES)
+    })
+    List<Track> findAll();
+
     Optional<Track> findByNameIgnoreCaseAndType(String name, TrackType type);
+
+    /**
+     * Треки, период проведения которых пересекается с {@code [from, to]}
+     */
+    @Query("""
+            select t
+            from Track t
+            where t.startDate <= :to and t.endDate >= :from
+            order by t.startDate asc, t.id asc
+            """)
+    List<Track> findAllOverlapping(@Param("from") LocalDate from, @Param("to") LocalDate to);
 }
 
@@ -5,9 +5,11 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 import ru.sfedu.teamselection.domain.Role;
 import ru.sfedu.teamselection.domain.User;
+import ru.sfedu.teamselection.repository.projection.CurrentPrincipal;
 
 public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
 
@@ -22,5 +24,27 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
 
     @Query("select u from User u join fetch u.role where u.email = ?1")
     Optional<User> findByEmailFetchRole(String email);
+
+    @Query("""
+            select new ru.sfedu.teamselection.repository.projection.CurrentPrincipal(
+                u.id, u.email, r.name, s.id, u.isEnabled
+            )
+            from User u
+            left join u.role r
+            left join Student s on s.user = u
+            where u.email = :email
+            """)
+    Optional<CurrentPrincipal> findPrincipalByEmail(@Param("email") String email);
+
+    @Query("""
+            select new ru.sfedu.teamselection.repository.projection.CurrentPrincipal(
+                u.id, u.email, r.name, s.id, u.isEnabled
+            )
+            from User u
+            left join u.role r
+            left join Student s on s.user = u
+            where u.fio = :fio
+            """)
+    Optional<CurrentPrincipal> findPrincipalByFio(@Param("fio") String fio);
 }
 
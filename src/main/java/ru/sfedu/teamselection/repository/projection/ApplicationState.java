@@ -0,0 +1,32 @@
+package ru.sfedu.teamselection.repository.projection;
+
+import lombok.Getter;
+import lombok.Setter;
+import ru.sfedu.teamselection.domain.application.ApplicationType;
+import ru.sfedu.teamselection.enums.ApplicationStatus;
+
+/**
+ * Снимок заявки для проверки без обращения к сущностям.
+ * Статус хранится нормализованным: в базе встречаются значения в разном регистре
+ */
+@Getter
+@Setter
+public class ApplicationState {
+    private final Long id;
+    private final ApplicationType type;
+    private final Long studentId;
+    private final Long teamId;
+    private ApplicationStatus status;
+
+    public ApplicationState(Long id, ApplicationType type, String status, Long studentId, Long teamId) {
+        this.id = id;
+        this.type = type;
+        this.status = ApplicationStatus.of(status);
+        this.studentId = studentId;
+        this.teamId = teamId;
+    }
+
+    public boolean isInvite() {
+        return type == ApplicationType.INVITE;
+    }
+}
@@ -0,0 +1,12 @@
+package ru.sfedu.teamselection.repository.projection;
+
+/**
+ * Неизменяемый снимок текущего пользователя: всё, что нужно для проверок доступа без загрузки сущностей
+ * @param userId id пользователя
+ * @param email почта пользователя
+ * @param roleName название роли
+ * @param studentId id студента или null, если пользователь не студент
+ * @param enabled активен ли пользователь
+ */
+public record CurrentPrincipal(Long userId, String email, String roleName, Long studentId, Boolean enabled) {
+}
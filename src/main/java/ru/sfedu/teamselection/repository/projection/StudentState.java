@@ -0,0 +1,31 @@
+package ru.sfedu.teamselection.repository.projection;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Снимок студента для проверки заявок без обращения к сущностям
+ */
+@Getter
+@Setter
+public class StudentState {
+    private final Long id;
+    private final Long userId;
+    private final Integer course;
+    private final Long trackId;
+    private boolean hasTeam;
+    private Long currentTeamId;
+
+    public StudentState(Long id, Long userId, Integer course, Boolean hasTeam, Long currentTeamId, Long trackId) {
+        this.id = id;
+        this.userId = userId;
+        this.course = course;
+        this.hasTeam = Boolean.TRUE.equals(hasTeam);
+        this.currentTeamId = currentTeamId;
+        this.trackId = trackId;
+    }
+
+    public boolean isSecondYear() {
+        return course != null && course == 2;
+    }
+}
@@ -0,0 +1,32 @@
+package ru.sfedu.teamselection.repository.projection;
+
+import lombok.Getter;
+
+/**
+ * Снимок незаполненной команды трека для подбора команд студенту
+ */
+@Getter
+public class TeamCandidate {
+    private final Long id;
+    private final String name;
+    private final String projectType;
+    private final int quantityOfStudents;
+    private final boolean full;
+    private final int secondYears;
+
+    public TeamCandidate(
+            Long id,
+            String name,
+            String projectType,
+            Integer quantityOfStudents,
+            Boolean isFull,
+            Long secondYears
+    ) {
+        this.id = id;
+        this.name = name;
+        this.projectType = projectType;
+        this.quantityOfStudents = quantityOfStudents == null ? 0 : quantityOfStudents;
+        this.full = Boolean.TRUE.equals(isFull);
+        this.secondYears = secondYears == null ? 0 : secondYears.intValue();
+    }
+}
@@ -0,0 +1,48 @@
+package ru.sfedu.teamselection.repository.projection;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Снимок команды для проверки заявок без обращения к сущностям.
+ * Изменяется по мере применения решений, чтобы следующие решения пакета видели результат предыдущих
+ */
+@Getter
+@Setter
+public class TeamState {
+    private final Long id;
+    private final Long captainId;
+    private final Long trackId;
+    private final Integer maxConstraint;
+    private final Integer maxSecondCourseConstraint;
+    private int quantityOfStudents;
+    private boolean full;
+    private int secondYears;
+
+    public TeamState(
+            Long id,
+            Long captainId,
+            Integer quantityOfStudents,
+            Boolean isFull,
+            Long trackId,
+            Integer maxConstraint,
+            Integer maxSecondCourseConstraint,
+            Long secondYears
+    ) {
+        this.id = id;
+        this.captainId = captainId;
+        this.quantityOfStudents = quantityOfStudents == null ? 0 : quantityOfStudents;
+        this.full = Boolean.TRUE.equals(isFull);
+        this.trackId = trackId;
+        this.maxConstraint = maxConstraint;
+        this.maxSecondCourseConstraint = maxSecondCourseConstraint;
+        this.secondYears = secondYears == null ? 0 : secondYears.intValue();
+    }
+
+    /**
+     * Достигнуто ли ограничение трека по числу второкурсников
+     */
+    public boolean isSecondCourseLimitReached() {
+        return maxSecondCourseConstraint != null && secondYears >= maxSecondCourseConstraint;
+    }
+}
@@ -0,0 +1,82 @@
+package ru.sfedu.teamselection.repository.specification;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+/**
+ * Постраничная выборка только идентификаторов сущностей по {@link Specification}.
+ * Используется как первый шаг поиска: страница id, затем пакетная загрузка сущностей и их связей по этим id,
+ * что дает постоянное число запросов на страницу вместо N+1.
+ */
+public final class IdPageQuery {
+
+    private IdPageQuery() {}
+
+    /**
+     * Страница id сущностей, удовлетворяющих спецификации, в порядке сортировки {@code pageable}
+     * либо, если она не задана, в порядке спецификации
+     * @param entityManager entity manager
+     * @param domainClass класс сущности с полем {@code id}
+     * @param spec условия поиска
+     * @param pageable страница и сортировка
+     * @return страница id
+     */
+    public static <T> Page<Long> findIds(
+            EntityManager entityManager,
+            Class<T> domainClass,
+            Specification<T> spec,
+            Pageable pageable
+    ) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(domainClass);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root.get("id"));
+        // без явной сортировки остается порядок, заданный спецификацией (например, по сходству)
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<Long> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<Long> ids = typedQuery.getResultList();
+
+        return PageableExecutionUtils.getPage(ids, pageable, () -> count(entityManager, domainClass, spec));
+    }
+
+    /**
+     * Число сущностей, удовлетворяющих спецификации; заданный спецификацией порядок отбрасывается
+     * @param entityManager entity manager
+     * @param domainClass класс сущности
+     * @param spec условия поиска
+     * @return число сущностей
+     */
+    public static <T> long count(EntityManager entityManager, Class<T> domainClass, Specification<T> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(domainClass);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(cb.count(root));
+        query.orderBy(List.of());
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
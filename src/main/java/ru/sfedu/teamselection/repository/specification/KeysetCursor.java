@@ -0,0 +1,103 @@
+package ru.sfedu.teamselection.repository.specification;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Позиция в выборке с keyset-пагинацией: значение ключа сортировки и id последней строки страницы.
+ * Клиенту передается как непрозрачная строка (base64url от JSON) и возвращается для запроса следующей страницы
+ * @param property свойство сортировки, null - сортировка только по id
+ * @param direction направление сортировки
+ * @param value значение ключа сортировки последней строки в строковом виде
+ * @param id id последней строки
+ */
+public record KeysetCursor(String property, Sort.Direction direction, String value, Long id) {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String INVALID_CURSOR = "Некорректный курсор страницы";
+
+    /**
+     * @return строка курсора для клиента
+     */
+    public String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(this));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param cursor строка курсора от клиента
+     * @return курсор
+     * @throws IllegalArgumentException если строка не является курсором
+     */
+    public static KeysetCursor decode(String cursor) {
+        KeysetCursor result;
+        try {
+            result = MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), KeysetCursor.class);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new IllegalArgumentException(INVALID_CURSOR, e);
+        }
+        if (result == null || result.id() == null || result.direction() == null) {
+            throw new IllegalArgumentException(INVALID_CURSOR);
+        }
+        return result;
+    }
+
+    /**
+     * Проверяет, что курсор получен для той же сортировки
+     * @throws IllegalArgumentException если сортировка другая
+     */
+    void checkOrder(String expectedProperty, Sort.Direction expectedDirection) {
+        if (!Objects.equals(property, expectedProperty) || direction != expectedDirection) {
+            throw new IllegalArgumentException("Курсор получен для другой сортировки");
+        }
+    }
+
+    /**
+     * Значение ключа сортировки в типе свойства
+     * @throws IllegalArgumentException если значение не соответствует типу или тип не поддерживается
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Object valueAs(Class<?> type) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            if (type == String.class) {
+                return value;
+            } else if (type == Long.class || type == long.class) {
+                return Long.valueOf(value);
+            } else if (type == Integer.class || type == int.class) {
+                return Integer.valueOf(value);
+            } else if (type == Double.class || type == double.class) {
+                return Double.valueOf(value);
+            } else if (type == Boolean.class || type == boolean.class) {
+                return Boolean.valueOf(value);
+            } else if (type == LocalDateTime.class) {
+                return LocalDateTime.parse(value);
+            } else if (type == LocalDate.class) {
+                return LocalDate.parse(value);
+            } else if (type.isEnum()) {
+                return Enum.valueOf((Class) type, value);
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException(INVALID_CURSOR, e);
+        }
+        throw new IllegalArgumentException("Сортировка по полю `" + property + "` недоступна при пагинации курсором");
+    }
+
+    static String valueOf(Object key) {
+        if (key == null) {
+            return null;
+        }
+        return key instanceof Enum<?> constant ? constant.name() : key.toString();
+    }
+}
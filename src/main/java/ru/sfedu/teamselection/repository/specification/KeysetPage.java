@@ -0,0 +1,26 @@
+package ru.sfedu.teamselection.repository.specification;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Страница выборки с keyset-пагинацией
+ * @param content строки страницы
+ * @param size запрошенный размер страницы
+ * @param nextCursor курсор следующей страницы, null - это последняя страница
+ * @param totalElements приблизительное общее число записей, null - не запрашивалось
+ */
+public record KeysetPage<T>(List<T> content, int size, String nextCursor, Long totalElements) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public <R> KeysetPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new KeysetPage<>(content.stream().<R>map(mapper).toList(), size, nextCursor, totalElements);
+    }
+
+    public KeysetPage<T> withTotal(Long total) {
+        return new KeysetPage<>(content, size, nextCursor, total);
+    }
+}
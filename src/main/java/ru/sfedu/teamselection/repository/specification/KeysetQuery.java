@@ -0,0 +1,143 @@
+package ru.sfedu.teamselection.repository.specification;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+/**
+ * Выборка id сущностей по {@link Specification} с keyset-пагинацией.
+ * Вместо OFFSET страница начинается сразу после строки из курсора:
+ * {@code where (key, id) > (:key, :id) order by key, id limit :size}, поэтому стоимость страницы
+ * не зависит от ее номера. Сравнение кортежей раскрывается в {@code key > :key or key = :key and id > :id}
+ * с учетом порядка NULL в PostgreSQL (последние при ASC, первые при DESC).
+ * Общее число записей не считается; см. {@link IdPageQuery#count}
+ */
+public final class KeysetQuery {
+    private static final String ID = "id";
+
+    private KeysetQuery() {}
+
+    /**
+     * Страница id сущностей, удовлетворяющих спецификации
+     * @param entityManager entity manager
+     * @param domainClass класс сущности с полем {@code id}
+     * @param spec условия поиска; заданный ею порядок заменяется порядком запроса
+     * @param request сортировка, курсор и размер страницы
+     * @return страница id с курсором следующей страницы, без общего числа записей
+     * @throws IllegalArgumentException если сортировка по нескольким свойствам или курсор не подходит к запросу
+     */
+    public static <T> KeysetPage<Long> findIds(
+            EntityManager entityManager,
+            Class<T> domainClass,
+            Specification<T> spec,
+            KeysetRequest request
+    ) {
+        Sort.Order order = sortKey(request.sort());
+        Sort.Direction direction = order == null ? Sort.Direction.ASC : order.getDirection();
+        String property = order == null ? null : order.getProperty();
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(domainClass);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        Path<Long> id = root.get(ID);
+        // toOrders строит те же join'ы по пути свойства, что и обычная сортировка Spring Data
+        Expression<?> key = order == null || ID.equals(property)
+                ? null
+                : QueryUtils.toOrders(Sort.by(order), root, cb).get(0).getExpression();
+
+        List<Predicate> where = new ArrayList<>();
+        if (predicate != null) {
+            where.add(predicate);
+        }
+        if (request.cursor() != null) {
+            KeysetCursor cursor = KeysetCursor.decode(request.cursor());
+            cursor.checkOrder(property, direction);
+            where.add(seek(cb, key, id, direction, cursor));
+        }
+        query.where(where.toArray(Predicate[]::new));
+
+        List<Selection<?>> selection = new ArrayList<>();
+        List<Order> orders = new ArrayList<>();
+        selection.add(id);
+        if (key != null) {
+            selection.add(key);
+            orders.add(direction.isAscending() ? cb.asc(key) : cb.desc(key));
+        }
+        orders.add(direction.isAscending() ? cb.asc(id) : cb.desc(id));
+        query.multiselect(selection);
+        query.orderBy(orders);
+
+        // лишняя строка показывает, есть ли следующая страница, без отдельного запроса
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setMaxResults(request.size() + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > request.size();
+        List<Tuple> page = hasNext ? rows.subList(0, request.size()) : rows;
+        List<Long> ids = page.stream().map(row -> row.get(0, Long.class)).toList();
+
+        String nextCursor = null;
+        if (hasNext) {
+            Tuple last = page.get(page.size() - 1);
+            Object lastKey = key == null ? null : last.get(1);
+            nextCursor = new KeysetCursor(property, direction, KeysetCursor.valueOf(lastKey), last.get(0, Long.class))
+                    .encode();
+        }
+        return new KeysetPage<>(ids, request.size(), nextCursor, null);
+    }
+
+    private static Sort.Order sortKey(Sort sort) {
+        List<Sort.Order> orders = sort.stream()
+                .filter(order -> !ID.equals(order.getProperty()))
+                .toList();
+        if (orders.size() > 1) {
+            throw new IllegalArgumentException("При пагинации курсором доступна сортировка только по одному полю");
+        }
+        if (!orders.isEmpty()) {
+            return orders.get(0);
+        }
+        // сортировка только по id сохраняет направление
+        Sort.Order byId = sort.getOrderFor(ID);
+        return byId == null || byId.isAscending() ? null : byId;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate seek(
+            CriteriaBuilder cb,
+            Expression<?> key,
+            Path<Long> id,
+            Sort.Direction direction,
+            KeysetCursor cursor
+    ) {
+        boolean ascending = direction.isAscending();
+        Predicate afterId = ascending ? cb.greaterThan(id, cursor.id()) : cb.lessThan(id, cursor.id());
+        if (key == null) {
+            return afterId;
+        }
+        Expression<Comparable> comparable = (Expression<Comparable>) key;
+        Comparable value = (Comparable) cursor.valueAs(key.getJavaType());
+        if (value == null) {
+            // ASC: после NULL идут только NULL с большим id; DESC: NULL первые, затем все непустые
+            return ascending
+                    ? cb.and(cb.isNull(key), afterId)
+                    : cb.or(cb.isNotNull(key), cb.and(cb.isNull(key), afterId));
+        }
+        Predicate afterKey = ascending ? cb.greaterThan(comparable, value) : cb.lessThan(comparable, value);
+        Predicate sameKey = cb.and(cb.equal(key, value), afterId);
+        return ascending
+                ? cb.or(afterKey, sameKey, cb.isNull(key))
+                : cb.or(afterKey, sameKey);
+    }
+}
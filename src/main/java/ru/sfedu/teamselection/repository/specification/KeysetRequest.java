@@ -0,0 +1,22 @@
+package ru.sfedu.teamselection.repository.specification;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Запрос страницы с keyset-пагинацией
+ * @param sort сортировка: не больше одного свойства, при равенстве строки упорядочиваются по id
+ * @param cursor курсор из предыдущей страницы, null - первая страница
+ * @param size размер страницы
+ * @param withTotal нужно ли общее число записей
+ */
+public record KeysetRequest(Sort sort, String cursor, int size, boolean withTotal) {
+    public KeysetRequest {
+        if (size < 1) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным");
+        }
+    }
+
+    public KeysetRequest withSort(Sort newSort) {
+        return new KeysetRequest(newSort, cursor, size, withTotal);
+    }
+}
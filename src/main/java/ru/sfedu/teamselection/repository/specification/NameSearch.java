@@ -0,0 +1,95 @@
+package ru.sfedu.teamselection.repository.specification;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import java.util.Locale;
+
+/**
+ * Условия поиска по имени, которые обслуживаются GIN-индексами pg_trgm по {@code lower(column)}
+ * (см. миграцию V2.01). Индекс используется для подстроки от трех символов и для поиска по сходству.
+ */
+public final class NameSearch {
+    /**
+     * {@code (column %> text)}: в колонке есть фрагмент, похожий на текст не меньше
+     * чем на {@code pg_trgm.word_similarity_threshold} (по умолчанию 0.6)
+     */
+    public static final String WORD_SIMILAR = "trgm_word_similar";
+    /**
+     * {@code word_similarity(text, column)} от 0 до 1
+     */
+    public static final String WORD_SIMILARITY = "word_similarity";
+    /**
+     * Сортировка по сходству со строкой поиска: страница запрашивается без явной сортировки,
+     * порядок задает {@link #orderBySimilarity}. Недоступна при пагинации курсором
+     */
+    public static final String RELEVANCE_SORT = "relevance";
+
+    private static final char ESCAPE = '\\';
+
+    private NameSearch() {}
+
+    /**
+     * {@code lower(column) like '%text%'}; символы шаблона LIKE в тексте экранируются
+     * @param cb criteria builder
+     * @param column строковая колонка
+     * @param text строка поиска
+     * @return условие
+     */
+    public static Predicate contains(CriteriaBuilder cb, Expression<String> column, String text) {
+        return cb.like(cb.lower(column), "%" + escape(normalize(text)) + "%", ESCAPE);
+    }
+
+    /**
+     * Поиск с учетом опечаток: подстрока либо похожий фрагмент
+     * @param cb criteria builder
+     * @param column строковая колонка
+     * @param text строка поиска
+     * @return условие
+     */
+    public static Predicate similar(CriteriaBuilder cb, Expression<String> column, String text) {
+        return cb.or(
+                contains(cb, column, text),
+                cb.isTrue(cb.function(WORD_SIMILAR, Boolean.class, cb.lower(column), cb.literal(normalize(text))))
+        );
+    }
+
+    /**
+     * Сортирует результат по убыванию сходства с текстом, при равенстве - по id.
+     * Применяется, только если у страницы не задана явная сортировка
+     * @param query запрос
+     * @param cb criteria builder
+     * @param column строковая колонка
+     * @param id id сущности
+     * @param text строка поиска
+     */
+    public static void orderBySimilarity(
+            CriteriaQuery<?> query,
+            CriteriaBuilder cb,
+            Expression<String> column,
+            Path<?> id,
+            String text
+    ) {
+        query.orderBy(
+                cb.desc(cb.function(WORD_SIMILARITY, Double.class, cb.literal(normalize(text)), cb.lower(column))),
+                cb.asc(id)
+        );
+    }
+
+    private static String normalize(String text) {
+        return text.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static String escape(String text) {
+        StringBuilder result = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                result.append(ESCAPE);
+            }
+            result.append(c);
+        }
+        return result.toString();
+    }
+}
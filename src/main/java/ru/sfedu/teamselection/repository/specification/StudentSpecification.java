@@ -1,21 +1,36 @@
 package ru.sfedu.teamselection.repository.specification;
 
 
+import jakarta.persistence.criteria.Path;
 import java.util.List;
-import java.util.Locale;
 import org.springframework.data.jpa.domain.Specification;
 import ru.sfedu.teamselection.domain.Student;
 import ru.sfedu.teamselection.domain.Team;
+import ru.sfedu.teamselection.enums.TechnologyMatch;
 
 public final class StudentSpecification {
     private StudentSpecification() {}
 
+    /**
+     * ФИО содержит строку; без явной сортировки страницы результат упорядочен по сходству
+     */
     public static Specification<Student> like(String text) {
-        return (root, query, criteriaBuilder) ->
-             criteriaBuilder.like(
-                    criteriaBuilder.lower(root.get("user").get("fio")),
-                    ("%" + text + "%").toLowerCase(Locale.ROOT)
-            );
+        return (root, query, criteriaBuilder) -> {
+            Path<String> fio = root.get("user").get("fio");
+            NameSearch.orderBySimilarity(query, criteriaBuilder, fio, root.get("id"), text);
+            return NameSearch.contains(criteriaBuilder, fio, text);
+        };
+    }
+
+    /**
+     * Как {@link #like}, но с учетом опечаток в ФИО
+     */
+    public static Specification<Student> similar(String text) {
+        return (root, query, criteriaBuilder) -> {
+            Path<String> fio = root.get("user").get("fio");
+            NameSearch.orderBySimilarity(query, criteriaBuilder, fio, root.get("id"), text);
+            return NameSearch.similar(criteriaBuilder, fio, text);
+        };
     }
 
 
@@ -73,13 +88,19 @@ public final class StudentSpecification {
     }
 
     public static Specification<Student> hasTechnologies(List<Long> technologies) {
+        return hasTechnologies(technologies, TechnologyMatch.ANY);
+    }
+
+    /**
+     * У студента есть любая или все из выбранных технологий.
+     * Проверяется подзапросом EXISTS, поэтому строки студентов не дублируются
+     */
+    public static Specification<Student> hasTechnologies(List<Long> technologies, TechnologyMatch match) {
         return (root, query, criteriaBuilder) -> {
             if (technologies == null || technologies.isEmpty()) {
                 return criteriaBuilder.conjunction(); // do not filter if list is empty
             }
-            return root.join("technologies")
-                    .get("id")
-                    .in(technologies);
+            return TechnologyMatching.matches(root, query, criteriaBuilder, "technologies", technologies, match);
         };
     }
 }
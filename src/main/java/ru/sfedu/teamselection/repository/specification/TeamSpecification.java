@@ -2,26 +2,38 @@ package ru.sfedu.teamselection.repository.specification;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 import java.util.stream.Collectors;
 
-import jakarta.persistence.criteria.Join;
-import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
 import org.springframework.data.jpa.domain.Specification;
 import ru.sfedu.teamselection.domain.Team;
-import ru.sfedu.teamselection.domain.Technology;
+import ru.sfedu.teamselection.enums.TechnologyMatch;
 
 @SuppressWarnings("checkstyle:MultipleStringLiterals")
 public final class TeamSpecification {
 
     private TeamSpecification() {}
 
+    /**
+     * Название содержит строку; без явной сортировки страницы результат упорядочен по сходству
+     */
     public static Specification<Team> like(String text) {
-        return (root, query, criteriaBuilder) ->
-                criteriaBuilder.like(
-                        criteriaBuilder.lower(root.get("name")),
-                        ("%" + text + "%").toLowerCase(Locale.ROOT)
-                );
+        return (root, query, criteriaBuilder) -> {
+            Path<String> name = root.get("name");
+            NameSearch.orderBySimilarity(query, criteriaBuilder, name, root.get("id"), text);
+            return NameSearch.contains(criteriaBuilder, name, text);
+        };
+    }
+
+    /**
+     * Как {@link #like}, но с учетом опечаток в названии
+     */
+    public static Specification<Team> similar(String text) {
+        return (root, query, criteriaBuilder) -> {
+            Path<String> name = root.get("name");
+            NameSearch.orderBySimilarity(query, criteriaBuilder, name, root.get("id"), text);
+            return NameSearch.similar(criteriaBuilder, name, text);
+        };
     }
 
     public static Specification<Team> byTrack(Long trackId) {
@@ -43,12 +55,19 @@ public final class TeamSpecification {
 
 
     public static Specification<Team> byTechnologies(List<Long> technologies) {
+        return byTechnologies(technologies, TechnologyMatch.ANY);
+    }
+
+    /**
+     * В стеке команды есть любая или все из выбранных технологий.
+     * Проверяется подзапросом EXISTS, поэтому строки команд не дублируются
+     */
+    public static Specification<Team> byTechnologies(List<Long> technologies, TechnologyMatch match) {
         return (root, cq, cb) -> {
             if (technologies == null || technologies.isEmpty()) {
                 return cb.conjunction();
             }
-            Join<Team, Technology> join = root.join("technologies", JoinType.LEFT);
-            return join.get("id").in(technologies);
+            return TechnologyMatching.matches(root, cq, cb, "technologies", technologies, match);
         };
     }
 
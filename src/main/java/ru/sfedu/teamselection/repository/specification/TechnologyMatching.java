@@ -0,0 +1,51 @@
+package ru.sfedu.teamselection.repository.specification;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import ru.sfedu.teamselection.enums.TechnologyMatch;
+
+/**
+ * Условие на коллекцию технологий сущности через коррелированный подзапрос.
+ * В отличие от join по коллекции не размножает строки основного запроса, поэтому count страницы остается верным.
+ */
+final class TechnologyMatching {
+
+    private TechnologyMatching() {}
+
+    /**
+     * @param root сущность основного запроса
+     * @param query основной запрос
+     * @param cb criteria builder
+     * @param attribute имя коллекции технологий сущности
+     * @param technologies id выбранных технологий, не пустой
+     * @param match любая или все технологии
+     * @return {@code exists (...)} для ANY, {@code (select count(distinct ...)) = n} для ALL
+     */
+    static <T> Predicate matches(
+            Root<T> root,
+            CriteriaQuery<?> query,
+            CriteriaBuilder cb,
+            String attribute,
+            Collection<Long> technologies,
+            TechnologyMatch match
+    ) {
+        Set<Long> distinct = new HashSet<>(technologies);
+        Subquery<Long> subquery = query.subquery(Long.class);
+        Join<T, ?> technology = subquery.correlate(root).join(attribute);
+        subquery.where(technology.get("id").in(distinct));
+
+        if (match == TechnologyMatch.ALL) {
+            subquery.select(cb.countDistinct(technology.get("id")));
+            return cb.equal(subquery, (long) distinct.size());
+        }
+        subquery.select(technology.get("id"));
+        return cb.exists(subquery);
+    }
+}
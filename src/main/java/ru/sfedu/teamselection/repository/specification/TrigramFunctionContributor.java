@@ -0,0 +1,29 @@
+package ru.sfedu.teamselection.repository.specification;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Регистрирует в Hibernate функции pg_trgm, используемые {@link NameSearch}.
+ * Подключается через META-INF/services
+ */
+public class TrigramFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        // оператор, а не функция: только так условие обслуживается GIN-индексом
+        functionContributions.getFunctionRegistry()
+                .patternDescriptorBuilder(NameSearch.WORD_SIMILAR, "(?1 %> ?2)")
+                .setExactArgumentCount(2)
+                .setInvariantType(types.resolve(StandardBasicTypes.BOOLEAN))
+                .register();
+        functionContributions.getFunctionRegistry()
+                .namedDescriptorBuilder(NameSearch.WORD_SIMILARITY)
+                .setExactArgumentCount(2)
+                .setInvariantType(types.resolve(StandardBasicTypes.DOUBLE))
+                .register();
+    }
+}
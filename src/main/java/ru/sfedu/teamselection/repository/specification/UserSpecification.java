@@ -11,14 +11,14 @@ public class UserSpecification {
         return (root, cq, cb) ->
                 fio == null
                         ? cb.conjunction()
-                        : cb.like(cb.lower(root.get("fio")), "%" + fio.toLowerCase() + "%");
+                        : NameSearch.contains(cb, root.get("fio"), fio);
     }
 
     public static Specification<User> withEmailLike(String email) {
         return (root, cq, cb) ->
                 email == null
                         ? cb.conjunction()
-                        : cb.like(cb.lower(root.get("email")), "%" + email.toLowerCase() + "%");
+                        : NameSearch.contains(cb, root.get("email"), email);
     }
 
     public static Specification<User> withRole(String role) {
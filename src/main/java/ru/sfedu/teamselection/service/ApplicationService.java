@@ -1,8 +1,13 @@
 package ru.sfedu.teamselection.service;
 
+import jakarta.persistence.EntityManager;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -25,6 +30,10 @@ import ru.sfedu.teamselection.exception.NotFoundException;
 import ru.sfedu.teamselection.mapper.application.ApplicationMapper;
 import ru.sfedu.teamselection.repository.ApplicationRepository;
 import ru.sfedu.teamselection.repository.specification.ApplicationSpecification;
+import ru.sfedu.teamselection.repository.specification.IdPageQuery;
+import ru.sfedu.teamselection.repository.specification.KeysetPage;
+import ru.sfedu.teamselection.repository.specification.KeysetQuery;
+import ru.sfedu.teamselection.repository.specification.KeysetRequest;
 import ru.sfedu.teamselection.service.validation.ApplicationValidator;
 import ru.sfedu.teamselection.service.validation.ValidationResult;
 import static ru.sfedu.teamselection.enums.ApplicationStatus.ACCEPTED;
@@ -48,34 +57,66 @@ public class ApplicationService {
 
     private final ApplicationValidator applicationValidator;
 
+    private final EntityManager entityManager;
+
+    private final SearchCountCache searchCountCache;
+
 
     public Application findByIdOrElseThrow(Long id) throws NotFoundException {
         return applicationRepository.findById(id).orElseThrow();
     }
 
     public Page<Application> findAll(Long trackId, String status, Pageable pageable) {
+        Sort sort = mapSort(pageable.getSort());
+        if (!sort.equals(pageable.getSort())) {
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+        }
+        return applicationRepository.findAll(buildSpecification(trackId, status), pageable);
+    }
 
-        Specification<Application> spec = (root, query, cb) -> cb.conjunction();
+    /**
+     * Тот же поиск, что и {@link #findAll}, с пагинацией курсором вместо номера страницы
+     * @throws IllegalArgumentException если курсор не подходит к запросу
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Application> scroll(Long trackId, String status, KeysetRequest request) {
+        Specification<Application> spec = buildSpecification(trackId, status);
+        KeysetPage<Long> ids = KeysetQuery.findIds(
+                entityManager, Application.class, spec, request.withSort(mapSort(request.sort()))
+        );
+        if (request.withTotal()) {
+            ids = ids.withTotal(searchCountCache.count(
+                    Arrays.asList("applications", trackId, status),
+                    trackId,
+                    () -> IdPageQuery.count(entityManager, Application.class, spec)
+            ));
+        }
+        Map<Long, Application> applicationsById = applicationRepository.findAllById(ids.content()).stream()
+                .collect(Collectors.toMap(Application::getId, Function.identity()));
+        return ids.map(applicationsById::get);
+    }
 
+    private Specification<Application> buildSpecification(Long trackId, String status) {
+        Specification<Application> spec = (root, query, cb) -> cb.conjunction();
         if (trackId != null) {
             spec = spec.and(ApplicationSpecification.byTrack(trackId));
         }
         if (status != null) {
             spec = spec.and(ApplicationSpecification.byStatus(status));
         }
+        return spec;
+    }
 
-        Sort sort = pageable.getSort();
+    /**
+     * Сортировка по "name" на клиенте соответствует сортировке по ФИО студента
+     */
+    private Sort mapSort(Sort sort) {
         for (Sort.Order order : sort) {
             if ("name".equals(order.getProperty())) {
-                pageable = PageRequest.of(
-                        pageable.getPageNumber(),
-                        pageable.getPageSize(),
-                        Sort.by(order.getDirection(), "student.fio")
-                );
-                break;
+                return Sort.by(order.getDirection(), "student.user.fio");
             }
         }
-        return applicationRepository.findAll(spec, pageable);
+        return sort;
     }
 
     /**
@@ -166,14 +207,7 @@ public class ApplicationService {
         }
 
         ApplicationResponseDto result = applicationMapper.mapToResponseDto(application);
-        result.setPossibleTransitions(new ArrayList<>());
-        for (ApplicationStatus status : ApplicationStatus.values()) {
-            if (applicationValidator.validateUpdate(status, currentUser, application)
-                    instanceof ValidationResult.Success
-            ) {
-                result.getPossibleTransitions().add(status);
-            }
-        }
+        result.setPossibleTransitions(applicationValidator.possibleTransitions(currentUser, application));
         return result;
     }
 
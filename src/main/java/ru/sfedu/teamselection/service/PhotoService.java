@@ -1,66 +1,322 @@
 package ru.sfedu.teamselection.service;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.StreamUtils;
 import org.springframework.web.client.RestClient;
-import ru.sfedu.teamselection.domain.User;
 import ru.sfedu.teamselection.exception.AzureException;
+import ru.sfedu.teamselection.service.photo.CachedPhoto;
+import ru.sfedu.teamselection.service.photo.GraphPhotoClient;
+import ru.sfedu.teamselection.service.photo.PhotoCache;
+import ru.sfedu.teamselection.service.photo.ThumbnailGenerator;
 
+/**
+ * Фотографии пользователей из Azure AD.
+ * Фотографии отдаются из {@link PhotoCache}; устаревшая запись отдается сразу,
+ * а обновляется в фоне (stale-while-revalidate). В Graph синхронно идет только первый запрос фотографии.
+ * Уменьшенные варианты строятся в фоне сразу после загрузки фотографии, а при промахе кэша - в потоке запроса.
+ * После ошибки Graph (кроме отсутствия фотографии) пользователь какое-то время не запрашивается повторно.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class PhotoService {
+    private static final String REFRESH_FAILED = "Unable to refresh photo of user {}: {}";
+
     private final RestClient restClient = RestClient.builder()
             .build();
 
     private final OAuth2AuthorizedClientService authorizedClientService;
+    private final UserService userService;
+    private final GraphPhotoClient graphPhotoClient;
+    private final PhotoCache photoCache;
+    private final ThumbnailGenerator thumbnailGenerator;
+
+    /**
+     * Сколько фотография считается актуальной без обращения к Graph
+     */
+    private final Duration ttl;
+    /**
+     * Сколько помнить, что у пользователя нет фотографии
+     */
+    private final Duration negativeTtl;
+    /**
+     * Сколько не обращаться к Graph за фотографией пользователя после ошибки
+     */
+    private final Duration errorTtl;
+    @Getter
+    private final CacheControl browserCacheControl;
+
+    private final ThreadPoolExecutor refreshExecutor;
+    private final ThreadPoolExecutor thumbnailExecutor;
+    private final Map<Long, CompletableFuture<CachedPhoto>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Long, Instant> failedAt = new ConcurrentHashMap<>();
 
     @Getter
     private byte[] placeholder; // картинка-заглушка для аватарки пользователя
+    private CachedPhoto placeholderPhoto;
+    private Map<Integer, CachedPhoto> placeholderVariants;
 
-    private final UserService userService;
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public PhotoService(
+            OAuth2AuthorizedClientService authorizedClientService,
+            UserService userService,
+            GraphPhotoClient graphPhotoClient,
+            PhotoCache photoCache,
+            ThumbnailGenerator thumbnailGenerator,
+            @Value("${app.photo.cache.ttl-minutes:60}") long ttlMinutes,
+            @Value("${app.photo.cache.negative-ttl-minutes:30}") long negativeTtlMinutes,
+            @Value("${app.photo.cache.error-ttl-seconds:60}") long errorTtlSeconds,
+            @Value("${app.photo.browser-max-age-minutes:10}") long browserMaxAgeMinutes,
+            @Value("${app.photo.refresh.pool-size:2}") int refreshPoolSize,
+            @Value("${app.photo.refresh.queue-capacity:100}") int refreshQueueCapacity,
+            @Value("${app.photo.thumbnail.pool-size:1}") int thumbnailPoolSize,
+            @Value("${app.photo.thumbnail.queue-capacity:100}") int thumbnailQueueCapacity
+    ) {
+        this.authorizedClientService = authorizedClientService;
+        this.userService = userService;
+        this.graphPhotoClient = graphPhotoClient;
+        this.photoCache = photoCache;
+        this.thumbnailGenerator = thumbnailGenerator;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.negativeTtl = Duration.ofMinutes(negativeTtlMinutes);
+        this.errorTtl = Duration.ofSeconds(errorTtlSeconds);
+        this.browserCacheControl = CacheControl.maxAge(Duration.ofMinutes(browserMaxAgeMinutes)).cachePrivate();
+        this.refreshExecutor = new ThreadPoolExecutor(
+                refreshPoolSize,
+                refreshPoolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(refreshQueueCapacity),
+                new CustomizableThreadFactory("photo-refresh-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.thumbnailExecutor = new ThreadPoolExecutor(
+                thumbnailPoolSize,
+                thumbnailPoolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(thumbnailQueueCapacity),
+                new CustomizableThreadFactory("photo-thumbnail-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
 
     @PostConstruct
     public void init() {
         try {
             ClassPathResource resource = new ClassPathResource("static/images/profile_placeholder.png");
             this.placeholder = StreamUtils.copyToByteArray(resource.getInputStream());
+            this.placeholderPhoto = new CachedPhoto(
+                    placeholder,
+                    MediaType.IMAGE_PNG_VALUE,
+                    DigestUtils.md5DigestAsHex(placeholder),
+                    Instant.EPOCH
+            );
+            this.placeholderVariants = thumbnailGenerator.generate(placeholderPhoto);
         } catch (IOException e) {
             throw new RuntimeException("Не удалось загрузить плейсхолдер", e);
         }
     }
 
-    public byte[] getAzureUserPhoto(Long id, OAuth2AuthenticationToken authentication) {
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+        thumbnailExecutor.shutdownNow();
+    }
+
+    /**
+     * Фотография пользователя или заглушка, если фотографии нет либо Graph недоступен
+     * @param id id пользователя
+     * @param authentication текущий пользователь, от имени которого запрашивается Graph
+     * @return фотография с ETag
+     */
+    public CachedPhoto getUserPhoto(Long id, OAuth2AuthenticationToken authentication) {
+        return getUserPhoto(id, authentication, null);
+    }
+
+    /**
+     * Фотография пользователя нужного размера
+     * @param id id пользователя
+     * @param authentication текущий пользователь, от имени которого запрашивается Graph
+     * @param size желаемая сторона изображения в пикселях; null - оригинал
+     * @return наименьший вариант не меньше запрошенного размера или оригинал
+     */
+    public CachedPhoto getUserPhoto(Long id, OAuth2AuthenticationToken authentication, Integer size) {
+        CachedPhoto original = getOriginalPhoto(id, authentication);
+        Integer variant = thumbnailGenerator.variantFor(size);
+        if (variant == null) {
+            return original;
+        }
+        if (original == placeholderPhoto) {
+            return placeholderVariants.getOrDefault(variant, original);
+        }
+        CachedPhoto cached = photoCache.getVariant(id, variant, original.etag());
+        if (cached != null) {
+            return cached;
+        }
+        return generateVariants(id, original).getOrDefault(variant, original);
+    }
+
+    private CachedPhoto getOriginalPhoto(Long id, OAuth2AuthenticationToken authentication) {
+        CachedPhoto cached = photoCache.get(id);
+        if (cached != null) {
+            if (cached.isOlderThan(cached.isMissing() ? negativeTtl : ttl, Instant.now()) && !recentlyFailed(id)) {
+                refreshInBackground(id, authentication);
+            }
+            return cached.isMissing() ? placeholderPhoto : cached;
+        }
+        if (recentlyFailed(id)) {
+            return placeholderPhoto;
+        }
+
+        try {
+            CachedPhoto loaded = load(id, authentication, false).join();
+            return loaded.isMissing() ? placeholderPhoto : loaded;
+        } catch (RuntimeException e) {
+            log.warn("Unable to load photo of user {}: {}", id, e.getMessage());
+            return placeholderPhoto;
+        }
+    }
+
+    private void refreshInBackground(Long id, OAuth2AuthenticationToken authentication) {
+        try {
+            load(id, authentication, true).exceptionally(e -> {
+                log.warn(REFRESH_FAILED, id, e.getMessage());
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn(REFRESH_FAILED, id, e.getMessage());
+        }
+    }
+
+    private boolean recentlyFailed(Long id) {
+        Instant failed = failedAt.get(id);
+        if (failed == null) {
+            return false;
+        }
+        if (failed.plus(errorTtl).isBefore(Instant.now())) {
+            failedAt.remove(id, failed);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Загружает фотографию из Graph. Одновременные запросы одного пользователя ждут одну и ту же загрузку
+     * @param async выполнить загрузку в фоне, иначе - в текущем потоке
+     */
+    private CompletableFuture<CachedPhoto> load(Long id, OAuth2AuthenticationToken authentication, boolean async) {
+        CompletableFuture<CachedPhoto> created = new CompletableFuture<>();
+        CompletableFuture<CachedPhoto> existing = inFlight.putIfAbsent(id, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        Runnable task;
+        try {
+            // токен и почта берутся в потоке запроса, фоновая задача работает только с Graph и кэшем
+            String accessToken = getAccessToken(authentication);
+            String email = userService.findByIdOrElseThrow(id).getEmail();
+            task = () -> {
+                try {
+                    created.complete(fetch(id, email, accessToken));
+                } catch (RuntimeException e) {
+                    created.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(id, created);
+                }
+            };
+        } catch (RuntimeException e) {
+            inFlight.remove(id, created);
+            created.completeExceptionally(e);
+            return created;
+        }
+
+        if (!async) {
+            task.run();
+            return created;
+        }
+        try {
+            refreshExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(id, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    private CachedPhoto fetch(Long id, String email, String accessToken) {
+        Instant now = Instant.now();
+        Optional<GraphPhotoClient.GraphPhoto> photo;
+        try {
+            photo = graphPhotoClient.fetchPhoto(email, accessToken);
+        } catch (RuntimeException e) {
+            failedAt.put(id, now);
+            throw e;
+        }
+        failedAt.remove(id);
+        CachedPhoto result = photo
+                .map(p -> new CachedPhoto(p.content(), p.contentType(), DigestUtils.md5DigestAsHex(p.content()), now))
+                .orElseGet(() -> CachedPhoto.missing(now));
+        photoCache.put(id, result);
+        if (!result.isMissing()) {
+            try {
+                thumbnailExecutor.execute(() -> generateVariants(id, result));
+            } catch (RejectedExecutionException e) {
+                log.debug("Thumbnails of user {} will be generated on demand", id);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Строит и кэширует все варианты фотографии
+     * @return варианты по размеру; пустой, если фотографию не удалось обработать
+     */
+    private Map<Integer, CachedPhoto> generateVariants(Long id, CachedPhoto original) {
+        try {
+            Map<Integer, CachedPhoto> variants = thumbnailGenerator.generate(original);
+            variants.forEach((size, variant) -> photoCache.putVariant(id, size, variant));
+            return variants;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to generate thumbnails of user {}: {}", id, e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private String getAccessToken(OAuth2AuthenticationToken authentication) {
         OAuth2AuthorizedClient client = authorizedClientService.loadAuthorizedClient(
                 "azure",
                 authentication.getName()
         );
-        String accessToken = client.getAccessToken().getTokenValue();
-        User user = userService.findByIdOrElseThrow(id);
-
-        return restClient.get()
-                //.uri("https://graph.microsoft.com/v1.0/me/photo/$value")
-                .uri("https://graph.microsoft.com/v1.0/users/" + user.getEmail() + "/photo/$value")
-                .header("Authorization", "Bearer " + accessToken)
-                .retrieve()
-                .onStatus(HttpStatusCode::isError, (request, response) -> {
-                    String errorMessage = "Error while retrieving image from Azure: "
-                            + response.getStatusCode().value() + " "
-                            + response.getStatusText();
-                    log.error(errorMessage);
-                    throw new AzureException(errorMessage);
-                })
-                .body(byte[].class);
+        if (client == null) {
+            throw new AzureException("Пользователь не авторизован в Azure");
+        }
+        return client.getAccessToken().getTokenValue();
     }
 
     public byte[] getPhotoByUrl(String url) {
@@ -0,0 +1,46 @@
+package ru.sfedu.teamselection.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.sfedu.teamselection.domain.CacheRegions;
+
+/**
+ * Сброс кэша второго уровня Hibernate для справочников: треков, технологий, типов проектов и ролей.
+ * Изменения через EntityManager Hibernate учитывает сам, явный сброс после коммита нужен,
+ * чтобы справочник гарантированно перечитался после правки администратором.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReferenceCacheService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Сбрасывает закэшированные сущности справочника и запросы справочников после коммита текущей транзакции
+     * @param entityClass класс сущности справочника
+     */
+    public void evict(Class<?> entityClass) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictNow(entityClass);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictNow(entityClass);
+            }
+        });
+    }
+
+    private void evictNow(Class<?> entityClass) {
+        log.debug("Evicting second-level cache of {}", entityClass.getSimpleName());
+        entityManagerFactory.getCache().evict(entityClass);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion(CacheRegions.REFERENCE_QUERIES);
+    }
+}
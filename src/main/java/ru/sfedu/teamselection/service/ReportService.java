@@ -3,7 +3,6 @@ package ru.sfedu.teamselection.service;
 import java.time.format.DateTimeFormatter;
 import java.util.stream.Collectors;
 import org.apache.poi.ss.usermodel.CellStyle;
-import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
@@ -13,16 +12,50 @@ import ru.sfedu.teamselection.domain.Student;
 import ru.sfedu.teamselection.domain.Team;
 import ru.sfedu.teamselection.domain.Technology;
 import ru.sfedu.teamselection.domain.Track;
+import ru.sfedu.teamselection.service.report.ReportStyles;
 
 @SuppressWarnings({"checkstyle:MultipleStringLiterals", "checkstyle:MagicNumber"})
 @Service
 public class ReportService {
+    /**
+     * Шапка трека, общая с листом сводки {@link ru.sfedu.teamselection.service.report.ConsolidatedReportService}
+     */
+    public static final String[] TRACK_HEADERS = {
+            "Название трека",
+            "Описание трека",
+            "Дата начала",
+            "Дата окончания",
+            "Тип трека",
+            "Минимум человек в команде",
+            "Максимум человек в команде",
+            "Максимум студентов 2 курса (для бакалавров)"
+    };
+    private static final String[] TEAM_HEADERS = {
+            "Имя команды",
+            "Описание команды",
+            "Тип проекта",
+            "Количество студентов",
+            "Заполненность команды",
+            "Тэги"
+    };
+    private static final String[] STUDENT_HEADERS = {
+            "ФИО",
+            "Email",
+            "Курс",
+            "Группа",
+            "О себе",
+            "Тэги",
+            "Капитан"
+    };
 
     public final DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd.MM.yyyy");
 
     public XSSFWorkbook createExcelReport(Track track) {
-        XSSFWorkbook report = createExcelFile();
-        Sheet sheet = report.getSheet("Отчет");
+        XSSFWorkbook report = new XSSFWorkbook();
+        // стили заголовков создаются один раз на книгу, а не на каждую команду
+        ReportStyles styles = new ReportStyles(report);
+        Sheet sheet = report.createSheet("Отчет");
+        createHeader(sheet.createRow(0), TRACK_HEADERS, styles.header(IndexedColors.RED));
         Row firstRow = sheet.createRow(1);
 
         firstRow.createCell(0).setCellValue(track.getName());
@@ -36,8 +69,7 @@ public class ReportService {
 
         int rowIndex = 2;
         for (Team team : track.getCurrentTeams()) {
-            Row headerTeam = sheet.createRow(rowIndex++);
-            createTeamHeader(headerTeam, report);
+            createHeader(sheet.createRow(rowIndex++), TEAM_HEADERS, styles.header(IndexedColors.BLUE));
             Row rowTeam = sheet.createRow(rowIndex++);
             rowTeam.createCell(0).setCellValue(team.getName());
             rowTeam.createCell(1).setCellValue(team.getProjectDescription());
@@ -51,8 +83,7 @@ public class ReportService {
                             .collect(Collectors.joining(","))
             );
 
-            Row headerStudent = sheet.createRow(rowIndex++);
-            createStudentHeader(headerStudent, report);
+            createHeader(sheet.createRow(rowIndex++), STUDENT_HEADERS, styles.header(IndexedColors.GREEN));
             for (Student student : team.getStudents()) {
                 Row rowStudent = sheet.createRow(rowIndex++);
                 rowStudent.createCell(0).setCellValue(student.getUser().getFio());
@@ -71,83 +102,10 @@ public class ReportService {
         return report;
     }
 
-    @SuppressWarnings("checkstyle:MultipleStringLiterals")
-    private void createStudentHeader(Row row, XSSFWorkbook report) {
-        CellStyle style = report.createCellStyle();
-        Font newFont = report.createFont();
-        newFont.setFontName("Calibri");
-        newFont.setBold(true);
-        newFont.setColor(IndexedColors.GREEN.getIndex());
-        style.setFont(newFont);
-
-        row.createCell(0).setCellValue("ФИО");
-        row.getCell(0).setCellStyle(style);
-        row.createCell(1).setCellValue("Email");
-        row.getCell(1).setCellStyle(style);
-        row.createCell(2).setCellValue("Курс");
-        row.getCell(2).setCellStyle(style);
-        row.createCell(3).setCellValue("Группа");
-        row.getCell(3).setCellStyle(style);
-        row.createCell(4).setCellValue("О себе");
-        row.getCell(4).setCellStyle(style);
-        row.createCell(5).setCellValue("Тэги");
-        row.getCell(5).setCellStyle(style);
-        row.createCell(6).setCellValue("Капитан");
-        row.getCell(6).setCellStyle(style);
-    }
-
-    private void createTeamHeader(Row row, XSSFWorkbook report) {
-        CellStyle style = report.createCellStyle();
-        Font newFont = report.createFont();
-        newFont.setFontName("Calibri");
-        newFont.setBold(true);
-        newFont.setColor(IndexedColors.BLUE.getIndex());
-        style.setFont(newFont);
-
-        row.createCell(0).setCellValue("Имя команды");
-        row.getCell(0).setCellStyle(style);
-        row.createCell(1).setCellValue("Описание команды");
-        row.getCell(1).setCellStyle(style);
-        row.createCell(2).setCellValue("Тип проекта");
-        row.getCell(2).setCellStyle(style);
-        row.createCell(3).setCellValue("Количество студентов");
-        row.getCell(3).setCellStyle(style);
-        row.createCell(4).setCellValue("Заполненность команды");
-        row.getCell(4).setCellStyle(style);
-        row.createCell(5).setCellValue("Тэги");
-        row.getCell(5).setCellStyle(style);
-    }
-
-
-    private XSSFWorkbook createExcelFile() {
-        XSSFWorkbook report = new XSSFWorkbook();
-        Sheet sheet = report.createSheet("Отчет");
-        Row header = sheet.createRow(0);
-        CellStyle style = report.createCellStyle();
-        Font newFont = report.createFont();
-        newFont.setFontName("Calibri");
-        newFont.setBold(true);
-        newFont.setColor(IndexedColors.RED.getIndex());
-        style.setFont(newFont);
-
-        header.createCell(0).setCellValue("Название трека");
-        header.getCell(0).setCellStyle(style);
-        header.createCell(1).setCellValue("Описание трека");
-        header.getCell(1).setCellStyle(style);
-        header.createCell(2).setCellValue("Дата начала");
-        header.getCell(2).setCellStyle(style);
-        header.createCell(3).setCellValue("Дата окончания");
-        header.getCell(3).setCellStyle(style);
-        header.createCell(4).setCellValue("Тип трека");
-        header.getCell(4).setCellStyle(style);
-        header.createCell(5).setCellValue("Минимум человек в команде");
-        header.getCell(5).setCellStyle(style);
-        header.createCell(6).setCellValue("Максимум человек в команде");
-        header.getCell(6).setCellStyle(style);
-        header.createCell(7).setCellValue("Максимум студентов 2 курса (для бакалавров)");
-        header.getCell(7).setCellStyle(style);
-
-        return report;
+    private static void createHeader(Row row, String[] headers, CellStyle style) {
+        for (int i = 0; i < headers.length; i++) {
+            row.createCell(i).setCellValue(headers[i]);
+            row.getCell(i).setCellStyle(style);
+        }
     }
 }
-
@@ -0,0 +1,61 @@
+package ru.sfedu.teamselection.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Кэш общего числа записей для поиска с пагинацией курсором.
+ * Число считается один раз на набор фильтров и переиспользуется всеми страницами, пока не истечет ttl
+ * или не изменится версия данных трека из {@link TrackDataVersionService}. Поэтому оно приблизительное:
+ * изменения других треков и поиск без трека учитываются только по истечении ttl
+ */
+@Service
+public class SearchCountCache {
+    private final TrackDataVersionService trackDataVersionService;
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    private final Map<List<?>, Entry> entries = new ConcurrentHashMap<>();
+
+    public SearchCountCache(
+            TrackDataVersionService trackDataVersionService,
+            @Value("${app.search.count-cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${app.search.count-cache.max-entries:1000}") int maxEntries
+    ) {
+        this.trackDataVersionService = trackDataVersionService;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Число записей из кэша или подсчитанное заново
+     * @param key вид поиска и значения всех его фильтров
+     * @param trackId трек, к которому относится поиск, может быть null
+     * @param counter подсчет числа записей
+     * @return число записей
+     */
+    public long count(List<?> key, Long trackId, LongSupplier counter) {
+        long now = System.currentTimeMillis();
+        long version = trackId == null ? 0 : trackDataVersionService.getVersion(trackId);
+        Entry cached = entries.get(key);
+        if (cached != null && cached.version() == version && cached.expiresAt() > now) {
+            return cached.count();
+        }
+        long count = counter.getAsLong();
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+        }
+        entries.put(key, new Entry(count, version, now + ttlMillis));
+        return count;
+    }
+
+    private record Entry(long count, long version, long expiresAt) {
+    }
+}
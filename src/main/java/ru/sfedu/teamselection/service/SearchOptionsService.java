@@ -0,0 +1,186 @@
+package ru.sfedu.teamselection.service;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.sfedu.teamselection.dto.ProjectTypeDto;
+import ru.sfedu.teamselection.dto.TechnologyDto;
+import ru.sfedu.teamselection.dto.student.StudentSearchOptionsDto;
+import ru.sfedu.teamselection.dto.team.TeamSearchOptionsDto;
+import ru.sfedu.teamselection.mapper.ProjectTypeMapper;
+import ru.sfedu.teamselection.mapper.TechnologyMapper;
+import ru.sfedu.teamselection.repository.ProjectTypeRepository;
+import ru.sfedu.teamselection.repository.StudentRepository;
+import ru.sfedu.teamselection.repository.TechnologyRepository;
+
+/**
+ * Кэш опций фильтров поиска студентов и команд по трекам.
+ * Опции считаются агрегирующими запросами и хранятся в памяти вместе с версией данных трека
+ * из {@link TrackDataVersionService}: запись с устаревшей версией пересчитывается при следующем чтении,
+ * а опции, во время расчета которых версия изменилась, не кэшируются.
+ * Вызывающие получают копии закэшированных опций.
+ */
+@Service
+@RequiredArgsConstructor
+public class SearchOptionsService {
+    private final StudentRepository studentRepository;
+    private final TechnologyRepository technologyRepository;
+    private final ProjectTypeRepository projectTypeRepository;
+    private final TrackDataVersionService trackDataVersionService;
+    private final TechnologyMapper technologyMapper;
+    private final ProjectTypeMapper projectTypeMapper;
+
+    private final Map<Long, CachedOptions<StudentSearchOptionsDto>> studentOptions = new ConcurrentHashMap<>();
+    private final Map<Long, CachedOptions<TeamSearchOptionsDto>> teamOptions = new ConcurrentHashMap<>();
+
+    /**
+     * Опции фильтров для поиска студентов трека
+     * @param trackId id трека
+     * @return курсы, группы и технологии студентов трека
+     */
+    @Transactional(readOnly = true)
+    public StudentSearchOptionsDto getStudentOptions(Long trackId) {
+        return getOrBuild(studentOptions, trackId, this::buildStudentOptions, SearchOptionsService::copy);
+    }
+
+    /**
+     * Опции фильтров для поиска команд трека
+     * @param trackId id трека
+     * @return технологии команд трека и все типы проектов
+     */
+    @Transactional(readOnly = true)
+    public TeamSearchOptionsDto getTeamOptions(Long trackId) {
+        return getOrBuild(teamOptions, trackId, this::buildTeamOptions, SearchOptionsService::copy);
+    }
+
+    /**
+     * Сбрасывает опции трека после фиксации текущей транзакции
+     * (или сразу, если транзакции нет), чтобы параллельное чтение не закэшировало незафиксированное состояние
+     * @param trackId id трека, null игнорируется
+     */
+    public void invalidate(Long trackId) {
+        if (trackId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            trackDataVersionService.bump(trackId);
+            studentOptions.remove(trackId);
+            teamOptions.remove(trackId);
+        });
+    }
+
+    /**
+     * Сбрасывает опции всех треков, например после изменения справочника технологий
+     */
+    public void invalidateAll() {
+        afterCommit(() -> {
+            trackDataVersionService.bumpAll();
+            studentOptions.clear();
+            teamOptions.clear();
+        });
+    }
+
+    private <T> T getOrBuild(
+            Map<Long, CachedOptions<T>> cache,
+            Long trackId,
+            Function<Long, T> builder,
+            UnaryOperator<T> copier
+    ) {
+        long version = trackDataVersionService.getVersion(trackId);
+        CachedOptions<T> cached = cache.get(trackId);
+        if (cached != null && cached.version() == version) {
+            return copier.apply(cached.options());
+        }
+        T options = builder.apply(trackId);
+        // если данные трека изменились во время расчета, опции могли быть посчитаны по старому состоянию
+        if (trackDataVersionService.getVersion(trackId) == version) {
+            cache.put(trackId, new CachedOptions<>(version, options));
+        }
+        return copier.apply(options);
+    }
+
+    /**
+     * Копия опций, чтобы вызывающий не мог изменить закэшированный объект
+     */
+    private static StudentSearchOptionsDto copy(StudentSearchOptionsDto options) {
+        return StudentSearchOptionsDto.builder()
+                .courses(Set.copyOf(options.getCourses()))
+                .groups(Set.copyOf(options.getGroups()))
+                .hasTeam(List.copyOf(options.getHasTeam()))
+                .isCaptain(List.copyOf(options.getIsCaptain()))
+                .technologies(copyTechnologies(options.getTechnologies()))
+                .currentTrackId(options.getCurrentTrackId())
+                .build();
+    }
+
+    private static TeamSearchOptionsDto copy(TeamSearchOptionsDto options) {
+        return TeamSearchOptionsDto.builder()
+                .technologies(copyTechnologies(options.getTechnologies()))
+                .projectTypes(options.getProjectTypes().stream()
+                        .map(p -> new ProjectTypeDto().id(p.getId()).name(p.getName()))
+                        .collect(Collectors.toUnmodifiableSet()))
+                .build();
+    }
+
+    private static Set<TechnologyDto> copyTechnologies(Set<TechnologyDto> technologies) {
+        return technologies.stream()
+                .map(t -> new TechnologyDto().id(t.getId()).name(t.getName()))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private StudentSearchOptionsDto buildStudentOptions(Long trackId) {
+        Set<Integer> courses = new HashSet<>();
+        Set<Integer> groups = new HashSet<>();
+        for (Object[] row : studentRepository.findCourseAndGroupPairsByTrack(trackId)) {
+            if (row[0] != null) {
+                courses.add((Integer) row[0]);
+            }
+            if (row[1] != null) {
+                groups.add((Integer) row[1]);
+            }
+        }
+        return StudentSearchOptionsDto.builder()
+                .courses(Collections.unmodifiableSet(courses))
+                .groups(Collections.unmodifiableSet(groups))
+                .technologies(Set.copyOf(
+                        technologyMapper.mapListToDto(technologyRepository.findAllUsedByStudentsOfTrack(trackId))
+                ))
+                .build();
+    }
+
+    private TeamSearchOptionsDto buildTeamOptions(Long trackId) {
+        return TeamSearchOptionsDto.builder()
+                .technologies(Set.copyOf(
+                        technologyMapper.mapListToDto(technologyRepository.findAllUsedByTeamsOfTrack(trackId))
+                ))
+                .projectTypes(Set.copyOf(projectTypeMapper.mapListToDto(projectTypeRepository.findAll())))
+                .build();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record CachedOptions<T>(long version, T options) {
+    }
+}
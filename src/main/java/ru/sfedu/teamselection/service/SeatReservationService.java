@@ -0,0 +1,202 @@
+package ru.sfedu.teamselection.service;
+
+import jakarta.persistence.EntityManager;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import ru.sfedu.teamselection.exception.ConstraintViolationException;
+import ru.sfedu.teamselection.exception.NotFoundException;
+
+/**
+ * Занятие и освобождение мест в команде.
+ * Проверка вместимости, ограничения по второкурсникам и увеличение счетчика выполняются одним
+ * условным UPDATE под блокировкой строки команды, поэтому одновременные вступления
+ * не могут превысить ограничения трека и не теряют обновления счетчика.
+ * Работает в транзакции вызывающего; при взаимоблокировке изменение откатывается до savepoint
+ * и повторяется ограниченное число раз.
+ */
+@Slf4j
+@Service
+public class SeatReservationService {
+    private static final String SAVEPOINT = "seat_reservation";
+    private static final String LOCK_SQL = "select id from teams where id = ? for update";
+    /**
+     * Строки блокируются в порядке id, поэтому пакетные операции не блокируют друг друга взаимно
+     */
+    private static final String LOCK_ALL_SQL = "select id from teams where id = any(?) order by id for update";
+    private static final String LOCK_STUDENTS_SQL = "select id from students where id = any(?) order by id for update";
+
+    /**
+     * Подзапрос выполняется новым оператором после блокировки строки команды,
+     * поэтому видит состав, закоммиченный предыдущим владельцем блокировки
+     */
+    private static final String RESERVE_SQL = """
+            update teams t
+            set quantity_of_students = t.quantity_of_students + 1,
+                is_full = coalesce(t.quantity_of_students + 1 >= tr.max_constraint, false)
+            from tracks tr
+            where t.id = ?
+              and tr.id = t.current_track_id
+              and (? or not t.is_full)
+              and (not ?
+                   or tr.max_second_course_constraint is null
+                   or (select count(*)
+                       from teams_students ts
+                       join students s on s.id = ts.student_id
+                       where ts.team_id = t.id and s.course = 2) < tr.max_second_course_constraint)
+            returning t.quantity_of_students, t.is_full
+            """;
+
+    private static final String RELEASE_SQL = """
+            update teams
+            set quantity_of_students = quantity_of_students - 1,
+                is_full = false
+            where id = ?
+            returning quantity_of_students, is_full
+            """;
+
+    private static final String STATE_SQL = """
+            select t.is_full, tr.max_second_course_constraint
+            from teams t
+            join tracks tr on tr.id = t.current_track_id
+            where t.id = ?
+            """;
+
+    private static final RowMapper<Seats> SEATS_MAPPER =
+            (rs, rowNum) -> new Seats(rs.getInt(1), rs.getBoolean(2));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final int maxAttempts;
+    private final long backoffMs;
+
+    public SeatReservationService(
+            JdbcTemplate jdbcTemplate,
+            EntityManager entityManager,
+            @Value("${app.team.seat-reservation.max-attempts:3}") int maxAttempts,
+            @Value("${app.team.seat-reservation.backoff-ms:20}") long backoffMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMs = backoffMs;
+    }
+
+    /**
+     * Занимает место в команде
+     * @param teamId id сохраненной команды
+     * @param secondCourse вступает ли студент второго курса
+     * @param skipRestrictions не проверять заполненность команды (для администратора)
+     * @return состояние команды после вступления
+     * @throws ConstraintViolationException если команда заполнена или достигнуто ограничение по второкурсникам
+     * @throws NotFoundException если команды нет
+     */
+    public Seats reserve(Long teamId, boolean secondCourse, boolean skipRestrictions) {
+        List<Seats> result = withRetry(teamId, () -> {
+            jdbcTemplate.queryForList(LOCK_SQL, Long.class, teamId);
+            return jdbcTemplate.query(RESERVE_SQL, SEATS_MAPPER, teamId, skipRestrictions, secondCourse);
+        });
+        if (result.isEmpty()) {
+            throw rejection(teamId, skipRestrictions);
+        }
+        return result.get(0);
+    }
+
+    /**
+     * Освобождает место в команде
+     * @param teamId id сохраненной команды
+     * @return состояние команды после выхода студента
+     * @throws NotFoundException если команды нет
+     */
+    public Seats release(Long teamId) {
+        List<Seats> result = withRetry(teamId, () -> jdbcTemplate.query(RELEASE_SQL, SEATS_MAPPER, teamId));
+        if (result.isEmpty()) {
+            throw new NotFoundException("Команда с id `" + teamId + "` не найдена");
+        }
+        return result.get(0);
+    }
+
+    /**
+     * Блокирует строки команд до конца текущей транзакции.
+     * Используется пакетными операциями, которые затем меняют состав команд без повторных проверок в базе
+     * @param teamIds id команд
+     */
+    public void lockTeams(Collection<Long> teamIds) {
+        if (teamIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.queryForList(LOCK_ALL_SQL, Long.class, (Object) teamIds.toArray(Long[]::new));
+    }
+
+    /**
+     * Блокирует строки студентов до конца текущей транзакции.
+     * Вызывается после {@link #lockTeams}: одиночное вступление в команду блокирует строки в том же порядке
+     * @param studentIds id студентов
+     */
+    public void lockStudents(Collection<Long> studentIds) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.queryForList(LOCK_STUDENTS_SQL, Long.class, (Object) studentIds.toArray(Long[]::new));
+    }
+
+    private List<Seats> withRetry(Long teamId, Supplier<List<Seats>> action) {
+        // несохраненные изменения состава должны быть видны подзапросу
+        entityManager.flush();
+        // JpaTransactionManager не поддерживает NESTED для Hibernate, поэтому savepoint ставится вручную:
+        // после взаимоблокировки PostgreSQL иначе отклонит все последующие операторы транзакции
+        for (int attempt = 1; ; attempt++) {
+            jdbcTemplate.execute("savepoint " + SAVEPOINT);
+            try {
+                List<Seats> result = action.get();
+                jdbcTemplate.execute("release savepoint " + SAVEPOINT);
+                return result;
+            } catch (ConcurrencyFailureException e) {
+                jdbcTemplate.execute("rollback to savepoint " + SAVEPOINT);
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.warn("Seat update of team {} failed on attempt {}, retrying: {}", teamId, attempt, e.getMessage());
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(backoffMs * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying seat update", e);
+        }
+    }
+
+    private RuntimeException rejection(Long teamId, boolean skipRestrictions) {
+        ResultSetExtractor<RuntimeException> extractor = rs -> {
+            if (!rs.next()) {
+                return new NotFoundException("Команда с id `" + teamId + "` не найдена");
+            }
+            if (!skipRestrictions && rs.getBoolean(1)) {
+                return new ConstraintViolationException("Вступление в полную команду невозможно");
+            }
+            return new ConstraintViolationException(
+                    "В команде уже достигнуто максимальное число (" + rs.getInt(2) + ") студентов-второкурсников");
+        };
+        return jdbcTemplate.query(STATE_SQL, extractor, teamId);
+    }
+
+    /**
+     * Состояние команды после изменения состава
+     * @param quantity число студентов в команде
+     * @param full заполнена ли команда
+     */
+    public record Seats(int quantity, boolean full) {
+    }
+}
@@ -2,37 +2,43 @@ package ru.sfedu.teamselection.service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
-import org.apache.poi.ss.usermodel.BorderStyle;
-import org.apache.poi.ss.usermodel.FillPatternType;
-import org.apache.poi.ss.usermodel.HorizontalAlignment;
 import org.apache.poi.ss.usermodel.IndexedColors;
-import org.apache.poi.ss.usermodel.VerticalAlignment;
-import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.xssf.usermodel.DefaultIndexedColorMap;
-import org.apache.poi.xssf.usermodel.XSSFCell;
 import org.apache.poi.xssf.usermodel.XSSFCellStyle;
-import org.apache.poi.xssf.usermodel.XSSFColor;
-import org.apache.poi.xssf.usermodel.XSSFFont;
-import org.apache.poi.xssf.usermodel.XSSFRow;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.sfedu.teamselection.domain.Student;
+import ru.sfedu.teamselection.service.report.StreamingXlsxWriter;
+import ru.sfedu.teamselection.service.report.StreamingXlsxWriterFactory;
 
 @Service
 @RequiredArgsConstructor
 public class StudentExportService {
     private final StudentService studentService;
 
+    private final StreamingXlsxWriterFactory xlsxWriterFactory;
+
+    private static final String[] EXCEL_HEADERS = {
+            "ID", "ФИО", "Email", "Курс", "Группа",
+            "В команде", "Капитан", "Трек", "Команда", "Контакты"
+    };
+
+    private static final String[] CSV_HEADERS = {
+            "id", "fio", "email", "course", "groupNumber",
+            "hasTeam", "isCaptain", "track", "teamName", "contacts"
+    };
+
     /**
      * Экспорт студентов по треку в CSV, сортировка по ФИО.
      * Добавлены столбцы "команда" и "контакты".
@@ -42,26 +48,10 @@ public class StudentExportService {
         Sort sort = Sort.by("user.fio").ascending();
         List<Student> students = studentService.findAllByTrack(trackId, sort);
 
-        String[] headers = {
-                "id", "fio", "email", "course", "groupNumber",
-                "hasTeam", "isCaptain", "track", "teamName", "contacts"
-        };
-
         try (StringWriter sw = new StringWriter();
-             CSVPrinter printer = new CSVPrinter(sw, CSVFormat.DEFAULT.withHeader(headers))) {
+             CSVPrinter printer = new CSVPrinter(sw, CSVFormat.DEFAULT.withHeader(CSV_HEADERS))) {
             for (Student st : students) {
-                printer.printRecord(
-                        st.getId(),
-                        st.getUser().getFio(),
-                        st.getUser().getEmail(),
-                        st.getCourse(),
-                        st.getGroupNumber(),
-                        st.getHasTeam(),
-                        st.getIsCaptain(),
-                        st.getCurrentTrack().getName(),
-                        Optional.ofNullable(st.getCurrentTeam()).map(t -> t.getName()).orElse(""),
-                        Optional.ofNullable(st.getContacts()).orElse("")
-                );
+                printCsvRecord(printer, st);
             }
             printer.flush();
             return sw.toString().getBytes(StandardCharsets.UTF_8);
@@ -70,79 +60,78 @@ public class StudentExportService {
         }
     }
 
+    /**
+     * Потоковый экспорт студентов по треку в CSV, сортировка по ФИО.
+     * Строки читаются курсором и сразу пишутся в {@code out}, поэтому расход памяти не зависит от размера трека.
+     * Поток {@code out} не закрывается.
+     */
+    public void writeStudentsCsvByTrack(Long trackId, OutputStream out) {
+        try {
+            CSVPrinter printer = new CSVPrinter(
+                    new OutputStreamWriter(out, StandardCharsets.UTF_8),
+                    CSVFormat.DEFAULT.withHeader(CSV_HEADERS)
+            );
+            studentService.forEachByTrack(trackId, st -> {
+                try {
+                    printCsvRecord(printer, st);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            printer.flush();
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Ошибка при формировании CSV для trackId=" + trackId, e);
+        }
+    }
+
+    private void printCsvRecord(CSVPrinter printer, Student st) throws IOException {
+        printer.printRecord(
+                st.getId(),
+                st.getUser().getFio(),
+                st.getUser().getEmail(),
+                st.getCourse(),
+                st.getGroupNumber(),
+                st.getHasTeam(),
+                st.getIsCaptain(),
+                st.getCurrentTrack().getName(),
+                Optional.ofNullable(st.getCurrentTeam()).map(t -> t.getName()).orElse(""),
+                Optional.ofNullable(st.getContacts()).orElse("")
+        );
+    }
+
     /**
      * Экспорт студентов по треку в Excel, сортировка по ФИО.
      * Добавлены столбцы "Команда" и "Контакты".
      * Строки студентов в команде подсвечиваются зелёным.
-     * Заголовки выделены цветом #330036, строки чередуются, автофильтр и заморозка.
+     * Заголовки выделены цветом #330036, автофильтр и заморозка.
      */
     @Transactional(readOnly = true)
     public byte[] exportStudentsToExcelByTrack(Long trackId) {
         Sort sort = Sort.by("user.fio").ascending();
         List<Student> students = studentService.findAllByTrack(trackId, sort);
 
-        try (XSSFWorkbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
-
-            XSSFSheet sheet = workbook.createSheet("Students_" + trackId);
-
-            // Шрифты и стили
-            XSSFFont headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-
-            XSSFCellStyle headerStyle = workbook.createCellStyle();
-            headerStyle.setFont(headerFont);
-            // Цвет шапки #330036
-            byte[] hdr = new byte[]{(byte)0x33, (byte)0x00, (byte)0x36};
-            headerStyle.setFillForegroundColor(new XSSFColor(hdr, new DefaultIndexedColorMap()));
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setAlignment(HorizontalAlignment.CENTER);
-            headerStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-            headerStyle.setWrapText(true);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-
-            XSSFCellStyle greenStyle = workbook.createCellStyle();
-            greenStyle.setFillForegroundColor(IndexedColors.LIGHT_GREEN.getIndex());
-            greenStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            greenStyle.setBorderTop(BorderStyle.THIN);
-            greenStyle.setBorderBottom(BorderStyle.THIN);
-            greenStyle.setBorderLeft(BorderStyle.THIN);
-            greenStyle.setBorderRight(BorderStyle.THIN);
-            greenStyle.setWrapText(true);
-            greenStyle.setVerticalAlignment(VerticalAlignment.TOP);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        writeStudentsExcel(trackId, students::forEach, bos);
+        return bos.toByteArray();
+    }
 
-            XSSFCellStyle whiteStyle = workbook.createCellStyle();
-            whiteStyle.setBorderTop(BorderStyle.THIN);
-            whiteStyle.setBorderBottom(BorderStyle.THIN);
-            whiteStyle.setBorderLeft(BorderStyle.THIN);
-            whiteStyle.setBorderRight(BorderStyle.THIN);
-            whiteStyle.setWrapText(true);
-            whiteStyle.setVerticalAlignment(VerticalAlignment.TOP);
+    /**
+     * Потоковый экспорт студентов по треку в Excel, сортировка по ФИО.
+     * Строки читаются курсором и пишутся в SXSSF-книгу, которая держит в памяти только окно строк.
+     * Поток {@code out} не закрывается.
+     */
+    public void writeStudentsExcelByTrack(Long trackId, OutputStream out) {
+        writeStudentsExcel(trackId, action -> studentService.forEachByTrack(trackId, action), out);
+    }
 
-            // Заголовки
-            String[] headers = {
-                    "ID", "ФИО", "Email", "Курс", "Группа",
-                    "В команде", "Капитан", "Трек", "Команда", "Контакты"
-            };
-            XSSFRow headerRow = sheet.createRow(0);
-            for (int i = 0; i < headers.length; i++) {
-                XSSFCell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-            }
+    private void writeStudentsExcel(Long trackId, Consumer<Consumer<Student>> source, OutputStream out) {
+        try (StreamingXlsxWriter writer = xlsxWriterFactory.create("Students_" + trackId, EXCEL_HEADERS)) {
+            XSSFCellStyle greenStyle = writer.createRowStyle(IndexedColors.LIGHT_GREEN);
+            XSSFCellStyle whiteStyle = writer.createRowStyle();
 
-            // Данные
-            int rowIdx = 1;
-            for (Student st : students) {
-                XSSFRow row = sheet.createRow(rowIdx);
+            source.accept(st -> {
                 boolean inTeam = Boolean.TRUE.equals(st.getHasTeam());
-                XSSFCellStyle rowStyle = inTeam ? greenStyle : whiteStyle;
-
-                Object[] data = {
+                writer.appendRow(new Object[]{
                         st.getId(),
                         st.getUser().getFio(),
                         st.getUser().getEmail(),
@@ -153,33 +142,10 @@ public class StudentExportService {
                         st.getCurrentTrack().getName(),
                         Optional.ofNullable(st.getCurrentTeam()).map(t -> t.getName()).orElse(""),
                         Optional.ofNullable(st.getContacts()).orElse("")
-                };
-
-                for (int i = 0; i < data.length; i++) {
-                    XSSFCell cell = row.createCell(i);
-                    if (data[i] instanceof Boolean) {
-                        cell.setCellValue((Boolean) data[i]);
-                    } else if (data[i] instanceof Number) {
-                        cell.setCellValue(((Number) data[i]).doubleValue());
-                    } else {
-                        cell.setCellValue(data[i].toString());
-                    }
-                    cell.setCellStyle(rowStyle);
-                }
-                rowIdx++;
-            }
-
-            // Автофильтр и заморозка
-            sheet.setAutoFilter(new CellRangeAddress(0, 0, 0, headers.length - 1));
-            sheet.createFreezePane(0, 1);
-
-            // Авторазмер колонок
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
+                }, inTeam ? greenStyle : whiteStyle);
+            });
 
-            workbook.write(bos);
-            return bos.toByteArray();
+            writer.writeTo(out);
         } catch (IOException e) {
             throw new RuntimeException("Ошибка при формировании Excel для trackId=" + trackId, e);
         }
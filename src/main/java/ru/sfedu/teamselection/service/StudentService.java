@@ -1,12 +1,23 @@
 package ru.sfedu.teamselection.service;
 
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -19,34 +30,48 @@ import ru.sfedu.teamselection.dto.StudentUpdateDto;
 import ru.sfedu.teamselection.dto.student.StudentCreationDto;
 import ru.sfedu.teamselection.dto.student.StudentDto;
 import ru.sfedu.teamselection.dto.student.StudentSearchOptionsDto;
+import ru.sfedu.teamselection.enums.TechnologyMatch;
 import ru.sfedu.teamselection.enums.TrackType;
 import ru.sfedu.teamselection.exception.NotFoundException;
-import ru.sfedu.teamselection.mapper.TechnologyMapper;
 import ru.sfedu.teamselection.mapper.student.StudentCreationDtoMapper;
 import ru.sfedu.teamselection.mapper.student.StudentDtoMapper;
 import ru.sfedu.teamselection.repository.RoleRepository;
+import ru.sfedu.teamselection.repository.StreamFetch;
 import ru.sfedu.teamselection.repository.StudentRepository;
+import ru.sfedu.teamselection.repository.TeamRepository;
 import ru.sfedu.teamselection.repository.TechnologyRepository;
+import ru.sfedu.teamselection.repository.specification.IdPageQuery;
+import ru.sfedu.teamselection.repository.specification.KeysetPage;
+import ru.sfedu.teamselection.repository.specification.KeysetQuery;
+import ru.sfedu.teamselection.repository.specification.KeysetRequest;
+import ru.sfedu.teamselection.repository.specification.NameSearch;
 import ru.sfedu.teamselection.repository.specification.StudentSpecification;
+import ru.sfedu.teamselection.service.security.CurrentPrincipalService;
 import ru.sfedu.teamselection.service.security.PermissionLevelUpdate;
 import ru.sfedu.teamselection.service.student.update.StudentUpdateFactory;
+import ru.sfedu.teamselection.service.technology.TechnologyProfileIndex;
 
 @Slf4j
 @RequiredArgsConstructor
 @Service
 public class StudentService {
     private final StudentRepository studentRepository;
+    private final TeamRepository teamRepository;
     private final TechnologyRepository technologyRepository;
     private final RoleRepository roleRepository;
 
     private final StudentUpdateFactory studentUpdateFactory;
+    private final EntityManager entityManager;
+    private final TechnologyProfileIndex technologyProfileIndex;
+    private final SearchCountCache searchCountCache;
 
     @Lazy
     @Autowired
     private UserService userService;
 
     private final StudentCreationDtoMapper studentCreationDtoMapper;
-    private final TechnologyMapper technologyDtoMapper;
+    private final SearchOptionsService searchOptionsService;
+    private final CurrentPrincipalService currentPrincipalService;
 
 
     @Autowired
@@ -74,6 +99,54 @@ public class StudentService {
         return studentRepository.findAll(spec, sort);
     }
 
+    /**
+     * Последовательно передает студентов трека (по ФИО) в обработчик, не загружая весь список в память.
+     * Каждые {@link StreamFetch#SIZE} записей контекст персистентности очищается,
+     * поэтому обработчик не должен сохранять ссылки на переданные сущности.
+     * @param trackId id трека
+     * @param action обработчик очередного студента
+     */
+    @Transactional(readOnly = true)
+    public void forEachByTrack(Long trackId, Consumer<Student> action) {
+        forEachByTrack(trackId, ids -> {}, action);
+    }
+
+    /**
+     * То же, что {@link #forEachByTrack(Long, Consumer)}, но технологии студентов загружаются
+     * одним запросом на порцию из {@link StreamFetch#SIZE} студентов
+     * @param trackId id трека
+     * @param action обработчик очередного студента
+     */
+    @Transactional(readOnly = true)
+    public void forEachWithTechnologiesByTrack(Long trackId, Consumer<Student> action) {
+        forEachByTrack(trackId, studentRepository::findAllWithTechnologiesByIdIn, action);
+    }
+
+    private void forEachByTrack(Long trackId, Consumer<List<Long>> preload, Consumer<Student> action) {
+        List<Student> chunk = new ArrayList<>(StreamFetch.SIZE);
+        try (Stream<Student> students = studentRepository.streamAllByTrack(trackId)) {
+            Iterator<Student> iterator = students.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == StreamFetch.SIZE) {
+                    processChunk(chunk, preload, action);
+                }
+            }
+        }
+        processChunk(chunk, preload, action);
+    }
+
+    private void processChunk(List<Student> chunk, Consumer<List<Long>> preload, Consumer<Student> action) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        // коллекции инициализируются на тех же экземплярах из контекста персистентности
+        preload.accept(chunk.stream().map(Student::getId).toList());
+        chunk.forEach(action);
+        chunk.clear();
+        entityManager.clear();
+    }
+
     /**
      * Find all students
      * @return page of students
@@ -93,10 +166,135 @@ public class StudentService {
                                 List<Long> technologies,
                                 Pageable pageable) {
 
+        Specification<Student> spec = buildSpecification(
+                like, false, trackId, course, groupNumber, hasTeam, isCaptain, technologies, TechnologyMatch.ANY
+        );
+        return studentRepository.findAll(spec, mapSort(pageable));
+    }
+
+    /**
+     * Тот же поиск, что и {@link #search}, но страница загружается вместе со всеми связями,
+     * нужными для {@link StudentDtoMapper#mapToDto}: сначала выбираются id страницы,
+     * затем студенты и их команды догружаются несколькими запросами по спискам id.
+     * Число запросов не зависит от размера страницы
+     * (пока он не превышает {@code hibernate.default_batch_fetch_size}).
+     * Если {@code fuzzy}, строка поиска сопоставляется с ФИО с учетом опечаток;
+     * без явной сортировки студенты упорядочены по сходству ФИО со строкой поиска.
+     * Сортировка {@link TechnologyProfileIndex#OVERLAP_SORT} ставит первыми студентов,
+     * у которых больше всего технологий из {@code technologies}.
+     */
+    @Transactional(readOnly = true)
+    public Page<Student> searchWithDetails(String like,
+                                           boolean fuzzy,
+                                           Long trackId,
+                                           List<Integer> course,
+                                           List<Integer> groupNumber,
+                                           Boolean hasTeam,
+                                           Boolean isCaptain,
+                                           List<Long> technologies,
+                                           TechnologyMatch technologiesMatch,
+                                           Pageable pageable) {
+        Specification<Student> spec = buildSpecification(
+                like, fuzzy, trackId, course, groupNumber, hasTeam, isCaptain, technologies, technologiesMatch
+        );
+        Page<Long> ids;
+        if (TechnologyProfileIndex.isRequested(pageable)) {
+            List<Long> candidates = IdPageQuery.findIds(entityManager, Student.class, spec, Pageable.unpaged())
+                    .getContent();
+            ids = technologyProfileIndex.rankStudents(trackId, technologies, candidates, pageable);
+        } else {
+            ids = IdPageQuery.findIds(entityManager, Student.class, spec, mapSort(pageable));
+        }
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+        Map<Long, Student> studentsById = loadWithDetails(ids.getContent());
+        return ids.map(studentsById::get);
+    }
+
+    /**
+     * Тот же поиск, что и {@link #searchWithDetails}, с пагинацией курсором вместо номера страницы.
+     * Общее число записей возвращается, только если запрошено, и берется из {@link SearchCountCache}
+     * @throws IllegalArgumentException если запрошена сортировка по совпадению технологий
+     *                                  или курсор не подходит к запросу
+     */
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    @Transactional(readOnly = true)
+    public KeysetPage<Student> scrollWithDetails(String like,
+                                                 boolean fuzzy,
+                                                 Long trackId,
+                                                 List<Integer> course,
+                                                 List<Integer> groupNumber,
+                                                 Boolean hasTeam,
+                                                 Boolean isCaptain,
+                                                 List<Long> technologies,
+                                                 TechnologyMatch technologiesMatch,
+                                                 KeysetRequest request) {
+        if (request.sort().getOrderFor(TechnologyProfileIndex.OVERLAP_SORT) != null) {
+            throw new IllegalArgumentException("Сортировка по совпадению технологий недоступна при пагинации курсором");
+        }
+        if (request.sort().getOrderFor(NameSearch.RELEVANCE_SORT) != null) {
+            throw new IllegalArgumentException("Сортировка по релевантности недоступна при пагинации курсором");
+        }
+        Specification<Student> spec = buildSpecification(
+                like, fuzzy, trackId, course, groupNumber, hasTeam, isCaptain, technologies, technologiesMatch
+        );
+        KeysetPage<Long> ids = KeysetQuery.findIds(
+                entityManager, Student.class, spec, request.withSort(mapSort(request.sort()))
+        );
+        if (request.withTotal()) {
+            List<?> key = Arrays.asList(
+                    "students", like, fuzzy, trackId, course, groupNumber, hasTeam, isCaptain,
+                    technologies, technologiesMatch
+            );
+            ids = ids.withTotal(searchCountCache.count(
+                    key, trackId, () -> IdPageQuery.count(entityManager, Student.class, spec)
+            ));
+        }
+        Map<Long, Student> studentsById = ids.content().isEmpty() ? Map.of() : loadWithDetails(ids.content());
+        return ids.map(studentsById::get);
+    }
+
+    /**
+     * Студенты по id со всеми связями, нужными для {@link StudentDtoMapper#mapToDto}
+     */
+    private Map<Long, Student> loadWithDetails(List<Long> ids) {
+        Map<Long, Student> studentsById = studentRepository.findAllWithTechnologiesByIdIn(ids)
+                .stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+        // остальные коллекции инициализируются на тех же экземплярах из контекста персистентности
+        studentRepository.findAllWithTeamsByIdIn(ids);
+        studentRepository.findAllWithApplicationsByIdIn(ids);
+
+        // команды маппятся без участников, но с технологиями и заявками - догружаем их разом для всех студентов
+        Set<Long> teamIds = new HashSet<>();
+        for (Student student : studentsById.values()) {
+            if (student.getCurrentTeam() != null) {
+                teamIds.add(student.getCurrentTeam().getId());
+            }
+            student.getTeams().forEach(team -> teamIds.add(team.getId()));
+            student.getApplications().forEach(application -> teamIds.add(application.getTeam().getId()));
+        }
+        if (!teamIds.isEmpty()) {
+            teamRepository.findAllWithTechnologiesByIdIn(teamIds);
+            teamRepository.findAllWithApplicationsByIdIn(teamIds);
+        }
+        return studentsById;
+    }
+
+    private Specification<Student> buildSpecification(String like,
+                                                      boolean fuzzy,
+                                                      Long trackId,
+                                                      List<Integer> course,
+                                                      List<Integer> groupNumber,
+                                                      Boolean hasTeam,
+                                                      Boolean isCaptain,
+                                                      List<Long> technologies,
+                                                      TechnologyMatch technologiesMatch) {
         Specification<Student> spec = (root, query, cb) -> cb.conjunction();
 
         if (like != null) {
-            spec = spec.and(StudentSpecification.like(like));
+            spec = spec.and(fuzzy ? StudentSpecification.similar(like) : StudentSpecification.like(like));
         }
         if (trackId != null) {
             spec = spec.and(StudentSpecification.byTrack(trackId));
@@ -114,22 +312,29 @@ public class StudentService {
             spec = spec.and(StudentSpecification.byIsCaptain(isCaptain));
         }
         if (technologies != null && !technologies.isEmpty()) {
-            spec = spec.and(StudentSpecification.hasTechnologies(technologies));
+            spec = spec.and(StudentSpecification.hasTechnologies(technologies, technologiesMatch));
         }
 
-        Sort sort = pageable.getSort();
+        return spec;
+    }
+
+    /**
+     * Сортировка по "name" на клиенте соответствует сортировке по ФИО пользователя
+     */
+    private Pageable mapSort(Pageable pageable) {
+        Sort sort = mapSort(pageable.getSort());
+        return sort.equals(pageable.getSort())
+                ? pageable
+                : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    private Sort mapSort(Sort sort) {
         for (Sort.Order order : sort) {
             if ("name".equals(order.getProperty())) {
-                pageable = PageRequest.of(
-                        pageable.getPageNumber(),
-                        pageable.getPageSize(),
-                        Sort.by(order.getDirection(), "user.fio")
-                );
-                break;
+                return Sort.by(order.getDirection(), "user.fio");
             }
         }
-
-        return studentRepository.findAll(spec, pageable);
+        return sort;
     }
 
 
@@ -147,7 +352,10 @@ public class StudentService {
 
         Student student = studentCreationDtoMapper.mapToEntity(dto);
         student.setUser(user);
-        return studentRepository.save(student);
+        Student saved = studentRepository.save(student);
+        invalidateSearchOptions(saved);
+        currentPrincipalService.evict(user.getId());
+        return saved;
     }
 
     /**
@@ -162,6 +370,7 @@ public class StudentService {
             teamService.removeStudentFromTeam(st.getCurrentTeam(), st);
         }
         studentRepository.delete(st);
+        currentPrincipalService.evict(st.getUser().getId());
     }
 
     /**
@@ -175,9 +384,19 @@ public class StudentService {
     public Student update(Long id, StudentUpdateDto dto, PermissionLevelUpdate permission) {
         Student student = findByIdOrElseThrow(id);
 
+        Long oldTrackId = student.getCurrentTrack() == null ? null : student.getCurrentTrack().getId();
         studentUpdateFactory.getHandler(permission).update(student, dto);
 
-        return studentRepository.save(student);
+        Student saved = studentRepository.save(student);
+        searchOptionsService.invalidate(oldTrackId);
+        invalidateSearchOptions(saved);
+        return saved;
+    }
+
+    private void invalidateSearchOptions(Student student) {
+        if (student.getCurrentTrack() != null) {
+            searchOptionsService.invalidate(student.getCurrentTrack().getId());
+        }
     }
 
     @SuppressWarnings("checkstyle:MagicNumber")
@@ -190,25 +409,12 @@ public class StudentService {
     }
 
     /**
-     * Returns DTO containing all possible filter options for searching for students
-     * @return new DTO {@link StudentSearchOptionsDto}
+     * Returns DTO containing all possible filter options for searching for students.
+     * Options are served from {@link SearchOptionsService} cache.
+     * @return DTO {@link StudentSearchOptionsDto}
      */
-    @Transactional(readOnly = true)
     public StudentSearchOptionsDto getSearchOptionsStudents(Long trackId) {
-        var students = search(null, trackId, null, null, null, null, null, Pageable.unpaged());
-
-        StudentSearchOptionsDto studentSearchOptionsDto = new StudentSearchOptionsDto();
-        for (Student student : students) {
-            studentSearchOptionsDto.getCourses().add(student.getCourse());
-            studentSearchOptionsDto.getGroups().add(student.getGroupNumber());
-            studentSearchOptionsDto.getTechnologies().addAll(
-                    student.getTechnologies()
-                    .stream()
-                    .map(technologyDtoMapper::mapToDto)
-                    .toList()
-            );
-        }
-        return studentSearchOptionsDto;
+        return searchOptionsService.getStudentOptions(trackId);
     }
 
     /**
@@ -217,11 +423,7 @@ public class StudentService {
      */
     @Transactional(readOnly = true)
     public Long getCurrentStudent() {
-        User currentUser = userService.getCurrentUser();
-        if (studentRepository.existsByUserId(currentUser.getId())) {
-            return studentRepository.findByUserId(currentUser.getId()).getId();
-        }
-        return null;
+        return currentPrincipalService.getCurrentPrincipal().studentId();
     }
 
     /**
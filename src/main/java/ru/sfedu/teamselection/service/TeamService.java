@@ -1,19 +1,26 @@
 package ru.sfedu.teamselection.service;
 
+import jakarta.persistence.EntityManager;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.sfedu.teamselection.domain.Student;
 import ru.sfedu.teamselection.domain.Team;
@@ -24,18 +31,24 @@ import ru.sfedu.teamselection.dto.team.TeamCreationDto;
 import ru.sfedu.teamselection.dto.team.TeamSearchOptionsDto;
 import ru.sfedu.teamselection.dto.team.TeamUpdateDto;
 import ru.sfedu.teamselection.enums.ApplicationStatus;
+import ru.sfedu.teamselection.enums.TechnologyMatch;
 import ru.sfedu.teamselection.exception.BusinessException;
 import ru.sfedu.teamselection.exception.ConstraintViolationException;
 import ru.sfedu.teamselection.exception.ForbiddenException;
 import ru.sfedu.teamselection.exception.NotFoundException;
 import ru.sfedu.teamselection.mapper.ProjectTypeMapper;
-import ru.sfedu.teamselection.mapper.TechnologyMapper;
 import ru.sfedu.teamselection.mapper.team.TeamCreationDtoMapper;
 import ru.sfedu.teamselection.mapper.team.TeamUpdateDtoMapper;
-import ru.sfedu.teamselection.repository.ProjectTypeRepository;
+import ru.sfedu.teamselection.repository.StreamFetch;
 import ru.sfedu.teamselection.repository.TeamRepository;
 import ru.sfedu.teamselection.repository.TechnologyRepository;
+import ru.sfedu.teamselection.repository.specification.IdPageQuery;
+import ru.sfedu.teamselection.repository.specification.KeysetPage;
+import ru.sfedu.teamselection.repository.specification.KeysetQuery;
+import ru.sfedu.teamselection.repository.specification.KeysetRequest;
+import ru.sfedu.teamselection.repository.specification.NameSearch;
 import ru.sfedu.teamselection.repository.specification.TeamSpecification;
+import ru.sfedu.teamselection.service.technology.TechnologyProfileIndex;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -43,14 +56,17 @@ import ru.sfedu.teamselection.repository.specification.TeamSpecification;
 public class TeamService {
     private final TeamRepository teamRepository;
     private final TechnologyRepository technologyRepository;
-    private final ProjectTypeRepository projectTypeRepository;
+    private final SearchOptionsService searchOptionsService;
+    private final EntityManager entityManager;
+    private final SeatReservationService seatReservationService;
+    private final TechnologyProfileIndex technologyProfileIndex;
+    private final SearchCountCache searchCountCache;
 
     private final TrackService trackService;
     @Lazy
     @Autowired
     private StudentService studentService;
 
-    private final TechnologyMapper technologyDtoMapper;
     private final ProjectTypeMapper projectTypeDtoMapper;
     private final TeamCreationDtoMapper teamCreationDtoMapper;
     private final TeamUpdateDtoMapper teamUpdateDtoMapper;
@@ -94,9 +110,110 @@ public class TeamService {
                              List<String> projectType,
                              List<Long> technologies,
                              Pageable pageable) {
+        Specification<Team> specification = buildSpecification(
+                like, false, trackId, isFull, projectType, technologies, TechnologyMatch.ANY
+        );
+        return teamRepository.findAll(specification, pageable);
+    }
+
+    /**
+     * Тот же поиск, что и {@link #search}, но страница загружается вместе со всеми связями,
+     * нужными для {@link ru.sfedu.teamselection.mapper.team.TeamDtoMapper#mapToDto}:
+     * сначала выбираются id страницы, затем команды догружаются несколькими запросами по списку id.
+     * Число запросов не зависит от размера страницы
+     * (пока он не превышает {@code hibernate.default_batch_fetch_size}).
+     * Если {@code fuzzy}, строка поиска сопоставляется с названием с учетом опечаток;
+     * без явной сортировки команды упорядочены по сходству названия со строкой поиска.
+     * Сортировка {@link TechnologyProfileIndex#OVERLAP_SORT} ставит первыми команды,
+     * у которых больше всего технологий из {@code technologies}.
+     */
+    @Transactional(readOnly = true)
+    public Page<Team> searchWithDetails(String like,
+                                        boolean fuzzy,
+                                        Long trackId,
+                                        Boolean isFull,
+                                        List<String> projectType,
+                                        List<Long> technologies,
+                                        TechnologyMatch technologiesMatch,
+                                        Pageable pageable) {
+        Specification<Team> specification = buildSpecification(
+                like, fuzzy, trackId, isFull, projectType, technologies, technologiesMatch
+        );
+        Page<Long> ids;
+        if (TechnologyProfileIndex.isRequested(pageable)) {
+            List<Long> candidates = IdPageQuery.findIds(entityManager, Team.class, specification, Pageable.unpaged())
+                    .getContent();
+            ids = technologyProfileIndex.rankTeams(trackId, technologies, candidates, pageable);
+        } else {
+            ids = IdPageQuery.findIds(entityManager, Team.class, specification, pageable);
+        }
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+        Map<Long, Team> teamsById = loadWithDetails(ids.getContent());
+        return ids.map(teamsById::get);
+    }
+
+    /**
+     * Тот же поиск, что и {@link #searchWithDetails}, с пагинацией курсором вместо номера страницы.
+     * Общее число записей возвращается, только если запрошено, и берется из {@link SearchCountCache}
+     * @throws IllegalArgumentException если запрошена сортировка по совпадению технологий
+     *                                  или курсор не подходит к запросу
+     */
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    @Transactional(readOnly = true)
+    public KeysetPage<Team> scrollWithDetails(String like,
+                                              boolean fuzzy,
+                                              Long trackId,
+                                              Boolean isFull,
+                                              List<String> projectType,
+                                              List<Long> technologies,
+                                              TechnologyMatch technologiesMatch,
+                                              KeysetRequest request) {
+        if (request.sort().getOrderFor(TechnologyProfileIndex.OVERLAP_SORT) != null) {
+            throw new IllegalArgumentException("Сортировка по совпадению технологий недоступна при пагинации курсором");
+        }
+        if (request.sort().getOrderFor(NameSearch.RELEVANCE_SORT) != null) {
+            throw new IllegalArgumentException("Сортировка по релевантности недоступна при пагинации курсором");
+        }
+        Specification<Team> specification = buildSpecification(
+                like, fuzzy, trackId, isFull, projectType, technologies, technologiesMatch
+        );
+        KeysetPage<Long> ids = KeysetQuery.findIds(entityManager, Team.class, specification, request);
+        if (request.withTotal()) {
+            List<?> key = Arrays.asList(
+                    "teams", like, fuzzy, trackId, isFull, projectType, technologies, technologiesMatch
+            );
+            ids = ids.withTotal(searchCountCache.count(
+                    key, trackId, () -> IdPageQuery.count(entityManager, Team.class, specification)
+            ));
+        }
+        Map<Long, Team> teamsById = ids.content().isEmpty() ? Map.of() : loadWithDetails(ids.content());
+        return ids.map(teamsById::get);
+    }
+
+    /**
+     * Команды по id со всеми связями, нужными для {@link ru.sfedu.teamselection.mapper.team.TeamDtoMapper#mapToDto}
+     */
+    private Map<Long, Team> loadWithDetails(List<Long> ids) {
+        Map<Long, Team> teamsById = teamRepository.findAllWithTechnologiesByIdIn(ids).stream()
+                .collect(Collectors.toMap(Team::getId, Function.identity()));
+        // остальные коллекции инициализируются на тех же экземплярах из контекста персистентности
+        teamRepository.findAllWithStudentsByIdIn(ids);
+        teamRepository.findAllWithApplicationsByIdIn(ids);
+        return teamsById;
+    }
+
+    private Specification<Team> buildSpecification(String like,
+                                                   boolean fuzzy,
+                                                   Long trackId,
+                                                   Boolean isFull,
+                                                   List<String> projectType,
+                                                   List<Long> technologies,
+                                                   TechnologyMatch technologiesMatch) {
         Specification<Team> specification = Specification.allOf();
         if (like != null) {
-            specification = specification.and(TeamSpecification.like(like));
+            specification = specification.and(fuzzy ? TeamSpecification.similar(like) : TeamSpecification.like(like));
         }
         if (trackId != null) {
             specification = specification.and(TeamSpecification.byTrack(trackId));
@@ -107,9 +224,43 @@ public class TeamService {
         if (projectType != null) {
             specification = specification.and(TeamSpecification.byProjectType(projectType));
         }
-        specification = specification.and(TeamSpecification.byTechnologies(technologies));
+        return specification.and(TeamSpecification.byTechnologies(technologies, technologiesMatch));
+    }
 
-        return teamRepository.findAll(specification, pageable);
+    /**
+     * Последовательно передает команды трека (по названию) в обработчик, не загружая весь список в память.
+     * Команды обрабатываются порциями по {@link StreamFetch#SIZE}: для порции участники и технологии
+     * загружаются двумя запросами, после обработки порции контекст персистентности очищается,
+     * поэтому обработчик не должен сохранять ссылки на переданные сущности.
+     * @param trackId id трека
+     * @param action обработчик очередной команды
+     */
+    @Transactional(readOnly = true)
+    public void forEachByTrack(Long trackId, Consumer<Team> action) {
+        List<Team> chunk = new ArrayList<>(StreamFetch.SIZE);
+        try (Stream<Team> teams = teamRepository.streamAllByTrack(trackId)) {
+            Iterator<Team> iterator = teams.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == StreamFetch.SIZE) {
+                    processChunk(chunk, action);
+                }
+            }
+        }
+        processChunk(chunk, action);
+    }
+
+    private void processChunk(List<Team> chunk, Consumer<Team> action) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Long> ids = chunk.stream().map(Team::getId).toList();
+        // коллекции инициализируются на тех же экземплярах из контекста персистентности
+        teamRepository.findAllWithTechnologiesByIdIn(ids);
+        teamRepository.findAllWithStudentsByIdIn(ids);
+        chunk.forEach(action);
+        chunk.clear();
+        entityManager.clear();
     }
 
     /**
@@ -117,7 +268,7 @@ public class TeamService {
      * @param dto TeamDto
      * @return the team
      */
-    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    @Transactional
     public Team create(TeamCreationDto dto, User sender) {
         String name    = dto.getName();
         Long trackId   = dto.getCurrentTrackId();
@@ -162,6 +313,7 @@ public class TeamService {
                 )
         );
 
+        searchOptionsService.invalidate(trackId);
         return teamRepository.save(team);
     }
 
@@ -182,6 +334,7 @@ public class TeamService {
             teamMember.getTeams().remove(team);
         }
 
+        searchOptionsService.invalidate(team.getCurrentTrack().getId());
         team.getCurrentTrack().getCurrentTeams().remove(team);
         team.getStudents().clear();
         team.getTechnologies().clear();
@@ -189,39 +342,40 @@ public class TeamService {
         teamRepository.deleteById(id);
     }
 
+    /**
+     * Добавляет студента в команду.
+     * Для сохраненной команды место занимается атомарно в базе через {@link SeatReservationService},
+     * ограничения трека проверяются там же; новая команда еще не видна другим транзакциям
+     * @param team команда
+     * @param student студент
+     * @param skipRestrictions не проверять заполненность команды (для администратора)
+     * @return обновленная команда
+     */
     @Transactional
     public Team addStudentToTeam(Team team, Student student, Boolean skipRestrictions) {
         if (student.getHasTeam()) {
             throw new ConstraintViolationException("Студент уже состоит в команде");
         }
-        if (!skipRestrictions && team.getIsFull()) {
-            throw new ConstraintViolationException("Вступление в полную команду невозможно");
-        }
-        // ограничение по второму курсу
-        if (student.getCourse() == 2) {
-            long count2 = team.getStudents().stream()
-                    .filter(s -> s.getCourse() == 2)
-                    .count();
-            int max2 = team.getCurrentTrack().getMaxSecondCourseConstraint();
-            if (count2 >= max2) {
-                throw new ConstraintViolationException(
-                        "В команде уже достигнуто максимальное число (" + max2 + ") студентов-второкурсников");
-            }
-        }
         // не дублируем участника
         if (team.getStudents().stream()
                 .anyMatch(s -> s.getId().equals(student.getId()))) {
             throw new ConstraintViolationException("Студент уже состоит в данной команде");
         }
 
+        if (team.getId() != null) {
+            SeatReservationService.Seats seats = seatReservationService.reserve(
+                    team.getId(),
+                    student.getCourse() == 2,
+                    skipRestrictions
+            );
+            team.setQuantityOfStudents(seats.quantity());
+            team.setIsFull(seats.full());
+        } else {
+            reserveInMemory(team, student, skipRestrictions);
+        }
+
         // добавляем
         team.getStudents().add(student);
-        team.setQuantityOfStudents(team.getQuantityOfStudents() + 1);
-        team.setIsFull(
-                team.getQuantityOfStudents().equals(
-                        team.getCurrentTrack().getMaxConstraint()
-                )
-        );
 
         student.setHasTeam(true);
         student.setCurrentTeam(team);
@@ -231,14 +385,36 @@ public class TeamService {
         return team;
     }
 
+    private void reserveInMemory(Team team, Student student, Boolean skipRestrictions) {
+        if (!skipRestrictions && team.getIsFull()) {
+            throw new ConstraintViolationException("Вступление в полную команду невозможно");
+        }
+        // ограничение по второму курсу
+        Integer max2 = team.getCurrentTrack().getMaxSecondCourseConstraint();
+        if (student.getCourse() == 2 && max2 != null && getSecondYearsCount(team) >= max2) {
+            throw new ConstraintViolationException(
+                    "В команде уже достигнуто максимальное число (" + max2 + ") студентов-второкурсников");
+        }
+        team.setQuantityOfStudents(team.getQuantityOfStudents() + 1);
+        // у трека может не быть ограничения сверху
+        Integer max = team.getCurrentTrack().getMaxConstraint();
+        team.setIsFull(max != null && team.getQuantityOfStudents() >= max);
+    }
+
     @Transactional
     public Team removeStudentFromTeam(Team team, Student student) {
         if (team.getCaptainId().equals(student.getId())) {
             throw new ConstraintViolationException("Нельзя удалить капитана из собственной команды");
         }
         team.getStudents().removeIf(s -> s.getId().equals(student.getId()));
-        team.setQuantityOfStudents(team.getQuantityOfStudents() - 1);
-        team.setIsFull(false);
+        if (team.getId() != null) {
+            SeatReservationService.Seats seats = seatReservationService.release(team.getId());
+            team.setQuantityOfStudents(seats.quantity());
+            team.setIsFull(seats.full());
+        } else {
+            team.setQuantityOfStudents(team.getQuantityOfStudents() - 1);
+            team.setIsFull(false);
+        }
 
         student.setHasTeam(false);
         student.setCurrentTeam(null);
@@ -281,6 +457,7 @@ public class TeamService {
             throw new ForbiddenException("Операция доступна только для капитана команды или администратора");
         }
 
+        searchOptionsService.invalidate(team.getCurrentTrack().getId());
         // Только admin может менять эти поля:
         if (isAdmin) {
             if (!Objects.equals(dto.getCurrentTrackId(),
@@ -333,6 +510,7 @@ public class TeamService {
             newCaptain.setIsCaptain(true);
         }
 
+        searchOptionsService.invalidate(team.getCurrentTrack().getId());
         return teamRepository.save(team);
     }
 
@@ -346,22 +524,13 @@ public class TeamService {
         return res;
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Возможные значения фильтров для поиска команд трека из кэша {@link SearchOptionsService}
+     * @param trackId id трека
+     * @return DTO {@link TeamSearchOptionsDto}
+     */
     public TeamSearchOptionsDto getSearchOptionsTeams(Long trackId) {
-        var teams = search(null, trackId, null, null, null, Pageable.unpaged());
-        TeamSearchOptionsDto teamSearchOptionsDto = new TeamSearchOptionsDto();
-        teamSearchOptionsDto
-                .getProjectTypes()
-                .addAll(projectTypeDtoMapper.mapListToDto(projectTypeRepository.findAll()));
-        for (Team team : teams) {
-            teamSearchOptionsDto.getTechnologies().addAll(
-                    team.getTechnologies()
-                            .stream()
-                            .map(technologyDtoMapper::mapToDto)
-                            .toList()
-            );
-        }
-        return teamSearchOptionsDto;
+        return searchOptionsService.getTeamOptions(trackId);
     }
 
     public List<Team> getTeamHistoryForStudent(Long studentId) {
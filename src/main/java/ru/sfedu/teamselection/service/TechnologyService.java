@@ -16,6 +16,8 @@ public class TechnologyService {
 
     private final TechnologyRepository technologyRepository;
     private final TechnologyMapper technologyMapper;
+    private final SearchOptionsService searchOptionsService;
+    private final ReferenceCacheService referenceCacheService;
 
     /**
      * Найти технологию по идентификатору.
@@ -45,6 +47,8 @@ public class TechnologyService {
     public TechnologyDto create(TechnologyDto dto) {
         Technology entity = technologyMapper.mapToEntity(dto);
         Technology saved = technologyRepository.save(entity);
+        searchOptionsService.invalidateAll();
+        referenceCacheService.evict(Technology.class);
         return technologyMapper.mapToDto(saved);
     }
 
@@ -59,5 +63,7 @@ public class TechnologyService {
         technology.getTeams().clear();
         technologyRepository.save(technology);
         technologyRepository.deleteById(id);
+        searchOptionsService.invalidateAll();
+        referenceCacheService.evict(Technology.class);
     }
 }
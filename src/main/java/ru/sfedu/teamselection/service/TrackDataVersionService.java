@@ -0,0 +1,72 @@
+package ru.sfedu.teamselection.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Счетчики версий данных по трекам.
+ * Версия трека увеличивается при любом изменении его студентов или команд
+ * и позволяет понять, актуален ли ранее построенный по треку результат (выгрузка, кэш).
+ * Счетчики живут в памяти процесса и начинаются с нуля после перезапуска.
+ */
+@Service
+public class TrackDataVersionService {
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+    /**
+     * Общая версия, увеличивается при массовых изменениях, затрагивающих все треки
+     */
+    private final AtomicLong globalVersion = new AtomicLong();
+
+    /**
+     * Текущая версия данных трека
+     * @param trackId id трека
+     * @return версия, меняющаяся при каждом изменении данных трека
+     */
+    public long getVersion(Long trackId) {
+        AtomicLong version = versions.get(trackId);
+        return globalVersion.get() + (version == null ? 0 : version.get());
+    }
+
+    /**
+     * Отмечает изменение данных трека
+     * @param trackId id трека, null игнорируется
+     */
+    public void bump(Long trackId) {
+        if (trackId == null) {
+            return;
+        }
+        versions.computeIfAbsent(trackId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Отмечает изменение данных трека после фиксации текущей транзакции (или сразу, если транзакции нет),
+     * чтобы результат, построенный по еще незафиксированным данным, не получил новую версию
+     * @param trackId id трека, null игнорируется
+     */
+    public void bumpAfterCommit(Long trackId) {
+        if (trackId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(trackId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump(trackId);
+            }
+        });
+    }
+
+    /**
+     * Отмечает изменение данных всех треков, например после массового UPDATE в обход сущностей
+     */
+    public void bumpAll() {
+        globalVersion.incrementAndGet();
+    }
+}
@@ -27,6 +27,7 @@ public class TrackService {
     private final TrackCreationDtoMapper trackCreationDtoMapper;
 
     private final TrackDtoMapper trackDtoMapper;
+    private final ReferenceCacheService referenceCacheService;
 
     /**
      * Find Track entity by id
@@ -66,7 +67,9 @@ public class TrackService {
                     );
                 });
 
-        return trackRepository.save(track);
+        Track saved = trackRepository.save(track);
+        referenceCacheService.evict(Track.class);
+        return saved;
     }
 
     /**
@@ -88,7 +91,9 @@ public class TrackService {
         existingTrack.setMaxConstraint(trackDto.getMaxConstraint());
         existingTrack.setMaxSecondCourseConstraint(trackDto.getMaxSecondCourseConstraint());
 
-        return trackRepository.save(existingTrack);
+        Track saved = trackRepository.save(existingTrack);
+        referenceCacheService.evict(Track.class);
+        return saved;
     }
 
     /**
@@ -109,5 +114,6 @@ public class TrackService {
             );
         }
         trackRepository.delete(track);
+        referenceCacheService.evict(Track.class);
     }
 }
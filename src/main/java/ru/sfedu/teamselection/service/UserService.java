@@ -1,14 +1,16 @@
 package ru.sfedu.teamselection.service;
 
+import jakarta.persistence.EntityManager;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.sfedu.teamselection.domain.Role;
@@ -22,7 +24,12 @@ import ru.sfedu.teamselection.mapper.user.UserMapper;
 import ru.sfedu.teamselection.repository.RoleRepository;
 import ru.sfedu.teamselection.repository.StudentRepository;
 import ru.sfedu.teamselection.repository.UserRepository;
+import ru.sfedu.teamselection.repository.specification.IdPageQuery;
+import ru.sfedu.teamselection.repository.specification.KeysetPage;
+import ru.sfedu.teamselection.repository.specification.KeysetQuery;
+import ru.sfedu.teamselection.repository.specification.KeysetRequest;
 import ru.sfedu.teamselection.repository.specification.UserSpecification;
+import ru.sfedu.teamselection.service.security.CurrentPrincipalService;
 import ru.sfedu.teamselection.service.security.PermissionLevelUpdate;
 import ru.sfedu.teamselection.service.security.UserSessionService;
 import ru.sfedu.teamselection.service.student.update.StudentUpdateFactory;
@@ -34,6 +41,8 @@ public class UserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final StudentRepository studentRepository;
+    private final EntityManager entityManager;
+    private final SearchCountCache searchCountCache;
 
     private final StudentUpdateFactory studentUpdateFactory;
     private final UserToStudentUpdateMapper userToStudentUpdateMapper;
@@ -41,6 +50,7 @@ public class UserService {
     @Autowired
     private TrackService trackService;
     private final UserSessionService userSessionService;
+    private final CurrentPrincipalService currentPrincipalService;
 
     private final UserMapper userMapper;
 
@@ -52,6 +62,28 @@ public class UserService {
                 .map(userMapper::mapToDto);
     }
 
+    /**
+     * Тот же поиск, что и {@link #search}, с пагинацией курсором вместо номера страницы
+     * @throws IllegalArgumentException если курсор не подходит к запросу
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<UserDto> scroll(UserSearchCriteria criteria, KeysetRequest request) {
+        Specification<User> spec = UserSpecification.build(criteria);
+        KeysetPage<Long> ids = KeysetQuery.findIds(entityManager, User.class, spec, request);
+        if (request.withTotal()) {
+            List<?> key = Arrays.asList(
+                    "users", criteria.getFio(), criteria.getEmail(), criteria.getRole(), criteria.getCourse(),
+                    criteria.getGroupNumber(), criteria.getTrackId(), criteria.getIsEnabled()
+            );
+            ids = ids.withTotal(searchCountCache.count(
+                    key, criteria.getTrackId(), () -> IdPageQuery.count(entityManager, User.class, spec)
+            ));
+        }
+        Map<Long, User> usersById = userRepository.findAllById(ids.content()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.map(id -> userMapper.mapToDto(usersById.get(id)));
+    }
+
     /**
      * Find User entity by id
      * @param id user id
@@ -79,18 +111,21 @@ public class UserService {
     }
 
     /**
-     * Get current user based on security context
+     * Get current user based on security context.
+     * Пользователь ищется по id из {@link CurrentPrincipalService}, повторные вызовы в запросе
+     * обслуживаются контекстом персистентности
      * @return Authenticated user object
      */
     public User getCurrentUser() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String principalName = auth.getName();
-        var authAuthorities = auth.getAuthorities();
-        if (auth.getPrincipal() instanceof OidcUser oidc) {
-            return findByEmail(oidc.getEmail());
-        } else {
-            return findByUsername(principalName);
-        }
+        return findByIdOrElseThrow(getCurrentUserId());
+    }
+
+    /**
+     * Id текущего пользователя без загрузки сущности, для проверок в {@code @PreAuthorize}
+     * @return id пользователя из контекста безопасности
+     */
+    public Long getCurrentUserId() {
+        return currentPrincipalService.getCurrentPrincipal().userId();
     }
 
     @Transactional
@@ -156,6 +191,7 @@ public class UserService {
 
         user.setRole(role);
         userSessionService.updateUserAuthorities(user.getEmail());
+        currentPrincipalService.evict(userId);
         return userRepository.save(user);
     }
 
@@ -164,6 +200,7 @@ public class UserService {
         User user = findByIdOrElseThrow(id);
         user.setIsEnabled(false);
         userRepository.save(user);
+        currentPrincipalService.evict(id);
     }
 
 }
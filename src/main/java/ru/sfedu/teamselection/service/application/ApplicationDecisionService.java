@@ -0,0 +1,116 @@
+package ru.sfedu.teamselection.service.application;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.sfedu.teamselection.domain.User;
+import ru.sfedu.teamselection.dto.application.ApplicationDecisionDto;
+import ru.sfedu.teamselection.dto.application.ApplicationDecisionResultDto;
+import ru.sfedu.teamselection.enums.ApplicationDecisionOutcome;
+import ru.sfedu.teamselection.enums.ApplicationStatus;
+import ru.sfedu.teamselection.exception.BusinessException;
+import ru.sfedu.teamselection.repository.projection.ApplicationState;
+import ru.sfedu.teamselection.repository.projection.TeamState;
+import ru.sfedu.teamselection.service.SearchOptionsService;
+import ru.sfedu.teamselection.service.validation.ApplicationValidationContext;
+import ru.sfedu.teamselection.service.validation.ApplicationValidationContextLoader;
+import ru.sfedu.teamselection.service.validation.ApplicationValidator;
+import ru.sfedu.teamselection.service.validation.ValidationResult;
+
+/**
+ * Пакетное принятие решений по заявкам капитанами и администраторами.
+ * Все решения проверяются по одному предзагруженному снимку затронутых команд и студентов
+ * в порядке следования в запросе и записываются одной транзакцией.
+ * Неприменимые решения не прерывают пакет, а возвращаются с причиной в результате
+ */
+@Slf4j
+@Service
+public class ApplicationDecisionService {
+    private final ApplicationValidationContextLoader contextLoader;
+    private final ApplicationValidator applicationValidator;
+    private final ApplicationDecisionWriter decisionWriter;
+    private final SearchOptionsService searchOptionsService;
+    private final int maxBatchSize;
+
+    public ApplicationDecisionService(
+            ApplicationValidationContextLoader contextLoader,
+            ApplicationValidator applicationValidator,
+            ApplicationDecisionWriter decisionWriter,
+            SearchOptionsService searchOptionsService,
+            @Value("${app.application.decisions.max-batch-size:500}") int maxBatchSize
+    ) {
+        this.contextLoader = contextLoader;
+        this.applicationValidator = applicationValidator;
+        this.decisionWriter = decisionWriter;
+        this.searchOptionsService = searchOptionsService;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Применяет решения по заявкам
+     * @param decisions пары (id заявки, новый статус) в порядке применения
+     * @param sender пользователь, принимающий решения
+     * @return результат по каждому решению в порядке запроса
+     * @throws BusinessException если решений больше допустимого
+     */
+    @Transactional
+    public List<ApplicationDecisionResultDto> decide(List<ApplicationDecisionDto> decisions, User sender) {
+        if (decisions.size() > maxBatchSize) {
+            throw new BusinessException(
+                    "Слишком много решений в одном запросе: %d, допустимо %d".formatted(decisions.size(), maxBatchSize)
+            );
+        }
+        log.info("PUT /applications/decisions — {} decisions by user={}", decisions.size(), sender.getId());
+        Set<Long> ids = new LinkedHashSet<>();
+        decisions.forEach(d -> ids.add(d.getApplicationId()));
+        ApplicationValidationContext context = contextLoader.loadForDecisions(ids, sender);
+
+        List<ApplicationDecisionResultDto> results = new ArrayList<>(decisions.size());
+        for (ApplicationDecisionDto decision : decisions) {
+            results.add(decide(decision, context));
+        }
+
+        decisionWriter.write(context);
+        for (TeamState team : context.getChangedTeams()) {
+            searchOptionsService.invalidate(team.getTrackId());
+        }
+        return results;
+    }
+
+    private ApplicationDecisionResultDto decide(ApplicationDecisionDto decision, ApplicationValidationContext context) {
+        ApplicationDecisionResultDto.ApplicationDecisionResultDtoBuilder result = ApplicationDecisionResultDto.builder()
+                .applicationId(decision.getApplicationId())
+                .status(decision.getStatus());
+        if (decision.getStatus() == null) {
+            return result.outcome(ApplicationDecisionOutcome.FAILED).message("Не указан статус заявки").build();
+        }
+        ApplicationState application = context.application(decision.getApplicationId());
+        if (application == null) {
+            return result.outcome(ApplicationDecisionOutcome.NOT_FOUND)
+                    .message("Заявка с id `" + decision.getApplicationId() + "` не найдена")
+                    .build();
+        }
+
+        ValidationResult validationResult = applicationValidator.validateUpdate(
+                decision.getStatus(),
+                application,
+                context
+        );
+        if (validationResult instanceof ValidationResult.Success
+                && decision.getStatus() == ApplicationStatus.ACCEPTED) {
+            validationResult = applicationValidator.validateJoin(application, context);
+        }
+        if (validationResult instanceof ValidationResult.Failure failure) {
+            return result.outcome(ApplicationDecisionOutcome.FAILED).message(failure.message).build();
+        } else if (validationResult instanceof ValidationResult.Forbidden forbidden) {
+            return result.outcome(ApplicationDecisionOutcome.FORBIDDEN).message(forbidden.message).build();
+        }
+        context.apply(application, decision.getStatus());
+        return result.outcome(ApplicationDecisionOutcome.APPLIED).build();
+    }
+}
@@ -0,0 +1,100 @@
+package ru.sfedu.teamselection.service.application;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.sfedu.teamselection.enums.ApplicationStatus;
+import ru.sfedu.teamselection.repository.projection.ApplicationState;
+import ru.sfedu.teamselection.repository.projection.StudentState;
+import ru.sfedu.teamselection.repository.projection.TeamState;
+import ru.sfedu.teamselection.service.validation.ApplicationValidationContext;
+
+/**
+ * Запись изменений, накопленных в {@link ApplicationValidationContext}, JDBC batch'ами:
+ * по одному пакету на статусы заявок, состав команд, студентов и счетчики команд.
+ * Пишет в транзакции вызывающего в обход сущностей, строки команд и студентов должны быть заблокированы заранее.
+ * Используется также автоматическим распределением по командам
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ApplicationDecisionWriter {
+    static final String UPDATE_STATUS_SQL = "update applications set status = ? where id = ?";
+    static final String INSERT_MEMBER_SQL = "insert into teams_students (team_id, student_id) values (?, ?)";
+    static final String UPDATE_STUDENT_SQL = "update students set has_team = true, current_team_id = ? where id = ?";
+    static final String UPDATE_TEAM_SQL = """
+            update teams
+            set quantity_of_students = ?, is_full = ?, updated_at = now()
+            where id = ?
+            """;
+    static final String CANCEL_SENT_SQL = """
+            update applications
+            set status = ?
+            where student_id = any(?) and lower(status) = 'sent'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void write(ApplicationValidationContext context) {
+        List<Object[]> statuses = new ArrayList<>();
+        for (ApplicationState application : context.getChangedApplications()) {
+            statuses.add(new Object[]{application.getStatus().name(), application.getId()});
+        }
+        batch(UPDATE_STATUS_SQL, statuses);
+        writeMembers(context.getJoinedStudents());
+        writeTeams(context.getChangedTeams());
+        log.debug("Written {} application statuses, {} new team members, {} teams",
+                statuses.size(), context.getJoinedStudents().size(), context.getChangedTeams().size());
+    }
+
+    /**
+     * Записывает вступление студентов в команды
+     * @param students студенты с заполненным {@link StudentState#getCurrentTeamId()}
+     */
+    public void writeMembers(Collection<StudentState> students) {
+        List<Object[]> members = new ArrayList<>(students.size());
+        for (StudentState student : students) {
+            members.add(new Object[]{student.getCurrentTeamId(), student.getId()});
+        }
+        batch(INSERT_MEMBER_SQL, members);
+        batch(UPDATE_STUDENT_SQL, members);
+    }
+
+    /**
+     * Записывает число участников и заполненность команд
+     * @param teams измененные снимки команд
+     */
+    public void writeTeams(Collection<TeamState> teams) {
+        List<Object[]> args = new ArrayList<>(teams.size());
+        for (TeamState team : teams) {
+            args.add(new Object[]{team.getQuantityOfStudents(), team.isFull(), team.getId()});
+        }
+        batch(UPDATE_TEAM_SQL, args);
+    }
+
+    /**
+     * Отменяет отправленные заявки студентов, как при принятии заявки
+     * @param studentIds id студентов
+     * @return число отмененных заявок
+     */
+    public int cancelSentApplications(Collection<Long> studentIds) {
+        if (studentIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(
+                CANCEL_SENT_SQL,
+                ApplicationStatus.CANCELLED.name(),
+                studentIds.toArray(Long[]::new)
+        );
+    }
+
+    private void batch(String sql, List<Object[]> args) {
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, args);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package ru.sfedu.teamselection.service.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Асинхронная запись аудита пачками.
+ * Записи складываются в ограниченную очередь, отдельный поток забирает их и вставляет одним JDBC batch,
+ * как только набралось {@code batch-size} записей или прошло {@code flush-interval-ms} с первой записи пачки.
+ * При переполнении очереди новые записи отбрасываются, чтобы не тормозить обработку запросов.
+ * Если batch не вставился, записи пачки вставляются по одной, и теряются только ошибочные.
+ * Остаток очереди дописывается при остановке приложения.
+ */
+@Slf4j
+@Component
+public class AuditBatchWriter {
+    static final String INSERT_SQL = """
+            insert into audit (id, trace_id, audit_point, sender_email, remote_address, payload, created_at)
+            values (?, ?, ?, ?, ?, ?::jsonb, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<AuditRecord> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Thread writerThread;
+
+    private final Counter acceptedCounter;
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    private volatile boolean running = true;
+
+    public AuditBatchWriter(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.audit.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.audit.batch-size:200}") int batchSize,
+            @Value("${app.audit.flush-interval-ms:500}") long flushIntervalMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("audit-writer-");
+        threadFactory.setDaemon(true);
+        this.writerThread = threadFactory.newThread(this::run);
+
+        Gauge.builder("audit.queue.size", queue, BlockingQueue::size)
+                .description("Записи аудита, ожидающие вставки")
+                .register(meterRegistry);
+        Gauge.builder("audit.queue.remaining", queue, BlockingQueue::remainingCapacity)
+                .description("Свободное место в очереди аудита")
+                .register(meterRegistry);
+        this.acceptedCounter = Counter.builder("audit.records.accepted").register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.records.dropped")
+                .description("Записи аудита, отброшенные из-за переполнения очереди")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.records.written").register(meterRegistry);
+        this.failedCounter = Counter.builder("audit.records.failed")
+                .description("Записи аудита, потерянные из-за ошибки вставки")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("audit.batch.duration").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        writerThread.start();
+    }
+
+    /**
+     * Ставит запись в очередь на вставку, не блокируя вызывающий поток
+     * @param auditRecord запись аудита
+     * @return false, если очередь заполнена и запись отброшена
+     */
+    public boolean offer(AuditRecord auditRecord) {
+        if (running && queue.offer(auditRecord)) {
+            acceptedCounter.increment();
+            return true;
+        }
+        droppedCounter.increment();
+        log.debug("Audit record {} dropped, queue is full", auditRecord.auditPoint());
+        return false;
+    }
+
+    /**
+     * Останавливает поток записи, дождавшись вставки оставшихся в очереди записей
+     */
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        try {
+            writerThread.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            log.warn("Audit writer did not finish in time, {} records are lost", queue.size());
+        }
+    }
+
+    private void run() {
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditRecord first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch, System.nanoTime() + flushIntervalNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queue.drainTo(batch);
+                write(batch);
+                return;
+            }
+            write(batch);
+        }
+    }
+
+    private void fillBatch(List<AuditRecord> batch, long deadline) throws InterruptedException {
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            AuditRecord next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<AuditRecord> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            batchTimer.record(() -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), AuditBatchWriter::bind));
+            writtenCounter.increment(batch.size());
+        } catch (RuntimeException e) {
+            log.warn("Error while saving batch of {} audit records, retrying one by one: {}",
+                    batch.size(), e.getMessage());
+            writeOneByOne(batch);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    /**
+     * Вставка пачки по одной записи после ошибки batch'а: теряются только записи, которые не вставляются сами
+     */
+    private void writeOneByOne(List<AuditRecord> batch) {
+        for (AuditRecord auditRecord : batch) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, auditRecord));
+                writtenCounter.increment();
+            } catch (RuntimeException e) {
+                failedCounter.increment();
+                log.error("Error while saving audit record {} ({}): {}",
+                        auditRecord.id(), auditRecord.auditPoint(), e.getMessage());
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement ps, AuditRecord auditRecord) throws SQLException {
+        ps.setObject(1, auditRecord.id());
+        ps.setObject(2, auditRecord.traceId());
+        ps.setString(3, auditRecord.auditPoint());
+        ps.setString(4, auditRecord.senderEmail());
+        ps.setString(5, auditRecord.remoteAddress());
+        ps.setString(6, auditRecord.payload());
+        ps.setObject(7, auditRecord.createdAt());
+    }
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+}
@@ -0,0 +1,19 @@
+package ru.sfedu.teamselection.service.audit;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Запись аудита, ожидающая пакетной вставки в таблицу {@code audit}.
+ * @param payload JSON или null
+ */
+public record AuditRecord(
+        UUID id,
+        UUID traceId,
+        String auditPoint,
+        String senderEmail,
+        String remoteAddress,
+        String payload,
+        LocalDateTime createdAt
+) {
+}
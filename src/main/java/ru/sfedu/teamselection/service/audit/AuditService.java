@@ -1,21 +1,21 @@
 package ru.sfedu.teamselection.service.audit;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import ru.sfedu.teamselection.config.logging.AuditableInterceptor;
-import ru.sfedu.teamselection.domain.audit.AuditEntity;
-import ru.sfedu.teamselection.repository.AuditRepository;
 
 @Slf4j
 @RequiredArgsConstructor
 @Service
 public class AuditService {
-    private final AuditRepository auditRepository;
+    private final AuditBatchWriter auditBatchWriter;
 
-    @Transactional
+    /**
+     * Ставит запись аудита в очередь {@link AuditBatchWriter}, не дожидаясь вставки в БД
+     */
     public void log(
             UUID traceId,
             AuditableInterceptor.AuditDetails auditDetails,
@@ -23,15 +23,17 @@ public class AuditService {
             String remoteAddress,
             String payload
     ) {
-        var jsonPayload = payload.isBlank() ? null : payload;
-        auditRepository.save(
-                AuditEntity.builder()
-                        .traceId(traceId)
-                        .auditPoint(auditPoint)
-                        .senderEmail(auditDetails.userEmail())
-                        .remoteAddress(remoteAddress)
-                        .payload(jsonPayload)
-                        .build()
+        var jsonPayload = payload == null || payload.isBlank() ? null : payload;
+        auditBatchWriter.offer(
+                new AuditRecord(
+                        UUID.randomUUID(),
+                        traceId,
+                        auditPoint,
+                        auditDetails.userEmail(),
+                        remoteAddress,
+                        jsonPayload,
+                        LocalDateTime.now()
+                )
         );
     }
 }
@@ -0,0 +1,139 @@
+package ru.sfedu.teamselection.service.formation;
+
+import java.util.Arrays;
+
+/**
+ * Распределение студентов по командам вместе с его оценкой.
+ * Оценка - сумма соответствия распределенных студентов их командам за вычетом штрафов
+ * за каждого нераспределенного студента и за каждое недостающее до минимального размера команды место.
+ * Штрафы больше любого соответствия, поэтому сначала распределяется как можно больше студентов,
+ * затем добираются команды до минимального размера и только потом улучшается соответствие.
+ * Изменения оцениваются и применяются за O(1)
+ */
+final class Assignment {
+    static final int UNASSIGNED = -1;
+    static final double UNASSIGNED_PENALTY = 10;
+    static final double UNDERFILLED_PENALTY = 5;
+
+    private final FormationProblem problem;
+    private final int[] teamOf;
+    private final int[] size;
+    private final int[] secondYears;
+    private double score;
+
+    Assignment(FormationProblem problem) {
+        this.problem = problem;
+        this.teamOf = new int[problem.students()];
+        Arrays.fill(teamOf, UNASSIGNED);
+        this.size = problem.teamSize().clone();
+        this.secondYears = problem.teamSecondYears().clone();
+        this.score = -UNASSIGNED_PENALTY * problem.students();
+        for (int teamSize : size) {
+            score -= underfill(teamSize);
+        }
+    }
+
+    Assignment(Assignment other) {
+        this.problem = other.problem;
+        this.teamOf = other.teamOf.clone();
+        this.size = other.size.clone();
+        this.secondYears = other.secondYears.clone();
+        this.score = other.score;
+    }
+
+    FormationProblem problem() {
+        return problem;
+    }
+
+    double score() {
+        return score;
+    }
+
+    int teamOf(int student) {
+        return teamOf[student];
+    }
+
+    int size(int team) {
+        return size[team];
+    }
+
+    /**
+     * Может ли студент перейти в команду: в ней есть место и не превышено ограничение по второкурсникам
+     */
+    boolean canMove(int student, int team) {
+        return teamOf[student] != team
+                && size[team] < problem.maxSize()
+                && (!problem.secondYear()[student] || secondYears[team] < problem.maxSecondYears());
+    }
+
+    double moveDelta(int student, int team) {
+        int from = teamOf[student];
+        double delta = problem.fit()[student][team] - (underfill(size[team] + 1) - underfill(size[team]));
+        if (from == UNASSIGNED) {
+            return delta + UNASSIGNED_PENALTY;
+        }
+        return delta - problem.fit()[student][from] - (underfill(size[from] - 1) - underfill(size[from]));
+    }
+
+    void move(int student, int team) {
+        score += moveDelta(student, team);
+        int from = teamOf[student];
+        int secondYear = problem.secondYear()[student] ? 1 : 0;
+        if (from != UNASSIGNED) {
+            size[from]--;
+            secondYears[from] -= secondYear;
+        }
+        size[team]++;
+        secondYears[team] += secondYear;
+        teamOf[student] = team;
+    }
+
+    /**
+     * Можно ли обменять студентов местами; нераспределенный {@code first} занимает место {@code second},
+     * который становится нераспределенным. Размеры команд не меняются
+     */
+    boolean canSwap(int first, int second) {
+        int firstTeam = teamOf[first];
+        int secondTeam = teamOf[second];
+        if (firstTeam == secondTeam || secondTeam == UNASSIGNED) {
+            return false;
+        }
+        int diff = (problem.secondYear()[first] ? 1 : 0) - (problem.secondYear()[second] ? 1 : 0);
+        return quotaAllows(secondTeam, diff) && (firstTeam == UNASSIGNED || quotaAllows(firstTeam, -diff));
+    }
+
+    double swapDelta(int first, int second) {
+        int firstTeam = teamOf[first];
+        int secondTeam = teamOf[second];
+        double[][] fit = problem.fit();
+        double delta = fit[first][secondTeam] - fit[second][secondTeam];
+        if (firstTeam != UNASSIGNED) {
+            delta += fit[second][firstTeam] - fit[first][firstTeam];
+        }
+        return delta;
+    }
+
+    void swap(int first, int second) {
+        score += swapDelta(first, second);
+        int firstTeam = teamOf[first];
+        int secondTeam = teamOf[second];
+        int diff = (problem.secondYear()[first] ? 1 : 0) - (problem.secondYear()[second] ? 1 : 0);
+        secondYears[secondTeam] += diff;
+        if (firstTeam != UNASSIGNED) {
+            secondYears[firstTeam] -= diff;
+        }
+        teamOf[first] = secondTeam;
+        teamOf[second] = firstTeam;
+    }
+
+    /**
+     * Ограничение по второкурсникам не должно нарушаться сильнее, чем до изменения
+     */
+    private boolean quotaAllows(int team, int diff) {
+        return diff <= 0 || secondYears[team] + diff <= problem.maxSecondYears();
+    }
+
+    private double underfill(int teamSize) {
+        return UNDERFILLED_PENALTY * Math.max(0, problem.minSize() - teamSize);
+    }
+}
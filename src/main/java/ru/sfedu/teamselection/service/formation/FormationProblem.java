@@ -0,0 +1,30 @@
+package ru.sfedu.teamselection.service.formation;
+
+/**
+ * Задача распределения свободных студентов трека по незаполненным командам.
+ * Команды и студенты задаются индексами, {@code fit[student][team]} - соответствие студента команде от 0 до 1
+ * @param teamSize текущее число участников команд
+ * @param teamSecondYears текущее число второкурсников в командах
+ * @param secondYear является ли студент второкурсником
+ * @param fit соответствие студентов командам
+ * @param minSize минимальный размер команды трека
+ * @param maxSize максимальный размер команды трека
+ * @param maxSecondYears максимальное число второкурсников в команде
+ */
+record FormationProblem(
+        int[] teamSize,
+        int[] teamSecondYears,
+        boolean[] secondYear,
+        double[][] fit,
+        int minSize,
+        int maxSize,
+        int maxSecondYears
+) {
+    int teams() {
+        return teamSize.length;
+    }
+
+    int students() {
+        return secondYear.length;
+    }
+}
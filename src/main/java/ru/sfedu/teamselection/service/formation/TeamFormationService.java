@@ -0,0 +1,292 @@
+package ru.sfedu.teamselection.service.formation;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.sfedu.teamselection.domain.Track;
+import ru.sfedu.teamselection.dto.team.TeamFormationAssignmentDto;
+import ru.sfedu.teamselection.dto.team.TeamFormationPlanDto;
+import ru.sfedu.teamselection.exception.ConstraintViolationException;
+import ru.sfedu.teamselection.exception.NotFoundException;
+import ru.sfedu.teamselection.repository.StudentRepository;
+import ru.sfedu.teamselection.repository.TeamRepository;
+import ru.sfedu.teamselection.repository.projection.StudentState;
+import ru.sfedu.teamselection.repository.projection.TeamCandidate;
+import ru.sfedu.teamselection.repository.projection.TeamState;
+import ru.sfedu.teamselection.service.SearchOptionsService;
+import ru.sfedu.teamselection.service.SeatReservationService;
+import ru.sfedu.teamselection.service.TrackService;
+import ru.sfedu.teamselection.service.application.ApplicationDecisionWriter;
+import ru.sfedu.teamselection.service.technology.TechnologyProfileIndex;
+import ru.sfedu.teamselection.service.technology.TechnologySet;
+
+/**
+ * Автоматическое распределение студентов трека без команды по незаполненным командам.
+ * План строится {@link TeamFormationSolver} по снимку данных трека вне транзакции,
+ * хранится в памяти заданное время и может быть просмотрен до применения.
+ * При применении строки команд и студентов блокируются, план заново проверяется по текущим данным
+ * и записывается одной транзакцией через {@link ApplicationDecisionWriter}
+ */
+@Slf4j
+@Service
+public class TeamFormationService {
+    private final TrackService trackService;
+    private final TeamRepository teamRepository;
+    private final StudentRepository studentRepository;
+    private final TechnologyProfileIndex technologyProfileIndex;
+    private final TeamFormationSolver solver;
+    private final SeatReservationService seatReservationService;
+    private final ApplicationDecisionWriter decisionWriter;
+    private final SearchOptionsService searchOptionsService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long planTtlMinutes;
+
+    private final Map<UUID, StoredPlan> plans = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public TeamFormationService(
+            TrackService trackService,
+            TeamRepository teamRepository,
+            StudentRepository studentRepository,
+            TechnologyProfileIndex technologyProfileIndex,
+            TeamFormationSolver solver,
+            SeatReservationService seatReservationService,
+            ApplicationDecisionWriter decisionWriter,
+            SearchOptionsService searchOptionsService,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.team.formation.plan-ttl-minutes:30}") long planTtlMinutes
+    ) {
+        this.trackService = trackService;
+        this.teamRepository = teamRepository;
+        this.studentRepository = studentRepository;
+        this.technologyProfileIndex = technologyProfileIndex;
+        this.solver = solver;
+        this.seatReservationService = seatReservationService;
+        this.decisionWriter = decisionWriter;
+        this.searchOptionsService = searchOptionsService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.planTtlMinutes = planTtlMinutes;
+    }
+
+    /**
+     * Строит план распределения студентов трека без команды
+     * @param trackId id трека
+     * @return план, который можно применить до {@code expiresAt}
+     * @throws NotFoundException если трека нет
+     */
+    public TeamFormationPlanDto preview(Long trackId) {
+        plans.values().removeIf(StoredPlan::isExpired);
+        // соединение с базой не держится, пока работает решатель
+        Snapshot snapshot = readOnlyTransaction.execute(status -> snapshot(trackId));
+        List<TeamCandidate> teams = snapshot.teams();
+        List<StudentState> students = snapshot.students();
+
+        int[] teamSize = new int[teams.size()];
+        int[] teamSecondYears = new int[teams.size()];
+        TechnologySet[] teamSets = new TechnologySet[teams.size()];
+        for (int t = 0; t < teams.size(); t++) {
+            teamSize[t] = teams.get(t).getQuantityOfStudents();
+            teamSecondYears[t] = teams.get(t).getSecondYears();
+            teamSets[t] = snapshot.teamTechnologies().getOrDefault(teams.get(t).getId(), TechnologySet.EMPTY);
+        }
+        boolean[] secondYear = new boolean[students.size()];
+        int[][] matched = new int[students.size()][teams.size()];
+        double[][] fit = new double[students.size()][teams.size()];
+        for (int s = 0; s < students.size(); s++) {
+            secondYear[s] = students.get(s).isSecondYear();
+            TechnologySet skills = snapshot.studentTechnologies()
+                    .getOrDefault(students.get(s).getId(), TechnologySet.EMPTY);
+            for (int t = 0; t < teams.size(); t++) {
+                matched[s][t] = teamSets[t].overlap(skills);
+                fit[s][t] = skills.size() == 0 ? 0 : (double) matched[s][t] / skills.size();
+            }
+        }
+        FormationProblem problem = new FormationProblem(
+                teamSize,
+                teamSecondYears,
+                secondYear,
+                fit,
+                snapshot.minSize(),
+                snapshot.maxSize(),
+                snapshot.maxSecondYears()
+        );
+        Assignment assignment = solver.solve(problem);
+
+        TeamFormationPlanDto plan = TeamFormationPlanDto.builder()
+                .planId(UUID.randomUUID())
+                .trackId(trackId)
+                .expiresAt(LocalDateTime.now().plusMinutes(planTtlMinutes))
+                .build();
+        for (int s = 0; s < students.size(); s++) {
+            int t = assignment.teamOf(s);
+            if (t == Assignment.UNASSIGNED) {
+                plan.getUnassignedStudents().add(students.get(s).getId());
+            } else {
+                plan.getAssignments().add(TeamFormationAssignmentDto.builder()
+                        .studentId(students.get(s).getId())
+                        .teamId(teams.get(t).getId())
+                        .matchedTechnologies(matched[s][t])
+                        .build());
+            }
+        }
+        for (int t = 0; t < teams.size(); t++) {
+            if (assignment.size(t) < snapshot.minSize()) {
+                plan.getUnderfilledTeams().add(teams.get(t).getId());
+            }
+        }
+        plans.put(plan.getPlanId(), new StoredPlan(plan));
+        log.info("Formation plan {} for track {}: {} of {} students assigned, {} teams underfilled",
+                plan.getPlanId(), trackId, plan.getAssignments().size(), students.size(),
+                plan.getUnderfilledTeams().size());
+        return plan;
+    }
+
+    private Snapshot snapshot(Long trackId) {
+        Track track = trackService.findByIdOrElseThrow(trackId);
+        int maxSize = orDefault(track.getMaxConstraint(), Integer.MAX_VALUE);
+        List<TeamCandidate> teams = teamRepository.findCandidatesByTrack(trackId).stream()
+                .filter(team -> team.getQuantityOfStudents() < maxSize)
+                .toList();
+        return new Snapshot(
+                teams,
+                studentRepository.findFreeStatesByTrack(trackId),
+                technologyProfileIndex.teamProfiles(trackId),
+                technologyProfileIndex.studentProfiles(trackId),
+                orDefault(track.getMinConstraint(), 0),
+                maxSize,
+                orDefault(track.getMaxSecondCourseConstraint(), Integer.MAX_VALUE)
+        );
+    }
+
+    /**
+     * Просмотр ранее построенного плана
+     * @param planId id плана
+     * @return план
+     * @throws NotFoundException если плана нет или он устарел
+     */
+    public TeamFormationPlanDto findPlan(UUID planId) {
+        return storedPlan(planId).plan();
+    }
+
+    /**
+     * Применяет план: студенты вступают в команды, счетчики и заполненность команд обновляются,
+     * отправленные заявки распределенных студентов отменяются, как при принятии заявки
+     * @param planId id плана
+     * @return примененный план
+     * @throws NotFoundException если плана нет или он устарел
+     * @throws ConstraintViolationException если после построения плана состав команд или студентов изменился
+     *                                      так, что план нарушает ограничения трека
+     */
+    @Transactional
+    public TeamFormationPlanDto apply(UUID planId) {
+        TeamFormationPlanDto plan = storedPlan(planId).plan();
+        List<TeamFormationAssignmentDto> assignments = plan.getAssignments();
+        TreeSet<Long> teamIds = new TreeSet<>();
+        TreeSet<Long> studentIds = new TreeSet<>();
+        for (TeamFormationAssignmentDto assignment : assignments) {
+            teamIds.add(assignment.getTeamId());
+            studentIds.add(assignment.getStudentId());
+        }
+        seatReservationService.lockTeams(teamIds);
+        seatReservationService.lockStudents(studentIds);
+
+        Map<Long, TeamState> teams = teamIds.isEmpty() ? Map.of() : teamRepository.findStatesByIdIn(teamIds).stream()
+                .collect(Collectors.toMap(TeamState::getId, Function.identity()));
+        Map<Long, StudentState> students = studentIds.isEmpty() ? Map.of()
+                : studentRepository.findStatesByIdIn(studentIds).stream()
+                        .collect(Collectors.toMap(StudentState::getId, Function.identity()));
+
+        Map<Long, Integer> addedSecondYears = new HashMap<>();
+        List<StudentState> joined = new ArrayList<>(assignments.size());
+        for (TeamFormationAssignmentDto assignment : assignments) {
+            StudentState student = students.get(assignment.getStudentId());
+            TeamState team = teams.get(assignment.getTeamId());
+            if (student == null || student.isHasTeam() || !plan.getTrackId().equals(student.getTrackId())
+                    || team == null || !plan.getTrackId().equals(team.getTrackId())) {
+                throw stale();
+            }
+            team.setQuantityOfStudents(team.getQuantityOfStudents() + 1);
+            if (student.isSecondYear()) {
+                team.setSecondYears(team.getSecondYears() + 1);
+                addedSecondYears.merge(team.getId(), 1, Integer::sum);
+            }
+            student.setHasTeam(true);
+            student.setCurrentTeamId(team.getId());
+            joined.add(student);
+        }
+        for (TeamState team : teams.values()) {
+            int maxSize = orDefault(team.getMaxConstraint(), Integer.MAX_VALUE);
+            if (team.getQuantityOfStudents() > maxSize
+                    || addedSecondYears.containsKey(team.getId())
+                    && team.getMaxSecondCourseConstraint() != null
+                    && team.getSecondYears() > team.getMaxSecondCourseConstraint()) {
+                throw stale();
+            }
+            team.setFull(team.getQuantityOfStudents() >= maxSize);
+        }
+
+        decisionWriter.writeMembers(joined);
+        decisionWriter.writeTeams(teams.values());
+        int cancelled = decisionWriter.cancelSentApplications(studentIds);
+        searchOptionsService.invalidate(plan.getTrackId());
+        plans.remove(planId);
+        log.info("Formation plan {} applied: {} students joined {} teams, {} sent applications cancelled",
+                planId, joined.size(), teams.size(), cancelled);
+        return plan;
+    }
+
+    private StoredPlan storedPlan(UUID planId) {
+        StoredPlan stored = plans.get(planId);
+        if (stored == null || stored.isExpired()) {
+            throw new NotFoundException("План распределения `" + planId + "` не найден или устарел");
+        }
+        return stored;
+    }
+
+    /**
+     * Ограничение трека может быть не задано
+     */
+    private static int orDefault(Integer constraint, int defaultValue) {
+        return constraint == null ? defaultValue : constraint;
+    }
+
+    private static ConstraintViolationException stale() {
+        return new ConstraintViolationException(
+                "Состав команд или студентов трека изменился после построения плана, постройте план заново"
+        );
+    }
+
+    /**
+     * Данные трека, по которым строится план
+     */
+    private record Snapshot(
+            List<TeamCandidate> teams,
+            List<StudentState> students,
+            Map<Long, TechnologySet> teamTechnologies,
+            Map<Long, TechnologySet> studentTechnologies,
+            int minSize,
+            int maxSize,
+            int maxSecondYears
+    ) {
+    }
+
+    private record StoredPlan(TeamFormationPlanDto plan) {
+        boolean isExpired() {
+            return plan.getExpiresAt().isBefore(LocalDateTime.now());
+        }
+    }
+}
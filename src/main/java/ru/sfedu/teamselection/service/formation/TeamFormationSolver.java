@@ -0,0 +1,170 @@
+package ru.sfedu.teamselection.service.formation;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Эвристика распределения студентов по командам.
+ * Начальное решение строится жадно: второкурсники, как самые ограниченные, распределяются первыми,
+ * каждый студент идет в команду с наибольшим приростом оценки {@link Assignment}.
+ * Затем несколько независимых локальных поисков (переходы и обмены студентов, не ухудшающие оценку)
+ * выполняются параллельно на fork-join пуле до истечения бюджета времени; возвращается лучшее решение
+ */
+@Slf4j
+@Component
+public class TeamFormationSolver {
+    private static final long SEED = 20_250_505L;
+    private static final double EPS = 1e-9;
+    /**
+     * Как часто поиск сверяется с дедлайном, в итерациях (степень двойки)
+     */
+    private static final int DEADLINE_CHECK_MASK = 255;
+
+    private final ForkJoinPool pool;
+    private final int workers;
+    private final long timeBudgetMs;
+
+    public TeamFormationSolver(
+            @Value("${app.team.formation.parallelism:0}") int parallelism,
+            @Value("${app.team.formation.time-budget-ms:2000}") long timeBudgetMs
+    ) {
+        this.workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(workers);
+        this.timeBudgetMs = timeBudgetMs;
+    }
+
+    /**
+     * Распределяет студентов задачи
+     * @param problem задача
+     * @return лучшее найденное распределение
+     */
+    Assignment solve(FormationProblem problem) {
+        long started = System.nanoTime();
+        Assignment initial = greedy(problem);
+        if (problem.students() == 0 || problem.teams() == 0) {
+            return initial;
+        }
+        long deadline = started + TimeUnit.MILLISECONDS.toNanos(timeBudgetMs);
+        Assignment best = pool.invoke(new SearchTask(initial, deadline, 0, workers));
+        log.debug("Formation of {} students into {} teams: greedy score {}, best score {} in {} ms",
+                problem.students(), problem.teams(), initial.score(), best.score(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return best;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static Assignment greedy(FormationProblem problem) {
+        Assignment assignment = new Assignment(problem);
+        List<Integer> order = new ArrayList<>(problem.students());
+        for (int student = 0; student < problem.students(); student++) {
+            order.add(student);
+        }
+        order.sort(Comparator.comparing((Integer student) -> !problem.secondYear()[student]));
+        for (int student : order) {
+            int best = Assignment.UNASSIGNED;
+            double bestDelta = Double.NEGATIVE_INFINITY;
+            for (int team = 0; team < problem.teams(); team++) {
+                if (!assignment.canMove(student, team)) {
+                    continue;
+                }
+                double delta = assignment.moveDelta(student, team);
+                // при равном приросте студент идет в меньшую команду
+                if (best == Assignment.UNASSIGNED
+                        || delta > bestDelta + EPS
+                        || delta > bestDelta - EPS && assignment.size(team) < assignment.size(best)) {
+                    best = team;
+                    bestDelta = delta;
+                }
+            }
+            if (best != Assignment.UNASSIGNED) {
+                assignment.move(student, best);
+            }
+        }
+        return assignment;
+    }
+
+    /**
+     * Локальный поиск от начального решения.
+     * Все поиски, кроме первого, начинаются со случайного возмущения, чтобы исследовать разные области
+     */
+    private static Assignment search(Assignment initial, long deadline, int worker) {
+        FormationProblem problem = initial.problem();
+        SplittableRandom random = new SplittableRandom(SEED + worker);
+        Assignment current = new Assignment(initial);
+        if (worker > 0) {
+            for (int i = 0; i < problem.students(); i++) {
+                int student = random.nextInt(problem.students());
+                int team = random.nextInt(problem.teams());
+                if (current.teamOf(student) != Assignment.UNASSIGNED && current.canMove(student, team)) {
+                    current.move(student, team);
+                }
+            }
+        }
+        Assignment best = new Assignment(current);
+        for (long iteration = 0; ; iteration++) {
+            if ((iteration & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() >= deadline) {
+                break;
+            }
+            int student = random.nextInt(problem.students());
+            if (random.nextBoolean()) {
+                int team = random.nextInt(problem.teams());
+                if (current.canMove(student, team) && current.moveDelta(student, team) > -EPS) {
+                    current.move(student, team);
+                }
+            } else {
+                int other = random.nextInt(problem.students());
+                if (current.canSwap(student, other) && current.swapDelta(student, other) > -EPS) {
+                    current.swap(student, other);
+                }
+            }
+            if (current.score() > best.score() + EPS) {
+                best = new Assignment(current);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Делит поиски пополам, пока на задачу не останется один, и выбирает лучший результат
+     */
+    private static final class SearchTask extends RecursiveTask<Assignment> {
+        private final Assignment initial;
+        private final long deadline;
+        private final int fromWorker;
+        private final int toWorker;
+
+        SearchTask(Assignment initial, long deadline, int fromWorker, int toWorker) {
+            this.initial = initial;
+            this.deadline = deadline;
+            this.fromWorker = fromWorker;
+            this.toWorker = toWorker;
+        }
+
+        @Override
+        protected Assignment compute() {
+            if (toWorker - fromWorker == 1) {
+                return search(initial, deadline, fromWorker);
+            }
+            int middle = (fromWorker + toWorker) >>> 1;
+            SearchTask left = new SearchTask(initial, deadline, fromWorker, middle);
+            left.fork();
+            Assignment right = new SearchTask(initial, deadline, middle, toWorker).compute();
+            Assignment leftResult = left.join();
+            // при равной оценке побеждает поиск с меньшим номером, чтобы результат не зависел от планирования
+            return right.score() > leftResult.score() + EPS ? right : leftResult;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package ru.sfedu.teamselection.service.importing;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import javax.xml.parsers.ParserConfigurationException;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.poi.UnsupportedFileFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.stereotype.Component;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import ru.sfedu.teamselection.enums.ExportFormat;
+
+/**
+ * Потоковое чтение загружаемых файлов: строки передаются обработчику по одной и не накапливаются в памяти.
+ * CSV читается commons-csv, разделитель (запятая или точка с запятой, как сохраняет Excel) определяется
+ * по строке заголовка. XLSX читается событийным API POI (SAX) с первого листа, без построения модели книги.
+ * Первая непустая строка считается заголовком; из названий столбцов убираются пробелы, подчеркивания и дефисы,
+ * и они приводятся к нижнему регистру, поэтому {@code groupNumber} из CSV-выгрузки и {@code group_number}
+ * означают один столбец. Пустые строки пропускаются
+ */
+@Component
+public class ImportFileReader {
+    private static final char BOM = '\uFEFF';
+
+    /**
+     * Читает файл
+     * @param in содержимое файла
+     * @param format формат файла
+     * @param requiredColumns столбцы, которые должны быть в заголовке
+     * @param consumer обработчик строк данных
+     * @throws IllegalArgumentException если файл не читается, пуст или в заголовке нет обязательных столбцов
+     */
+    public void read(
+            InputStream in,
+            ExportFormat format,
+            Collection<String> requiredColumns,
+            Consumer<ImportRow> consumer
+    ) {
+        try {
+            switch (format) {
+                case CSV -> readCsv(in, requiredColumns, consumer);
+                case XLSX -> readXlsx(in, requiredColumns, consumer);
+                default -> throw new IllegalArgumentException("Неподдерживаемый формат файла: " + format);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (OpenXML4JException | UnsupportedFileFormatException | SAXException | ParserConfigurationException e) {
+            throw new IllegalArgumentException("Файл xlsx поврежден или имеет неверный формат", e);
+        }
+    }
+
+    private void readCsv(InputStream in, Collection<String> requiredColumns, Consumer<ImportRow> consumer)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        while (headerLine != null && headerLine.replace(String.valueOf(BOM), "").isBlank()) {
+            headerLine = reader.readLine();
+        }
+        if (headerLine == null) {
+            throw new IllegalArgumentException("Файл пуст");
+        }
+        if (headerLine.charAt(0) == BOM) {
+            headerLine = headerLine.substring(1);
+        }
+        CSVFormat csvFormat = CSVFormat.DEFAULT.builder()
+                .setDelimiter(delimiterOf(headerLine))
+                .setIgnoreSurroundingSpaces(true)
+                .build();
+        List<String> headers;
+        try (CSVParser headerParser = CSVParser.parse(new StringReader(headerLine), csvFormat)) {
+            headers = headers(headerParser.getRecords().get(0).toList(), requiredColumns);
+        }
+        try (CSVParser parser = CSVParser.parse(reader, csvFormat)) {
+            for (CSVRecord record : parser) {
+                Map<String, String> values = new HashMap<>();
+                for (int i = 0; i < headers.size() && i < record.size(); i++) {
+                    put(values, headers.get(i), record.get(i));
+                }
+                // заголовок - первая строка, номер строки файла на единицу больше номера записи
+                emit(new ImportRow((int) record.getRecordNumber() + 1, values), consumer);
+            }
+        }
+    }
+
+    private void readXlsx(InputStream in, Collection<String> requiredColumns, Consumer<ImportRow> consumer)
+            throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+        try (OPCPackage pkg = OPCPackage.open(in)) {
+            XSSFReader xssfReader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = xssfReader.getStylesTable();
+            var sheets = xssfReader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new IllegalArgumentException("В файле нет листов");
+            }
+            SheetHandler handler = new SheetHandler(requiredColumns, consumer);
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(
+                        new XSSFSheetXMLHandler(styles, null, strings, handler, new DataFormatter(), false)
+                );
+                parser.parse(new InputSource(sheet));
+            }
+            if (handler.headers == null) {
+                throw new IllegalArgumentException("Файл пуст");
+            }
+        }
+    }
+
+    private static char delimiterOf(String headerLine) {
+        long semicolons = headerLine.chars().filter(c -> c == ';').count();
+        long commas = headerLine.chars().filter(c -> c == ',').count();
+        return semicolons > commas ? ';' : ',';
+    }
+
+    private static List<String> headers(List<String> raw, Collection<String> requiredColumns) {
+        List<String> headers = raw.stream()
+                .map(ImportFileReader::normalize)
+                .toList();
+        List<String> missing = requiredColumns.stream()
+                .filter(column -> !headers.contains(column))
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("В заголовке файла нет столбцов: " + String.join(", ", missing));
+        }
+        return headers;
+    }
+
+    private static String normalize(String header) {
+        return header == null ? "" : header.strip().toLowerCase(Locale.ROOT).replaceAll("[\\s_-]+", "");
+    }
+
+    private static void put(Map<String, String> values, String header, String value) {
+        // столбцы без названия не загружаются
+        if (!header.isEmpty()) {
+            values.put(header, value);
+        }
+    }
+
+    private static void emit(ImportRow row, Consumer<ImportRow> consumer) {
+        if (!row.isBlank()) {
+            consumer.accept(row);
+        }
+    }
+
+    /**
+     * Собирает значения ячеек строки листа; пропущенные пустые ячейки определяются по адресу ячейки
+     */
+    private static final class SheetHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final Collection<String> requiredColumns;
+        private final Consumer<ImportRow> consumer;
+        private final List<String> cells = new ArrayList<>();
+        private List<String> headers;
+        private int column;
+
+        SheetHandler(Collection<String> requiredColumns, Consumer<ImportRow> consumer) {
+            this.requiredColumns = requiredColumns;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+            column = -1;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            column = cellReference == null ? column + 1 : new CellReference(cellReference).getCol();
+            while (cells.size() < column) {
+                cells.add(null);
+            }
+            cells.add(formattedValue);
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (cells.stream().allMatch(value -> value == null || value.isBlank())) {
+                return;
+            }
+            if (headers == null) {
+                headers = headers(cells, requiredColumns);
+                return;
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < headers.size() && i < cells.size(); i++) {
+                put(values, headers.get(i), cells.get(i));
+            }
+            emit(new ImportRow(rowNum + 1, values), consumer);
+        }
+    }
+}
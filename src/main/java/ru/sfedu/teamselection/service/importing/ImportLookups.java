@@ -0,0 +1,130 @@
+package ru.sfedu.teamselection.service.importing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import ru.sfedu.teamselection.domain.ProjectType;
+import ru.sfedu.teamselection.domain.Technology;
+import ru.sfedu.teamselection.domain.Track;
+
+/**
+ * Справочники, загруженные один раз на загрузку файла: треки по id и названию,
+ * технологии и типы проектов по названию без учета регистра
+ */
+class ImportLookups {
+    private static final Pattern LIST_SEPARATOR = Pattern.compile("[;,]");
+
+    private final Map<Long, Track> tracksById = new HashMap<>();
+    private final Map<String, List<Track>> tracksByName = new HashMap<>();
+    private final Map<String, Long> technologies = new HashMap<>();
+    private final Map<String, Long> projectTypes = new HashMap<>();
+    private final Long studentRoleId;
+    private final Long userRoleId;
+
+    ImportLookups(
+            Collection<Track> tracks,
+            Collection<Technology> technologies,
+            Collection<ProjectType> projectTypes,
+            Long studentRoleId,
+            Long userRoleId
+    ) {
+        for (Track track : tracks) {
+            tracksById.put(track.getId(), track);
+            tracksByName.computeIfAbsent(key(track.getName()), name -> new ArrayList<>()).add(track);
+        }
+        for (Technology technology : technologies) {
+            this.technologies.put(key(technology.getName()), technology.getId());
+        }
+        for (ProjectType projectType : projectTypes) {
+            this.projectTypes.put(key(projectType.getName()), projectType.getId());
+        }
+        this.studentRoleId = studentRoleId;
+        this.userRoleId = userRoleId;
+    }
+
+    /**
+     * Трек по id или по названию, если оно не повторяется у разных треков
+     * @throws ImportRowException если трек не найден или название неоднозначно
+     */
+    Track track(String value) {
+        if (value.chars().allMatch(Character::isDigit)) {
+            Track track = tracksById.get(Long.valueOf(value));
+            if (track != null) {
+                return track;
+            }
+        }
+        List<Track> byName = tracksByName.getOrDefault(key(value), List.of());
+        if (byName.isEmpty()) {
+            throw new ImportRowException("Трек '%s' не найден".formatted(value));
+        }
+        if (byName.size() > 1) {
+            throw new ImportRowException(
+                    "Треков с названием '%s' несколько, укажите id трека".formatted(value)
+            );
+        }
+        return byName.get(0);
+    }
+
+    /**
+     * id технологий из списка названий через запятую или точку с запятой
+     * @throws ImportRowException если какой-то технологии нет в справочнике
+     */
+    Set<Long> technologies(String value) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (String name : split(value)) {
+            Long id = technologies.get(key(name));
+            if (id == null) {
+                throw new ImportRowException("Технология '%s' не найдена".formatted(name));
+            }
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    /**
+     * id типа проекта по названию; null для пустого значения
+     * @throws ImportRowException если типа проекта нет в справочнике
+     */
+    Long projectType(String value) {
+        if (value == null) {
+            return null;
+        }
+        Long id = projectTypes.get(key(value));
+        if (id == null) {
+            throw new ImportRowException("Тип проекта '%s' не найден".formatted(value));
+        }
+        return id;
+    }
+
+    Long studentRoleId() {
+        return studentRoleId;
+    }
+
+    Long userRoleId() {
+        return userRoleId;
+    }
+
+    /**
+     * Непустые элементы списка через запятую или точку с запятой
+     */
+    static List<String> split(String value) {
+        if (value == null) {
+            return List.of();
+        }
+        return Arrays.stream(LIST_SEPARATOR.split(value))
+                .map(String::strip)
+                .filter(item -> !item.isEmpty())
+                .toList();
+    }
+
+    static String key(String value) {
+        return value == null ? "" : value.strip().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,29 @@
+package ru.sfedu.teamselection.service.importing;
+
+import java.util.Map;
+
+/**
+ * Строка загружаемого файла
+ * @param number номер строки в файле, начиная с 1
+ * @param values значения по нормализованным названиям столбцов
+ */
+public record ImportRow(int number, Map<String, String> values) {
+
+    /**
+     * Значение столбца без пробелов по краям
+     * @param column нормализованное название столбца
+     * @return значение или null, если столбца нет или значение пустое
+     */
+    public String get(String column) {
+        String value = values.get(column);
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.strip();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    boolean isBlank() {
+        return values.values().stream().allMatch(value -> value == null || value.isBlank());
+    }
+}
@@ -0,0 +1,10 @@
+package ru.sfedu.teamselection.service.importing;
+
+/**
+ * Ошибка в данных строки. Строка пропускается, остальные строки файла загружаются
+ */
+class ImportRowException extends RuntimeException {
+    ImportRowException(String message) {
+        super(message);
+    }
+}
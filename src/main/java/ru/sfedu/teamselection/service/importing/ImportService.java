@@ -0,0 +1,133 @@
+package ru.sfedu.teamselection.service.importing;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import ru.sfedu.teamselection.domain.Role;
+import ru.sfedu.teamselection.dto.importing.ImportResultDto;
+import ru.sfedu.teamselection.enums.ExportFormat;
+import ru.sfedu.teamselection.exception.NotFoundException;
+import ru.sfedu.teamselection.repository.ProjectTypeRepository;
+import ru.sfedu.teamselection.repository.RoleRepository;
+import ru.sfedu.teamselection.repository.TechnologyRepository;
+import ru.sfedu.teamselection.repository.TrackRepository;
+
+/**
+ * Массовая загрузка студентов и команд из CSV и XLSX.
+ * Файл читается потоково, строки собираются в пакеты по chunk-size и каждый пакет проверяется
+ * и записывается своей транзакцией. Ошибочные строки пропускаются и попадают в отчет с номером строки;
+ * если транзакция пакета откатилась, в отчет попадают все его строки. Уже записанные пакеты не откатываются
+ */
+@Slf4j
+@Service
+public class ImportService {
+    private final ImportFileReader fileReader;
+    private final StudentImportWriter studentImportWriter;
+    private final TeamImportWriter teamImportWriter;
+    private final TrackRepository trackRepository;
+    private final TechnologyRepository technologyRepository;
+    private final ProjectTypeRepository projectTypeRepository;
+    private final RoleRepository roleRepository;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public ImportService(
+            ImportFileReader fileReader,
+            StudentImportWriter studentImportWriter,
+            TeamImportWriter teamImportWriter,
+            TrackRepository trackRepository,
+            TechnologyRepository technologyRepository,
+            ProjectTypeRepository projectTypeRepository,
+            RoleRepository roleRepository,
+            @Value("${app.import.chunk-size:500}") int chunkSize,
+            @Value("${app.import.max-errors:1000}") int maxErrors
+    ) {
+        this.fileReader = fileReader;
+        this.studentImportWriter = studentImportWriter;
+        this.teamImportWriter = teamImportWriter;
+        this.trackRepository = trackRepository;
+        this.technologyRepository = technologyRepository;
+        this.projectTypeRepository = projectTypeRepository;
+        this.roleRepository = roleRepository;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Загружает студентов. Столбцы: fio, email, track (id или название), course, group_number,
+     * technologies (через запятую или точку с запятой), about_self, contacts
+     * @param in содержимое файла
+     * @param format формат файла
+     * @return число загруженных строк и ошибки по строкам
+     * @throws IllegalArgumentException если файл не читается или в нем нет обязательных столбцов
+     */
+    public ImportResultDto importStudents(InputStream in, ExportFormat format) {
+        return run(in, format, studentImportWriter, "students");
+    }
+
+    /**
+     * Загружает команды из существующих студентов. Столбцы: name, track (id или название), captain_email,
+     * members (почты через запятую или точку с запятой), project_type, project_description, technologies
+     * @param in содержимое файла
+     * @param format формат файла
+     * @return число загруженных строк и ошибки по строкам
+     * @throws IllegalArgumentException если файл не читается или в нем нет обязательных столбцов
+     */
+    public ImportResultDto importTeams(InputStream in, ExportFormat format) {
+        return run(in, format, teamImportWriter, "teams");
+    }
+
+    private ImportResultDto run(InputStream in, ExportFormat format, ImportWriter writer, String entity) {
+        long started = System.currentTimeMillis();
+        ImportSession session = new ImportSession(loadLookups(), maxErrors);
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        fileReader.read(in, format, writer.requiredColumns(), row -> {
+            session.countRow();
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                writeChunk(writer, chunk, session);
+            }
+        });
+        writeChunk(writer, chunk, session);
+        ImportResultDto result = session.toResult();
+        log.info("Import of {}: {} of {} rows imported, {} errors in {} ms", entity, result.getImported(),
+                result.getTotalRows(), result.getErrorCount(), System.currentTimeMillis() - started);
+        return result;
+    }
+
+    private void writeChunk(ImportWriter writer, List<ImportRow> chunk, ImportSession session) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            writer.write(chunk, session);
+            session.commitChunk();
+        } catch (DataAccessException e) {
+            log.warn("Import chunk of rows {}-{} rolled back", chunk.get(0).number(),
+                    chunk.get(chunk.size() - 1).number(), e);
+            session.failChunk("Пакет строк не записан из-за ошибки базы данных, повторите загрузку этих строк");
+        }
+        chunk.clear();
+    }
+
+    private ImportLookups loadLookups() {
+        return new ImportLookups(
+                trackRepository.findAll(),
+                technologyRepository.findAll(),
+                projectTypeRepository.findAll(),
+                roleId("STUDENT"),
+                roleId("USER")
+        );
+    }
+
+    private Long roleId(String name) {
+        return roleRepository.findByName(name)
+                .map(Role::getId)
+                .orElseThrow(() -> new NotFoundException("Роль %s не найдена".formatted(name)));
+    }
+}
@@ -0,0 +1,85 @@
+package ru.sfedu.teamselection.service.importing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import ru.sfedu.teamselection.dto.importing.ImportResultDto;
+import ru.sfedu.teamselection.dto.importing.ImportRowErrorDto;
+
+/**
+ * Состояние одной загрузки файла: справочники, уже встреченные в файле ключи и накопленные ошибки.
+ * Строки пакета, прошедшие проверки, считаются загруженными только после фиксации транзакции пакета
+ */
+class ImportSession {
+    private final ImportLookups lookups;
+    private final int maxErrors;
+    private final Set<String> seenKeys = new HashSet<>();
+    private final List<ImportRowErrorDto> errors = new ArrayList<>();
+    private final List<Integer> pendingRows = new ArrayList<>();
+    private int totalRows;
+    private int errorCount;
+    private int imported;
+
+    ImportSession(ImportLookups lookups, int maxErrors) {
+        this.lookups = lookups;
+        this.maxErrors = maxErrors;
+    }
+
+    ImportLookups lookups() {
+        return lookups;
+    }
+
+    /**
+     * Отмечает ключ (почту, название команды) как встреченный в файле
+     * @return true, если ключ встретился впервые
+     */
+    boolean firstOccurrence(String key) {
+        return seenKeys.add(key);
+    }
+
+    boolean hasSeen(String key) {
+        return seenKeys.contains(key);
+    }
+
+    void countRow() {
+        totalRows++;
+    }
+
+    void reject(int row, String message) {
+        errorCount++;
+        if (errors.size() < maxErrors) {
+            errors.add(new ImportRowErrorDto(row, message));
+        }
+    }
+
+    void accept(ImportRow row) {
+        pendingRows.add(row.number());
+    }
+
+    void commitChunk() {
+        imported += pendingRows.size();
+        pendingRows.clear();
+    }
+
+    /**
+     * Транзакция пакета откатилась: все его строки, прошедшие проверки, не загружены
+     */
+    void failChunk(String message) {
+        for (Integer row : pendingRows) {
+            reject(row, message);
+        }
+        pendingRows.clear();
+    }
+
+    ImportResultDto toResult() {
+        errors.sort(Comparator.comparing(ImportRowErrorDto::getRow));
+        return ImportResultDto.builder()
+                .totalRows(totalRows)
+                .imported(imported)
+                .errorCount(errorCount)
+                .errors(errors)
+                .build();
+    }
+}
@@ -0,0 +1,23 @@
+package ru.sfedu.teamselection.service.importing;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Проверка и запись пакета строк одного вида загрузки
+ */
+interface ImportWriter {
+    /**
+     * Столбцы, без которых файл не принимается
+     */
+    Collection<String> requiredColumns();
+
+    /**
+     * Проверяет строки пакета и записывает прошедшие проверки одной транзакцией.
+     * Ошибочные строки отмечаются в сессии через {@link ImportSession#reject}, принятые - через
+     * {@link ImportSession#accept}
+     * @param rows строки пакета
+     * @param session состояние загрузки
+     */
+    void write(List<ImportRow> rows, ImportSession session);
+}
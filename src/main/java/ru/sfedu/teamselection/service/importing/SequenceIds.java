@@ -0,0 +1,38 @@
+package ru.sfedu.teamselection.service.importing;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.sfedu.teamselection.domain.IdAllocation;
+
+/**
+ * id для вставок в обход Hibernate из тех же последовательностей, что и у сущностей.
+ * Значение nextval - начало блока из {@link IdAllocation#BLOCK_SIZE} id (pooled-lo),
+ * поэтому на пакет строк нужен один запрос и по одному nextval на блок
+ */
+final class SequenceIds {
+    static final String NEXT_BLOCKS_SQL =
+            "select nextval(pg_get_serial_sequence(?, 'id')) from generate_series(1, ?)";
+
+    private SequenceIds() {}
+
+    /**
+     * Выделяет id для строк таблицы
+     * @param table таблица с последовательностью столбца id
+     * @param count сколько id нужно
+     * @return count неиспользованных id
+     */
+    static List<Long> allocate(JdbcTemplate jdbcTemplate, String table, int count) {
+        if (count == 0) {
+            return List.of();
+        }
+        int blocks = (count + IdAllocation.BLOCK_SIZE - 1) / IdAllocation.BLOCK_SIZE;
+        List<Long> ids = new ArrayList<>(count);
+        for (Long start : jdbcTemplate.queryForList(NEXT_BLOCKS_SQL, Long.class, table, blocks)) {
+            for (int i = 0; i < IdAllocation.BLOCK_SIZE && ids.size() < count; i++) {
+                ids.add(start + i);
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,275 @@
+package ru.sfedu.teamselection.service.importing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.sfedu.teamselection.domain.Track;
+import ru.sfedu.teamselection.service.SearchOptionsService;
+import ru.sfedu.teamselection.service.security.CurrentPrincipalService;
+import ru.sfedu.teamselection.service.security.UserSessionService;
+
+/**
+ * Загрузка студентов. Для почты без пользователя создается пользователь с ролью STUDENT,
+ * существующий пользователь с ролью USER получает роль STUDENT (роли жюри и администратора не меняются),
+ * его сессии завершаются после коммита, чтобы новая роль применилась при следующем входе.
+ * Пакет проверяется по справочникам в памяти и одному запросу пользователей по почтам,
+ * id новых строк берутся блоками из последовательностей ({@link SequenceIds}), строки пишутся JDBC batch'ами
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StudentImportWriter implements ImportWriter {
+    static final String FIO = "fio";
+    static final String EMAIL = "email";
+    static final String TRACK = "track";
+    static final String COURSE = "course";
+    static final String GROUP_NUMBER = "groupnumber";
+    static final String TECHNOLOGIES = "technologies";
+    static final String ABOUT_SELF = "aboutself";
+    static final String CONTACTS = "contacts";
+
+    static final String SELECT_USERS_SQL = """
+            select distinct on (lower(u.email)) lower(u.email), u.id, u.role_id, s.id, u.email
+            from users u
+            left join students s on s.user_id = u.id
+            where lower(u.email) = any(?)
+            order by lower(u.email), u.id
+            """;
+    static final String INSERT_USER_SQL = """
+            insert into users (id, role_id, email, fio, is_enabled, created_at, updated_at)
+            values (?, ?, ?, ?, true, now(), now())
+            """;
+    static final String PROMOTE_USER_SQL =
+            "update users set role_id = ?, updated_at = now() where id = ? and role_id = ?";
+    static final String INSERT_STUDENT_SQL = """
+            insert into students (id, course, group_number, about_self, contacts, user_id, current_track_id)
+            values (?, ?, ?, ?, ?, ?, ?)
+            """;
+    static final String INSERT_TECHNOLOGY_SQL =
+            "insert into students_technologies (student_id, technology_id) values (?, ?)";
+
+    private static final int MAX_FIO_LENGTH = 255;
+    private static final int MAX_EMAIL_LENGTH = 255;
+    private static final int MAX_ABOUT_SELF_LENGTH = 1024;
+    private static final int MAX_CONTACTS_LENGTH = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SearchOptionsService searchOptionsService;
+    private final CurrentPrincipalService currentPrincipalService;
+    private final UserSessionService userSessionService;
+
+    @Override
+    public Collection<String> requiredColumns() {
+        return List.of(FIO, EMAIL, TRACK);
+    }
+
+    @Override
+    @Transactional
+    public void write(List<ImportRow> rows, ImportSession session) {
+        ImportLookups lookups = session.lookups();
+        List<StudentRow> parsed = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            try {
+                StudentRow student = parse(row, lookups);
+                if (!session.firstOccurrence(EMAIL + ":" + student.emailKey())) {
+                    throw new ImportRowException("Почта %s уже встречалась в файле".formatted(student.email()));
+                }
+                parsed.add(student);
+            } catch (ImportRowException e) {
+                session.reject(row.number(), e.getMessage());
+            }
+        }
+        if (parsed.isEmpty()) {
+            return;
+        }
+
+        Map<String, ExistingUser> existing = findUsers(parsed);
+        List<StudentRow> accepted = new ArrayList<>(parsed.size());
+        int newUsers = 0;
+        for (StudentRow student : parsed) {
+            ExistingUser user = existing.get(student.emailKey());
+            if (user != null && user.studentId() != null) {
+                session.reject(student.row().number(),
+                        "Пользователь с почтой %s уже является студентом".formatted(student.email()));
+                continue;
+            }
+            newUsers += user == null ? 1 : 0;
+            accepted.add(student);
+            session.accept(student.row());
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<Long> userIds = SequenceIds.allocate(jdbcTemplate, "users", newUsers);
+        List<Long> studentIds = SequenceIds.allocate(jdbcTemplate, "students", accepted.size());
+        List<Object[]> insertUsers = new ArrayList<>(newUsers);
+        List<Object[]> promoteUsers = new ArrayList<>();
+        List<Object[]> insertStudents = new ArrayList<>(accepted.size());
+        List<Object[]> insertTechnologies = new ArrayList<>();
+        Set<Long> promotedUserIds = new HashSet<>();
+        List<String> promotedEmails = new ArrayList<>();
+        Set<Long> trackIds = new HashSet<>();
+        int nextUser = 0;
+        for (int i = 0; i < accepted.size(); i++) {
+            StudentRow student = accepted.get(i);
+            ExistingUser user = existing.get(student.emailKey());
+            Long userId;
+            if (user == null) {
+                userId = userIds.get(nextUser++);
+                insertUsers.add(new Object[]{userId, lookups.studentRoleId(), student.email(), student.fio()});
+            } else {
+                userId = user.id();
+                if (lookups.userRoleId().equals(user.roleId())) {
+                    promoteUsers.add(new Object[]{lookups.studentRoleId(), userId, lookups.userRoleId()});
+                    promotedUserIds.add(userId);
+                    promotedEmails.add(user.email());
+                }
+            }
+            Long studentId = studentIds.get(i);
+            insertStudents.add(new Object[]{
+                studentId,
+                student.course(),
+                student.groupNumber(),
+                student.aboutSelf(),
+                student.contacts(),
+                userId,
+                student.track().getId()
+            });
+            for (Long technologyId : student.technologies()) {
+                insertTechnologies.add(new Object[]{studentId, technologyId});
+            }
+            trackIds.add(student.track().getId());
+        }
+
+        batch(INSERT_USER_SQL, insertUsers);
+        batch(PROMOTE_USER_SQL, promoteUsers);
+        batch(INSERT_STUDENT_SQL, insertStudents);
+        batch(INSERT_TECHNOLOGY_SQL, insertTechnologies);
+        trackIds.forEach(searchOptionsService::invalidate);
+        promotedUserIds.forEach(currentPrincipalService::evict);
+        if (!promotedEmails.isEmpty()) {
+            afterCommit(() -> userSessionService.updateUserAuthorities(promotedEmails));
+        }
+        log.debug("Imported {} students: {} new users, {} users promoted, {} technologies",
+                insertStudents.size(), insertUsers.size(), promoteUsers.size(), insertTechnologies.size());
+    }
+
+    private static StudentRow parse(ImportRow row, ImportLookups lookups) {
+        String fio = required(row, FIO, "ФИО");
+        String email = required(row, EMAIL, "почта");
+        if (email.indexOf('@') <= 0 || email.indexOf('@') == email.length() - 1) {
+            throw new ImportRowException("Некорректная почта: " + email);
+        }
+        checkLength(fio, MAX_FIO_LENGTH, "ФИО");
+        checkLength(email, MAX_EMAIL_LENGTH, "Почта");
+        String aboutSelf = row.get(ABOUT_SELF);
+        checkLength(aboutSelf, MAX_ABOUT_SELF_LENGTH, "Поле о себе");
+        String contacts = row.get(CONTACTS);
+        checkLength(contacts, MAX_CONTACTS_LENGTH, "Контакты");
+        return new StudentRow(
+                row,
+                fio,
+                email,
+                lookups.track(required(row, TRACK, "трек")),
+                positiveInt(row, COURSE, "Курс"),
+                positiveInt(row, GROUP_NUMBER, "Номер группы"),
+                lookups.technologies(row.get(TECHNOLOGIES)),
+                aboutSelf,
+                contacts
+        );
+    }
+
+    static String required(ImportRow row, String column, String title) {
+        String value = row.get(column);
+        if (value == null) {
+            throw new ImportRowException("Не заполнено поле: " + title);
+        }
+        return value;
+    }
+
+    static void checkLength(String value, int maxLength, String title) {
+        if (value != null && value.length() > maxLength) {
+            throw new ImportRowException("%s длиннее %d символов".formatted(title, maxLength));
+        }
+    }
+
+    private static Integer positiveInt(ImportRow row, String column, String title) {
+        String value = row.get(column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            int number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // сообщение ниже
+        }
+        throw new ImportRowException("%s должен быть положительным целым числом: %s".formatted(title, value));
+    }
+
+    private Map<String, ExistingUser> findUsers(List<StudentRow> students) {
+        String[] emails = students.stream().map(StudentRow::emailKey).toArray(String[]::new);
+        Map<String, ExistingUser> users = new HashMap<>();
+        jdbcTemplate.query(SELECT_USERS_SQL, rs -> {
+            users.put(rs.getString(1), new ExistingUser(
+                    rs.getLong(2),
+                    rs.getLong(3),
+                    rs.getObject(4, Long.class),
+                    rs.getString(5)
+            ));
+        }, (Object) emails);
+        return users;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void batch(String sql, List<Object[]> args) {
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, args);
+        }
+    }
+
+    private record StudentRow(
+            ImportRow row,
+            String fio,
+            String email,
+            Track track,
+            Integer course,
+            Integer groupNumber,
+            Set<Long> technologies,
+            String aboutSelf,
+            String contacts
+    ) {
+        String emailKey() {
+            return ImportLookups.key(email);
+        }
+    }
+
+    private record ExistingUser(Long id, Long roleId, Long studentId, String email) {
+    }
+}
@@ -0,0 +1,268 @@
+package ru.sfedu.teamselection.service.importing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.sfedu.teamselection.domain.Track;
+import ru.sfedu.teamselection.service.SearchOptionsService;
+
+/**
+ * Загрузка команд из уже существующих студентов без команды.
+ * Участники задаются почтами, капитан входит в команду, даже если его нет в списке участников.
+ * Строки студентов пакета блокируются, поэтому параллельное вступление в команду дождется записи пакета;
+ * проверяются трек студентов, вместимость трека, ограничение по второкурсникам и уникальность названия
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TeamImportWriter implements ImportWriter {
+    static final String NAME = "name";
+    static final String TRACK = "track";
+    static final String CAPTAIN_EMAIL = "captainemail";
+    static final String MEMBERS = "members";
+    static final String PROJECT_TYPE = "projecttype";
+    static final String PROJECT_DESCRIPTION = "projectdescription";
+    static final String TECHNOLOGIES = "technologies";
+
+    static final String LOCK_STUDENTS_SQL = """
+            select lower(u.email), s.id, s.course, s.has_team, s.current_track_id
+            from students s
+            join users u on u.id = s.user_id
+            where lower(u.email) = any(?)
+            order by s.id
+            for update of s
+            """;
+    static final String SELECT_TEAM_NAMES_SQL =
+            "select current_track_id, lower(name) from teams where lower(name) = any(?)";
+    static final String INSERT_TEAM_SQL = """
+            insert into teams (id, captain_id, is_full, name, project_description, quantity_of_students,
+                               current_track_id, project_type_id, created_at, updated_at)
+            values (?, ?, ?, ?, ?, ?, ?, ?, now(), now())
+            """;
+    static final String INSERT_TECHNOLOGY_SQL =
+            "insert into teams_technologies (team_id, technology_id) values (?, ?)";
+    static final String INSERT_MEMBER_SQL = "insert into teams_students (team_id, student_id) values (?, ?)";
+    static final String UPDATE_STUDENT_SQL =
+            "update students set has_team = true, current_team_id = ?, is_captain = ? where id = ?";
+
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SearchOptionsService searchOptionsService;
+
+    @Override
+    public Collection<String> requiredColumns() {
+        return List.of(NAME, TRACK, CAPTAIN_EMAIL);
+    }
+
+    @Override
+    @Transactional
+    public void write(List<ImportRow> rows, ImportSession session) {
+        ImportLookups lookups = session.lookups();
+        List<TeamRow> parsed = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            try {
+                parsed.add(parse(row, lookups));
+            } catch (ImportRowException e) {
+                session.reject(row.number(), e.getMessage());
+            }
+        }
+        if (parsed.isEmpty()) {
+            return;
+        }
+
+        Map<String, StudentRow> students = lockStudents(parsed);
+        Set<String> existingNames = findTeamNames(parsed);
+        List<TeamRow> accepted = new ArrayList<>(parsed.size());
+        List<List<StudentRow>> acceptedMembers = new ArrayList<>(parsed.size());
+        for (TeamRow team : parsed) {
+            try {
+                acceptedMembers.add(check(team, students, existingNames, session));
+                accepted.add(team);
+                session.accept(team.row());
+            } catch (ImportRowException e) {
+                session.reject(team.row().number(), e.getMessage());
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<Long> teamIds = SequenceIds.allocate(jdbcTemplate, "teams", accepted.size());
+        List<Object[]> insertTeams = new ArrayList<>(accepted.size());
+        List<Object[]> insertTechnologies = new ArrayList<>();
+        List<Object[]> insertMembers = new ArrayList<>();
+        List<Object[]> updateStudents = new ArrayList<>();
+        Set<Long> trackIds = new HashSet<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            TeamRow team = accepted.get(i);
+            List<StudentRow> members = acceptedMembers.get(i);
+            Long teamId = teamIds.get(i);
+            Long captainId = students.get(team.captainEmail()).id();
+            insertTeams.add(new Object[]{
+                teamId,
+                captainId,
+                isFull(members.size(), team.track()),
+                team.name(),
+                team.projectDescription(),
+                members.size(),
+                team.track().getId(),
+                team.projectTypeId()
+            });
+            for (Long technologyId : team.technologies()) {
+                insertTechnologies.add(new Object[]{teamId, technologyId});
+            }
+            for (StudentRow member : members) {
+                insertMembers.add(new Object[]{teamId, member.id()});
+                updateStudents.add(new Object[]{teamId, member.id().equals(captainId), member.id()});
+            }
+            trackIds.add(team.track().getId());
+        }
+
+        batch(INSERT_TEAM_SQL, insertTeams);
+        batch(INSERT_TECHNOLOGY_SQL, insertTechnologies);
+        batch(INSERT_MEMBER_SQL, insertMembers);
+        batch(UPDATE_STUDENT_SQL, updateStudents);
+        trackIds.forEach(searchOptionsService::invalidate);
+        log.debug("Imported {} teams with {} members and {} technologies",
+                insertTeams.size(), insertMembers.size(), insertTechnologies.size());
+    }
+
+    private static TeamRow parse(ImportRow row, ImportLookups lookups) {
+        String name = StudentImportWriter.required(row, NAME, "название");
+        StudentImportWriter.checkLength(name, MAX_NAME_LENGTH, "Название");
+        String description = row.get(PROJECT_DESCRIPTION);
+        StudentImportWriter.checkLength(description, MAX_DESCRIPTION_LENGTH, "Описание проекта");
+        String captainEmail = ImportLookups.key(StudentImportWriter.required(row, CAPTAIN_EMAIL, "почта капитана"));
+        Set<String> members = new LinkedHashSet<>();
+        members.add(captainEmail);
+        for (String email : ImportLookups.split(row.get(MEMBERS))) {
+            members.add(ImportLookups.key(email));
+        }
+        return new TeamRow(
+                row,
+                name,
+                lookups.track(StudentImportWriter.required(row, TRACK, "трек")),
+                captainEmail,
+                members,
+                lookups.projectType(row.get(PROJECT_TYPE)),
+                description,
+                lookups.technologies(row.get(TECHNOLOGIES))
+        );
+    }
+
+    /**
+     * Проверяет команду по заблокированным студентам и отмечает ее участников и название занятыми в файле
+     * @return участники команды
+     */
+    private static List<StudentRow> check(
+            TeamRow team,
+            Map<String, StudentRow> students,
+            Set<String> existingNames,
+            ImportSession session
+    ) {
+        Track track = team.track();
+        String nameKey = track.getId() + ":" + ImportLookups.key(team.name());
+        if (existingNames.contains(nameKey) || session.hasSeen(NAME + ":" + nameKey)) {
+            throw new ImportRowException(
+                    "В треке уже есть команда с названием '%s'".formatted(team.name())
+            );
+        }
+        Integer maxConstraint = track.getMaxConstraint();
+        if (maxConstraint != null && team.members().size() > maxConstraint) {
+            throw new ImportRowException("В команде %d участников, в треке допускается не больше %d"
+                    .formatted(team.members().size(), maxConstraint));
+        }
+        List<StudentRow> members = new ArrayList<>(team.members().size());
+        int secondYears = 0;
+        for (String email : team.members()) {
+            StudentRow student = students.get(email);
+            if (student == null) {
+                throw new ImportRowException("Студент с почтой %s не найден".formatted(email));
+            }
+            if (!track.getId().equals(student.trackId())) {
+                throw new ImportRowException("Студент %s не участвует в треке команды".formatted(email));
+            }
+            if (student.hasTeam() || session.hasSeen(MEMBERS + ":" + student.id())) {
+                throw new ImportRowException("Студент %s уже состоит в команде".formatted(email));
+            }
+            secondYears += Integer.valueOf(2).equals(student.course()) ? 1 : 0;
+            members.add(student);
+        }
+        if (track.getMaxSecondCourseConstraint() != null && secondYears > track.getMaxSecondCourseConstraint()) {
+            throw new ImportRowException("В команде %d второкурсников, в треке допускается не больше %d"
+                    .formatted(secondYears, track.getMaxSecondCourseConstraint()));
+        }
+        session.firstOccurrence(NAME + ":" + nameKey);
+        members.forEach(member -> session.firstOccurrence(MEMBERS + ":" + member.id()));
+        return members;
+    }
+
+    /**
+     * Трек без ограничения сверху не заполняет команду
+     */
+    private static boolean isFull(int size, Track track) {
+        return track.getMaxConstraint() != null && size >= track.getMaxConstraint();
+    }
+
+    private Map<String, StudentRow> lockStudents(List<TeamRow> teams) {
+        String[] emails = teams.stream()
+                .flatMap(team -> team.members().stream())
+                .distinct()
+                .toArray(String[]::new);
+        Map<String, StudentRow> students = new HashMap<>();
+        jdbcTemplate.query(LOCK_STUDENTS_SQL, rs -> {
+            students.putIfAbsent(rs.getString(1), new StudentRow(
+                    rs.getLong(2),
+                    rs.getObject(3, Integer.class),
+                    rs.getBoolean(4),
+                    rs.getObject(5, Long.class)
+            ));
+        }, (Object) emails);
+        return students;
+    }
+
+    private Set<String> findTeamNames(List<TeamRow> teams) {
+        String[] names = teams.stream()
+                .map(team -> ImportLookups.key(team.name()))
+                .distinct()
+                .toArray(String[]::new);
+        Set<String> existing = new HashSet<>();
+        jdbcTemplate.query(SELECT_TEAM_NAMES_SQL, rs -> {
+            existing.add(rs.getObject(1, Long.class) + ":" + rs.getString(2));
+        }, (Object) names);
+        return existing;
+    }
+
+    private void batch(String sql, List<Object[]> args) {
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, args);
+        }
+    }
+
+    private record TeamRow(
+            ImportRow row,
+            String name,
+            Track track,
+            String captainEmail,
+            Set<String> members,
+            Long projectTypeId,
+            String projectDescription,
+            Set<Long> technologies
+    ) {
+    }
+
+    private record StudentRow(Long id, Integer course, boolean hasTeam, Long trackId) {
+    }
+}
@@ -0,0 +1,54 @@
+package ru.sfedu.teamselection.service.photo;
+
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import ru.sfedu.teamselection.exception.AzureException;
+
+@Slf4j
+@Component
+public class AzureGraphPhotoClient implements GraphPhotoClient {
+    private final RestClient restClient;
+
+    public AzureGraphPhotoClient(
+            @Value("${app.photo.graph.base-url:https://graph.microsoft.com/v1.0}") String baseUrl
+    ) {
+        this.restClient = RestClient.builder()
+                .baseUrl(baseUrl)
+                .build();
+    }
+
+    @Override
+    public Optional<GraphPhoto> fetchPhoto(String email, String accessToken) {
+        ResponseEntity<byte[]> response = restClient.get()
+                .uri("/users/{email}/photo/$value", email)
+                .header("Authorization", "Bearer " + accessToken)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, (request, errorResponse) -> {
+                    if (errorResponse.getStatusCode().value() == HttpStatus.NOT_FOUND.value()) {
+                        return; // у пользователя нет фотографии
+                    }
+                    String errorMessage = "Error while retrieving image from Azure: "
+                            + errorResponse.getStatusCode().value() + " "
+                            + errorResponse.getStatusText();
+                    log.error(errorMessage);
+                    throw new AzureException(errorMessage);
+                })
+                .toEntity(byte[].class);
+
+        if (response.getStatusCode().value() == HttpStatus.NOT_FOUND.value() || response.getBody() == null) {
+            return Optional.empty();
+        }
+        MediaType contentType = response.getHeaders().getContentType();
+        return Optional.of(new GraphPhoto(
+                response.getBody(),
+                contentType == null ? MediaType.IMAGE_JPEG_VALUE : contentType.toString()
+        ));
+    }
+}
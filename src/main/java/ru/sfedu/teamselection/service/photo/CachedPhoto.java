@@ -0,0 +1,29 @@
+package ru.sfedu.teamselection.service.photo;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Фотография пользователя в кэше.
+ * Запись без содержимого означает, что фотографии у пользователя нет (negative cache).
+ * @param etag хэш содержимого, используется как HTTP ETag и как часть имени файла на диске
+ * @param fetchedAt когда содержимое последний раз подтверждалось Graph
+ */
+public record CachedPhoto(byte[] content, String contentType, String etag, Instant fetchedAt) {
+
+    public static CachedPhoto missing(Instant fetchedAt) {
+        return new CachedPhoto(null, null, null, fetchedAt);
+    }
+
+    public boolean isMissing() {
+        return content == null;
+    }
+
+    public boolean isOlderThan(Duration ttl, Instant now) {
+        return fetchedAt.plus(ttl).isBefore(now);
+    }
+
+    int size() {
+        return content == null ? 0 : content.length;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.sfedu.teamselection.service.photo;
+
+import java.util.Optional;
+
+/**
+ * Клиент получения фотографий пользователей из Microsoft Graph.
+ * Вынесен в интерфейс, чтобы в тестах реальный Graph можно было заменить локальной заглушкой.
+ */
+public interface GraphPhotoClient {
+
+    /**
+     * Загружает фотографию пользователя
+     * @param email почта пользователя в Azure AD
+     * @param accessToken токен доступа к Graph
+     * @return фотография или пустой Optional, если у пользователя ее нет
+     * @throws ru.sfedu.teamselection.exception.AzureException при ошибке обращения к Graph
+     */
+    Optional<GraphPhoto> fetchPhoto(String email, String accessToken);
+
+    record GraphPhoto(byte[] content, String contentType) {
+    }
+}
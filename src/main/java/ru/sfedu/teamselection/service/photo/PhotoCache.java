@@ -0,0 +1,187 @@
+package ru.sfedu.teamselection.service.photo;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Двухуровневый кэш фотографий пользователей.
+ * Первый уровень - LRU в памяти, ограниченный суммарным размером фотографий и числом записей.
+ * Второй - файлы {@code <userId>-<etag>.img} на диске, переживающие перезапуск приложения.
+ * Отсутствие фотографии и уменьшенные варианты хранятся только в памяти:
+ * варианты при необходимости заново строятся из оригинала.
+ */
+@Slf4j
+@Component
+public class PhotoCache {
+    private static final String FILE_SUFFIX = ".img";
+    private static final String PART_SUFFIX = ".part";
+    private static final int ORIGINAL = 0;
+
+    private final Path directory;
+    private final long memoryMaxBytes;
+    private final int memoryMaxEntries;
+
+    /**
+     * Порядок доступа: первым идет давно не использованный элемент
+     */
+    private final LinkedHashMap<Key, CachedPhoto> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+
+    public PhotoCache(
+            @Value("${app.photo.cache.dir:${java.io.tmpdir}/team-selection-photos}") String directory,
+            @Value("${app.photo.cache.memory-max-bytes:33554432}") long memoryMaxBytes,
+            @Value("${app.photo.cache.memory-max-entries:10000}") int memoryMaxEntries
+    ) throws IOException {
+        this.directory = Paths.get(directory);
+        this.memoryMaxBytes = memoryMaxBytes;
+        this.memoryMaxEntries = memoryMaxEntries;
+        Files.createDirectories(this.directory);
+    }
+
+    /**
+     * Фотография из памяти или, при промахе, с диска
+     * @param userId id пользователя
+     * @return запись кэша или null, если о пользователе ничего не известно
+     */
+    public CachedPhoto get(Long userId) {
+        synchronized (this) {
+            CachedPhoto cached = memory.get(new Key(userId, ORIGINAL));
+            if (cached != null) {
+                return cached;
+            }
+        }
+        CachedPhoto fromDisk = readFromDisk(userId);
+        if (fromDisk != null) {
+            putInMemory(new Key(userId, ORIGINAL), fromDisk);
+        }
+        return fromDisk;
+    }
+
+    /**
+     * Уменьшенный вариант фотографии
+     * @param userId id пользователя
+     * @param size сторона варианта
+     * @param etag ETag оригинала; вариант, построенный из другой версии фотографии, не возвращается
+     * @return вариант или null
+     */
+    public synchronized CachedPhoto getVariant(Long userId, int size, String etag) {
+        CachedPhoto cached = memory.get(new Key(userId, size));
+        if (cached == null || !cached.etag().equals(ThumbnailGenerator.variantEtag(etag, size))) {
+            return null;
+        }
+        return cached;
+    }
+
+    public void putVariant(Long userId, int size, CachedPhoto variant) {
+        putInMemory(new Key(userId, size), variant);
+    }
+
+    /**
+     * Сохраняет фотографию. Если содержимое не изменилось, на диске только обновляется время подтверждения
+     * @param userId id пользователя
+     * @param photo новая запись
+     */
+    public void put(Long userId, CachedPhoto photo) {
+        putInMemory(new Key(userId, ORIGINAL), photo);
+        if (photo.isMissing()) {
+            deleteFromDisk(userId, null);
+            return;
+        }
+        Path target = file(userId, photo.etag());
+        try {
+            if (Files.exists(target)) {
+                Files.setLastModifiedTime(target, FileTime.from(photo.fetchedAt()));
+            } else {
+                Path part = directory.resolve(target.getFileName() + PART_SUFFIX);
+                Files.write(part, photo.content());
+                Files.setLastModifiedTime(part, FileTime.from(photo.fetchedAt()));
+                Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            deleteFromDisk(userId, target);
+        } catch (IOException e) {
+            log.warn("Unable to store photo of user {} on disk", userId, e);
+        }
+    }
+
+    private synchronized void putInMemory(Key key, CachedPhoto photo) {
+        if (photo.size() > memoryMaxBytes) {
+            return;
+        }
+        CachedPhoto previous = memory.put(key, photo);
+        memoryBytes += photo.size() - (previous == null ? 0 : previous.size());
+
+        Iterator<Map.Entry<Key, CachedPhoto>> eldest = memory.entrySet().iterator();
+        while ((memoryBytes > memoryMaxBytes || memory.size() > memoryMaxEntries) && eldest.hasNext()) {
+            memoryBytes -= eldest.next().getValue().size();
+            eldest.remove();
+        }
+    }
+
+    private CachedPhoto readFromDisk(Long userId) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, userId + "-*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String etag = name.substring(name.indexOf('-') + 1, name.length() - FILE_SUFFIX.length());
+                byte[] content = Files.readAllBytes(file);
+                return new CachedPhoto(
+                        content,
+                        guessContentType(content),
+                        etag,
+                        Files.getLastModifiedTime(file).toInstant()
+                );
+            }
+        } catch (IOException e) {
+            log.warn("Unable to read photo of user {} from disk", userId, e);
+        }
+        return null;
+    }
+
+    /**
+     * Удаляет файлы пользователя, кроме {@code keep}
+     */
+    private void deleteFromDisk(Long userId, Path keep) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, userId + "-*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                if (!file.equals(keep)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Unable to delete photo of user {} from disk", userId, e);
+        }
+    }
+
+    private Path file(Long userId, String etag) {
+        return directory.resolve(userId + "-" + etag + FILE_SUFFIX);
+    }
+
+    private static String guessContentType(byte[] content) {
+        try (InputStream in = new ByteArrayInputStream(content)) {
+            String contentType = URLConnection.guessContentTypeFromStream(in);
+            return contentType == null ? MediaType.IMAGE_JPEG_VALUE : contentType;
+        } catch (IOException e) {
+            return MediaType.IMAGE_JPEG_VALUE;
+        }
+    }
+
+    /**
+     * @param size сторона варианта, 0 - оригинал
+     */
+    private record Key(Long userId, int size) {
+    }
+}
@@ -0,0 +1,145 @@
+package ru.sfedu.teamselection.service.photo;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Уменьшенные копии фотографий пользователей.
+ * Изображение декодируется один раз, из него получаются все размеры сразу:
+ * центральный квадрат уменьшается до стороны варианта. Изображения с прозрачностью сохраняются в PNG, остальные в JPEG.
+ */
+@Component
+public class ThumbnailGenerator {
+    private final int[] sizes;
+    private final float jpegQuality;
+
+    public ThumbnailGenerator(
+            @Value("${app.photo.thumbnail.sizes:48,96,256}") int[] sizes,
+            @Value("${app.photo.thumbnail.jpeg-quality:0.85}") float jpegQuality
+    ) {
+        this.sizes = Arrays.stream(sizes).filter(size -> size > 0).sorted().distinct().toArray();
+        this.jpegQuality = jpegQuality;
+    }
+
+    /**
+     * Подбирает вариант под запрошенный размер: наименьший вариант не меньше запрошенного
+     * @param requested сторона изображения в пикселях
+     * @return размер варианта или null, если нужен оригинал
+     */
+    public Integer variantFor(Integer requested) {
+        if (requested == null) {
+            return null;
+        }
+        for (int size : sizes) {
+            if (size >= requested) {
+                return size;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Строит все варианты фотографии
+     * @param original исходная фотография
+     * @return варианты по размеру; пустой, если изображение не удалось декодировать
+     * @throws IOException ошибка кодирования
+     */
+    public Map<Integer, CachedPhoto> generate(CachedPhoto original) throws IOException {
+        Map<Integer, CachedPhoto> variants = new LinkedHashMap<>();
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(original.content()));
+        if (image == null) {
+            return variants;
+        }
+        boolean alpha = image.getColorModel().hasAlpha();
+        BufferedImage square = cropSquare(image);
+
+        // от большего к меньшему, чтобы каждый вариант уменьшался из предыдущего
+        BufferedImage current = square;
+        for (int i = sizes.length - 1; i >= 0; i--) {
+            int size = Math.min(sizes[i], square.getWidth());
+            current = scale(current, size, alpha);
+            variants.put(sizes[i], new CachedPhoto(
+                    alpha ? encodePng(current) : encodeJpeg(current),
+                    alpha ? MediaType.IMAGE_PNG_VALUE : MediaType.IMAGE_JPEG_VALUE,
+                    variantEtag(original.etag(), sizes[i]),
+                    original.fetchedAt()
+            ));
+        }
+        return variants;
+    }
+
+    public static String variantEtag(String etag, int size) {
+        return etag + "-" + size;
+    }
+
+    private static BufferedImage cropSquare(BufferedImage image) {
+        int side = Math.min(image.getWidth(), image.getHeight());
+        return image.getSubimage((image.getWidth() - side) / 2, (image.getHeight() - side) / 2, side, side);
+    }
+
+    /**
+     * Уменьшает изображение последовательными делениями пополам, чтобы билинейная интерполяция не давала "лесенку"
+     */
+    private static BufferedImage scale(BufferedImage image, int size, boolean alpha) {
+        BufferedImage current = image;
+        int side = current.getWidth();
+        while (side / 2 >= size) {
+            side /= 2;
+            current = draw(current, side, alpha);
+        }
+        return side == size && current != image ? current : draw(current, size, alpha);
+    }
+
+    private static BufferedImage draw(BufferedImage image, int size, boolean alpha) {
+        BufferedImage result = new BufferedImage(
+                size,
+                size,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB
+        );
+        Graphics2D graphics = result.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, size, size, null);
+        } finally {
+            graphics.dispose();
+        }
+        return result;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(imageOut);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
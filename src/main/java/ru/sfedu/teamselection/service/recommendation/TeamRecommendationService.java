@@ -0,0 +1,214 @@
+package ru.sfedu.teamselection.service.recommendation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.sfedu.teamselection.domain.Track;
+import ru.sfedu.teamselection.dto.team.TeamRecommendationDto;
+import ru.sfedu.teamselection.exception.BusinessException;
+import ru.sfedu.teamselection.exception.NotFoundException;
+import ru.sfedu.teamselection.repository.StudentRepository;
+import ru.sfedu.teamselection.repository.TeamRepository;
+import ru.sfedu.teamselection.repository.projection.StudentState;
+import ru.sfedu.teamselection.repository.projection.TeamCandidate;
+import ru.sfedu.teamselection.service.TrackDataVersionService;
+import ru.sfedu.teamselection.service.TrackService;
+import ru.sfedu.teamselection.service.security.CurrentPrincipalService;
+import ru.sfedu.teamselection.service.technology.TechnologyProfileIndex;
+import ru.sfedu.teamselection.service.technology.TechnologySet;
+
+/**
+ * Подбор команд для студента без команды.
+ * Рассматриваются незаполненные команды трека студента, в которые он может вступить с учетом
+ * вместимости и ограничения по второкурсникам. Оценка - взвешенная сумма доли технологий студента,
+ * которые есть у команды, доли свободных мест и совпадения типа проекта с выбранными.
+ * Команды трека и их технологии хранятся в памяти вместе с версией данных трека
+ * из {@link TrackDataVersionService}, поэтому запрос к базе нужен только для снимка студента
+ */
+@Service
+public class TeamRecommendationService {
+    /**
+     * Сначала худшая: она вытесняется из кучи первой. При равной оценке выше команда с меньшим id
+     */
+    private static final Comparator<Scored> WORST_FIRST = Comparator.comparingDouble(Scored::score)
+            .thenComparing(Scored::id, Comparator.reverseOrder());
+
+    private final StudentRepository studentRepository;
+    private final TeamRepository teamRepository;
+    private final TrackService trackService;
+    private final TechnologyProfileIndex technologyProfileIndex;
+    private final TrackDataVersionService trackDataVersionService;
+    private final CurrentPrincipalService currentPrincipalService;
+    private final double technologyWeight;
+    private final double capacityWeight;
+    private final double projectTypeWeight;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    private final Map<Long, CachedCandidates> candidates = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public TeamRecommendationService(
+            StudentRepository studentRepository,
+            TeamRepository teamRepository,
+            TrackService trackService,
+            TechnologyProfileIndex technologyProfileIndex,
+            TrackDataVersionService trackDataVersionService,
+            CurrentPrincipalService currentPrincipalService,
+            @Value("${app.team.recommendation.technology-weight:0.6}") double technologyWeight,
+            @Value("${app.team.recommendation.capacity-weight:0.25}") double capacityWeight,
+            @Value("${app.team.recommendation.project-type-weight:0.15}") double projectTypeWeight,
+            @Value("${app.team.recommendation.default-limit:10}") int defaultLimit,
+            @Value("${app.team.recommendation.max-limit:50}") int maxLimit
+    ) {
+        this.studentRepository = studentRepository;
+        this.teamRepository = teamRepository;
+        this.trackService = trackService;
+        this.technologyProfileIndex = technologyProfileIndex;
+        this.trackDataVersionService = trackDataVersionService;
+        this.currentPrincipalService = currentPrincipalService;
+        this.technologyWeight = technologyWeight;
+        this.capacityWeight = capacityWeight;
+        this.projectTypeWeight = projectTypeWeight;
+        this.maxLimit = Math.max(1, maxLimit);
+        this.defaultLimit = Math.min(Math.max(1, defaultLimit), this.maxLimit);
+    }
+
+    /**
+     * Лучшие команды для студента
+     * @param studentId id студента без команды; null - текущий пользователь
+     * @param projectTypes предпочитаемые типы проекта, может быть пустым
+     * @param limit сколько команд вернуть; null - значение по умолчанию, больше максимума не возвращается
+     * @return команды по убыванию оценки
+     * @throws NotFoundException если студента нет
+     * @throws BusinessException если студент уже в команде или не выбрал трек
+     */
+    @Transactional(readOnly = true)
+    public List<TeamRecommendationDto> recommend(Long studentId, Collection<String> projectTypes, Integer limit) {
+        Long id = studentId != null ? studentId : currentPrincipalService.getCurrentPrincipal().studentId();
+        if (id == null) {
+            throw new BusinessException("Подбор команд доступен только студентам");
+        }
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Число команд должно быть положительным");
+        }
+        StudentState student = findFreeStudent(id);
+        Track track = trackService.findByIdOrElseThrow(student.getTrackId());
+        TechnologySet skills = technologyProfileIndex.studentProfiles(track.getId())
+                .getOrDefault(id, TechnologySet.EMPTY);
+        Map<Long, TechnologySet> teamTechnologies = technologyProfileIndex.teamProfiles(track.getId());
+        Set<String> preferred = projectTypes == null ? Set.of() : projectTypes.stream()
+                .map(type -> type.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+
+        int size = limit == null ? defaultLimit : Math.min(limit, maxLimit);
+        PriorityQueue<Scored> top = new PriorityQueue<>(size + 1, WORST_FIRST);
+        for (TeamCandidate team : candidates(track.getId())) {
+            Scored scored = score(team, student, track, skills, teamTechnologies, preferred);
+            if (scored == null) {
+                continue;
+            }
+            top.add(scored);
+            if (top.size() > size) {
+                top.poll();
+            }
+        }
+
+        List<TeamRecommendationDto> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            result.add(toDto(top.poll()));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private StudentState findFreeStudent(Long id) {
+        StudentState student = studentRepository.findStatesByIdIn(List.of(id)).stream()
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException("Студент не найден, id=" + id));
+        if (student.isHasTeam()) {
+            throw new BusinessException("Студент уже состоит в команде");
+        }
+        if (student.getTrackId() == null) {
+            throw new BusinessException("Студент не выбрал трек");
+        }
+        return student;
+    }
+
+    /**
+     * Оценка команды для студента
+     * @return null, если студент не может вступить в команду
+     */
+    private Scored score(
+            TeamCandidate team,
+            StudentState student,
+            Track track,
+            TechnologySet skills,
+            Map<Long, TechnologySet> teamTechnologies,
+            Set<String> preferred
+    ) {
+        // трек без ограничения сверху: свободных мест не считаем, вместимость команды оценивается как полная
+        Integer maxConstraint = track.getMaxConstraint();
+        Integer freeSeats = maxConstraint == null ? null : maxConstraint - team.getQuantityOfStudents();
+        if (team.isFull() || freeSeats != null && freeSeats <= 0 || secondCourseLimitReached(student, team, track)) {
+            return null;
+        }
+        int matched = teamTechnologies.getOrDefault(team.getId(), TechnologySet.EMPTY).overlap(skills);
+        double capacity = freeSeats == null ? 1 : (double) freeSeats / maxConstraint;
+        double score = technologyWeight * (skills.size() == 0 ? 0 : (double) matched / skills.size())
+                + capacityWeight * capacity
+                + projectTypeWeight * (matchesProjectType(team, preferred) ? 1 : 0);
+        return new Scored(team.getId(), score, team, matched, freeSeats);
+    }
+
+    private List<TeamCandidate> candidates(Long trackId) {
+        long version = trackDataVersionService.getVersion(trackId);
+        CachedCandidates cached = candidates.get(trackId);
+        if (cached != null && cached.version() == version) {
+            return cached.teams();
+        }
+        // версия берется до построения: если данные изменятся во время расчета, запись сразу окажется устаревшей
+        List<TeamCandidate> teams = List.copyOf(teamRepository.findCandidatesByTrack(trackId));
+        candidates.put(trackId, new CachedCandidates(version, teams));
+        return teams;
+    }
+
+    private static boolean secondCourseLimitReached(StudentState student, TeamCandidate team, Track track) {
+        return student.isSecondYear()
+                && track.getMaxSecondCourseConstraint() != null
+                && team.getSecondYears() >= track.getMaxSecondCourseConstraint();
+    }
+
+    private static boolean matchesProjectType(TeamCandidate team, Set<String> preferred) {
+        return team.getProjectType() != null && preferred.contains(team.getProjectType().toLowerCase(Locale.ROOT));
+    }
+
+    private static TeamRecommendationDto toDto(Scored scored) {
+        return TeamRecommendationDto.builder()
+                .teamId(scored.id())
+                .name(scored.team().getName())
+                .projectType(scored.team().getProjectType())
+                .quantityOfStudents(scored.team().getQuantityOfStudents())
+                .freeSeats(scored.freeSeats())
+                .matchedTechnologies(scored.matched())
+                .score(scored.score())
+                .build();
+    }
+
+    private record CachedCandidates(long version, List<TeamCandidate> teams) {
+    }
+
+    private record Scored(Long id, double score, TeamCandidate team, int matched, Integer freeSeats) {
+    }
+}
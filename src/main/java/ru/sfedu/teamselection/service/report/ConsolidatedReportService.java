@@ -0,0 +1,203 @@
+package ru.sfedu.teamselection.service.report;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import ru.sfedu.teamselection.domain.Track;
+import ru.sfedu.teamselection.exception.NotFoundException;
+import ru.sfedu.teamselection.repository.TrackRepository;
+import ru.sfedu.teamselection.service.ReportService;
+
+/**
+ * Сводный отчет по нескольким трекам, например по всем трекам семестра: лист на трек и лист сводки.
+ * Данные треков загружаются параллельно, по одному рабочему потоку и одной транзакции только для чтения
+ * на трек ({@link TrackReportLoader}). Листы пишутся в одну потоковую книгу в порядке треков по мере
+ * готовности снимков, стили книги создаются один раз и общие для всех листов
+ */
+@Slf4j
+@Service
+public class ConsolidatedReportService {
+    private static final String SUMMARY_SHEET = "Сводка";
+    private static final String[] SUMMARY_HEADERS = summaryHeaders();
+    /**
+     * Максимальная длина имени листа в Excel
+     */
+    private static final int MAX_SHEET_NAME = 31;
+    private static final byte[] EVEN_ROW_COLOR = new byte[]{(byte) 0xF2, (byte) 0xF2, (byte) 0xF2};
+
+    private final TrackRepository trackRepository;
+    private final TrackReportLoader trackReportLoader;
+    private final StreamingXlsxWriterFactory xlsxWriterFactory;
+    private final ExecutorService executor;
+    private final DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    public ConsolidatedReportService(
+            TrackRepository trackRepository,
+            TrackReportLoader trackReportLoader,
+            StreamingXlsxWriterFactory xlsxWriterFactory,
+            @Value("${app.export.consolidated.pool-size:4}") int poolSize
+    ) {
+        this.trackRepository = trackRepository;
+        this.trackReportLoader = trackReportLoader;
+        this.xlsxWriterFactory = xlsxWriterFactory;
+        this.executor = Executors.newFixedThreadPool(poolSize, new CustomizableThreadFactory("report-track-"));
+    }
+
+    /**
+     * Треки, которые попадают в отчет
+     * @param trackIds явно выбранные треки; если не заданы, берутся треки, пересекающиеся с периодом
+     * @param from начало периода
+     * @param to конец периода
+     * @return id треков в порядке листов отчета
+     * @throws IllegalArgumentException если не заданы ни треки, ни период, или период задан неверно
+     * @throws NotFoundException если подходящих треков нет
+     */
+    public List<Long> resolveTracks(List<Long> trackIds, LocalDate from, LocalDate to) {
+        List<Long> result;
+        if (trackIds != null && !trackIds.isEmpty()) {
+            result = trackIds.stream().distinct().toList();
+            List<Long> existing = trackRepository.findAllById(result).stream().map(Track::getId).toList();
+            if (existing.size() != result.size()) {
+                throw new NotFoundException("Треки не найдены: " + result.stream()
+                        .filter(id -> !existing.contains(id))
+                        .toList());
+            }
+            return result;
+        }
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Укажите треки или период отчета");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Начало периода позже его окончания");
+        }
+        result = trackRepository.findAllOverlapping(from, to).stream().map(Track::getId).toList();
+        if (result.isEmpty()) {
+            throw new NotFoundException("За период " + from.format(dtf) + " - " + to.format(dtf) + " треков нет");
+        }
+        return result;
+    }
+
+    /**
+     * Пишет сводный отчет в {@code out}. Поток {@code out} не закрывается
+     * @param trackIds id треков в порядке листов, см. {@link #resolveTracks}
+     * @param out поток для книги
+     */
+    public void writeReport(List<Long> trackIds, OutputStream out) {
+        long started = System.currentTimeMillis();
+        List<Future<TrackReport>> reports = trackIds.stream()
+                .map(trackId -> executor.submit(() -> trackReportLoader.load(trackId)))
+                .toList();
+        try (StreamingXlsxWriter writer = xlsxWriterFactory.create()) {
+            XSSFCellStyle evenStyle = writer.createRowStyle(EVEN_ROW_COLOR);
+            XSSFCellStyle oddStyle = writer.createRowStyle();
+            Set<String> sheetNames = new HashSet<>();
+            sheetNames.add(SUMMARY_SHEET.toLowerCase(Locale.ROOT));
+            List<Object[]> summary = new ArrayList<>(trackIds.size());
+
+            for (Future<TrackReport> future : reports) {
+                TrackReport report = await(future);
+                writer.startSheet(sheetName(report, sheetNames), TrackReportLoader.HEADERS);
+                for (Object[] row : report.rows()) {
+                    boolean isEven = (writer.getDataRowCount() + 1) % 2 == 0;
+                    writer.appendRow(row, isEven ? evenStyle : oddStyle);
+                }
+                summary.add(summaryRow(report));
+            }
+
+            writer.startSheet(SUMMARY_SHEET, SUMMARY_HEADERS);
+            for (Object[] row : summary) {
+                writer.appendRow(row, oddStyle);
+            }
+            writer.writeTo(out);
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка при формировании сводного отчета", e);
+        } finally {
+            reports.forEach(future -> future.cancel(true));
+        }
+        log.info("Consolidated report for {} tracks written in {} ms",
+                trackIds.size(), System.currentTimeMillis() - started);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static TrackReport await(Future<TrackReport> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Формирование сводного отчета прервано", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Имя листа по названию трека: допустимое в Excel и уникальное без учета регистра.
+     * Треки с одинаковым названием различаются по id
+     */
+    private static String sheetName(TrackReport report, Set<String> taken) {
+        String name = WorkbookUtil.createSafeSheetName(report.name() == null ? "" : report.name());
+        if (name.isBlank() || taken.contains(name.toLowerCase(Locale.ROOT))) {
+            String suffix = " (" + report.trackId() + ")";
+            name = WorkbookUtil.createSafeSheetName(
+                    name.substring(0, Math.min(name.length(), MAX_SHEET_NAME - suffix.length())) + suffix
+            );
+        }
+        taken.add(name.toLowerCase(Locale.ROOT));
+        return name;
+    }
+
+    private Object[] summaryRow(TrackReport report) {
+        return new Object[]{
+                report.name(),
+                report.type() == null ? "" : report.type().toString(),
+                report.startDate() == null ? "" : report.startDate().format(dtf),
+                report.endDate() == null ? "" : report.endDate().format(dtf),
+                report.minConstraint(),
+                report.maxConstraint(),
+                report.teams(),
+                report.fullTeams(),
+                report.students(),
+                report.studentsInTeams()
+        };
+    }
+
+    @SuppressWarnings("checkstyle:MagicNumber")
+    private static String[] summaryHeaders() {
+        return new String[]{
+                ReportService.TRACK_HEADERS[0],
+                ReportService.TRACK_HEADERS[4],
+                ReportService.TRACK_HEADERS[2],
+                ReportService.TRACK_HEADERS[3],
+                ReportService.TRACK_HEADERS[5],
+                ReportService.TRACK_HEADERS[6],
+                "Команд",
+                "Полных команд",
+                "Студентов",
+                "Студентов в командах"
+        };
+    }
+}
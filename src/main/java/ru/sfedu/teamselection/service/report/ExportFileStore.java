@@ -0,0 +1,88 @@
+package ru.sfedu.teamselection.service.report;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.sfedu.teamselection.enums.ExportFormat;
+
+/**
+ * Локальное файловое хранилище готовых выгрузок.
+ * Файл сначала пишется во временный {@code *.part} и переименовывается после успешной записи,
+ * поэтому недописанный результат никогда не отдается клиенту.
+ */
+@Slf4j
+@Component
+public class ExportFileStore {
+    private static final String PART_SUFFIX = ".part";
+    /**
+     * Файлы задач: {@code <uuid>.<расширение>} и недописанные {@code <uuid>.<расширение>.part}
+     */
+    private static final Pattern JOB_FILE = Pattern.compile(
+            "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\.("
+                    + Arrays.stream(ExportFormat.values()).map(ExportFormat::getExtension)
+                            .collect(Collectors.joining("|"))
+                    + ")(" + Pattern.quote(PART_SUFFIX) + ")?"
+    );
+
+    private final Path directory;
+
+    public ExportFileStore(
+            @Value("${app.export.jobs.dir:${java.io.tmpdir}/team-selection-exports}") String directory
+    ) throws IOException {
+        this.directory = Paths.get(directory);
+        Files.createDirectories(this.directory);
+        // после перезапуска задачи в памяти потеряны, оставшиеся файлы задач больше никому не нужны;
+        // чужие файлы в каталоге не трогаем
+        try (Stream<Path> files = Files.list(this.directory)) {
+            files.filter(ExportFileStore::isJobFile).forEach(this::delete);
+        }
+    }
+
+    /**
+     * Записывает результат задачи в хранилище
+     * @param jobId id задачи
+     * @param format формат файла
+     * @param writer код, пишущий содержимое файла в переданный поток
+     * @return путь к готовому файлу
+     */
+    public Path write(UUID jobId, ExportFormat format, ContentWriter writer) throws IOException {
+        Path target = directory.resolve(jobId + "." + format.getExtension());
+        Path part = directory.resolve(target.getFileName() + PART_SUFFIX);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part))) {
+            writer.write(out);
+        } catch (IOException | RuntimeException e) {
+            delete(part);
+            throw e;
+        }
+        return Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Unable to delete export file {}", file, e);
+        }
+    }
+
+    private static boolean isJobFile(Path file) {
+        return Files.isRegularFile(file) && JOB_FILE.matcher(file.getFileName().toString()).matches();
+    }
+
+    @FunctionalInterface
+    public interface ContentWriter {
+        void write(OutputStream out) throws IOException;
+    }
+}
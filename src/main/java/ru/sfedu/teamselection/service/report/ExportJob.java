@@ -0,0 +1,65 @@
+package ru.sfedu.teamselection.service.report;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.Getter;
+import ru.sfedu.teamselection.enums.ExportEntity;
+import ru.sfedu.teamselection.enums.ExportFormat;
+import ru.sfedu.teamselection.enums.ExportJobStatus;
+
+/**
+ * Состояние задачи экспорта. Изменяется только потоком, выполняющим задачу.
+ */
+@Getter
+public class ExportJob {
+    private final UUID id;
+    private final Key key;
+    private final LocalDateTime createdAt;
+    private volatile ExportJobStatus status = ExportJobStatus.QUEUED;
+    private volatile LocalDateTime finishedAt;
+    private volatile Path file;
+    private volatile Long size;
+    private volatile String error;
+
+    ExportJob(UUID id, Key key) {
+        this.id = id;
+        this.key = key;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    void markRunning() {
+        status = ExportJobStatus.RUNNING;
+    }
+
+    void markDone(Path resultFile, long resultSize) {
+        file = resultFile;
+        size = resultSize;
+        finishedAt = LocalDateTime.now();
+        status = ExportJobStatus.DONE;
+    }
+
+    void markFailed(String message) {
+        error = message;
+        finishedAt = LocalDateTime.now();
+        status = ExportJobStatus.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == ExportJobStatus.DONE || status == ExportJobStatus.FAILED;
+    }
+
+    /**
+     * Ключ, по которому одинаковые запросы объединяются в одну задачу
+     * @param trackId id трека
+     * @param entity выгружаемая сущность
+     * @param format формат файла
+     * @param dataVersion версия данных трека на момент постановки задачи
+     */
+    public record Key(
+            Long trackId,
+            ExportEntity entity,
+            ExportFormat format,
+            long dataVersion
+    ) {}
+}
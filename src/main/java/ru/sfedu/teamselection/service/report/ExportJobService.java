@@ -0,0 +1,221 @@
+package ru.sfedu.teamselection.service.report;
+
+import jakarta.annotation.PreDestroy;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import ru.sfedu.teamselection.enums.ExportEntity;
+import ru.sfedu.teamselection.enums.ExportFormat;
+import ru.sfedu.teamselection.enums.ExportJobStatus;
+import ru.sfedu.teamselection.exception.BusinessException;
+import ru.sfedu.teamselection.exception.NotFoundException;
+import ru.sfedu.teamselection.exception.TooManyRequestsException;
+import ru.sfedu.teamselection.service.StudentExportService;
+import ru.sfedu.teamselection.service.TeamExportService;
+import ru.sfedu.teamselection.service.TrackDataVersionService;
+
+/**
+ * Фоновое выполнение выгрузок студентов и команд.
+ * Задачи выполняются на ограниченном пуле потоков, результат сохраняется в {@link ExportFileStore}
+ * и хранится заданное время. Повторный запрос той же выгрузки при неизменной версии данных трека
+ * возвращает уже существующую задачу вместо постановки новой.
+ * Устаревшие задачи удаляются собственным потоком сервиса, независимо от {@code app.scheduler.enabled}.
+ */
+@Slf4j
+@Service
+public class ExportJobService {
+    private final StudentExportService studentExportService;
+    private final TeamExportService teamExportService;
+    private final ExportFileStore fileStore;
+    private final TrackDataVersionService trackDataVersionService;
+
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService cleanupExecutor;
+    private final long ttlMinutes;
+
+    private final Map<UUID, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<ExportJob.Key, ExportJob> jobsByKey = new ConcurrentHashMap<>();
+
+    public ExportJobService(
+            StudentExportService studentExportService,
+            TeamExportService teamExportService,
+            ExportFileStore fileStore,
+            TrackDataVersionService trackDataVersionService,
+            @Value("${app.export.jobs.pool-size:2}") int poolSize,
+            @Value("${app.export.jobs.queue-capacity:20}") int queueCapacity,
+            @Value("${app.export.jobs.ttl-minutes:60}") long ttlMinutes,
+            @Value("${app.export.jobs.cleanup-interval-ms:600000}") long cleanupIntervalMs
+    ) {
+        this.studentExportService = studentExportService;
+        this.teamExportService = teamExportService;
+        this.fileStore = fileStore;
+        this.trackDataVersionService = trackDataVersionService;
+        this.ttlMinutes = ttlMinutes;
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("export-job-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        CustomizableThreadFactory cleanupThreadFactory = new CustomizableThreadFactory("export-cleanup-");
+        cleanupThreadFactory.setDaemon(true);
+        this.cleanupExecutor = new ScheduledThreadPoolExecutor(1, cleanupThreadFactory);
+        this.cleanupExecutor.scheduleWithFixedDelay(
+                this::cleanupExpiredSafely,
+                cleanupIntervalMs,
+                cleanupIntervalMs,
+                TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Ставит выгрузку в очередь или возвращает уже существующую задачу с тем же ключом
+     * @param trackId id трека
+     * @param entity выгружаемая сущность
+     * @param format формат файла
+     * @return задача экспорта
+     * @throws TooManyRequestsException если очередь задач заполнена
+     */
+    public synchronized ExportJob submit(Long trackId, ExportEntity entity, ExportFormat format) {
+        ExportJob.Key key = new ExportJob.Key(trackId, entity, format, trackDataVersionService.getVersion(trackId));
+
+        ExportJob existing = jobsByKey.get(key);
+        if (existing != null && existing.getStatus() != ExportJobStatus.FAILED && !isExpired(existing)) {
+            log.debug("Export job {} reused for {}", existing.getId(), key);
+            return existing;
+        }
+
+        ExportJob job = new ExportJob(UUID.randomUUID(), key);
+        jobs.put(job.getId(), job);
+        jobsByKey.put(key, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            jobsByKey.remove(key, job);
+            throw new TooManyRequestsException("Очередь выгрузок заполнена, повторите запрос позже");
+        }
+        return job;
+    }
+
+    /**
+     * Find export job by id
+     * @param id job id
+     * @return job with given id
+     * @throws NotFoundException in case there is no such job or it has expired
+     */
+    public ExportJob findByIdOrElseThrow(UUID id) {
+        ExportJob job = jobs.get(id);
+        if (job == null || isExpired(job)) {
+            throw new NotFoundException("Задача экспорта `" + id + "` не найдена");
+        }
+        return job;
+    }
+
+    /**
+     * Путь к готовому файлу выгрузки
+     * @param id job id
+     * @return путь к файлу в хранилище
+     * @throws BusinessException если задача еще не завершена или завершилась ошибкой
+     */
+    public Path getResultFile(UUID id) {
+        ExportJob job = findByIdOrElseThrow(id);
+        if (job.getStatus() != ExportJobStatus.DONE) {
+            throw new BusinessException("Выгрузка `" + id + "` не готова, статус " + job.getStatus());
+        }
+        return job.getFile();
+    }
+
+    /**
+     * Удаляет завершенные задачи, хранящиеся дольше TTL, вместе с их файлами
+     * @return количество удаленных задач
+     */
+    public int cleanupExpired() {
+        int removed = 0;
+        for (ExportJob job : jobs.values()) {
+            if (isExpired(job)) {
+                jobs.remove(job.getId());
+                jobsByKey.remove(job.getKey(), job);
+                if (job.getFile() != null) {
+                    fileStore.delete(job.getFile());
+                }
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        cleanupExecutor.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private void cleanupExpiredSafely() {
+        try {
+            int removed = cleanupExpired();
+            if (removed > 0) {
+                log.info("Removed {} expired export jobs", removed);
+            }
+        } catch (RuntimeException e) {
+            // исключение остановило бы дальнейшие запуски очистки
+            log.error("Export jobs cleanup failed", e);
+        }
+    }
+
+    private void run(ExportJob job) {
+        job.markRunning();
+        ExportJob.Key key = job.getKey();
+        try {
+            Path file = fileStore.write(job.getId(), key.format(), out -> writeExport(key, out));
+            job.markDone(file, Files.size(file));
+            log.info("Export job {} for {} finished", job.getId(), key);
+        } catch (Exception e) {
+            log.error("Export job {} for {} failed", job.getId(), key, e);
+            job.markFailed(e.getMessage());
+            jobsByKey.remove(key, job);
+        }
+    }
+
+    private void writeExport(ExportJob.Key key, OutputStream out) {
+        switch (key.entity()) {
+            case STUDENTS -> {
+                if (key.format() == ExportFormat.CSV) {
+                    studentExportService.writeStudentsCsvByTrack(key.trackId(), out);
+                } else {
+                    studentExportService.writeStudentsExcelByTrack(key.trackId(), out);
+                }
+            }
+            case TEAMS -> {
+                if (key.format() == ExportFormat.CSV) {
+                    teamExportService.writeTeamsCsvByTrack(key.trackId(), out);
+                } else {
+                    teamExportService.writeTeamsExcelByTrack(key.trackId(), out);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unsupported export entity " + key.entity());
+        }
+    }
+
+    private boolean isExpired(ExportJob job) {
+        return job.isFinished()
+                && job.getFinishedAt().isBefore(LocalDateTime.now().minusMinutes(ttlMinutes));
+    }
+}
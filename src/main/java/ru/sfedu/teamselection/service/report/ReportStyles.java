@@ -0,0 +1,40 @@
+package ru.sfedu.teamselection.service.report;
+
+import java.util.EnumMap;
+import java.util.Map;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * Стили одной книги. Каждый стиль создается при первом обращении и дальше переиспользуется:
+ * число стилей в книге ограничено, и стиль на каждую строку замедляет запись больших отчетов
+ */
+public class ReportStyles {
+    private static final String FONT_NAME = "Calibri";
+
+    private final Workbook workbook;
+    private final Map<IndexedColors, CellStyle> headers = new EnumMap<>(IndexedColors.class);
+
+    public ReportStyles(Workbook workbook) {
+        this.workbook = workbook;
+    }
+
+    /**
+     * Стиль заголовка: жирный шрифт заданного цвета
+     */
+    public CellStyle header(IndexedColors color) {
+        return headers.computeIfAbsent(color, this::createHeader);
+    }
+
+    private CellStyle createHeader(IndexedColors color) {
+        Font font = workbook.createFont();
+        font.setFontName(FONT_NAME);
+        font.setBold(true);
+        font.setColor(color.getIndex());
+        CellStyle style = workbook.createCellStyle();
+        style.setFont(font);
+        return style;
+    }
+}
@@ -0,0 +1,214 @@
+package ru.sfedu.teamselection.service.report;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.DefaultIndexedColorMap;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFColor;
+
+/**
+ * Потоковая запись листов XLSX поверх {@link SXSSFWorkbook}.
+ * В памяти держится только окно из последних строк, остальные сбрасываются во временный файл.
+ * Ширина колонок считается по длине записанных значений вместо {@code autoSizeColumn},
+ * которому нужен весь лист в памяти.
+ * Шапка оформляется в фирменном цвете #330036, на неё ставится автофильтр и заморозка.
+ * Листы пишутся по очереди: {@link #startSheet} завершает текущий лист и начинает следующий,
+ * стили книги общие для всех листов.
+ */
+@SuppressWarnings("checkstyle:MagicNumber")
+public class StreamingXlsxWriter implements Closeable {
+    private static final byte[] HEADER_COLOR = new byte[]{(byte) 0x33, (byte) 0x00, (byte) 0x36};
+    /**
+     * Ограничение ширины колонки в символах, длинные тексты переносятся.
+     */
+    private static final int MAX_COLUMN_CHARS = 60;
+    private static final int MIN_COLUMN_CHARS = 6;
+
+    private final SXSSFWorkbook workbook;
+    private final CellStyle headerStyle;
+    private SXSSFSheet sheet;
+    private int columnCount;
+    private int[] columnChars;
+    private int rowIdx;
+
+    public StreamingXlsxWriter(int rowAccessWindow, boolean compressTempFiles, String sheetName, String[] headers) {
+        this(rowAccessWindow, compressTempFiles);
+        startSheet(sheetName, headers);
+    }
+
+    /**
+     * Книга без листов, первый лист начинается {@link #startSheet}
+     */
+    public StreamingXlsxWriter(int rowAccessWindow, boolean compressTempFiles) {
+        this.workbook = new SXSSFWorkbook(rowAccessWindow);
+        this.workbook.setCompressTempFiles(compressTempFiles);
+        this.headerStyle = createHeaderStyle();
+    }
+
+    /**
+     * Завершает текущий лист и начинает новый с шапкой {@code headers}.
+     * Строки завершенного листа больше не изменяются.
+     */
+    public void startSheet(String sheetName, String[] headers) {
+        finishSheet();
+        this.sheet = workbook.createSheet(sheetName);
+        this.columnCount = headers.length;
+        this.columnChars = new int[headers.length];
+        this.rowIdx = 0;
+
+        Row headerRow = sheet.createRow(rowIdx++);
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+            // жирный шрифт шапки немного шире обычного
+            estimate(i, headers[i], 2);
+        }
+    }
+
+    /**
+     * Базовый стиль строки данных: тонкие границы, перенос текста, выравнивание по верху.
+     * Стили создаются один раз на книгу, а не на строку.
+     */
+    public XSSFCellStyle createRowStyle() {
+        XSSFCellStyle style = (XSSFCellStyle) workbook.createCellStyle();
+        setThinBorders(style);
+        style.setWrapText(true);
+        style.setVerticalAlignment(VerticalAlignment.TOP);
+        return style;
+    }
+
+    /**
+     * Стиль строки данных с заливкой индексированным цветом.
+     */
+    public XSSFCellStyle createRowStyle(IndexedColors fill) {
+        XSSFCellStyle style = createRowStyle();
+        style.setFillForegroundColor(fill.getIndex());
+        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        return style;
+    }
+
+    /**
+     * Стиль строки данных с заливкой произвольным RGB-цветом.
+     */
+    public XSSFCellStyle createRowStyle(byte[] rgb) {
+        XSSFCellStyle style = createRowStyle();
+        style.setFillForegroundColor(new XSSFColor(rgb, new DefaultIndexedColorMap()));
+        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        return style;
+    }
+
+    /**
+     * Добавляет строку данных. Boolean и Number пишутся типизированными ячейками, остальное строкой,
+     * {@code null} — пустой строкой.
+     */
+    public void appendRow(Object[] data, CellStyle style) {
+        if (sheet == null) {
+            throw new IllegalStateException("Лист не начат");
+        }
+        Row row = sheet.createRow(rowIdx++);
+        for (int i = 0; i < data.length; i++) {
+            Cell cell = row.createCell(i);
+            Object value = data[i];
+            if (value instanceof Boolean bool) {
+                cell.setCellValue(bool);
+            } else if (value instanceof Number number) {
+                cell.setCellValue(number.doubleValue());
+            } else {
+                cell.setCellValue(value == null ? "" : value.toString());
+            }
+            cell.setCellStyle(style);
+            estimate(i, value, 0);
+        }
+    }
+
+    /**
+     * Количество записанных строк данных текущего листа (без шапки).
+     */
+    public int getDataRowCount() {
+        return Math.max(rowIdx - 1, 0);
+    }
+
+    /**
+     * Проставляет ширины колонок, автофильтр и заморозку шапки текущего листа и пишет книгу в {@code out}.
+     * Поток {@code out} не закрывается.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        finishSheet();
+        workbook.write(out);
+        out.flush();
+    }
+
+    /**
+     * Удаляет временные файлы SXSSF.
+     */
+    @Override
+    public void close() throws IOException {
+        workbook.dispose();
+        workbook.close();
+    }
+
+    private void finishSheet() {
+        if (sheet == null) {
+            return;
+        }
+        for (int i = 0; i < columnCount; i++) {
+            int chars = Math.min(Math.max(columnChars[i], MIN_COLUMN_CHARS), MAX_COLUMN_CHARS);
+            // ширина задаётся в 1/256 символа, +2 символа на отступы ячейки
+            sheet.setColumnWidth(i, (chars + 2) * 256);
+        }
+        sheet.setAutoFilter(new CellRangeAddress(0, 0, 0, columnCount - 1));
+        sheet.createFreezePane(0, 1);
+        sheet = null;
+    }
+
+    private void estimate(int column, Object value, int extra) {
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof Boolean bool
+                ? (bool ? "TRUE" : "FALSE")
+                : value.toString();
+        int longestLine = 0;
+        for (String line : text.split("\n", -1)) {
+            longestLine = Math.max(longestLine, line.length());
+        }
+        columnChars[column] = Math.max(columnChars[column], longestLine + extra);
+    }
+
+    private CellStyle createHeaderStyle() {
+        Font headerFont = workbook.createFont();
+        headerFont.setBold(true);
+        headerFont.setColor(IndexedColors.WHITE.getIndex());
+
+        XSSFCellStyle headerStyle = (XSSFCellStyle) workbook.createCellStyle();
+        headerStyle.setFont(headerFont);
+        headerStyle.setFillForegroundColor(new XSSFColor(HEADER_COLOR, new DefaultIndexedColorMap()));
+        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        headerStyle.setAlignment(HorizontalAlignment.CENTER);
+        headerStyle.setVerticalAlignment(VerticalAlignment.CENTER);
+        headerStyle.setWrapText(true);
+        setThinBorders(headerStyle);
+        return headerStyle;
+    }
+
+    private static void setThinBorders(CellStyle style) {
+        style.setBorderTop(BorderStyle.THIN);
+        style.setBorderBottom(BorderStyle.THIN);
+        style.setBorderLeft(BorderStyle.THIN);
+        style.setBorderRight(BorderStyle.THIN);
+    }
+}
@@ -0,0 +1,32 @@
+package ru.sfedu.teamselection.service.report;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Создает {@link StreamingXlsxWriter} с настройками из {@code app.export.excel.*}.
+ */
+@Component
+public class StreamingXlsxWriterFactory {
+    private final int rowAccessWindow;
+    private final boolean compressTempFiles;
+
+    public StreamingXlsxWriterFactory(
+            @Value("${app.export.excel.row-access-window:100}") int rowAccessWindow,
+            @Value("${app.export.excel.compress-temp-files:true}") boolean compressTempFiles
+    ) {
+        this.rowAccessWindow = rowAccessWindow;
+        this.compressTempFiles = compressTempFiles;
+    }
+
+    public StreamingXlsxWriter create(String sheetName, String[] headers) {
+        return new StreamingXlsxWriter(rowAccessWindow, compressTempFiles, sheetName, headers);
+    }
+
+    /**
+     * Книга из нескольких листов, каждый начинается {@link StreamingXlsxWriter#startSheet}
+     */
+    public StreamingXlsxWriter create() {
+        return new StreamingXlsxWriter(rowAccessWindow, compressTempFiles);
+    }
+}
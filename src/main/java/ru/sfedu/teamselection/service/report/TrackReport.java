@@ -0,0 +1,25 @@
+package ru.sfedu.teamselection.service.report;
+
+import java.time.LocalDate;
+import java.util.List;
+import ru.sfedu.teamselection.enums.TrackType;
+
+/**
+ * Снимок данных трека для сводного отчета, не связанный с контекстом персистентности
+ * @param rows строки листа трека в порядке {@link TrackReportLoader#HEADERS}
+ */
+public record TrackReport(
+        Long trackId,
+        String name,
+        TrackType type,
+        LocalDate startDate,
+        LocalDate endDate,
+        Integer minConstraint,
+        Integer maxConstraint,
+        int teams,
+        int fullTeams,
+        int students,
+        int studentsInTeams,
+        List<Object[]> rows
+) {
+}
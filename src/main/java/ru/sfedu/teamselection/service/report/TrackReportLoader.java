@@ -0,0 +1,134 @@
+package ru.sfedu.teamselection.service.report;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.sfedu.teamselection.domain.Technology;
+import ru.sfedu.teamselection.domain.Track;
+import ru.sfedu.teamselection.exception.NotFoundException;
+import ru.sfedu.teamselection.service.StudentService;
+import ru.sfedu.teamselection.service.TeamService;
+import ru.sfedu.teamselection.service.TrackService;
+
+/**
+ * Загружает данные одного трека для сводного отчета.
+ * Вызывается из рабочих потоков {@link ConsolidatedReportService},
+ * каждый вызов выполняется в собственной транзакции только для чтения.
+ * Технологии команд и студентов загружаются запросом на порцию записей, а не на каждую запись
+ */
+@Component
+@RequiredArgsConstructor
+public class TrackReportLoader {
+    public static final String[] HEADERS = {
+            "Команда",
+            "Тип проекта",
+            "Технологии команды",
+            "Полная",
+            "ФИО",
+            "Email",
+            "Курс",
+            "Группа",
+            "Капитан",
+            "Технологии студента"
+    };
+    private static final String WITHOUT_TEAM = "Без команды";
+
+    private final TrackService trackService;
+    private final TeamService teamService;
+    private final StudentService studentService;
+
+    /**
+     * Строки трека: участники команд по названию команды и ФИО, команды без участников одной строкой,
+     * затем студенты без команды
+     * @param trackId id трека
+     * @return снимок трека
+     * @throws NotFoundException если трека нет
+     */
+    @Transactional(readOnly = true)
+    public TrackReport load(Long trackId) {
+        Track track = trackService.findByIdOrElseThrow(trackId);
+
+        Map<Long, Object[]> teams = new LinkedHashMap<>();
+        int[] fullTeams = new int[1];
+        teamService.forEachByTrack(trackId, team -> {
+            teams.put(team.getId(), new Object[]{
+                    team.getName(),
+                    team.getProjectType() == null ? "" : team.getProjectType().getName(),
+                    joinTechnologies(team.getTechnologies()),
+                    team.getIsFull()
+            });
+            fullTeams[0] += Boolean.TRUE.equals(team.getIsFull()) ? 1 : 0;
+        });
+
+        Map<Long, List<Object[]>> members = new LinkedHashMap<>();
+        List<Object[]> withoutTeam = new ArrayList<>();
+        int[] students = new int[1];
+        studentService.forEachWithTechnologiesByTrack(trackId, student -> {
+            students[0]++;
+            Object[] row = {
+                    student.getUser().getFio(),
+                    student.getUser().getEmail(),
+                    student.getCourse(),
+                    student.getGroupNumber(),
+                    student.getIsCaptain(),
+                    joinTechnologies(student.getTechnologies())
+            };
+            Long teamId = student.getCurrentTeam() == null ? null : student.getCurrentTeam().getId();
+            if (teamId != null && teams.containsKey(teamId)) {
+                members.computeIfAbsent(teamId, id -> new ArrayList<>()).add(row);
+            } else {
+                withoutTeam.add(row);
+            }
+        });
+
+        List<Object[]> rows = new ArrayList<>(students[0] + teams.size());
+        int studentsInTeams = 0;
+        for (Map.Entry<Long, Object[]> team : teams.entrySet()) {
+            List<Object[]> teamMembers = members.getOrDefault(team.getKey(), List.of());
+            studentsInTeams += teamMembers.size();
+            if (teamMembers.isEmpty()) {
+                rows.add(concat(team.getValue(), new Object[6]));
+            }
+            for (Object[] member : teamMembers) {
+                rows.add(concat(team.getValue(), member));
+            }
+        }
+        Object[] noTeam = {WITHOUT_TEAM, null, null, null};
+        for (Object[] student : withoutTeam) {
+            rows.add(concat(noTeam, student));
+        }
+
+        return new TrackReport(
+                track.getId(),
+                track.getName(),
+                track.getType(),
+                track.getStartDate(),
+                track.getEndDate(),
+                track.getMinConstraint(),
+                track.getMaxConstraint(),
+                teams.size(),
+                fullTeams[0],
+                students[0],
+                studentsInTeams,
+                rows
+        );
+    }
+
+    private static String joinTechnologies(List<Technology> technologies) {
+        return technologies.stream()
+                .map(Technology::getName)
+                .collect(Collectors.joining("; "));
+    }
+
+    private static Object[] concat(Object[] team, Object[] student) {
+        Object[] row = new Object[team.length + student.length];
+        System.arraycopy(team, 0, row, 0, team.length);
+        System.arraycopy(student, 0, row, team.length, student.length);
+        return row;
+    }
+}
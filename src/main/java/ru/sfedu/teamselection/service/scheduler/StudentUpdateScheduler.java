@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.sfedu.teamselection.config.SchedulerConfig;
 import ru.sfedu.teamselection.repository.StudentRepository;
+import ru.sfedu.teamselection.service.TrackDataVersionService;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -16,6 +17,7 @@ import ru.sfedu.teamselection.repository.StudentRepository;
 @Service
 public class StudentUpdateScheduler {
     private final StudentRepository studentRepository;
+    private final TrackDataVersionService trackDataVersionService;
 
     @Scheduled(cron = "${app.scheduler.studentTrack}")
     @Transactional
@@ -23,6 +25,8 @@ public class StudentUpdateScheduler {
         log.info("StudentUpdateScheduler: Start deactivateExpiredCaptains job");
         LocalDate today = LocalDate.now();
         var updatedCount = studentRepository.deactivateCaptainsWithExpiredTracks(today);
+        // массовый UPDATE не проходит через слушатели сущностей
+        trackDataVersionService.bumpAll();
         log.info("StudentUpdateScheduler: Finish deactivateExpiredCaptains job, updated {} students", updatedCount);
     }
 }
@@ -0,0 +1,146 @@
+package ru.sfedu.teamselection.service.security;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import ru.sfedu.teamselection.exception.NotFoundException;
+import ru.sfedu.teamselection.repository.UserRepository;
+import ru.sfedu.teamselection.repository.projection.CurrentPrincipal;
+
+/**
+ * Определение текущего пользователя по контексту безопасности.
+ * Снимок {@link CurrentPrincipal} запоминается в атрибутах запроса и в кэше с коротким временем жизни,
+ * поэтому повторные проверки доступа в рамках запроса и соседних запросов не ходят в базу.
+ */
+@Slf4j
+@Service
+public class CurrentPrincipalService {
+    private static final String REQUEST_ATTRIBUTE = CurrentPrincipalService.class.getName() + ".PRINCIPAL";
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    /**
+     * Ключ - почта пользователя OIDC или имя для остальных способов входа
+     */
+    private final Map<String, CachedPrincipal> cache = new ConcurrentHashMap<>();
+
+    public CurrentPrincipalService(
+            UserRepository userRepository,
+            @Value("${app.security.principal-cache.ttl-seconds:30}") long ttlSeconds,
+            @Value("${app.security.principal-cache.max-entries:10000}") int maxEntries
+    ) {
+        this.userRepository = userRepository;
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Снимок текущего пользователя
+     * @return снимок пользователя из контекста безопасности
+     * @throws NotFoundException если пользователя нет в базе
+     */
+    public CurrentPrincipal getCurrentPrincipal() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String key = auth.getPrincipal() instanceof OidcUser oidc
+                ? "email:" + oidc.getEmail()
+                : "name:" + auth.getName();
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        CachedPrincipal memo = memo(request);
+        if (memo != null && memo.key().equals(key)) {
+            return memo.principal();
+        }
+
+        long now = System.nanoTime();
+        CachedPrincipal cached = cache.get(key);
+        if (cached == null || cached.isExpired(now)) {
+            cached = new CachedPrincipal(key, load(auth), now + ttlNanos);
+            if (ttlNanos > 0) {
+                put(cached, now);
+            }
+        }
+        if (request != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE, cached, RequestAttributes.SCOPE_REQUEST);
+        }
+        return cached.principal();
+    }
+
+    /**
+     * Сбрасывает снимки пользователя после коммита текущей транзакции.
+     * Вызывается при изменении роли, блокировке пользователя и создании или удалении его студента
+     * @param userId id пользователя
+     */
+    public void evict(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictNow(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictNow(userId);
+            }
+        });
+    }
+
+    private void evictNow(Long userId) {
+        cache.values().removeIf(cached -> cached.principal().userId().equals(userId));
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        CachedPrincipal memo = memo(request);
+        if (memo != null && memo.principal().userId().equals(userId)) {
+            request.removeAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Снимок, запомненный в атрибутах текущего запроса, или null
+     */
+    private static CachedPrincipal memo(RequestAttributes request) {
+        if (request == null) {
+            return null;
+        }
+        Object value = request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return value instanceof CachedPrincipal memo ? memo : null;
+    }
+
+    private CurrentPrincipal load(Authentication auth) {
+        if (auth.getPrincipal() instanceof OidcUser oidc) {
+            return userRepository.findPrincipalByEmail(oidc.getEmail())
+                    .orElseThrow(() -> new NotFoundException(
+                            "Пользователь с почтой `" + oidc.getEmail() + "` не найден"
+                    ));
+        }
+        return userRepository.findPrincipalByFio(auth.getName())
+                .orElseThrow(() -> new NotFoundException("Пользователь с именем `" + auth.getName() + "` не найден"));
+    }
+
+    private void put(CachedPrincipal cached, long now) {
+        if (cache.size() >= maxEntries) {
+            cache.values().removeIf(c -> c.isExpired(now));
+            if (cache.size() >= maxEntries) {
+                log.debug("Principal cache is full, clearing {} entries", cache.size());
+                cache.clear();
+            }
+        }
+        cache.put(cached.key(), cached);
+    }
+
+    private record CachedPrincipal(String key, CurrentPrincipal principal, long expiresAtNanos) {
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
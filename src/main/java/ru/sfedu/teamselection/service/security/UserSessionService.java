@@ -1,14 +1,13 @@
 package ru.sfedu.teamselection.service.security;
 
+import java.util.Collection;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.security.core.session.SessionInformation;
-import org.springframework.security.core.session.SessionRegistry;
-import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.stereotype.Service;
+import ru.sfedu.teamselection.config.security.EmailIndexedSessionRegistry;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -17,21 +16,18 @@ public class UserSessionService {
 
     @Autowired
     @Lazy
-    private SessionRegistry sessionRegistry;
+    private EmailIndexedSessionRegistry sessionRegistry;
 
     public void updateUserAuthorities(String email) {
-        List<Object> principals = sessionRegistry.getAllPrincipals();
+        updateUserAuthorities(List.of(email));
+    }
 
-        for (Object principal : principals) {
-            if (principal instanceof OidcUser userDetails) {
-                if (userDetails.getEmail().equals(email)) {
-                    log.info("Destroying {} session to change role", email);
-                    List<SessionInformation> sessions = sessionRegistry.getAllSessions(principal, false);
-                    for (SessionInformation session : sessions) {
-                        session.expireNow();
-                    }
-                }
-            }
-        }
+    /**
+     * Завершает сессии сразу нескольких пользователей, например при массовой выдаче ролей
+     * @param emails почты пользователей
+     */
+    public void updateUserAuthorities(Collection<String> emails) {
+        int expired = sessionRegistry.expireSessions(emails);
+        log.debug("Expired {} sessions of {} users", expired, emails.size());
     }
 }
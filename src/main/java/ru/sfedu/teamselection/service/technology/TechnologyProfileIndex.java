@@ -0,0 +1,166 @@
+package ru.sfedu.teamselection.service.technology;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import ru.sfedu.teamselection.exception.BusinessException;
+import ru.sfedu.teamselection.repository.StudentRepository;
+import ru.sfedu.teamselection.repository.TeamRepository;
+import ru.sfedu.teamselection.service.TrackDataVersionService;
+
+/**
+ * Технологии команд и студентов трека в виде {@link TechnologySet} для сортировки поиска по совпадению стека.
+ * Множества строятся одним запросом на трек и хранятся в памяти вместе с версией данных трека
+ * из {@link TrackDataVersionService}: после изменения команд или студентов трека
+ * они перестраиваются при следующем чтении.
+ */
+@Service
+@RequiredArgsConstructor
+public class TechnologyProfileIndex {
+    /**
+     * Свойство сортировки страницы: по убыванию числа совпавших технологий
+     */
+    public static final String OVERLAP_SORT = "overlap";
+
+    private final TeamRepository teamRepository;
+    private final StudentRepository studentRepository;
+    private final TrackDataVersionService trackDataVersionService;
+
+    private final Map<Long, CachedProfiles> teamCache = new ConcurrentHashMap<>();
+    private final Map<Long, CachedProfiles> studentCache = new ConcurrentHashMap<>();
+
+    /**
+     * Запрошена ли сортировка по совпадению технологий
+     */
+    public static boolean isRequested(Pageable pageable) {
+        return pageable.getSort().getOrderFor(OVERLAP_SORT) != null;
+    }
+
+    /**
+     * Страница команд, упорядоченных по числу технологий из {@code technologies}
+     * @param trackId id трека, обязателен
+     * @param technologies технологии, с которыми сравниваются команды
+     * @param candidateIds id всех подходящих под фильтры команд; при равном совпадении их порядок сохраняется
+     * @param pageable страница
+     * @return страница id команд
+     */
+    public Page<Long> rankTeams(
+            Long trackId,
+            Collection<Long> technologies,
+            List<Long> candidateIds,
+            Pageable pageable
+    ) {
+        return rank(teamProfiles(trackId), technologies, candidateIds, pageable);
+    }
+
+    /**
+     * Страница студентов, упорядоченных по числу технологий из {@code technologies}
+     * @param trackId id трека, обязателен
+     * @param technologies технологии, с которыми сравниваются студенты
+     * @param candidateIds id всех подходящих под фильтры студентов; при равном совпадении их порядок сохраняется
+     * @param pageable страница
+     * @return страница id студентов
+     */
+    public Page<Long> rankStudents(
+            Long trackId,
+            Collection<Long> technologies,
+            List<Long> candidateIds,
+            Pageable pageable
+    ) {
+        return rank(studentProfiles(trackId), technologies, candidateIds, pageable);
+    }
+
+    /**
+     * Технологии команд трека
+     * @param trackId id трека, обязателен
+     * @return id команды -> ее технологии; команд без технологий в карте нет
+     */
+    public Map<Long, TechnologySet> teamProfiles(Long trackId) {
+        return profiles(teamCache, trackId, teamRepository::findTechnologyPairsByTrack);
+    }
+
+    /**
+     * Технологии студентов трека
+     * @param trackId id трека, обязателен
+     * @return id студента -> его технологии; студентов без технологий в карте нет
+     */
+    public Map<Long, TechnologySet> studentProfiles(Long trackId) {
+        return profiles(studentCache, trackId, studentRepository::findTechnologyPairsByTrack);
+    }
+
+    private Map<Long, TechnologySet> profiles(
+            Map<Long, CachedProfiles> cache,
+            Long trackId,
+            Function<Long, List<Object[]>> pairsLoader
+    ) {
+        if (trackId == null) {
+            throw new BusinessException("Сортировка по совпадению технологий доступна только в пределах трека");
+        }
+        long version = trackDataVersionService.getVersion(trackId);
+        CachedProfiles cached = cache.get(trackId);
+        if (cached != null && cached.version() == version) {
+            return cached.profiles();
+        }
+        // версия берется до построения: если данные изменятся во время расчета, запись сразу окажется устаревшей
+        Map<Long, TechnologySet> profiles = TechnologySet.fromPairs(pairsLoader.apply(trackId));
+        cache.put(trackId, new CachedProfiles(version, profiles));
+        return profiles;
+    }
+
+    private static Page<Long> rank(
+            Map<Long, TechnologySet> profiles,
+            Collection<Long> technologies,
+            List<Long> candidateIds,
+            Pageable pageable
+    ) {
+        TechnologySet wanted = wanted(profiles, technologies);
+        List<Scored> scored = new ArrayList<>(candidateIds.size());
+        for (Long id : candidateIds) {
+            scored.add(new Scored(id, profiles.getOrDefault(id, TechnologySet.EMPTY).overlap(wanted)));
+        }
+        // сортировка устойчивая: при равном совпадении остается порядок кандидатов
+        scored.sort(Comparator.comparingInt(Scored::score).reversed());
+
+        int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), scored.size()) : 0;
+        int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), scored.size()) : scored.size();
+        List<Long> page = scored.subList(from, to).stream().map(Scored::id).toList();
+        return new PageImpl<>(page, pageable, scored.size());
+    }
+
+    /**
+     * Запрошенные технологии, которые есть у кандидатов трека. Остальные не влияют на совпадение,
+     * а произвольные id из запроса раздули бы битовую маску
+     * @throws IllegalArgumentException если id технологии не положительный
+     */
+    private static TechnologySet wanted(Map<Long, TechnologySet> profiles, Collection<Long> technologies) {
+        if (technologies == null || technologies.isEmpty()) {
+            return TechnologySet.EMPTY;
+        }
+        TechnologySet known = TechnologySet.union(profiles.values());
+        List<Long> ids = new ArrayList<>(technologies.size());
+        for (Long id : technologies) {
+            if (id == null || id <= 0) {
+                throw new IllegalArgumentException("Некорректный id технологии: " + id);
+            }
+            if (known.contains(id)) {
+                ids.add(id);
+            }
+        }
+        return TechnologySet.of(ids);
+    }
+
+    private record CachedProfiles(long version, Map<Long, TechnologySet> profiles) {
+    }
+
+    private record Scored(Long id, int score) {
+    }
+}
@@ -0,0 +1,114 @@
+package ru.sfedu.teamselection.service.technology;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Неизменяемое множество технологий в виде битовой маски: бит с номером id технологии.
+ * Пересечение двух множеств считается побитовым AND по словам без создания объектов.
+ * Размер маски определяется наибольшим id, поэтому в множество попадают только id технологий из базы.
+ */
+public final class TechnologySet {
+    public static final TechnologySet EMPTY = new TechnologySet(new long[0]);
+
+    private final long[] words;
+
+    private TechnologySet(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * @param technologyIds id технологий, null пропускаются
+     * @return множество технологий
+     */
+    public static TechnologySet of(Collection<Long> technologyIds) {
+        if (technologyIds == null || technologyIds.isEmpty()) {
+            return EMPTY;
+        }
+        long[] words = new long[0];
+        for (Long id : technologyIds) {
+            if (id != null) {
+                words = set(words, id);
+            }
+        }
+        return new TechnologySet(words);
+    }
+
+    /**
+     * Объединение множеств
+     * @param sets множества технологий
+     * @return технологии, входящие хотя бы в одно множество
+     */
+    public static TechnologySet union(Collection<TechnologySet> sets) {
+        long[] words = new long[0];
+        for (TechnologySet set : sets) {
+            words = or(words.length >= set.words.length ? words : Arrays.copyOf(words, set.words.length), set.words);
+        }
+        return words.length == 0 ? EMPTY : new TechnologySet(words);
+    }
+
+    /**
+     * Группирует пары (id сущности, id технологии) в множества технологий сущностей
+     * @param pairs строки запроса из двух колонок
+     * @return множества технологий по id сущности; сущностей без технологий в нем нет
+     */
+    public static Map<Long, TechnologySet> fromPairs(List<Object[]> pairs) {
+        Map<Long, long[]> words = new HashMap<>();
+        for (Object[] row : pairs) {
+            words.merge((Long) row[0], set(new long[0], (Long) row[1]), TechnologySet::or);
+        }
+        Map<Long, TechnologySet> result = new HashMap<>(words.size() * 2);
+        words.forEach((id, w) -> result.put(id, new TechnologySet(w)));
+        return result;
+    }
+
+    /**
+     * Число общих технологий
+     */
+    public int overlap(TechnologySet other) {
+        int length = Math.min(words.length, other.words.length);
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            count += Long.bitCount(words[i] & other.words[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Входит ли технология в множество
+     */
+    public boolean contains(long id) {
+        int index = (int) (id >>> 6);
+        return id > 0 && index < words.length && (words[index] & 1L << id) != 0;
+    }
+
+    public int size() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static long[] set(long[] words, long id) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Некорректный id технологии: " + id);
+        }
+        int index = (int) (id >>> 6);
+        long[] result = index < words.length ? words : Arrays.copyOf(words, index + 1);
+        result[index] |= 1L << id;
+        return result;
+    }
+
+    private static long[] or(long[] left, long[] right) {
+        long[] result = left.length >= right.length ? left : right;
+        long[] other = result == left ? right : left;
+        for (int i = 0; i < other.length; i++) {
+            result[i] |= other[i];
+        }
+        return result;
+    }
+}
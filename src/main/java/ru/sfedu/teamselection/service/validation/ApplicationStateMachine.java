@@ -0,0 +1,157 @@
+package ru.sfedu.teamselection.service.validation;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.springframework.stereotype.Component;
+import ru.sfedu.teamselection.enums.ApplicationStatus;
+import ru.sfedu.teamselection.exception.BusinessException;
+import ru.sfedu.teamselection.repository.projection.ApplicationState;
+import ru.sfedu.teamselection.repository.projection.StudentState;
+import static ru.sfedu.teamselection.enums.ApplicationStatus.ACCEPTED;
+import static ru.sfedu.teamselection.enums.ApplicationStatus.CANCELLED;
+import static ru.sfedu.teamselection.enums.ApplicationStatus.REJECTED;
+import static ru.sfedu.teamselection.enums.ApplicationStatus.SENT;
+
+/**
+ * Допустимые переходы статусов заявки.
+ * <pre>
+ *   SENT      -> ACCEPTED, REJECTED (адресат), CANCELLED (отправитель)
+ *   REJECTED  -> ACCEPTED (адресат), SENT (отправитель, повторная отправка)
+ *   CANCELLED -> SENT (отправитель, повторная отправка)
+ *   ACCEPTED  -> нет переходов
+ * </pre>
+ * Каждый переход - упорядоченный список условий; первое нарушенное условие определяет результат.
+ * Условия проверяются только по {@link ApplicationValidationContext}, без обращения к базе,
+ * поэтому все возможные переходы заявки вычисляются за один проход
+ */
+@Component
+public class ApplicationStateMachine {
+    private static final String ONLY_TARGET_CAN_ACCEPT_ERROR = "Принять заявку может только ее адресат";
+
+    private final Map<ApplicationStatus, List<Guard>> transitions = new EnumMap<>(ApplicationStatus.class);
+
+    public ApplicationStateMachine() {
+        transitions.put(ACCEPTED, List.of(
+                ApplicationStateMachine::targetOnly,
+                from(EnumSet.of(SENT, REJECTED), "Невозможно одобрить — заявка в неподходящем статусе"),
+                teamNotFull("Невозможно одобрить — команда уже полная")
+        ));
+        transitions.put(REJECTED, List.of(
+                ApplicationStateMachine::targetOnly,
+                from(EnumSet.of(SENT), "Невозможно отклонить — заявка не статусе `Отправлена`")
+        ));
+        transitions.put(CANCELLED, List.of(
+                from(EnumSet.of(SENT), "Заявку можно отменить только если она находится в статусе `Отправлена`"),
+                senderOnly("Только отправитель может отменить заявку")
+        ));
+        transitions.put(SENT, List.of(
+                from(EnumSet.of(REJECTED, CANCELLED), "Невозможно — заявка уже в статусе `Отправлена`"),
+                senderOnly("Вы не можете подать заявку от имени другого студента"),
+                ApplicationStateMachine::studentWithoutTeam,
+                teamNotFull("Невозможно подать заявку — команда полная"),
+                (app, context) -> context.student(app.getStudentId()).isSecondYear()
+                        && context.team(app.getTeamId()).isSecondCourseLimitReached()
+                        ? new ValidationResult.Failure("Невозможно — в команде уже максимальное число второкурсников")
+                        : null,
+                (app, context) -> Objects.equals(
+                        context.student(app.getStudentId()).getTrackId(),
+                        context.team(app.getTeamId()).getTrackId()
+                ) ? null : new ValidationResult.Failure("Невозможно — неверный трек")
+        ));
+    }
+
+    /**
+     * Проверяет переход заявки в новый статус
+     * @param status новый статус
+     * @param app снимок заявки
+     * @param context снимок команды и студентов заявки
+     * @return результат первого нарушенного условия или успех
+     */
+    public ValidationResult evaluate(
+            ApplicationStatus status,
+            ApplicationState app,
+            ApplicationValidationContext context
+    ) {
+        if (app.getStatus() == ACCEPTED) {
+            return new ValidationResult.Failure("Невозможно изменить статус принятой заявки");
+        }
+        List<Guard> guards = transitions.get(status);
+        if (guards == null) {
+            throw new BusinessException("Неподдерживаемый статус заявки: " + status);
+        }
+        for (Guard guard : guards) {
+            ValidationResult violation = guard.check(app, context);
+            if (violation != null) {
+                return violation;
+            }
+        }
+        return new ValidationResult.Success();
+    }
+
+    /**
+     * Все статусы, в которые пользователь контекста может перевести заявку
+     * @param app снимок заявки
+     * @param context снимок команды и студентов заявки
+     * @return статусы в порядке объявления {@link ApplicationStatus}
+     */
+    public List<ApplicationStatus> possibleTransitions(ApplicationState app, ApplicationValidationContext context) {
+        List<ApplicationStatus> result = new ArrayList<>();
+        if (app.getStatus() == ACCEPTED) {
+            return result;
+        }
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            if (evaluate(status, app, context) instanceof ValidationResult.Success) {
+                result.add(status);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Условие перехода; null означает, что условие выполнено
+     */
+    @FunctionalInterface
+    private interface Guard {
+        ValidationResult check(ApplicationState app, ApplicationValidationContext context);
+    }
+
+    private static Guard from(Set<ApplicationStatus> allowed, String message) {
+        return (app, context) -> allowed.contains(app.getStatus()) ? null : new ValidationResult.Failure(message);
+    }
+
+    private static Guard senderOnly(String message) {
+        return (app, context) -> context.isAdmin() || context.isSender(context.senderOf(app))
+                ? null
+                : new ValidationResult.Forbidden(message);
+    }
+
+    private static Guard teamNotFull(String message) {
+        return (app, context) -> context.team(app.getTeamId()).isFull() ? new ValidationResult.Failure(message) : null;
+    }
+
+    private static ValidationResult targetOnly(ApplicationState app, ApplicationValidationContext context) {
+        if (context.isAdmin()) {
+            return null;
+        }
+        StudentState actualTarget = context.targetOf(app);
+        if (!context.isSender(actualTarget)) {
+            return new ValidationResult.Forbidden(ONLY_TARGET_CAN_ACCEPT_ERROR);
+        }
+        // капитан, покинувший команду, не может принимать заявки в нее
+        if (!app.isInvite() && !Objects.equals(actualTarget.getCurrentTeamId(), app.getTeamId())) {
+            return new ValidationResult.Forbidden(ONLY_TARGET_CAN_ACCEPT_ERROR);
+        }
+        return null;
+    }
+
+    private static ValidationResult studentWithoutTeam(ApplicationState app, ApplicationValidationContext context) {
+        return context.student(app.getStudentId()).isHasTeam()
+                ? new ValidationResult.Failure("Студент уже состоит в команде")
+                : null;
+    }
+}
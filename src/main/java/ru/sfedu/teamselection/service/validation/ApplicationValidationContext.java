@@ -0,0 +1,155 @@
+package ru.sfedu.teamselection.service.validation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.Getter;
+import ru.sfedu.teamselection.domain.User;
+import ru.sfedu.teamselection.enums.ApplicationStatus;
+import ru.sfedu.teamselection.repository.projection.ApplicationState;
+import ru.sfedu.teamselection.repository.projection.StudentState;
+import ru.sfedu.teamselection.repository.projection.TeamState;
+
+/**
+ * Предзагруженные заявки, команды и студенты, по которым проверяются решения по заявкам.
+ * Решения применяются к снимку по очереди, поэтому каждое следующее решение проверяется
+ * с учетом предыдущих; накопленные изменения затем записываются в базу одним пакетом.
+ * Не потокобезопасен, живет в пределах одной транзакции
+ */
+public class ApplicationValidationContext {
+    @Getter
+    private final Long senderUserId;
+    /**
+     * Решения принимает администратор, которому не нужно быть отправителем или получателем заявки.
+     * Выставляется только для пакетных решений
+     */
+    @Getter
+    private final boolean admin;
+
+    private final Map<Long, ApplicationState> applications = new LinkedHashMap<>();
+    private final Map<Long, TeamState> teams = new HashMap<>();
+    private final Map<Long, StudentState> students = new HashMap<>();
+
+    /**
+     * Заявки, статус которых изменился
+     */
+    private final Set<ApplicationState> changedApplications = new LinkedHashSet<>();
+    /**
+     * Команды, состав которых изменился
+     */
+    private final Set<TeamState> changedTeams = new LinkedHashSet<>();
+    /**
+     * Студенты, вступившие в команды
+     */
+    private final List<StudentState> joinedStudents = new ArrayList<>();
+
+    public ApplicationValidationContext(
+            User sender,
+            boolean admin,
+            Collection<ApplicationState> applications,
+            Collection<TeamState> teams,
+            Collection<StudentState> students
+    ) {
+        this.senderUserId = sender.getId();
+        this.admin = admin;
+        applications.forEach(a -> this.applications.put(a.getId(), a));
+        teams.forEach(t -> this.teams.put(t.getId(), t));
+        students.forEach(s -> this.students.put(s.getId(), s));
+    }
+
+    public ApplicationState application(Long id) {
+        return applications.get(id);
+    }
+
+    public TeamState team(Long id) {
+        return teams.get(id);
+    }
+
+    public StudentState student(Long id) {
+        return students.get(id);
+    }
+
+    /**
+     * Студент, отправивший заявку: для приглашения - капитан команды, для запроса - сам студент
+     */
+    public StudentState senderOf(ApplicationState application) {
+        return application.isInvite()
+                ? student(team(application.getTeamId()).getCaptainId())
+                : student(application.getStudentId());
+    }
+
+    /**
+     * Студент, который может принять или отклонить заявку: для приглашения - приглашенный студент,
+     * для запроса - капитан команды
+     */
+    public StudentState targetOf(ApplicationState application) {
+        return application.isInvite()
+                ? student(application.getStudentId())
+                : student(team(application.getTeamId()).getCaptainId());
+    }
+
+    /**
+     * Является ли пользователь, принимающий решение, указанным студентом
+     */
+    public boolean isSender(StudentState student) {
+        return student != null && senderUserId.equals(student.getUserId());
+    }
+
+    /**
+     * Применяет проверенное решение к снимку.
+     * Принятие заявки добавляет студента в команду и, как при одиночном принятии,
+     * отменяет остальные отправленные заявки студента и команды
+     * @param application заявка
+     * @param status новый статус
+     */
+    public void apply(ApplicationState application, ApplicationStatus status) {
+        setStatus(application, status);
+        if (status != ApplicationStatus.ACCEPTED) {
+            return;
+        }
+        TeamState team = team(application.getTeamId());
+        StudentState student = student(application.getStudentId());
+
+        team.setQuantityOfStudents(team.getQuantityOfStudents() + 1);
+        team.setFull(team.getMaxConstraint() != null && team.getQuantityOfStudents() >= team.getMaxConstraint());
+        if (student.isSecondYear()) {
+            team.setSecondYears(team.getSecondYears() + 1);
+        }
+        changedTeams.add(team);
+
+        student.setHasTeam(true);
+        student.setCurrentTeamId(team.getId());
+        joinedStudents.add(student);
+
+        for (ApplicationState other : applications.values()) {
+            if (other == application || other.getStatus() != ApplicationStatus.SENT) {
+                continue;
+            }
+            if (other.getStudentId().equals(student.getId()) || other.getTeamId().equals(team.getId())) {
+                setStatus(other, ApplicationStatus.CANCELLED);
+            }
+        }
+    }
+
+    private void setStatus(ApplicationState application, ApplicationStatus status) {
+        application.setStatus(status);
+        changedApplications.add(application);
+    }
+
+    public Collection<ApplicationState> getChangedApplications() {
+        return changedApplications;
+    }
+
+    public Collection<TeamState> getChangedTeams() {
+        return changedTeams;
+    }
+
+    public List<StudentState> getJoinedStudents() {
+        return joinedStudents;
+    }
+}
@@ -0,0 +1,111 @@
+package ru.sfedu.teamselection.service.validation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.sfedu.teamselection.domain.User;
+import ru.sfedu.teamselection.domain.application.Application;
+import ru.sfedu.teamselection.repository.ApplicationRepository;
+import ru.sfedu.teamselection.repository.StudentRepository;
+import ru.sfedu.teamselection.repository.TeamRepository;
+import ru.sfedu.teamselection.repository.projection.ApplicationState;
+import ru.sfedu.teamselection.repository.projection.StudentState;
+import ru.sfedu.teamselection.repository.projection.TeamState;
+import ru.sfedu.teamselection.service.SeatReservationService;
+
+/**
+ * Загрузка {@link ApplicationValidationContext} фиксированным числом запросов независимо от числа заявок
+ */
+@Component
+@RequiredArgsConstructor
+public class ApplicationValidationContextLoader {
+    private final ApplicationRepository applicationRepository;
+    private final TeamRepository teamRepository;
+    private final StudentRepository studentRepository;
+    private final SeatReservationService seatReservationService;
+
+    /**
+     * Загружает снимок для пакетного решения по заявкам.
+     * Строки затронутых команд, а затем студентов блокируются до конца транзакции в порядке id,
+     * после чего снимок перечитывается, поэтому проверки по нему остаются верными до записи результата
+     * @param applicationIds id заявок
+     * @param sender пользователь, принимающий решения
+     * @return снимок; отсутствующих в базе заявок в нем нет
+     */
+    public ApplicationValidationContext loadForDecisions(Collection<Long> applicationIds, User sender) {
+        if (applicationIds.isEmpty()) {
+            return new ApplicationValidationContext(sender, isAdmin(sender), List.of(), List.of(), List.of());
+        }
+        Set<Long> teamIds = new HashSet<>();
+        Set<Long> studentIds = new HashSet<>();
+        for (ApplicationState application : applicationRepository.findStatesByIdIn(applicationIds)) {
+            teamIds.add(application.getTeamId());
+            studentIds.add(application.getStudentId());
+        }
+        seatReservationService.lockTeams(teamIds);
+        seatReservationService.lockStudents(studentIds);
+
+        List<ApplicationState> requested = applicationRepository.findStatesByIdIn(applicationIds);
+        return load(sender, requested);
+    }
+
+    /**
+     * Загружает снимок для проверки одной заявки: команду с ограничениями трека, студента и капитана.
+     * Два запроса независимо от числа проверяемых переходов
+     * @param application заявка
+     * @param sender пользователь, меняющий статус
+     * @return снимок без связанных отправленных заявок; администратор проверяется как обычный пользователь
+     */
+    public ApplicationValidationContext loadForApplication(Application application, User sender) {
+        ApplicationState state = new ApplicationState(
+                application.getId(),
+                application.getType(),
+                application.getStatus(),
+                application.getStudent().getId(),
+                application.getTeam().getId()
+        );
+        List<TeamState> teams = teamRepository.findStatesByIdIn(List.of(state.getTeamId()));
+        Set<Long> studentIds = new HashSet<>();
+        studentIds.add(state.getStudentId());
+        teams.forEach(t -> studentIds.add(t.getCaptainId()));
+        List<StudentState> students = studentRepository.findStatesByIdIn(studentIds);
+        return new ApplicationValidationContext(sender, false, List.of(state), teams, students);
+    }
+
+    private ApplicationValidationContext load(User sender, List<ApplicationState> requested) {
+        Set<Long> teamIds = new HashSet<>();
+        Set<Long> studentIds = new HashSet<>();
+        for (ApplicationState application : requested) {
+            teamIds.add(application.getTeamId());
+            studentIds.add(application.getStudentId());
+        }
+        List<TeamState> teams = teamIds.isEmpty() ? List.of() : teamRepository.findStatesByIdIn(teamIds);
+        teams.forEach(t -> studentIds.add(t.getCaptainId()));
+        List<StudentState> students = studentIds.isEmpty() ? List.of() : studentRepository.findStatesByIdIn(studentIds);
+
+        // заявки, которые отменяются или отклоняются при принятии
+        Map<Long, ApplicationState> applications = new LinkedHashMap<>();
+        requested.forEach(a -> applications.put(a.getId(), a));
+        if (!teamIds.isEmpty()) {
+            applicationRepository.findSentStatesByTeamIdInOrStudentIdIn(teamIds, studentIds)
+                    .forEach(a -> applications.putIfAbsent(a.getId(), a));
+        }
+        return new ApplicationValidationContext(
+                sender,
+                isAdmin(sender),
+                new ArrayList<>(applications.values()),
+                teams,
+                students
+        );
+    }
+
+    private static boolean isAdmin(User sender) {
+        return sender.getRole() != null && "ADMIN".equals(sender.getRole().getName());
+    }
+}
@@ -1,18 +1,18 @@
 package ru.sfedu.teamselection.service.validation;
 
+import java.util.List;
 import java.util.Objects;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
-import ru.sfedu.teamselection.domain.Student;
 import ru.sfedu.teamselection.domain.User;
 import ru.sfedu.teamselection.domain.application.Application;
 import ru.sfedu.teamselection.domain.application.ApplicationType;
-import ru.sfedu.teamselection.domain.application.TeamRequest;
 import ru.sfedu.teamselection.dto.application.ApplicationCreationDto;
 import ru.sfedu.teamselection.enums.ApplicationStatus;
-import ru.sfedu.teamselection.exception.BusinessException;
-import ru.sfedu.teamselection.mapper.application.ApplicationMapper;
 import ru.sfedu.teamselection.repository.ApplicationRepository;
+import ru.sfedu.teamselection.repository.projection.ApplicationState;
+import ru.sfedu.teamselection.repository.projection.StudentState;
+import ru.sfedu.teamselection.repository.projection.TeamState;
 import ru.sfedu.teamselection.service.StudentService;
 import ru.sfedu.teamselection.service.TeamService;
 
@@ -22,10 +22,11 @@ public class ApplicationValidator {
     private final StudentService studentService;
     private final TeamService teamService;
 
-    private final ApplicationMapper applicationMapper;
-
     private final ApplicationRepository applicationRepository;
 
+    private final ApplicationValidationContextLoader contextLoader;
+    private final ApplicationStateMachine stateMachine;
+
     @SuppressWarnings("checkstyle:ReturnCount")
     public ValidationResult validateCreate(ApplicationCreationDto dto, User sender, Boolean skipExistingCheck) {
         Application application = applicationRepository
@@ -62,87 +63,64 @@ public class ApplicationValidator {
         return new ValidationResult.Success();
     }
 
-    @SuppressWarnings("checkstyle:ReturnCount")
+    /**
+     * Проверка смены статуса заявки.
+     * Загружает снимок команды и студентов заявки фиксированным числом запросов
+     * и проверяет переход по {@link ApplicationStateMachine}
+     * @param status новый статус
+     * @param requestSender пользователь, меняющий статус
+     * @param app заявка
+     * @return результат проверки
+     */
     public ValidationResult validateUpdate(ApplicationStatus status, User requestSender, Application app) {
-        if (app.getStatus().toLowerCase().equals(ApplicationStatus.ACCEPTED.toString())) {
-            return new ValidationResult.Failure("Невозможно изменить статус принятой заявки");
-        }
-
-        switch (status) {
-            case ACCEPTED -> {
-                return validateAccept(requestSender, app);
-            }
-            case REJECTED -> {
-                return validateReject(requestSender, app);
-            }
-            case CANCELLED -> {
-                return validateCancel(requestSender, app);
-            }
-            case SENT -> {
-                if (ApplicationStatus.of(app.getStatus()).equals(ApplicationStatus.SENT)) {
-                    return new ValidationResult.Failure("Невозможно — заявка уже в статусе `Отправлена`");
-                }
-                return validateCreate(applicationMapper.mapToCreationDto(app), requestSender, true);
-            }
-            default -> throw new BusinessException("Неподдерживаемый статус заявки: " + status);
-        }
-    }
-
-    private ValidationResult validateAccept(User requestSender, Application application) {
-        ValidationResult senderIsTarget = validateSenderIsTarget(application, requestSender);
-        if (!(senderIsTarget instanceof ValidationResult.Success)) {
-            return senderIsTarget;
-        }
-        if (!(ApplicationStatus.of(application.getStatus()).equals(ApplicationStatus.SENT)
-                || ApplicationStatus.of(application.getStatus()).equals(ApplicationStatus.REJECTED))) {
-            return new ValidationResult.Failure("Невозможно одобрить — заявка в неподходящем статусе");
-        }
-        var team = application.getTeam();
-        if (team.getIsFull()) {
-            return new ValidationResult.Failure("Невозможно одобрить — команда уже полная");
-        }
-        return new ValidationResult.Success();
+        ApplicationValidationContext context = contextLoader.loadForApplication(app, requestSender);
+        return validateUpdate(status, context.application(app.getId()), context);
     }
 
-    private ValidationResult validateReject(User requestSender, Application application) {
-        ValidationResult senderIsTarget = validateSenderIsTarget(application, requestSender);
-        if (!(senderIsTarget instanceof ValidationResult.Success)) {
-            return senderIsTarget;
-        }
-        if (!application.getStatus().equals(ApplicationStatus.SENT.toString())) {
-            return new ValidationResult.Failure("Невозможно отклонить — заявка не статусе `Отправлена`");
-        }
-        return new ValidationResult.Success();
+    /**
+     * Проверка смены статуса заявки по предзагруженному снимку, без обращения к базе
+     * @param status новый статус
+     * @param app снимок заявки
+     * @param context снимок команд и студентов с учетом уже примененных решений
+     * @return результат проверки
+     */
+    public ValidationResult validateUpdate(
+            ApplicationStatus status,
+            ApplicationState app,
+            ApplicationValidationContext context
+    ) {
+        return stateMachine.evaluate(status, app, context);
     }
 
-    private ValidationResult validateCancel(User requestSender, Application application) {
-        if (!application.getStatus().toLowerCase().equals(ApplicationStatus.SENT.toString())) {
-            return new ValidationResult.Failure(
-                    "Заявку можно отменить только если она находится в статусе `Отправлена`"
-            );
-        }
-        var sender = studentService.findByIdOrElseThrow(application.getSenderId());
-        if (!sender.getUser().getId().equals(requestSender.getId())) {
-            return new ValidationResult.Forbidden("Только отправитель может отменить заявку");
-        }
-        return new ValidationResult.Success();
+    /**
+     * Статусы, в которые пользователь может перевести заявку, за один проход по одному снимку
+     * @param requestSender пользователь
+     * @param app заявка
+     * @return допустимые статусы
+     */
+    public List<ApplicationStatus> possibleTransitions(User requestSender, Application app) {
+        ApplicationValidationContext context = contextLoader.loadForApplication(app, requestSender);
+        return stateMachine.possibleTransitions(context.application(app.getId()), context);
     }
 
-    private ValidationResult validateSenderIsTarget(Application application, User sender) {
-        Student actualTarget = studentService.findByIdOrElseThrow(application.getTargetId());
-        if (!actualTarget.getUser().getId().equals(sender.getId())) {
-            return new ValidationResult.Forbidden(ONLY_TARGET_CAN_ACCEPT_ERROR);
+    /**
+     * Ограничения вступления студента в команду при принятии заявки.
+     * При одиночном принятии их проверяет {@link TeamService#addStudentToTeam}, пакетное принятие
+     * пишет в базу в обход сущностей и проверяет их по снимку
+     * @param app снимок заявки
+     * @param context снимок команд и студентов
+     * @return результат проверки
+     */
+    public ValidationResult validateJoin(ApplicationState app, ApplicationValidationContext context) {
+        TeamState team = context.team(app.getTeamId());
+        StudentState student = context.student(app.getStudentId());
+        if (student.isHasTeam()) {
+            return new ValidationResult.Failure("Студент уже состоит в команде");
         }
-        // TODO возможно стоит сделать покрасивее?
-        if (application instanceof TeamRequest) {
-            if (actualTarget.getCurrentTeam() == null
-                    || !actualTarget.getCurrentTeam().getId().equals(application.getTeam().getId())) {
-                return new ValidationResult.Forbidden(ONLY_TARGET_CAN_ACCEPT_ERROR);
-            }
+        if (student.isSecondYear() && team.isSecondCourseLimitReached()) {
+            return new ValidationResult.Failure("В команде уже достигнуто максимальное число ("
+                    + team.getMaxSecondCourseConstraint() + ") студентов-второкурсников");
         }
         return new ValidationResult.Success();
     }
-
-    private static final String ONLY_TARGET_CAN_ACCEPT_ERROR = "Принять заявку может только ее адресат";
 }
-
@@ -0,0 +1,6 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- поиск по подстроке (lower(x) LIKE '%text%') и по сходству (lower(x) %> 'text')
+CREATE INDEX IF NOT EXISTS users_fio_trgm_idx ON users USING gin (lower(fio) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS users_email_trgm_idx ON users USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS teams_name_trgm_idx ON teams USING gin (lower(name) gin_trgm_ops);
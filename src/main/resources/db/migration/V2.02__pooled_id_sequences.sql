@@ -0,0 +1,18 @@
+-- Hibernate берет id блоками по 50 (pooled-lo, см. IdAllocation): значение nextval - начало блока.
+-- Столбцы остаются identity, поэтому вставки SQL без id получают отдельное значение той же последовательности
+-- и не пересекаются с блоками Hibernate. Последовательности продолжаются после максимального id таблицы.
+ALTER TABLE users ALTER COLUMN id SET INCREMENT BY 50;
+ALTER TABLE students ALTER COLUMN id SET INCREMENT BY 50;
+ALTER TABLE teams ALTER COLUMN id SET INCREMENT BY 50;
+ALTER TABLE tracks ALTER COLUMN id SET INCREMENT BY 50;
+ALTER TABLE applications ALTER COLUMN id SET INCREMENT BY 50;
+ALTER TABLE technologies ALTER COLUMN id SET INCREMENT BY 50;
+ALTER TABLE project_types ALTER COLUMN id SET INCREMENT BY 50;
+
+SELECT setval('users_id_seq', coalesce(max(id), 0) + 1, false) FROM users;
+SELECT setval('students_id_seq', coalesce(max(id), 0) + 1, false) FROM students;
+SELECT setval('teams_id_seq', coalesce(max(id), 0) + 1, false) FROM teams;
+SELECT setval('tracks_id_seq', coalesce(max(id), 0) + 1, false) FROM tracks;
+SELECT setval('applications_id_seq', coalesce(max(id), 0) + 1, false) FROM applications;
+SELECT setval('technologies_id_seq', coalesce(max(id), 0) + 1, false) FROM technologies;
+SELECT setval('project_types_id_seq', coalesce(max(id), 0) + 1, false) FROM project_types;
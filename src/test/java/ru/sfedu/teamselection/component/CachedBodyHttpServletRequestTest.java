@@ -0,0 +1,66 @@
+package ru.sfedu.teamselection.component;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.StreamUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachedBodyHttpServletRequestTest {
+
+    private static final String BODY = "{\"name\":\"Команда\"}";
+
+    @Test
+    void getCachedBodyAsString_ShouldBeEmptyUntilBodyIsRead() throws Exception {
+        CachedBodyHttpServletRequest request = new CachedBodyHttpServletRequest(jsonRequest(), 1024);
+
+        assertEquals("", request.getCachedBodyAsString());
+
+        String read = StreamUtils.copyToString(request.getInputStream(), StandardCharsets.UTF_8);
+
+        assertEquals(BODY, read);
+        assertEquals(BODY, request.getCachedBodyAsString());
+        assertFalse(request.isTruncated());
+    }
+
+    @Test
+    void getInputStream_ShouldReturnSameStream() throws Exception {
+        CachedBodyHttpServletRequest request = new CachedBodyHttpServletRequest(jsonRequest(), 1024);
+
+        assertSame(request.getInputStream(), request.getInputStream());
+    }
+
+    @Test
+    void read_ShouldCapOnlyCapturedCopy() throws Exception {
+        CachedBodyHttpServletRequest request = new CachedBodyHttpServletRequest(jsonRequest(), 5);
+
+        String read = StreamUtils.copyToString(request.getInputStream(), StandardCharsets.UTF_8);
+
+        assertEquals(BODY, read);
+        assertEquals("{\"nam", request.getCachedBodyAsString());
+        assertTrue(request.isTruncated());
+    }
+
+    @Test
+    void read_ShouldSkipBinaryContent() throws Exception {
+        MockHttpServletRequest original = new MockHttpServletRequest();
+        original.setContentType("multipart/form-data; boundary=xyz");
+        original.setContent(new byte[]{1, 2, 3});
+        CachedBodyHttpServletRequest request = new CachedBodyHttpServletRequest(original, 1024);
+
+        assertEquals(3, StreamUtils.copyToByteArray(request.getInputStream()).length);
+        assertTrue(request.isCaptureSkipped());
+        assertEquals("", request.getCachedBodyAsString());
+    }
+
+    private static MockHttpServletRequest jsonRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContentType("application/json");
+        request.setCharacterEncoding("UTF-8");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,70 @@
+package ru.sfedu.teamselection.component;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachedBodyHttpServletResponseTest {
+
+    private static final byte[] BODY = "{\"name\":\"Команда\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void write_ShouldCaptureJsonWhenEnabled() throws Exception {
+        MockHttpServletResponse target = new MockHttpServletResponse();
+        CachedBodyHttpServletResponse response = new CachedBodyHttpServletResponse(target, 1024);
+        response.enableCapture();
+        response.setContentType("application/json");
+
+        response.getOutputStream().write(BODY, 0, BODY.length);
+
+        assertArrayEquals(BODY, target.getContentAsByteArray());
+        assertEquals("{\"name\":\"Команда\"}", response.getCachedContentAsString());
+        assertFalse(response.isTruncated());
+    }
+
+    @Test
+    void write_ShouldNotCaptureWhenNotEnabled() throws Exception {
+        MockHttpServletResponse target = new MockHttpServletResponse();
+        CachedBodyHttpServletResponse response = new CachedBodyHttpServletResponse(target, 1024);
+        response.setContentType("application/json");
+
+        response.getOutputStream().write(BODY);
+
+        assertArrayEquals(BODY, target.getContentAsByteArray());
+        assertEquals("", response.getCachedContentAsString());
+    }
+
+    @Test
+    void write_ShouldSkipBinaryContent() throws Exception {
+        MockHttpServletResponse target = new MockHttpServletResponse();
+        CachedBodyHttpServletResponse response = new CachedBodyHttpServletResponse(target, 1024);
+        response.enableCapture();
+        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+        response.getOutputStream().write(BODY);
+
+        assertArrayEquals(BODY, target.getContentAsByteArray());
+        assertTrue(response.isCaptureSkipped());
+        assertEquals("", response.getCachedContentAsString());
+    }
+
+    @Test
+    void write_ShouldCapOnlyCapturedCopy() throws Exception {
+        MockHttpServletResponse target = new MockHttpServletResponse();
+        CachedBodyHttpServletResponse response = new CachedBodyHttpServletResponse(target, 5);
+        response.enableCapture();
+        response.setContentType("application/problem+json");
+
+        response.getOutputStream().write(BODY, 0, 3);
+        response.getOutputStream().write(BODY, 3, BODY.length - 3);
+        response.getOutputStream().write('!');
+
+        assertEquals(BODY.length + 1, target.getContentAsByteArray().length);
+        assertEquals("{\"nam", response.getCachedContentAsString());
+        assertTrue(response.isTruncated());
+    }
+}
@@ -21,6 +21,8 @@ import ru.sfedu.teamselection.dto.ProjectTypeDto;
 import ru.sfedu.teamselection.exception.CustomExceptionHandler;
 import ru.sfedu.teamselection.mapper.ProjectTypeMapper;
 import ru.sfedu.teamselection.repository.ProjectTypeRepository;
+import ru.sfedu.teamselection.service.ReferenceCacheService;
+import ru.sfedu.teamselection.service.SearchOptionsService;
 import ru.sfedu.teamselection.service.audit.AuditService;
 import ru.sfedu.teamselection.service.security.AzureOidcUserService;
 import ru.sfedu.teamselection.service.security.Oauth2UserService;
@@ -51,6 +53,10 @@ public class ProjectTypeControllerTest {
     private ProjectTypeRepository projectTypeRepository;
     @MockitoBean
     private ProjectTypeMapper projectTypeMapper;
+    @MockitoBean
+    private ReferenceCacheService referenceCacheService;
+    @MockitoBean
+    private SearchOptionsService searchOptionsService;
 
     @Autowired
     private MockMvc mockMvc;
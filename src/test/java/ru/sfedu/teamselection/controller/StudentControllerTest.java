@@ -132,7 +132,9 @@ public class StudentControllerTest {
     @ParameterizedTest
     @CsvSource(value = {"name,asc", "name,desc", "name"}, delimiter = ';')
     public void search(String sort) throws Exception {
-        Mockito.doReturn(new PageImpl<>(students)).when(studentService).search(
+        Mockito.doReturn(new PageImpl<>(students)).when(studentService).searchWithDetails(
+                Mockito.any(),
+                Mockito.anyBoolean(),
                 Mockito.any(),
                 Mockito.any(),
                 Mockito.any(),
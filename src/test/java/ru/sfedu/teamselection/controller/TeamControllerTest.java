@@ -1,6 +1,7 @@
 package ru.sfedu.teamselection.controller;
 
 import java.util.List;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -22,6 +23,8 @@ import ru.sfedu.teamselection.domain.Role;
 import ru.sfedu.teamselection.domain.Student;
 import ru.sfedu.teamselection.domain.Team;
 import ru.sfedu.teamselection.domain.User;
+import ru.sfedu.teamselection.dto.team.TeamFormationPlanDto;
+import ru.sfedu.teamselection.dto.team.TeamRecommendationDto;
 import ru.sfedu.teamselection.dto.team.TeamSearchOptionsDto;
 import ru.sfedu.teamselection.mapper.PageResponseMapper;
 import ru.sfedu.teamselection.mapper.student.StudentDtoMapper;
@@ -31,6 +34,8 @@ import ru.sfedu.teamselection.service.TeamExportService;
 import ru.sfedu.teamselection.service.TeamService;
 import ru.sfedu.teamselection.service.UserService;
 import ru.sfedu.teamselection.service.audit.AuditService;
+import ru.sfedu.teamselection.service.formation.TeamFormationService;
+import ru.sfedu.teamselection.service.recommendation.TeamRecommendationService;
 import ru.sfedu.teamselection.service.security.AzureOidcUserService;
 import ru.sfedu.teamselection.service.security.Oauth2UserService;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -57,6 +62,10 @@ public class TeamControllerTest {
     private UserService userService;
     @MockitoBean
     private AuditService auditService;
+    @MockitoBean
+    private TeamRecommendationService teamRecommendationService;
+    @MockitoBean
+    private TeamFormationService teamFormationService;
 
     @MockitoBean
     private SimpleAuthenticationSuccessHandler simpleAuthenticationSuccessHandler;
@@ -130,6 +139,18 @@ public class TeamControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    public void getRecommendations() throws Exception {
+        Mockito.doReturn(List.of(TeamRecommendationDto.builder().teamId(1L).build()))
+                .when(teamRecommendationService)
+                .recommend(Mockito.isNull(), Mockito.any(), Mockito.eq(5));
+
+        mockMvc.perform(get(TeamController.GET_RECOMMENDATIONS + "?limit=5")
+                        .with(SecurityMockMvcRequestPostProcessors.csrf())
+                        .with(SecurityMockMvcRequestPostProcessors.oauth2Login().oauth2User(genericStudentUser)))
+                .andExpect(status().isOk());
+    }
+
     @Test
     public void findAll() throws Exception {
         Mockito.doReturn(teams).when(teamService).findAll();
@@ -143,12 +164,14 @@ public class TeamControllerTest {
     @ParameterizedTest
     @CsvSource(value = {"name,asc", "name,desc", "name"}, delimiter = ';')
     public void search(String sort) throws Exception {
-        Mockito.doReturn(new PageImpl<>(teams)).when(teamService).search(
+        Mockito.doReturn(new PageImpl<>(teams)).when(teamService).searchWithDetails(
                 Mockito.anyString(),
+                Mockito.anyBoolean(),
                 Mockito.anyLong(),
                 Mockito.anyBoolean(),
                 Mockito.anyList(),
                 Mockito.anyList(),
+                Mockito.any(),
                 Mockito.notNull()
         );
 
@@ -195,6 +218,26 @@ public class TeamControllerTest {
                 .andExpect(status().is(HttpStatus.FORBIDDEN.value()));
     }
 
+    @Test
+    public void previewFormation() throws Exception {
+        Mockito.doReturn(TeamFormationPlanDto.builder().trackId(1L).build())
+                .when(teamFormationService)
+                .preview(1L);
+
+        mockMvc.perform(post(TeamController.FORMATION_PLANS + "?track_id=1")
+                        .with(SecurityMockMvcRequestPostProcessors.csrf())
+                        .with(SecurityMockMvcRequestPostProcessors.oauth2Login().oauth2User(admin)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void applyFormationNotFromAdminShouldFail() throws Exception {
+        mockMvc.perform(post(TeamController.APPLY_FORMATION_PLAN, UUID.randomUUID())
+                        .with(SecurityMockMvcRequestPostProcessors.csrf())
+                        .with(SecurityMockMvcRequestPostProcessors.oauth2Login().oauth2User(genericStudentUser)))
+                .andExpect(status().is(HttpStatus.FORBIDDEN.value()));
+    }
+
     @Test
     public void findById() throws Exception {
         Mockito.doReturn(genericTeam).when(teamService).findByIdOrElseThrow(Mockito.anyLong());
@@ -1,12 +1,17 @@
 package ru.sfedu.teamselection.controller;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
 import org.springframework.test.context.ActiveProfiles;
@@ -16,6 +21,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import ru.sfedu.teamselection.config.SecurityConfig;
 import ru.sfedu.teamselection.config.security.SimpleAuthenticationSuccessHandler;
@@ -23,11 +29,13 @@ import ru.sfedu.teamselection.domain.Role;
 import ru.sfedu.teamselection.domain.User;
 import ru.sfedu.teamselection.exception.CustomExceptionHandler;
 import ru.sfedu.teamselection.exception.NotFoundException;
+import ru.sfedu.teamselection.mapper.PageResponseMapper;
 import ru.sfedu.teamselection.mapper.user.RoleMapper;
 import ru.sfedu.teamselection.mapper.user.UserMapper;
 import ru.sfedu.teamselection.service.PhotoService;
 import ru.sfedu.teamselection.service.UserService;
 import ru.sfedu.teamselection.service.audit.AuditService;
+import ru.sfedu.teamselection.service.photo.CachedPhoto;
 import ru.sfedu.teamselection.service.security.AzureOidcUserService;
 import ru.sfedu.teamselection.service.security.Oauth2UserService;
 
@@ -57,6 +65,8 @@ public class UserControllerTest {
     private UserMapper userMapper;
     @MockitoBean
     private RoleMapper roleDtoMapper;
+    @MockitoBean
+    private PageResponseMapper pageResponseMapper;
 
     @Autowired
     private MockMvc mockMvc;
@@ -90,6 +100,7 @@ public class UserControllerTest {
     public void putUser() throws Exception {
         Mockito.doReturn(genericStudentUser)
                 .when(userService).getCurrentUser();
+        Mockito.doReturn(genericStudentUser.getId()).when(userService).getCurrentUserId();
         Mockito.doReturn(genericStudentUser).when(userService).createOrUpdate(Mockito.notNull(), Mockito.notNull());
 
         String userDto = """
@@ -146,6 +157,7 @@ public class UserControllerTest {
     public void putUserFromForeignUserShouldFail() throws Exception {
         Mockito.doReturn(genericStudentUser)
                 .when(userService).getCurrentUser();
+        Mockito.doReturn(genericStudentUser.getId()).when(userService).getCurrentUserId();
         Mockito.doReturn(genericStudentUser).when(userService).createOrUpdate(Mockito.notNull(), Mockito.notNull());
 
         String userDto = """
@@ -260,13 +272,48 @@ public class UserControllerTest {
     @Test
     public void getProfileImage() throws Exception {
         Mockito.doReturn(
-                new byte[] { 1, 2, 3, 4, 5 }
-        ).when(photoService).getAzureUserPhoto(any(), any());
+                new CachedPhoto(new byte[] { 1, 2, 3, 4, 5 }, MediaType.IMAGE_PNG_VALUE, "abc", Instant.now())
+        ).when(photoService).getUserPhoto(any(), any(), any());
+        Mockito.doReturn(CacheControl.maxAge(Duration.ofMinutes(10)).cachePrivate())
+                .when(photoService).getBrowserCacheControl();
+
+        mockMvc.perform(get(UserController.GET_USER_PHOTO, 1)
+                        .with(SecurityMockMvcRequestPostProcessors.csrf())
+                        .with(SecurityMockMvcRequestPostProcessors.oauth2Login().oauth2User(admin)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""));
+    }
+
+    @Test
+    public void getProfileImageThumbnail() throws Exception {
+        Mockito.doReturn(
+                new CachedPhoto(new byte[] { 1, 2, 3 }, MediaType.IMAGE_JPEG_VALUE, "abc-48", Instant.now())
+        ).when(photoService).getUserPhoto(eq(1L), any(), eq(40));
+        Mockito.doReturn(CacheControl.maxAge(Duration.ofMinutes(10)).cachePrivate())
+                .when(photoService).getBrowserCacheControl();
 
         mockMvc.perform(get(UserController.GET_USER_PHOTO, 1)
+                        .param("size", "40")
                         .with(SecurityMockMvcRequestPostProcessors.csrf())
                         .with(SecurityMockMvcRequestPostProcessors.oauth2Login().oauth2User(admin)))
                 .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.IMAGE_PNG));
+                .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc-48\""));
+    }
+
+    @Test
+    public void getProfileImageNotModified() throws Exception {
+        Mockito.doReturn(
+                new CachedPhoto(new byte[] { 1, 2, 3, 4, 5 }, MediaType.IMAGE_PNG_VALUE, "abc", Instant.now())
+        ).when(photoService).getUserPhoto(any(), any(), any());
+        Mockito.doReturn(CacheControl.maxAge(Duration.ofMinutes(10)).cachePrivate())
+                .when(photoService).getBrowserCacheControl();
+
+        mockMvc.perform(get(UserController.GET_USER_PHOTO, 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"abc\"")
+                        .with(SecurityMockMvcRequestPostProcessors.csrf())
+                        .with(SecurityMockMvcRequestPostProcessors.oauth2Login().oauth2User(admin)))
+                .andExpect(status().isNotModified());
     }
 }
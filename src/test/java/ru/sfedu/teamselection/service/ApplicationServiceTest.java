@@ -1002,6 +1002,29 @@ class ApplicationServiceTest extends BasicTestContainerTest {
         Assertions.assertEquals(expected.getStatus(), actual.getStatus());
     }
 
+    @Test
+    void findByTeamAndStudentShouldReturnPossibleTransitions() {
+        Long teamId = 1L;
+        Long studentId = 5L;
+
+        var forCaptain = underTest.findByTeamAndStudentOrElseThrow(
+                teamId, studentId, userRepository.findById(3L).orElseThrow());
+        var forSender = underTest.findByTeamAndStudentOrElseThrow(
+                teamId, studentId, userRepository.findById(6L).orElseThrow());
+        var forStranger = underTest.findByTeamAndStudentOrElseThrow(
+                teamId, studentId, userRepository.findById(4L).orElseThrow());
+        var forAdmin = underTest.findByTeamAndStudentOrElseThrow(
+                teamId, studentId, userRepository.findById(1L).orElseThrow());
+
+        Assertions.assertEquals(
+                List.of(ApplicationStatus.ACCEPTED, ApplicationStatus.REJECTED),
+                forCaptain.getPossibleTransitions()
+        );
+        Assertions.assertEquals(List.of(ApplicationStatus.CANCELLED), forSender.getPossibleTransitions());
+        Assertions.assertEquals(List.of(), forStranger.getPossibleTransitions());
+        Assertions.assertEquals(List.of(), forAdmin.getPossibleTransitions());
+    }
+
     @Test
     void findTeamApplicationsStudents() {
         Long teamId = 4L;
@@ -0,0 +1,130 @@
+package ru.sfedu.teamselection.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import ru.sfedu.teamselection.BasicTestContainerTest;
+import ru.sfedu.teamselection.TeamSelectionApplication;
+import ru.sfedu.teamselection.domain.Role;
+import ru.sfedu.teamselection.domain.Student;
+import ru.sfedu.teamselection.domain.Team;
+import ru.sfedu.teamselection.domain.Technology;
+import ru.sfedu.teamselection.domain.Track;
+import ru.sfedu.teamselection.domain.User;
+
+/**
+ * Массовое создание команд со студентами через Hibernate: JDBC batch'и против вставки по одной строке,
+ * как было при id из identity-столбцов. В обоих случаях id выдаются блоками из последовательностей,
+ * без batch'ей каждая строка - отдельный обмен с базой.
+ * Проверяется число подготовленных операторов, время только пишется в лог.
+ * Данные создаются в транзакции теста и откатываются после него.
+ */
+@Slf4j
+@SpringBootTest(
+        classes = TeamSelectionApplication.class,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true"
+)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Transactional
+@ActiveProfiles("test")
+@TestPropertySource("/application-test.yml")
+class InsertBatchingBenchmarkTest extends BasicTestContainerTest {
+    private static final int TEAMS = 400;
+    private static final int TEAM_SIZE = 5;
+    private static final int WARMUP_TEAMS = 100;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void batchedInsertsShouldTakeFewerStatementsThanRowByRow() {
+        Session session = entityManager.unwrap(Session.class);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        createTeams("warmup", WARMUP_TEAMS);
+
+        session.setJdbcBatchSize(1);
+        statistics.clear();
+        long rowByRow = createTeams("single", TEAMS);
+        long rowByRowStatements = statistics.getPrepareStatementCount();
+
+        session.setJdbcBatchSize(null);
+        statistics.clear();
+        long batched = createTeams("batched", TEAMS);
+        long batchedStatements = statistics.getPrepareStatementCount();
+
+        // команда и ее технология; пользователь, студент, его технология и членство в команде на каждого участника
+        int rows = TEAMS * (2 + TEAM_SIZE * 4);
+        log.info("{} teams of {} students ({} rows): row by row {} ms, {} statements; batched {} ms, {} statements",
+                TEAMS, TEAM_SIZE, rows, rowByRow, rowByRowStatements, batched, batchedStatements);
+        Assertions.assertTrue(rowByRowStatements >= rows, "row by row took " + rowByRowStatements + " statements");
+        // пакеты по каждой таблице и по одному nextval на блок id
+        Assertions.assertTrue(batchedStatements * 10 <= rowByRowStatements,
+                "batched inserts took " + batchedStatements + " statements");
+        Assertions.assertEquals(TEAMS, entityManager.createQuery(
+                "select count(t) from Team t where t.name like 'batched-%'", Long.class).getSingleResult());
+    }
+
+    /**
+     * Создает команды с капитаном и участниками, новыми пользователями и студентами
+     * @return время записи в миллисекундах
+     */
+    private long createTeams(String prefix, int teams) {
+        Role role = entityManager.getReference(Role.class, 4L);
+        Track track = entityManager.getReference(Track.class, 1L);
+        Technology java = entityManager.getReference(Technology.class, 4L);
+
+        long start = System.nanoTime();
+        for (int t = 0; t < teams; t++) {
+            List<Student> members = new ArrayList<>(TEAM_SIZE);
+            for (int s = 0; s < TEAM_SIZE; s++) {
+                String name = prefix + "-" + t + "-" + s;
+                User user = User.builder()
+                        .fio(name)
+                        .email(name + "@example.com")
+                        .role(role)
+                        .isEnabled(true)
+                        .build();
+                entityManager.persist(user);
+                Student student = Student.builder()
+                        .user(user)
+                        .course(1)
+                        .currentTrack(track)
+                        .hasTeam(true)
+                        .isCaptain(s == 0)
+                        .technologies(new ArrayList<>(List.of(java)))
+                        .build();
+                entityManager.persist(student);
+                members.add(student);
+            }
+            Team team = Team.builder()
+                    .name(prefix + "-" + t)
+                    .currentTrack(track)
+                    .captainId(members.get(0).getId())
+                    .quantityOfStudents(TEAM_SIZE)
+                    .students(members)
+                    .technologies(new ArrayList<>(List.of(java)))
+                    .build();
+            entityManager.persist(team);
+            members.forEach(student -> student.setCurrentTeam(team));
+        }
+        entityManager.flush();
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        entityManager.clear();
+        return elapsed;
+    }
+}
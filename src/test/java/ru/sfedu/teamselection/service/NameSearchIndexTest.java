@@ -0,0 +1,76 @@
+package ru.sfedu.teamselection.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import ru.sfedu.teamselection.BasicTestContainerTest;
+import ru.sfedu.teamselection.TeamSelectionApplication;
+import ru.sfedu.teamselection.dto.UserSearchCriteria;
+
+/**
+ * Поиск по ФИО и email обслуживается триграммными индексами из миграции V2.01.
+ * На небольшой выборке планировщик предпочел бы последовательное сканирование, поэтому оно отключается:
+ * проверяется, что индекс применим к запросу, а не его скорость.
+ * Данные генерируются в транзакции теста и откатываются после него.
+ */
+@SpringBootTest(classes = TeamSelectionApplication.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Transactional
+@ActiveProfiles("test")
+@TestPropertySource("/application-test.yml")
+class NameSearchIndexTest extends BasicTestContainerTest {
+    private static final int USERS = 1_000;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void generateUsers() {
+        jdbcTemplate.update("""
+                insert into users (role_id, email, fio, is_enabled, created_at, updated_at)
+                select r.id,
+                       'bench-' || i || '@example.com',
+                       case when i % 500 = 0 then 'Достоевский Федор Михайлович'
+                            else (array['Иванов', 'Петров', 'Сидоров', 'Кузнецов', 'Смирнов'])[1 + i % 5]
+                                 || ' ' || (array['Иван', 'Петр', 'Сергей', 'Анна', 'Мария'])[1 + i / 5 % 5]
+                                 || ' ' || left(md5(i::text), 8)
+                       end,
+                       true, now(), now()
+                from roles r, generate_series(1, ?) i
+                where r.name = 'STUDENT'
+                """, USERS);
+        jdbcTemplate.execute("analyze users");
+        jdbcTemplate.execute("set local enable_seqscan = off");
+    }
+
+    @Test
+    void nameSearchShouldUseTrigramIndex() {
+        Assertions.assertTrue(plan("select id from users where lower(fio) like '%достоев%'")
+                .contains("users_fio_trgm_idx"));
+        Assertions.assertTrue(plan("select id from users where lower(email) like '%bench-424%'")
+                .contains("users_email_trgm_idx"));
+        Assertions.assertTrue(plan("select id from users where lower(fio) %> 'достаевский'")
+                .contains("users_fio_trgm_idx"));
+    }
+
+    @Test
+    void nameSearchShouldFindSubstring() {
+        UserSearchCriteria criteria = UserSearchCriteria.builder().fio("достоев").build();
+
+        Assertions.assertEquals(USERS / 500, userService.search(criteria, PageRequest.of(0, 20)).getTotalElements());
+    }
+
+    private String plan(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class));
+    }
+}
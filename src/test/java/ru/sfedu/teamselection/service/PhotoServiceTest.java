@@ -0,0 +1,234 @@
+package ru.sfedu.teamselection.service;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import ru.sfedu.teamselection.domain.User;
+import ru.sfedu.teamselection.exception.AzureException;
+import ru.sfedu.teamselection.service.photo.CachedPhoto;
+import ru.sfedu.teamselection.service.photo.GraphPhotoClient;
+import ru.sfedu.teamselection.service.photo.PhotoCache;
+import ru.sfedu.teamselection.service.photo.ThumbnailGenerator;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+
+class PhotoServiceTest {
+
+    private static final byte[] PHOTO = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 1, 2, 3};
+
+    @TempDir
+    Path tempDir;
+
+    private final StubGraphPhotoClient graphPhotoClient = new StubGraphPhotoClient();
+    private final OAuth2AuthenticationToken authentication = Mockito.mock(OAuth2AuthenticationToken.class);
+
+    private OAuth2AuthorizedClientService authorizedClientService;
+    private UserService userService;
+    private PhotoService photoService;
+    private PhotoCache photoCache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        authorizedClientService = Mockito.mock(OAuth2AuthorizedClientService.class);
+        OAuth2AuthorizedClient client = Mockito.mock(OAuth2AuthorizedClient.class);
+        Mockito.doReturn(new OAuth2AccessToken(
+                OAuth2AccessToken.TokenType.BEARER, "token", Instant.now(), Instant.now().plusSeconds(60)
+        )).when(client).getAccessToken();
+        Mockito.doReturn(client).when(authorizedClientService).loadAuthorizedClient(eq("azure"), any());
+
+        userService = Mockito.mock(UserService.class);
+        Mockito.doAnswer(invocation -> User.builder()
+                .id(invocation.getArgument(0))
+                .email("user" + invocation.getArgument(0) + "@sfedu.ru")
+                .build()
+        ).when(userService).findByIdOrElseThrow(anyLong());
+
+        photoCache = new PhotoCache(tempDir.toString(), 1024 * 1024, 100);
+        photoService = createService(60, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        photoService.shutdown();
+    }
+
+    @Test
+    void getUserPhoto_ShouldCallGraphOnlyOnce() {
+        graphPhotoClient.photos.put("user1@sfedu.ru", PHOTO);
+
+        CachedPhoto first = photoService.getUserPhoto(1L, authentication);
+        CachedPhoto second = photoService.getUserPhoto(1L, authentication);
+
+        assertArrayEquals(PHOTO, first.content());
+        assertEquals(first.etag(), second.etag());
+        assertEquals(1, graphPhotoClient.calls.get());
+    }
+
+    @Test
+    void getUserPhoto_ShouldRememberMissingPhoto() {
+        CachedPhoto first = photoService.getUserPhoto(2L, authentication);
+        CachedPhoto second = photoService.getUserPhoto(2L, authentication);
+
+        assertArrayEquals(photoService.getPlaceholder(), first.content());
+        assertEquals(MediaType.IMAGE_PNG_VALUE, second.contentType());
+        assertEquals(1, graphPhotoClient.calls.get());
+    }
+
+    @Test
+    void getUserPhoto_ShouldRememberGraphErrorsBriefly() {
+        graphPhotoClient.failing = true;
+        CachedPhoto first = photoService.getUserPhoto(3L, authentication);
+
+        graphPhotoClient.failing = false;
+        graphPhotoClient.photos.put("user3@sfedu.ru", PHOTO);
+        CachedPhoto second = photoService.getUserPhoto(3L, authentication);
+
+        assertArrayEquals(photoService.getPlaceholder(), first.content());
+        assertArrayEquals(photoService.getPlaceholder(), second.content());
+        assertEquals(1, graphPhotoClient.calls.get());
+    }
+
+    @Test
+    void getUserPhoto_ShouldRetryGraphAfterErrorTtl() throws InterruptedException {
+        photoService.shutdown();
+        photoService = createService(60, 0);
+        graphPhotoClient.failing = true;
+        CachedPhoto first = photoService.getUserPhoto(3L, authentication);
+
+        Thread.sleep(10);
+        graphPhotoClient.failing = false;
+        graphPhotoClient.photos.put("user3@sfedu.ru", PHOTO);
+        CachedPhoto second = photoService.getUserPhoto(3L, authentication);
+
+        assertArrayEquals(photoService.getPlaceholder(), first.content());
+        assertArrayEquals(PHOTO, second.content());
+    }
+
+    @Test
+    void getUserPhoto_ShouldServeStalePhotoAndRefreshInBackground() throws Exception {
+        byte[] oldPhoto = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 9};
+        photoCache.put(4L, new CachedPhoto(oldPhoto, MediaType.IMAGE_JPEG_VALUE, "old", Instant.EPOCH));
+        graphPhotoClient.photos.put("user4@sfedu.ru", PHOTO);
+
+        CachedPhoto stale = photoService.getUserPhoto(4L, authentication);
+        assertArrayEquals(oldPhoto, stale.content());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while ("old".equals(photoCache.get(4L).etag()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNotEquals("old", photoService.getUserPhoto(4L, authentication).etag());
+        assertArrayEquals(PHOTO, photoService.getUserPhoto(4L, authentication).content());
+    }
+
+    @Test
+    void getUserPhoto_ShouldReadPhotoFromDiskAfterRestart() throws IOException {
+        graphPhotoClient.photos.put("user5@sfedu.ru", PHOTO);
+        photoService.getUserPhoto(5L, authentication);
+
+        photoCache = new PhotoCache(tempDir.toString(), 1024 * 1024, 100);
+        CachedPhoto fromDisk = photoCache.get(5L);
+
+        assertArrayEquals(PHOTO, fromDisk.content());
+        assertEquals(MediaType.IMAGE_JPEG_VALUE, fromDisk.contentType());
+    }
+
+    @Test
+    void getUserPhoto_ShouldReturnThumbnailVariant() throws IOException {
+        graphPhotoClient.photos.put("user6@sfedu.ru", jpeg(640, 480));
+
+        CachedPhoto thumbnail = photoService.getUserPhoto(6L, authentication, 40);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(thumbnail.content()));
+
+        assertEquals(48, image.getWidth());
+        assertEquals(48, image.getHeight());
+        assertEquals(MediaType.IMAGE_JPEG_VALUE, thumbnail.contentType());
+        assertEquals(photoService.getUserPhoto(6L, authentication).etag() + "-48", thumbnail.etag());
+        assertArrayEquals(thumbnail.content(), photoService.getUserPhoto(6L, authentication, 48).content());
+        assertEquals(1, graphPhotoClient.calls.get());
+    }
+
+    @Test
+    void getUserPhoto_ShouldReturnPlaceholderVariant() throws IOException {
+        CachedPhoto thumbnail = photoService.getUserPhoto(7L, authentication, 96);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(thumbnail.content()));
+
+        assertNotEquals(photoService.getPlaceholder().length, thumbnail.content().length);
+        assertEquals(96, image.getWidth());
+    }
+
+    @Test
+    void getUserPhoto_ShouldReturnOriginalWhenSizeIsLargerThanVariants() throws IOException {
+        byte[] original = jpeg(640, 480);
+        graphPhotoClient.photos.put("user8@sfedu.ru", original);
+
+        assertArrayEquals(original, photoService.getUserPhoto(8L, authentication, 1024).content());
+    }
+
+    private static byte[] jpeg(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpeg", out);
+        return out.toByteArray();
+    }
+
+    private PhotoService createService(long ttlMinutes, long errorTtlSeconds) {
+        PhotoService service = new PhotoService(
+                authorizedClientService,
+                userService,
+                graphPhotoClient,
+                photoCache,
+                new ThumbnailGenerator(new int[] {48, 96, 256}, 0.85f),
+                ttlMinutes,
+                30,
+                errorTtlSeconds,
+                10,
+                1,
+                10,
+                1,
+                10
+        );
+        service.init();
+        return service;
+    }
+
+    /**
+     * Локальная заглушка Graph: фотографии по почте, остальные пользователи без фотографии
+     */
+    private static class StubGraphPhotoClient implements GraphPhotoClient {
+        private final Map<String, byte[]> photos = new ConcurrentHashMap<>();
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile boolean failing;
+
+        @Override
+        public Optional<GraphPhoto> fetchPhoto(String email, String accessToken) {
+            calls.incrementAndGet();
+            if (failing) {
+                throw new AzureException("Graph is unavailable");
+            }
+            return Optional.ofNullable(photos.get(email))
+                    .map(content -> new GraphPhoto(content, MediaType.IMAGE_JPEG_VALUE));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package ru.sfedu.teamselection.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import ru.sfedu.teamselection.BasicTestContainerTest;
+import ru.sfedu.teamselection.TeamSelectionApplication;
+import ru.sfedu.teamselection.domain.Track;
+import ru.sfedu.teamselection.dto.track.TrackDto;
+import ru.sfedu.teamselection.repository.ProjectTypeRepository;
+import ru.sfedu.teamselection.repository.RoleRepository;
+import ru.sfedu.teamselection.repository.TrackRepository;
+
+/**
+ * Кэш второго уровня для справочников. Тест не транзакционный: в кэш попадает только закоммиченное.
+ */
+@SpringBootTest(
+        classes = TeamSelectionApplication.class,
+        properties = {
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+                "spring.jpa.properties.hibernate.generate_statistics=true"
+        }
+)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@ActiveProfiles("test")
+@TestPropertySource("/application-test.yml")
+class ReferenceCacheTest extends BasicTestContainerTest {
+    @Autowired
+    private TrackService trackService;
+    @Autowired
+    private TrackRepository trackRepository;
+    @Autowired
+    private ProjectTypeRepository projectTypeRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findById_ShouldHitSecondLevelCache() {
+        Long trackId = trackRepository.findAll().get(0).getId();
+        statistics.clear();
+
+        trackRepository.findById(trackId).orElseThrow();
+        long statements = statistics.getPrepareStatementCount();
+        trackRepository.findById(trackId).orElseThrow();
+
+        Assertions.assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+        Assertions.assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAll_ShouldHitQueryCache() {
+        projectTypeRepository.findAll();
+        roleRepository.findByName("STUDENT");
+        long statements = statistics.getPrepareStatementCount();
+
+        projectTypeRepository.findAll();
+        roleRepository.findByName("STUDENT");
+
+        Assertions.assertEquals(2, statistics.getQueryCacheHitCount());
+        Assertions.assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void update_ShouldEvictTrack() {
+        Track track = trackRepository.findAll().get(0);
+        trackRepository.findById(track.getId()).orElseThrow();
+
+        try {
+            trackService.update(track.getId(), toDto(track, "Cached track renamed"));
+
+            Track reloaded = trackRepository.findById(track.getId()).orElseThrow();
+            Assertions.assertEquals("Cached track renamed", reloaded.getName());
+            Assertions.assertTrue(trackRepository.findAll().stream()
+                    .anyMatch(t -> "Cached track renamed".equals(t.getName())));
+        } finally {
+            trackService.update(track.getId(), toDto(track, track.getName()));
+        }
+    }
+
+    private static TrackDto toDto(Track track, String name) {
+        return TrackDto.builder()
+                .id(track.getId())
+                .name(name)
+                .about(track.getAbout())
+                .startDate(track.getStartDate())
+                .endDate(track.getEndDate())
+                .type(track.getType().name())
+                .minConstraint(track.getMinConstraint())
+                .maxConstraint(track.getMaxConstraint())
+                .maxSecondCourseConstraint(track.getMaxSecondCourseConstraint())
+                .build();
+    }
+}
@@ -0,0 +1,127 @@
+package ru.sfedu.teamselection.service;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import ru.sfedu.teamselection.dto.student.StudentSearchOptionsDto;
+import ru.sfedu.teamselection.mapper.ProjectTypeMapper;
+import ru.sfedu.teamselection.mapper.TechnologyMapper;
+import ru.sfedu.teamselection.repository.ProjectTypeRepository;
+import ru.sfedu.teamselection.repository.StudentRepository;
+import ru.sfedu.teamselection.repository.TechnologyRepository;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class SearchOptionsServiceTest {
+
+    @Mock
+    private StudentRepository studentRepository;
+    @Mock
+    private TechnologyRepository technologyRepository;
+    @Mock
+    private ProjectTypeRepository projectTypeRepository;
+    @Mock
+    private TechnologyMapper technologyMapper;
+    @Mock
+    private ProjectTypeMapper projectTypeMapper;
+
+    private final TrackDataVersionService trackDataVersionService = new TrackDataVersionService();
+
+    private SearchOptionsService searchOptionsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        searchOptionsService = new SearchOptionsService(
+                studentRepository,
+                technologyRepository,
+                projectTypeRepository,
+                trackDataVersionService,
+                technologyMapper,
+                projectTypeMapper
+        );
+        doReturn(List.of(new Object[]{1, 11}, new Object[]{2, 11}, new Object[]{2, null}))
+                .when(studentRepository).findCourseAndGroupPairsByTrack(1L);
+    }
+
+    @Test
+    void getStudentOptions_ShouldAggregateCoursesAndGroups() {
+        StudentSearchOptionsDto actual = searchOptionsService.getStudentOptions(1L);
+
+        assertEquals(Set.of(1, 2), actual.getCourses());
+        assertEquals(Set.of(11), actual.getGroups());
+    }
+
+    @Test
+    void getStudentOptions_ShouldServeRepeatedReadsFromCache() {
+        searchOptionsService.getStudentOptions(1L);
+        searchOptionsService.getStudentOptions(1L);
+
+        verify(studentRepository, times(1)).findCourseAndGroupPairsByTrack(1L);
+    }
+
+    @Test
+    void getStudentOptions_ShouldRebuildOnlyInvalidatedTrack() {
+        searchOptionsService.getStudentOptions(1L);
+        searchOptionsService.getStudentOptions(2L);
+
+        searchOptionsService.invalidate(1L);
+        searchOptionsService.getStudentOptions(1L);
+        searchOptionsService.getStudentOptions(2L);
+
+        verify(studentRepository, times(2)).findCourseAndGroupPairsByTrack(1L);
+        verify(studentRepository, times(1)).findCourseAndGroupPairsByTrack(2L);
+    }
+
+    @Test
+    void getStudentOptions_ShouldRebuildWhenTrackDataChanged() {
+        searchOptionsService.getStudentOptions(1L);
+
+        trackDataVersionService.bump(1L);
+        searchOptionsService.getStudentOptions(1L);
+
+        verify(studentRepository, times(2)).findCourseAndGroupPairsByTrack(1L);
+    }
+
+    @Test
+    void getStudentOptions_ShouldNotCacheOptionsBuiltDuringTrackChange() {
+        doAnswer(invocation -> {
+            trackDataVersionService.bump(3L);
+            return List.<Object[]>of(new Object[]{1, 11});
+        }).when(studentRepository).findCourseAndGroupPairsByTrack(3L);
+
+        searchOptionsService.getStudentOptions(3L);
+        searchOptionsService.getStudentOptions(3L);
+
+        verify(studentRepository, times(2)).findCourseAndGroupPairsByTrack(3L);
+    }
+
+    @Test
+    void getStudentOptions_ShouldNotExposeCachedOptions() {
+        StudentSearchOptionsDto first = searchOptionsService.getStudentOptions(1L);
+        assertThrows(UnsupportedOperationException.class, () -> first.getCourses().add(3));
+        first.setGroups(Set.of());
+
+        assertEquals(Set.of(11), searchOptionsService.getStudentOptions(1L).getGroups());
+    }
+
+    @Test
+    void invalidateAll_ShouldDropEveryTrack() {
+        searchOptionsService.getTeamOptions(1L);
+        searchOptionsService.getTeamOptions(2L);
+
+        searchOptionsService.invalidateAll();
+        searchOptionsService.getTeamOptions(1L);
+        searchOptionsService.getTeamOptions(2L);
+
+        verify(technologyRepository, times(2)).findAllUsedByTeamsOfTrack(1L);
+        verify(technologyRepository, times(2)).findAllUsedByTeamsOfTrack(2L);
+    }
+}
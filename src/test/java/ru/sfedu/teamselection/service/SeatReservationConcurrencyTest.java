@@ -0,0 +1,200 @@
+package ru.sfedu.teamselection.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import ru.sfedu.teamselection.BasicTestContainerTest;
+import ru.sfedu.teamselection.TeamSelectionApplication;
+import ru.sfedu.teamselection.domain.User;
+import ru.sfedu.teamselection.exception.ConstraintViolationException;
+import ru.sfedu.teamselection.repository.UserRepository;
+
+/**
+ * Одновременное вступление студентов в одну команду.
+ * Тест не транзакционный: каждое вступление выполняется в собственной транзакции своего потока.
+ */
+@SpringBootTest(classes = TeamSelectionApplication.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@ActiveProfiles("test")
+@TestPropertySource("/application-test.yml")
+class SeatReservationConcurrencyTest extends BasicTestContainerTest {
+    private static final int THREADS = 12;
+
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> trackIds = new ArrayList<>();
+    private final List<Long> teamIds = new ArrayList<>();
+    private final List<Long> studentIds = new ArrayList<>();
+    private final List<Long> userIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        teamIds.forEach(id -> jdbcTemplate.update("delete from teams_students where team_id = ?", id));
+        studentIds.forEach(id -> jdbcTemplate.update(
+                "update students set current_team_id = null, has_team = false where id = ?", id));
+        teamIds.forEach(id -> jdbcTemplate.update("delete from teams where id = ?", id));
+        studentIds.forEach(id -> jdbcTemplate.update("delete from students where id = ?", id));
+        userIds.forEach(id -> jdbcTemplate.update("delete from users where id = ?", id));
+        trackIds.forEach(id -> jdbcTemplate.update("delete from tracks where id = ?", id));
+    }
+
+    @Test
+    void concurrentJoinsShouldNotExceedMaxConstraint() throws Exception {
+        int maxConstraint = 4;
+        Long trackId = createTrack(maxConstraint, null);
+        Long teamId = createTeam(trackId);
+        List<Long> candidates = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            candidates.add(createStudent(trackId, i % 2 == 0 ? 1 : 2));
+        }
+
+        List<Throwable> failures = joinConcurrently(teamId, candidates);
+
+        assertTeamConsistent(teamId);
+        Assertions.assertEquals(maxConstraint, quantity(teamId));
+        Assertions.assertTrue(isFull(teamId));
+        Assertions.assertEquals(THREADS - (maxConstraint - 1), failures.size());
+        failures.forEach(e -> Assertions.assertInstanceOf(ConstraintViolationException.class, e));
+    }
+
+    @Test
+    void concurrentJoinsShouldNotExceedSecondCourseConstraint() throws Exception {
+        int maxSecondCourse = 2;
+        Long trackId = createTrack(THREADS + 1, maxSecondCourse);
+        Long teamId = createTeam(trackId);
+        List<Long> candidates = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            candidates.add(createStudent(trackId, 2));
+        }
+
+        List<Throwable> failures = joinConcurrently(teamId, candidates);
+
+        assertTeamConsistent(teamId);
+        Assertions.assertEquals(1 + maxSecondCourse, quantity(teamId));
+        Assertions.assertEquals(maxSecondCourse, jdbcTemplate.queryForObject("""
+                select count(*) from teams_students ts
+                join students s on s.id = ts.student_id
+                where ts.team_id = ? and s.course = 2
+                """, Integer.class, teamId));
+        Assertions.assertEquals(THREADS - maxSecondCourse, failures.size());
+        failures.forEach(e -> Assertions.assertInstanceOf(ConstraintViolationException.class, e));
+    }
+
+    private List<Throwable> joinConcurrently(Long teamId, List<Long> candidates) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(candidates.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Long studentId : candidates) {
+                User sender = userRepository.findById(userOf(studentId)).orElseThrow();
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return teamService.addStudentToTeam(teamId, studentId, sender);
+                }));
+            }
+            start.countDown();
+
+            List<Throwable> failures = new ArrayList<>();
+            for (Future<?> future : futures) {
+                try {
+                    future.get(30, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                }
+            }
+            return failures;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertTeamConsistent(Long teamId) {
+        Integer members = jdbcTemplate.queryForObject(
+                "select count(*) from teams_students where team_id = ?", Integer.class, teamId);
+        Integer maxConstraint = jdbcTemplate.queryForObject(
+                "select tr.max_constraint from teams t join tracks tr on tr.id = t.current_track_id where t.id = ?",
+                Integer.class,
+                teamId
+        );
+        Assertions.assertEquals(members, quantity(teamId));
+        Assertions.assertTrue(quantity(teamId) <= maxConstraint);
+    }
+
+    private int quantity(Long teamId) {
+        return jdbcTemplate.queryForObject(
+                "select quantity_of_students from teams where id = ?", Integer.class, teamId);
+    }
+
+    private boolean isFull(Long teamId) {
+        return jdbcTemplate.queryForObject("select is_full from teams where id = ?", Boolean.class, teamId);
+    }
+
+    private Long userOf(Long studentId) {
+        return jdbcTemplate.queryForObject("select user_id from students where id = ?", Long.class, studentId);
+    }
+
+    private Long createTrack(int maxConstraint, Integer maxSecondCourseConstraint) {
+        Long id = jdbcTemplate.queryForObject("""
+                insert into tracks (name, about, start_date, end_date, min_constraint, max_constraint,
+                                    max_second_course_constraint, type)
+                values ('Seat reservation track', '', current_date, current_date + 30, 1, ?, ?, 'bachelor')
+                returning id
+                """, Long.class, maxConstraint, maxSecondCourseConstraint);
+        trackIds.add(id);
+        return id;
+    }
+
+    private Long createTeam(Long trackId) {
+        Long captainId = createStudent(trackId, 1);
+        Long id = jdbcTemplate.queryForObject("""
+                insert into teams (captain_id, is_full, name, quantity_of_students, current_track_id,
+                                   created_at, updated_at)
+                values (?, false, 'Seat reservation team', 1, ?, now(), now())
+                returning id
+                """, Long.class, captainId, trackId);
+        teamIds.add(id);
+        jdbcTemplate.update("insert into teams_students (team_id, student_id) values (?, ?)", id, captainId);
+        jdbcTemplate.update(
+                "update students set has_team = true, is_captain = true, current_team_id = ? where id = ?",
+                id,
+                captainId
+        );
+        return id;
+    }
+
+    private Long createStudent(Long trackId, int course) {
+        Long userId = jdbcTemplate.queryForObject("""
+                insert into users (role_id, email, fio, is_enabled, created_at, updated_at)
+                select r.id, 'seat-' || gen_random_uuid() || '@example.com', 'Seat Reservation', true, now(), now()
+                from roles r where r.name = 'STUDENT'
+                returning id
+                """, Long.class);
+        userIds.add(userId);
+        Long id = jdbcTemplate.queryForObject("""
+                insert into students (course, group_number, user_id, current_track_id)
+                values (?, 1, ?, ?)
+                returning id
+                """, Long.class, course, userId, trackId);
+        studentIds.add(id);
+        return id;
+    }
+}
@@ -0,0 +1,96 @@
+package ru.sfedu.teamselection.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+import ru.sfedu.teamselection.BasicTestContainerTest;
+import ru.sfedu.teamselection.TeamSelectionApplication;
+import ru.sfedu.teamselection.dto.student.StudentDto;
+import ru.sfedu.teamselection.enums.TechnologyMatch;
+import ru.sfedu.teamselection.mapper.student.StudentDtoMapper;
+
+/**
+ * Регрессионный тест на число SQL-запросов при поиске студентов с полным маппингом в {@link StudentDto}.
+ */
+@SpringBootTest(
+        classes = TeamSelectionApplication.class,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true"
+)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Transactional
+@ActiveProfiles("test")
+@TestPropertySource("/application-test.yml")
+@Sql(value = {"/sql-scripts/create_team_for_history.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+class StudentSearchQueryCountTest extends BasicTestContainerTest {
+    /**
+     * Страница id, count, три запроса догрузки студентов, два запроса догрузки их команд
+     * и пакетные догрузки оставшихся ленивых связей
+     */
+    private static final long MAX_STATEMENTS_PER_PAGE = 20;
+
+    @Autowired
+    private StudentService underTest;
+    @Autowired
+    private StudentDtoMapper studentDtoMapper;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void searchWithDetails_ShouldNotDependOnPageSize() {
+        long singleStudentPage = countStatements(PageRequest.of(0, 1, Sort.by("name")));
+        long fullPage = countStatements(PageRequest.of(0, 50, Sort.by("name")));
+
+        Assertions.assertTrue(singleStudentPage <= MAX_STATEMENTS_PER_PAGE,
+                "page of 1 student took " + singleStudentPage + " statements");
+        Assertions.assertTrue(fullPage <= MAX_STATEMENTS_PER_PAGE,
+                "page of all students took " + fullPage + " statements");
+    }
+
+    @Test
+    void searchWithDetails_ShouldKeepSortOrder() {
+        List<Long> expected = underTest.search(null, null, null, null, null, null, null,
+                        PageRequest.of(0, 50, Sort.by("name")))
+                .map(student -> student.getId())
+                .getContent();
+        entityManager.clear();
+
+        List<Long> actual = underTest.searchWithDetails(
+                        null, false, null, null, null, null, null, null, TechnologyMatch.ANY,
+                        PageRequest.of(0, 50, Sort.by("name")))
+                .map(student -> student.getId())
+                .getContent();
+
+        Assertions.assertEquals(expected, actual);
+    }
+
+    private long countStatements(Pageable pageable) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<StudentDto> result = underTest.searchWithDetails(
+                        null, false, null, null, null, null, null, null, TechnologyMatch.ANY, pageable)
+                .map(studentDtoMapper::mapToDto)
+                .getContent();
+
+        Assertions.assertFalse(result.isEmpty());
+        result.forEach(student -> Assertions.assertNotNull(student.getTeams()));
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,94 @@
+package ru.sfedu.teamselection.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+import ru.sfedu.teamselection.BasicTestContainerTest;
+import ru.sfedu.teamselection.TeamSelectionApplication;
+import ru.sfedu.teamselection.dto.team.TeamDto;
+import ru.sfedu.teamselection.enums.TechnologyMatch;
+import ru.sfedu.teamselection.mapper.team.TeamDtoMapper;
+
+/**
+ * Регрессионный тест на число SQL-запросов при поиске команд с полным маппингом в {@link TeamDto}.
+ */
+@SpringBootTest(
+        classes = TeamSelectionApplication.class,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true"
+)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Transactional
+@ActiveProfiles("test")
+@TestPropertySource("/application-test.yml")
+@Sql(value = {"/sql-scripts/create_team_for_history.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+class TeamSearchQueryCountTest extends BasicTestContainerTest {
+    /**
+     * Страница id, count, три запроса догрузки команд и пакетные догрузки связей участников и заявок
+     */
+    private static final long MAX_STATEMENTS_PER_PAGE = 20;
+
+    @Autowired
+    private TeamService underTest;
+    @Autowired
+    private TeamDtoMapper teamDtoMapper;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void searchWithDetails_ShouldNotDependOnPageSize() {
+        long singleTeamPage = countStatements(PageRequest.of(0, 1, Sort.by("name")));
+        long fullPage = countStatements(PageRequest.of(0, 50, Sort.by("name")));
+
+        Assertions.assertTrue(singleTeamPage <= MAX_STATEMENTS_PER_PAGE,
+                "page of 1 team took " + singleTeamPage + " statements");
+        Assertions.assertTrue(fullPage <= MAX_STATEMENTS_PER_PAGE,
+                "page of all teams took " + fullPage + " statements");
+    }
+
+    @Test
+    void searchWithDetails_ShouldKeepSortOrder() {
+        List<String> expected = underTest.search(null, null, null, null, null,
+                        PageRequest.of(0, 50, Sort.by("name")))
+                .map(team -> team.getName())
+                .getContent();
+        entityManager.clear();
+
+        List<String> actual = underTest.searchWithDetails(null, false, null, null, null, null, TechnologyMatch.ANY,
+                        PageRequest.of(0, 50, Sort.by("name")))
+                .map(team -> team.getName())
+                .getContent();
+
+        Assertions.assertEquals(expected, actual);
+    }
+
+    private long countStatements(Pageable pageable) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<TeamDto> result = underTest.searchWithDetails(
+                        null, false, null, null, null, null, TechnologyMatch.ANY, pageable)
+                .map(teamDtoMapper::mapToDto)
+                .getContent();
+
+        Assertions.assertFalse(result.isEmpty());
+        result.forEach(team -> Assertions.assertNotNull(team.getStudents()));
+        return statistics.getPrepareStatementCount();
+    }
+}
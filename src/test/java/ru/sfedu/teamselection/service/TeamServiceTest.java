@@ -11,7 +11,9 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
@@ -29,10 +31,12 @@ import ru.sfedu.teamselection.dto.TechnologyDto;
 import ru.sfedu.teamselection.dto.team.TeamCreationDto;
 import ru.sfedu.teamselection.dto.team.TeamSearchOptionsDto;
 import ru.sfedu.teamselection.dto.team.TeamUpdateDto;
+import ru.sfedu.teamselection.enums.TechnologyMatch;
 import ru.sfedu.teamselection.exception.BusinessException;
 import ru.sfedu.teamselection.exception.ForbiddenException;
 import ru.sfedu.teamselection.repository.StudentRepository;
 import ru.sfedu.teamselection.repository.TeamRepository;
+import ru.sfedu.teamselection.service.technology.TechnologyProfileIndex;
 
 
 @SpringBootTest(classes = TeamSelectionApplication.class)
@@ -249,6 +253,33 @@ class TeamServiceTest extends BasicTestContainerTest {
         Assertions.assertEquals(3, actual.getTotalElements());
     }
 
+    @Test
+    void searchByLikeShouldTreatWildcardsLiterally() {
+        Page<Team> actual = underTest.search(
+                "%",
+                null,
+                null,
+                null,
+                null,
+                Pageable.unpaged()
+        );
+
+        Assertions.assertEquals(0, actual.getTotalElements());
+    }
+
+    @Test
+    void searchWithTypoShouldMatchOnlyWhenFuzzy() {
+        String like = "Inovators";
+
+        Page<Team> exact = underTest.searchWithDetails(
+                like, false, null, null, null, null, TechnologyMatch.ANY, Pageable.unpaged());
+        Page<Team> fuzzy = underTest.searchWithDetails(
+                like, true, null, null, null, null, TechnologyMatch.ANY, Pageable.unpaged());
+
+        Assertions.assertEquals(0, exact.getTotalElements());
+        Assertions.assertEquals(List.of(3L), fuzzy.map(Team::getId).getContent());
+    }
+
     @Test
     void searchByTrack() {
         Long trackParam = 2L;
@@ -333,6 +364,61 @@ class TeamServiceTest extends BasicTestContainerTest {
         Assertions.assertEquals(4, actual.getTotalElements());
     }
 
+    @Test
+    void searchByAllTechnologies() {
+        Page<Team> actual = underTest.searchWithDetails(
+                null, false, null, null, null, List.of(10L, 48L), TechnologyMatch.ALL, Pageable.unpaged());
+
+        Assertions.assertEquals(List.of(2L), actual.map(Team::getId).getContent());
+    }
+
+    @Test
+    void searchSortedByTechnologyOverlap() {
+        Long trackId = 2L;
+        List<Long> technologies = List.of(21L, 22L, 24L, 28L, 29L);
+
+        Page<Team> actual = underTest.searchWithDetails(
+                null,
+                false,
+                trackId,
+                null,
+                null,
+                technologies,
+                TechnologyMatch.ANY,
+                PageRequest.of(0, 10, Sort.by(TechnologyProfileIndex.OVERLAP_SORT))
+        );
+
+        // у команды 4 совпадают все пять технологий, у команды 2 - три
+        Assertions.assertEquals(List.of(4L, 2L), actual.map(Team::getId).getContent());
+        Assertions.assertEquals(2, actual.getTotalElements());
+    }
+
+    @Test
+    void searchSortedByTechnologyOverlapShouldIgnoreUnknownTechnologies() {
+        Page<Team> actual = underTest.searchWithDetails(
+                null,
+                false,
+                2L,
+                null,
+                null,
+                List.of(21L, 22L, 24L, 28L, 29L, 10_000_000_000L),
+                TechnologyMatch.ANY,
+                PageRequest.of(0, 10, Sort.by(TechnologyProfileIndex.OVERLAP_SORT))
+        );
+
+        Assertions.assertEquals(List.of(4L, 2L), actual.map(Team::getId).getContent());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> underTest.searchWithDetails(
+                null,
+                false,
+                2L,
+                null,
+                null,
+                List.of(21L, -1L),
+                TechnologyMatch.ANY,
+                PageRequest.of(0, 10, Sort.by(TechnologyProfileIndex.OVERLAP_SORT))
+        ));
+    }
+
     @Test
     void getSecondYearsCount() {
         Team team = underTest.findByIdOrElseThrow(1L);
@@ -0,0 +1,120 @@
+package ru.sfedu.teamselection.service.application;
+
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+import ru.sfedu.teamselection.BasicTestContainerTest;
+import ru.sfedu.teamselection.TeamSelectionApplication;
+import ru.sfedu.teamselection.dto.application.ApplicationDecisionDto;
+import ru.sfedu.teamselection.dto.application.ApplicationDecisionResultDto;
+import ru.sfedu.teamselection.enums.ApplicationDecisionOutcome;
+import ru.sfedu.teamselection.enums.ApplicationStatus;
+import ru.sfedu.teamselection.repository.UserRepository;
+
+@SpringBootTest(classes = TeamSelectionApplication.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Transactional
+@ActiveProfiles("test")
+@TestPropertySource("/application-test.yml")
+class ApplicationDecisionServiceTest extends BasicTestContainerTest {
+    @Autowired
+    private ApplicationDecisionService underTest;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void decideShouldReturnResultForEveryDecision() {
+        List<ApplicationDecisionResultDto> results = underTest.decide(
+                List.of(
+                        decision(5L, ApplicationStatus.ACCEPTED),
+                        decision(6L, ApplicationStatus.REJECTED),
+                        decision(999L, ApplicationStatus.REJECTED)
+                ),
+                userRepository.findById(3L).orElseThrow()
+        );
+
+        Assertions.assertEquals(3, results.size());
+        Assertions.assertEquals(ApplicationDecisionOutcome.APPLIED, results.get(0).getOutcome());
+        Assertions.assertEquals(ApplicationDecisionOutcome.FORBIDDEN, results.get(1).getOutcome());
+        Assertions.assertEquals(ApplicationDecisionOutcome.NOT_FOUND, results.get(2).getOutcome());
+
+        Assertions.assertEquals("ACCEPTED", status(5L));
+        Assertions.assertEquals("sent", status(6L));
+        Assertions.assertEquals(1L, jdbcTemplate.queryForObject(
+                "select current_team_id from students where id = 5 and has_team", Long.class));
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from teams_students where team_id = 1 and student_id = 5", Integer.class));
+        Assertions.assertEquals(3, jdbcTemplate.queryForObject(
+                "select quantity_of_students from teams where id = 1", Integer.class));
+    }
+
+    @Test
+    @Sql(statements = """
+            INSERT INTO applications
+                (id, team_id, student_id, status, type)
+            VALUES
+                (201, 1, 6, 'sent', 'request'),
+                (202, 1, 11, 'sent', 'request'),
+                (203, 1, 13, 'sent', 'request');
+            """,
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(statements = """
+            DELETE FROM applications
+            WHERE id IN (201, 202, 203);
+            """,
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void decideShouldSeeEarlierDecisionsOfTheBatch() {
+        List<ApplicationDecisionResultDto> results = underTest.decide(
+                List.of(
+                        decision(201L, ApplicationStatus.ACCEPTED),
+                        decision(202L, ApplicationStatus.ACCEPTED)
+                ),
+                userRepository.findById(3L).orElseThrow()
+        );
+
+        // как и при одиночном принятии, отменяются остальные отправленные заявки команды и студента
+        Assertions.assertEquals(ApplicationDecisionOutcome.APPLIED, results.get(0).getOutcome());
+        Assertions.assertEquals(ApplicationDecisionOutcome.FAILED, results.get(1).getOutcome());
+
+        Assertions.assertEquals("ACCEPTED", status(201L));
+        Assertions.assertEquals("CANCELLED", status(202L));
+        Assertions.assertEquals("CANCELLED", status(203L));
+        Assertions.assertEquals("CANCELLED", status(6L));
+        Assertions.assertEquals(3, jdbcTemplate.queryForObject(
+                "select quantity_of_students from teams where id = 1", Integer.class));
+    }
+
+    @Test
+    void decideByAdminShouldBeAllowedForAnyTeam() {
+        List<ApplicationDecisionResultDto> results = underTest.decide(
+                List.of(decision(6L, ApplicationStatus.REJECTED)),
+                userRepository.findById(1L).orElseThrow()
+        );
+
+        Assertions.assertEquals(ApplicationDecisionOutcome.APPLIED, results.get(0).getOutcome());
+        Assertions.assertEquals("REJECTED", status(6L));
+    }
+
+    private static ApplicationDecisionDto decision(Long applicationId, ApplicationStatus status) {
+        return ApplicationDecisionDto.builder()
+                .applicationId(applicationId)
+                .status(status)
+                .build();
+    }
+
+    private String status(Long applicationId) {
+        return jdbcTemplate.queryForObject("select status from applications where id = ?", String.class, applicationId);
+    }
+}
@@ -0,0 +1,158 @@
+package ru.sfedu.teamselection.service.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+class AuditBatchWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    private AuditBatchWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdown();
+    }
+
+    @Test
+    void offer_ShouldWriteRecordsInBatches() throws Exception {
+        recordBatches();
+        writer = new AuditBatchWriter(jdbcTemplate, meterRegistry, 100, 4, 5000);
+        for (int i = 0; i < 8; i++) {
+            assertTrue(writer.offer(auditRecord()));
+        }
+        writer.start();
+        writer.offer(auditRecord());
+        writer.offer(auditRecord());
+
+        // две полные пачки уходят сразу, остаток - после таймаута или при остановке
+        assertTrue(waitForBatches(2));
+        writer.shutdown();
+
+        assertEquals(10, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 4));
+        assertEquals(10.0, meterRegistry.counter("audit.records.written").count());
+    }
+
+    @Test
+    void offer_ShouldDropRecordsWhenQueueIsFull() {
+        recordBatches();
+        writer = new AuditBatchWriter(jdbcTemplate, meterRegistry, 2, 10, 10);
+
+        assertTrue(writer.offer(auditRecord()));
+        assertTrue(writer.offer(auditRecord()));
+        assertFalse(writer.offer(auditRecord()));
+
+        assertEquals(1.0, meterRegistry.counter("audit.records.dropped").count());
+        assertEquals(2.0, meterRegistry.get("audit.queue.size").gauge().value());
+    }
+
+    @Test
+    void shutdown_ShouldFlushPendingRecords() {
+        recordBatches();
+        writer = new AuditBatchWriter(jdbcTemplate, meterRegistry, 100, 50, 60_000);
+        writer.start();
+        writer.offer(auditRecord());
+        writer.offer(auditRecord());
+        writer.offer(auditRecord());
+
+        writer.shutdown();
+
+        assertEquals(3, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertFalse(writer.offer(auditRecord()));
+    }
+
+    @Test
+    void write_ShouldCountFailedBatchesAndKeepWorking() throws Exception {
+        doAnswer(invocation -> {
+            throw new IllegalStateException("DB is down");
+        }).doAnswer(invocation -> {
+            batchSizes.add(((Collection<?>) invocation.getArgument(1)).size());
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(eq(AuditBatchWriter.INSERT_SQL), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        doThrow(new IllegalStateException("DB is down"))
+                .when(jdbcTemplate).update(eq(AuditBatchWriter.INSERT_SQL), any(PreparedStatementSetter.class));
+        writer = new AuditBatchWriter(jdbcTemplate, meterRegistry, 100, 1, 10);
+        writer.start();
+
+        writer.offer(auditRecord());
+        writer.offer(auditRecord());
+        writer.shutdown();
+
+        assertEquals(1.0, meterRegistry.counter("audit.records.failed").count());
+        assertEquals(List.of(1), batchSizes);
+    }
+
+    @Test
+    void write_ShouldKeepValidRecordsOfFailedBatch() {
+        doThrow(new IllegalStateException("invalid input syntax for type json"))
+                .when(jdbcTemplate).batchUpdate(eq(AuditBatchWriter.INSERT_SQL), anyCollection(), anyInt(),
+                        any(ParameterizedPreparedStatementSetter.class));
+        doThrow(new IllegalStateException("invalid input syntax for type json"))
+                .doReturn(1)
+                .when(jdbcTemplate).update(eq(AuditBatchWriter.INSERT_SQL), any(PreparedStatementSetter.class));
+        writer = new AuditBatchWriter(jdbcTemplate, meterRegistry, 100, 3, 60_000);
+        writer.offer(auditRecord());
+        writer.offer(auditRecord());
+        writer.offer(auditRecord());
+        writer.start();
+
+        writer.shutdown();
+
+        // пачка целиком не вставилась, по одной теряется только первая запись
+        assertEquals(1.0, meterRegistry.counter("audit.records.failed").count());
+        assertEquals(2.0, meterRegistry.counter("audit.records.written").count());
+        Mockito.verify(jdbcTemplate, Mockito.times(3))
+                .update(eq(AuditBatchWriter.INSERT_SQL), any(PreparedStatementSetter.class));
+    }
+
+    private void recordBatches() {
+        doAnswer(invocation -> {
+            batchSizes.add(((Collection<?>) invocation.getArgument(1)).size());
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(eq(AuditBatchWriter.INSERT_SQL), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    private boolean waitForBatches(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (batchSizes.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return batchSizes.size() >= count;
+    }
+
+    private static AuditRecord auditRecord() {
+        return new AuditRecord(
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                "Test.Request",
+                "user@sfedu.ru",
+                "127.0.0.1",
+                null,
+                LocalDateTime.now()
+        );
+    }
+}
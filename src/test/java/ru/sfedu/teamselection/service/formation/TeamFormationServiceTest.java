@@ -0,0 +1,101 @@
+package ru.sfedu.teamselection.service.formation;
+
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import ru.sfedu.teamselection.BasicTestContainerTest;
+import ru.sfedu.teamselection.TeamSelectionApplication;
+import ru.sfedu.teamselection.dto.team.TeamFormationAssignmentDto;
+import ru.sfedu.teamselection.dto.team.TeamFormationPlanDto;
+import ru.sfedu.teamselection.exception.ConstraintViolationException;
+import ru.sfedu.teamselection.exception.NotFoundException;
+import ru.sfedu.teamselection.service.TrackDataVersionService;
+
+@SpringBootTest(classes = TeamSelectionApplication.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Transactional
+@ActiveProfiles("test")
+@TestPropertySource("/application-test.yml")
+class TeamFormationServiceTest extends BasicTestContainerTest {
+    private static final List<Long> SECOND_YEARS = List.of(6L, 11L, 13L, 19L);
+
+    @Autowired
+    private TeamFormationService underTest;
+
+    @Autowired
+    private TrackDataVersionService trackDataVersionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void resetSnapshots() {
+        trackDataVersionService.bumpAll();
+    }
+
+    @Test
+    void previewShouldRespectTrackConstraints() {
+        TeamFormationPlanDto plan = underTest.preview(1L);
+
+        // в команде 1 два участника из семи возможных, один из них второкурсник, на треке не больше трех
+        Assertions.assertEquals(5, plan.getAssignments().size());
+        Assertions.assertTrue(plan.getAssignments().stream().allMatch(a -> a.getTeamId() == 1L));
+        Assertions.assertTrue(plan.getAssignments().stream()
+                .filter(a -> SECOND_YEARS.contains(a.getStudentId()))
+                .count() <= 2);
+        Assertions.assertEquals(4, plan.getUnassignedStudents().size());
+        Assertions.assertTrue(plan.getUnderfilledTeams().isEmpty());
+        // построение плана не меняет данные
+        Assertions.assertEquals(2, jdbcTemplate.queryForObject(
+                "select count(*) from teams_students where team_id = 1", Integer.class));
+    }
+
+    @Test
+    void applyShouldJoinStudentsToTeams() {
+        TeamFormationPlanDto plan = underTest.preview(1L);
+
+        underTest.apply(plan.getPlanId());
+
+        Assertions.assertEquals(7, jdbcTemplate.queryForObject(
+                "select quantity_of_students from teams where id = 1", Integer.class));
+        Assertions.assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject(
+                "select is_full from teams where id = 1", Boolean.class));
+        for (TeamFormationAssignmentDto assignment : plan.getAssignments()) {
+            Assertions.assertEquals(1L, jdbcTemplate.queryForObject(
+                    "select current_team_id from students where id = ? and has_team",
+                    Long.class,
+                    assignment.getStudentId()));
+            // отправленные заявки распределенных студентов отменяются, как при принятии заявки
+            Assertions.assertEquals(0, jdbcTemplate.queryForObject(
+                    "select count(*) from applications where student_id = ? and lower(status) = 'sent'",
+                    Integer.class,
+                    assignment.getStudentId()));
+        }
+        Assertions.assertThrows(NotFoundException.class, () -> underTest.apply(plan.getPlanId()));
+    }
+
+    @Test
+    void applyStalePlanShouldFail() {
+        TeamFormationPlanDto plan = underTest.preview(1L);
+        jdbcTemplate.update("update students set has_team = true where id = ?",
+                plan.getAssignments().get(0).getStudentId());
+
+        Assertions.assertThrows(ConstraintViolationException.class, () -> underTest.apply(plan.getPlanId()));
+        Assertions.assertEquals(2, jdbcTemplate.queryForObject(
+                "select quantity_of_students from teams where id = 1", Integer.class));
+    }
+
+    @Test
+    void applyUnknownPlanShouldFail() {
+        Assertions.assertThrows(NotFoundException.class, () -> underTest.apply(UUID.randomUUID()));
+    }
+}
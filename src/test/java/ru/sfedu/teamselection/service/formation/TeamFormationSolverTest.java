@@ -0,0 +1,64 @@
+package ru.sfedu.teamselection.service.formation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TeamFormationSolverTest {
+    private final TeamFormationSolver underTest = new TeamFormationSolver(2, 100);
+
+    @Test
+    void solveShouldPlaceStudentsByFit() {
+        // студенты 0 и 1 подходят команде 1, студенты 2 и 3 - команде 0
+        FormationProblem problem = new FormationProblem(
+                new int[]{1, 1},
+                new int[]{0, 0},
+                new boolean[]{false, false, false, false},
+                new double[][]{{0, 1}, {0, 1}, {1, 0}, {1, 0}},
+                3,
+                3,
+                3
+        );
+
+        Assignment result = underTest.solve(problem);
+
+        Assertions.assertArrayEquals(new int[]{1, 1, 0, 0}, teams(result, 4));
+        Assertions.assertEquals(4, result.score(), 1e-9);
+    }
+
+    @Test
+    void solveShouldRespectSecondYearQuota() {
+        // обе команды хотят второкурсников, но в каждой может быть только один
+        FormationProblem problem = new FormationProblem(
+                new int[]{1, 1},
+                new int[]{0, 0},
+                new boolean[]{true, true, true},
+                new double[][]{{1, 0}, {1, 0}, {1, 0}},
+                2,
+                4,
+                1
+        );
+
+        Assignment result = underTest.solve(problem);
+
+        int[] teams = teams(result, 3);
+        Assertions.assertEquals(1, count(teams, 0));
+        Assertions.assertEquals(1, count(teams, 1));
+        Assertions.assertEquals(1, count(teams, Assignment.UNASSIGNED));
+    }
+
+    private static int[] teams(Assignment assignment, int students) {
+        int[] result = new int[students];
+        for (int student = 0; student < students; student++) {
+            result[student] = assignment.teamOf(student);
+        }
+        return result;
+    }
+
+    private static int count(int[] values, int value) {
+        int result = 0;
+        for (int v : values) {
+            result += v == value ? 1 : 0;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,175 @@
+package ru.sfedu.teamselection.service.importing;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import ru.sfedu.teamselection.BasicTestContainerTest;
+import ru.sfedu.teamselection.TeamSelectionApplication;
+import ru.sfedu.teamselection.dto.importing.ImportResultDto;
+import ru.sfedu.teamselection.dto.importing.ImportRowErrorDto;
+import ru.sfedu.teamselection.enums.ExportFormat;
+import ru.sfedu.teamselection.service.TrackDataVersionService;
+
+@SpringBootTest(classes = TeamSelectionApplication.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Transactional
+@ActiveProfiles("test")
+@TestPropertySource("/application-test.yml")
+class ImportServiceTest extends BasicTestContainerTest {
+    private static final String STUDENT_EMAIL_SQL =
+            "select u.email from users u join students s on s.user_id = u.id where s.id = ?";
+
+    @Autowired
+    private ImportService underTest;
+
+    @Autowired
+    private TrackDataVersionService trackDataVersionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void resetSnapshots() {
+        trackDataVersionService.bumpAll();
+    }
+
+    @Test
+    void importStudentsShouldSkipInvalidRows() {
+        // разделитель Excel для русской локали и BOM в начале файла
+        String csv = "\uFEFFFIO;Email;Track;Course;Group Number;Technologies\n"
+                + "Новиков Петр;novikov@sfedu.ru;1;1;5;\"Java, Python\"\n"
+                + "Новиков Повтор;NOVIKOV@sfedu.ru;1;1;5;\n"
+                + "Орлов Иван;orlov@sfedu.ru;1;1;;Cobol\n"
+                + "Лебедев Олег;lebedev@sfedu.ru;first track;2;;\n"
+                + "Зайцев Игорь;zaytsev@sfedu.ru;second track;второй;;\n"
+                + "Зайцев Игорь;;2;2;;\n"
+                + "Соколов Петр;sokolov@sfedu.ru;second track;2;3;C++\n";
+
+        ImportResultDto result = underTest.importStudents(csv(csv), ExportFormat.CSV);
+
+        Assertions.assertEquals(7, result.getTotalRows());
+        Assertions.assertEquals(2, result.getImported());
+        Assertions.assertEquals(5, result.getErrorCount());
+        Assertions.assertEquals(List.of(3, 4, 5, 6, 7),
+                result.getErrors().stream().map(ImportRowErrorDto::getRow).toList());
+        Long studentId = jdbcTemplate.queryForObject("""
+                select s.id from students s join users u on u.id = s.user_id
+                where u.email = 'novikov@sfedu.ru' and u.role_id = 4 and u.is_enabled
+                  and s.current_track_id = 1 and s.course = 1 and s.group_number = 5
+                """, Long.class);
+        Assertions.assertEquals(List.of(3L, 4L), jdbcTemplate.queryForList(
+                "select technology_id from students_technologies where student_id = ? order by technology_id",
+                Long.class, studentId));
+        Assertions.assertEquals(2L, jdbcTemplate.queryForObject("""
+                select s.current_track_id from students s join users u on u.id = s.user_id
+                where u.email = 'sokolov@sfedu.ru' and s.group_number = 3
+                """, Long.class));
+    }
+
+    @Test
+    void importStudentsShouldReuseExistingUsers() {
+        jdbcTemplate.update("""
+                insert into users (role_id, email, fio, is_enabled, created_at, updated_at)
+                values (1, 'plain@sfedu.ru', 'Обычный Пользователь', true, now(), now())
+                """);
+        String existingStudent = jdbcTemplate.queryForObject(STUDENT_EMAIL_SQL, String.class, 1L);
+        String csv = "fio,email,track\n"
+                + "Обычный Пользователь,Plain@sfedu.ru,1\n"
+                + "Уже Студент," + existingStudent + ",1\n";
+
+        ImportResultDto result = underTest.importStudents(csv(csv), ExportFormat.CSV);
+
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertEquals(3, result.getErrors().get(0).getRow());
+        Assertions.assertEquals(4L, jdbcTemplate.queryForObject(
+                "select role_id from users where email = 'plain@sfedu.ru'", Long.class));
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from users where lower(email) = 'plain@sfedu.ru'", Integer.class));
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject("""
+                select count(*) from students s join users u on u.id = s.user_id
+                where u.email = 'plain@sfedu.ru' and s.current_track_id = 1
+                """, Integer.class));
+    }
+
+    @Test
+    void importTeamsShouldJoinFreeStudents() throws IOException {
+        String captain = jdbcTemplate.queryForObject(STUDENT_EMAIL_SQL, String.class, 1L);
+        String member4 = jdbcTemplate.queryForObject(STUDENT_EMAIL_SQL, String.class, 4L);
+        String member5 = jdbcTemplate.queryForObject(STUDENT_EMAIL_SQL, String.class, 5L);
+        String member7 = jdbcTemplate.queryForObject(STUDENT_EMAIL_SQL, String.class, 7L);
+        String existingName = jdbcTemplate.queryForObject(
+                "select name from teams where current_track_id = 1 order by id limit 1", String.class);
+
+        byte[] xlsx = xlsx(
+                List.of("Name", "Track", "Captain Email", "Members", "Project Type", "Technologies"),
+                List.of("Импорт", "1", captain, member4 + "; " + member5, "Web", "Java"),
+                List.of("Повтор участника", "1", member7, member4, "", ""),
+                List.of(existingName.toUpperCase(), "1", member7, "", "", ""),
+                List.of("Нет студента", "1", "nobody@sfedu.ru", "", "", "")
+        );
+
+        ImportResultDto result = underTest.importTeams(new ByteArrayInputStream(xlsx), ExportFormat.XLSX);
+
+        Assertions.assertEquals(4, result.getTotalRows());
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertEquals(List.of(3, 4, 5),
+                result.getErrors().stream().map(ImportRowErrorDto::getRow).toList());
+        Long teamId = jdbcTemplate.queryForObject(
+                "select id from teams where name = 'Импорт' and current_track_id = 1 and captain_id = 1 "
+                        + "and quantity_of_students = 3 and not is_full and project_type_id = 1",
+                Long.class);
+        Assertions.assertEquals(List.of(1L, 4L, 5L), jdbcTemplate.queryForList(
+                "select id from students where current_team_id = ? and has_team order by id", Long.class, teamId));
+        Assertions.assertEquals(List.of(1L), jdbcTemplate.queryForList(
+                "select id from students where current_team_id = ? and is_captain", Long.class, teamId));
+        Assertions.assertEquals(3, jdbcTemplate.queryForObject(
+                "select count(*) from teams_students where team_id = ?", Integer.class, teamId));
+        Assertions.assertEquals(List.of(4L), jdbcTemplate.queryForList(
+                "select technology_id from teams_technologies where team_id = ?", Long.class, teamId));
+        Assertions.assertEquals(Boolean.FALSE, jdbcTemplate.queryForObject(
+                "select has_team from students where id = 7", Boolean.class));
+    }
+
+    @Test
+    void importWithoutRequiredColumnsShouldFail() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> underTest.importStudents(csv("fio,track\nИванов,1\n"), ExportFormat.CSV));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> underTest.importTeams(csv("not a workbook"), ExportFormat.XLSX));
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @SafeVarargs
+    private static byte[] xlsx(List<String>... rows) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet();
+            for (int r = 0; r < rows.length; r++) {
+                Row row = sheet.createRow(r);
+                for (int c = 0; c < rows[r].size(); c++) {
+                    row.createCell(c).setCellValue(rows[r].get(c));
+                }
+            }
+            workbook.write(out);
+            return out.toByteArray();
+        }
+    }
+}
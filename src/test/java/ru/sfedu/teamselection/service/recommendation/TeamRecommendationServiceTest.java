@@ -0,0 +1,73 @@
+package ru.sfedu.teamselection.service.recommendation;
+
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+import ru.sfedu.teamselection.BasicTestContainerTest;
+import ru.sfedu.teamselection.TeamSelectionApplication;
+import ru.sfedu.teamselection.dto.team.TeamRecommendationDto;
+import ru.sfedu.teamselection.exception.BusinessException;
+import ru.sfedu.teamselection.exception.NotFoundException;
+import ru.sfedu.teamselection.service.TrackDataVersionService;
+
+@SpringBootTest(classes = TeamSelectionApplication.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Transactional
+@ActiveProfiles("test")
+@TestPropertySource("/application-test.yml")
+class TeamRecommendationServiceTest extends BasicTestContainerTest {
+    @Autowired
+    private TeamRecommendationService underTest;
+
+    @Autowired
+    private TrackDataVersionService trackDataVersionService;
+
+    @BeforeEach
+    void resetSnapshots() {
+        // скрипты @Sql меняют данные в обход сущностей и не сбрасывают снимки треков
+        trackDataVersionService.bumpAll();
+    }
+
+    @Test
+    void recommendShouldReturnTeamsOfStudentTrack() {
+        List<TeamRecommendationDto> result = underTest.recommend(5L, List.of(), null);
+
+        Assertions.assertEquals(List.of(1L), result.stream().map(TeamRecommendationDto::getTeamId).toList());
+        Assertions.assertEquals(1, result.get(0).getMatchedTechnologies());
+        Assertions.assertEquals(5, result.get(0).getFreeSeats());
+    }
+
+    @Test
+    @Sql(value = "/sql-scripts/create_team_full_of_second_year.sql",
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    void recommendShouldSkipTeamsWithoutSecondYearQuota() {
+        List<TeamRecommendationDto> firstYear = underTest.recommend(5L, List.of(), null);
+        List<TeamRecommendationDto> secondYear = underTest.recommend(6L, List.of(), null);
+
+        Assertions.assertEquals(List.of(1L, 5L), firstYear.stream().map(TeamRecommendationDto::getTeamId).toList());
+        Assertions.assertEquals(List.of(1L), secondYear.stream().map(TeamRecommendationDto::getTeamId).toList());
+    }
+
+    @Test
+    @Sql(value = "/sql-scripts/create_team_full_of_second_year.sql",
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    void recommendShouldKeepTopTeams() {
+        List<TeamRecommendationDto> result = underTest.recommend(5L, List.of("web"), 1);
+
+        Assertions.assertEquals(List.of(1L), result.stream().map(TeamRecommendationDto::getTeamId).toList());
+    }
+
+    @Test
+    void recommendForStudentWithTeamShouldFail() {
+        Assertions.assertThrows(BusinessException.class, () -> underTest.recommend(2L, List.of(), null));
+        Assertions.assertThrows(NotFoundException.class, () -> underTest.recommend(999L, List.of(), null));
+    }
+}
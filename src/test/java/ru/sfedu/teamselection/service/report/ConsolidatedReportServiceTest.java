@@ -0,0 +1,90 @@
+package ru.sfedu.teamselection.service.report;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import ru.sfedu.teamselection.BasicTestContainerTest;
+import ru.sfedu.teamselection.TeamSelectionApplication;
+import ru.sfedu.teamselection.exception.NotFoundException;
+
+@SpringBootTest(classes = TeamSelectionApplication.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@ActiveProfiles("test")
+@TestPropertySource("/application-test.yml")
+class ConsolidatedReportServiceTest extends BasicTestContainerTest {
+    /**
+     * Колонка ФИО на листе трека
+     */
+    private static final int FIO_COLUMN = 4;
+
+    @Autowired
+    private ConsolidatedReportService underTest;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void writeReportShouldCreateSheetPerTrackAndSummary() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        underTest.writeReport(List.of(1L, 3L), out);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            // у треков 1 и 3 одинаковое название, второй лист различается по id трека
+            Assertions.assertEquals(3, workbook.getNumberOfSheets());
+            Assertions.assertEquals("first track", workbook.getSheetName(0));
+            Assertions.assertEquals("first track (3)", workbook.getSheetName(1));
+            Assertions.assertEquals("Сводка", workbook.getSheetName(2));
+
+            int students = jdbcTemplate.queryForObject(
+                    "select count(*) from students where current_track_id = 1", Integer.class);
+            Sheet trackSheet = workbook.getSheetAt(0);
+            int studentRows = 0;
+            for (Row row : trackSheet) {
+                if (row.getRowNum() > 0 && !row.getCell(FIO_COLUMN).getStringCellValue().isEmpty()) {
+                    studentRows++;
+                }
+            }
+            Assertions.assertEquals(students, studentRows);
+
+            Sheet summary = workbook.getSheet("Сводка");
+            Assertions.assertEquals(2, summary.getLastRowNum());
+            Assertions.assertEquals(students, (int) summary.getRow(1).getCell(8).getNumericCellValue());
+            // стили книги общие для всех листов
+            Assertions.assertEquals(
+                    trackSheet.getRow(0).getCell(0).getCellStyle().getIndex(),
+                    summary.getRow(0).getCell(0).getCellStyle().getIndex()
+            );
+        }
+    }
+
+    @Test
+    void resolveTracksShouldSelectTracksOfPeriod() {
+        Assertions.assertEquals(
+                List.of(1L, 2L, 3L),
+                underTest.resolveTracks(null, LocalDate.of(2025, 9, 1), LocalDate.of(2026, 1, 31))
+        );
+        Assertions.assertEquals(List.of(2L), underTest.resolveTracks(List.of(2L, 2L), null, null));
+    }
+
+    @Test
+    void resolveTracksShouldRejectInvalidSelection() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> underTest.resolveTracks(null, LocalDate.of(2026, 1, 31), LocalDate.of(2025, 9, 1)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> underTest.resolveTracks(List.of(), null, null));
+        Assertions.assertThrows(NotFoundException.class,
+                () -> underTest.resolveTracks(null, LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31)));
+        Assertions.assertThrows(NotFoundException.class, () -> underTest.resolveTracks(List.of(999L), null, null));
+    }
+}
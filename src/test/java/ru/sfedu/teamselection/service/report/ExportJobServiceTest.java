@@ -0,0 +1,169 @@
+package ru.sfedu.teamselection.service.report;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import ru.sfedu.teamselection.enums.ExportEntity;
+import ru.sfedu.teamselection.enums.ExportFormat;
+import ru.sfedu.teamselection.enums.ExportJobStatus;
+import ru.sfedu.teamselection.exception.BusinessException;
+import ru.sfedu.teamselection.exception.TooManyRequestsException;
+import ru.sfedu.teamselection.service.StudentExportService;
+import ru.sfedu.teamselection.service.TeamExportService;
+import ru.sfedu.teamselection.service.TrackDataVersionService;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ExportJobServiceTest {
+
+    @Mock
+    private StudentExportService studentExportService;
+    @Mock
+    private TeamExportService teamExportService;
+
+    @TempDir
+    Path tempDir;
+
+    private final TrackDataVersionService trackDataVersionService = new TrackDataVersionService();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private ExportJobService exportJobService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        exportJobService = new ExportJobService(
+                studentExportService,
+                teamExportService,
+                new ExportFileStore(tempDir.toString()),
+                trackDataVersionService,
+                1,
+                1,
+                60,
+                600_000
+        );
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            OutputStream out = invocation.getArgument(1);
+            out.write("id,fio".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(studentExportService).writeStudentsCsvByTrack(eq(1L), any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        exportJobService.shutdown();
+    }
+
+    @Test
+    void submit_ShouldWriteResultFile() throws Exception {
+        ExportJob job = exportJobService.submit(1L, ExportEntity.STUDENTS, ExportFormat.CSV);
+        assertThrows(BusinessException.class, () -> exportJobService.getResultFile(job.getId()));
+
+        release.countDown();
+        awaitFinished(job);
+
+        assertEquals(ExportJobStatus.DONE, job.getStatus());
+        Path file = exportJobService.getResultFile(job.getId());
+        assertEquals("id,fio", Files.readString(file));
+        assertEquals(6L, job.getSize());
+    }
+
+    @Test
+    void submit_ShouldCoalesceDuplicateRequests() throws Exception {
+        ExportJob first = exportJobService.submit(1L, ExportEntity.STUDENTS, ExportFormat.CSV);
+        ExportJob second = exportJobService.submit(1L, ExportEntity.STUDENTS, ExportFormat.CSV);
+
+        assertEquals(first.getId(), second.getId());
+
+        release.countDown();
+        awaitFinished(first);
+        ExportJob afterFinish = exportJobService.submit(1L, ExportEntity.STUDENTS, ExportFormat.CSV);
+        assertEquals(first.getId(), afterFinish.getId());
+        verify(studentExportService, times(1)).writeStudentsCsvByTrack(eq(1L), any());
+    }
+
+    @Test
+    void submit_ShouldStartNewJobWhenTrackDataChanged() throws Exception {
+        ExportJob first = exportJobService.submit(1L, ExportEntity.STUDENTS, ExportFormat.CSV);
+        release.countDown();
+        awaitFinished(first);
+
+        trackDataVersionService.bump(1L);
+        ExportJob second = exportJobService.submit(1L, ExportEntity.STUDENTS, ExportFormat.CSV);
+
+        assertNotEquals(first.getId(), second.getId());
+    }
+
+    @Test
+    void submit_ShouldRejectWhenQueueIsFull() {
+        // один поток занят, одно место в очереди
+        exportJobService.submit(1L, ExportEntity.STUDENTS, ExportFormat.CSV);
+        exportJobService.submit(2L, ExportEntity.STUDENTS, ExportFormat.CSV);
+
+        assertThrows(TooManyRequestsException.class,
+                () -> exportJobService.submit(3L, ExportEntity.STUDENTS, ExportFormat.CSV));
+    }
+
+    @Test
+    void submit_ShouldMarkJobFailedAndAllowRetry() throws Exception {
+        doThrow(new RuntimeException("DB error"))
+                .when(teamExportService).writeTeamsExcelByTrack(eq(1L), any());
+
+        ExportJob failed = exportJobService.submit(1L, ExportEntity.TEAMS, ExportFormat.XLSX);
+        awaitFinished(failed);
+
+        assertEquals(ExportJobStatus.FAILED, failed.getStatus());
+        assertEquals("DB error", failed.getError());
+        try (var files = Files.list(tempDir)) {
+            assertTrue(files.findAny().isEmpty());
+        }
+
+        ExportJob retry = exportJobService.submit(1L, ExportEntity.TEAMS, ExportFormat.XLSX);
+        assertNotEquals(failed.getId(), retry.getId());
+    }
+
+    @Test
+    void fileStore_ShouldDeleteOnlyJobFilesOnStartup() throws IOException {
+        Path job = Files.createFile(tempDir.resolve(UUID.randomUUID() + ".xlsx"));
+        Path part = Files.createFile(tempDir.resolve(UUID.randomUUID() + ".csv.part"));
+        Path foreign = Files.createFile(tempDir.resolve("report.csv"));
+        Path nested = Files.createDirectory(tempDir.resolve(UUID.randomUUID() + ".csv"));
+
+        new ExportFileStore(tempDir.toString());
+
+        assertFalse(Files.exists(job));
+        assertFalse(Files.exists(part));
+        assertTrue(Files.exists(foreign));
+        assertTrue(Files.exists(nested));
+    }
+
+    private void awaitFinished(ExportJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!job.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.isFinished());
+    }
+}
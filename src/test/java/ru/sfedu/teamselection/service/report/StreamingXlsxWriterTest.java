@@ -0,0 +1,89 @@
+package ru.sfedu.teamselection.service.report;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class StreamingXlsxWriterTest {
+
+    private static final String[] HEADERS = {"ID", "Название"};
+
+    @Test
+    void writeTo_ShouldKeepAllRowsWhenWindowIsSmall() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (StreamingXlsxWriter writer = new StreamingXlsxWriter(2, true, "Test", HEADERS)) {
+            XSSFCellStyle style = writer.createRowStyle();
+            for (int i = 0; i < 50; i++) {
+                writer.appendRow(new Object[]{i, "Команда " + i}, style);
+            }
+            assertEquals(50, writer.getDataRowCount());
+            writer.writeTo(out);
+        }
+
+        Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+        Sheet sheet = workbook.getSheet("Test");
+        assertEquals(51, sheet.getPhysicalNumberOfRows());
+        assertEquals(49.0, sheet.getRow(50).getCell(0).getNumericCellValue());
+        assertEquals("Команда 49", sheet.getRow(50).getCell(1).getStringCellValue());
+    }
+
+    @Test
+    void writeTo_ShouldApplyHeaderStyleFilterFreezeAndWidths() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (StreamingXlsxWriter writer = new StreamingXlsxWriter(100, false, "Test", HEADERS)) {
+            writer.appendRow(new Object[]{1L, "Очень длинное название команды для проверки ширины"},
+                    writer.createRowStyle());
+            writer.writeTo(out);
+        }
+
+        XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+        XSSFSheet sheet = workbook.getSheet("Test");
+
+        XSSFCellStyle headerStyle = sheet.getRow(0).getCell(0).getCellStyle();
+        assertEquals(FillPatternType.SOLID_FOREGROUND, headerStyle.getFillPattern());
+        assertArrayEquals(new byte[]{(byte) 0x33, (byte) 0x00, (byte) 0x36},
+                headerStyle.getFillForegroundXSSFColor().getRGB());
+
+        assertNotNull(sheet.getPaneInformation());
+        assertEquals(1, sheet.getPaneInformation().getHorizontalSplitPosition());
+        assertTrue(sheet.getCTWorksheet().isSetAutoFilter());
+        assertTrue(sheet.getColumnWidth(1) > sheet.getColumnWidth(0));
+    }
+
+    @Test
+    void startSheet_ShouldFinishPreviousSheetAndShareStyles() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (StreamingXlsxWriter writer = new StreamingXlsxWriter(2, true)) {
+            XSSFCellStyle style = writer.createRowStyle();
+            for (int sheet = 0; sheet < 3; sheet++) {
+                writer.startSheet("Лист " + sheet, HEADERS);
+                for (int i = 0; i <= sheet; i++) {
+                    writer.appendRow(new Object[]{i, "Команда " + i}, style);
+                }
+                assertEquals(sheet + 1, writer.getDataRowCount());
+            }
+            writer.writeTo(out);
+        }
+
+        XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(3, workbook.getNumberOfSheets());
+        for (int i = 0; i < 3; i++) {
+            XSSFSheet sheet = workbook.getSheetAt(i);
+            assertEquals(i + 2, sheet.getPhysicalNumberOfRows());
+            assertTrue(sheet.getCTWorksheet().isSetAutoFilter());
+            assertEquals(1, sheet.getPaneInformation().getHorizontalSplitPosition());
+        }
+        // стиль по умолчанию, стиль шапки и стиль строк, сколько бы ни было листов
+        assertEquals(3, workbook.getNumCellStyles());
+    }
+}
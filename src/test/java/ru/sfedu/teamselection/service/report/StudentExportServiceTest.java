@@ -1,7 +1,10 @@
 package ru.sfedu.teamselection.service.report;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.FillPatternType;
 import org.apache.poi.ss.usermodel.HorizontalAlignment;
@@ -17,6 +20,7 @@ import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.Mock;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Sort;
@@ -26,6 +30,7 @@ import ru.sfedu.teamselection.domain.Track;
 import ru.sfedu.teamselection.domain.User;
 import ru.sfedu.teamselection.service.StudentExportService;
 import ru.sfedu.teamselection.service.StudentService;
+import ru.sfedu.teamselection.service.report.StreamingXlsxWriterFactory;
 
 class StudentExportServiceTest {
 
@@ -39,7 +44,7 @@ class StudentExportServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        studentExportService = new StudentExportService(studentService);
+        studentExportService = new StudentExportService(studentService, new StreamingXlsxWriterFactory(100, true));
 
         // Подготовка тестовых данных
         User user1 = new User();
@@ -98,6 +103,29 @@ class StudentExportServiceTest {
         assertTrue(csvContent.contains("telegram: @ivanov"));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void writeStudentsCsvByTrack_ShouldStreamRowsToOutput() {
+        // Arrange
+        Long trackId = 1L;
+        doAnswer(invocation -> {
+            Consumer<Student> action = invocation.getArgument(1);
+            testStudents.forEach(action);
+            return null;
+        }).when(studentService).forEachByTrack(eq(trackId), any(Consumer.class));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        studentExportService.writeStudentsCsvByTrack(trackId, out);
+        String csvContent = out.toString(StandardCharsets.UTF_8);
+
+        // Assert
+        assertTrue(csvContent.startsWith("id,fio,email,course,groupNumber,hasTeam,isCaptain,track,teamName,contacts"));
+        assertTrue(csvContent.contains("Иванов Иван Иванович"));
+        assertTrue(csvContent.contains("Dream Team"));
+        assertEquals(3, csvContent.lines().count());
+    }
+
     @Test
     void exportStudentsToExcelByTrack_ShouldCreateValidWorkbook() throws Exception {
         // Arrange
@@ -1,7 +1,10 @@
 package ru.sfedu.teamselection.service.report;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.FillPatternType;
 import org.apache.poi.ss.usermodel.HorizontalAlignment;
@@ -17,6 +20,7 @@ import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.Mock;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.PageImpl;
@@ -27,6 +31,7 @@ import ru.sfedu.teamselection.domain.Track;
 import ru.sfedu.teamselection.domain.User;
 import ru.sfedu.teamselection.service.TeamExportService;
 import ru.sfedu.teamselection.service.TeamService;
+import ru.sfedu.teamselection.service.report.StreamingXlsxWriterFactory;
 
 class TeamExportServiceTest {
 
@@ -40,7 +45,7 @@ class TeamExportServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        teamExportService = new TeamExportService(teamService);
+        teamExportService = new TeamExportService(teamService, new StreamingXlsxWriterFactory(100, true));
 
         // Подготовка тестовых данных
         User captainUser = new User();
@@ -90,6 +95,28 @@ class TeamExportServiceTest {
         assertTrue(csv.contains("Java; Spring"));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void writeTeamsCsvByTrack_ShouldStreamRowsToOutput() {
+        // Arrange
+        Long trackId = 1L;
+        doAnswer(invocation -> {
+            Consumer<Team> action = invocation.getArgument(1);
+            testTeams.forEach(action);
+            return null;
+        }).when(teamService).forEachByTrack(eq(trackId), any(Consumer.class));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        teamExportService.writeTeamsCsvByTrack(trackId, out);
+        String csv = out.toString(StandardCharsets.UTF_8);
+
+        // Assert
+        assertTrue(csv.startsWith("id,name,projectDescription,projectType,quantityOfStudents,captainFio,isFull,track,technologies"));
+        assertTrue(csv.contains("Иванов Иван Иванович"));
+        assertTrue(csv.contains("Java; Spring"));
+    }
+
     @Test
     void exportTeamsToExcelByTrack_ShouldCreateValidWorkbookStructure() throws Exception {
         // Arrange
@@ -87,6 +87,18 @@ public class TrackExcelExporterTest {
         }
     }
 
+    @Test
+    void createExcelReport_ShouldNotCreateStylesPerTeam() {
+        Track track = createTestTrack();
+        Team team = track.getCurrentTeams().get(0);
+        ReportService exporter = new ReportService();
+
+        int stylesForOneTeam = exporter.createExcelReport(track).getNumCellStyles();
+        track.setCurrentTeams(List.of(team, team, team, team, team));
+
+        assertEquals(stylesForOneTeam, exporter.createExcelReport(track).getNumCellStyles());
+    }
+
     private Track createTestTrack() {
         Track track = new Track();
         track.setName("Test Track");
@@ -0,0 +1,104 @@
+package ru.sfedu.teamselection.service.security;
+
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.sfedu.teamselection.exception.NotFoundException;
+import ru.sfedu.teamselection.repository.UserRepository;
+import ru.sfedu.teamselection.repository.projection.CurrentPrincipal;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CurrentPrincipalServiceTest {
+    private final CurrentPrincipal student = new CurrentPrincipal(2L, "student@sfedu.ru", "STUDENT", 5L, true);
+
+    @Mock
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("student", null)
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getCurrentPrincipal_ShouldReuseSnapshotWithinTtl() {
+        CurrentPrincipalService underTest = new CurrentPrincipalService(userRepository, 30, 100);
+        when(userRepository.findPrincipalByFio("student")).thenReturn(Optional.of(student));
+
+        Assertions.assertEquals(student, underTest.getCurrentPrincipal());
+        Assertions.assertEquals(student, underTest.getCurrentPrincipal());
+
+        verify(userRepository, times(1)).findPrincipalByFio("student");
+    }
+
+    @Test
+    void getCurrentPrincipal_ShouldMemoizeWithinRequestWithoutTtl() {
+        CurrentPrincipalService underTest = new CurrentPrincipalService(userRepository, 0, 100);
+        when(userRepository.findPrincipalByFio("student")).thenReturn(Optional.of(student));
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        underTest.getCurrentPrincipal();
+        underTest.getCurrentPrincipal();
+        verify(userRepository, times(1)).findPrincipalByFio("student");
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        underTest.getCurrentPrincipal();
+        verify(userRepository, times(2)).findPrincipalByFio("student");
+    }
+
+    @Test
+    void evict_ShouldReloadSnapshot() {
+        CurrentPrincipalService underTest = new CurrentPrincipalService(userRepository, 30, 100);
+        CurrentPrincipal admin = new CurrentPrincipal(2L, "student@sfedu.ru", "ADMIN", null, true);
+        when(userRepository.findPrincipalByFio("student")).thenReturn(Optional.of(student), Optional.of(admin));
+
+        underTest.getCurrentPrincipal();
+        underTest.evict(2L);
+
+        Assertions.assertEquals(admin, underTest.getCurrentPrincipal());
+        verify(userRepository, times(2)).findPrincipalByFio("student");
+    }
+
+    @Test
+    void evict_ShouldKeepOtherUsers() {
+        CurrentPrincipalService underTest = new CurrentPrincipalService(userRepository, 30, 100);
+        when(userRepository.findPrincipalByFio("student")).thenReturn(Optional.of(student));
+
+        underTest.getCurrentPrincipal();
+        underTest.evict(1L);
+        underTest.getCurrentPrincipal();
+
+        verify(userRepository, times(1)).findPrincipalByFio("student");
+    }
+
+    @Test
+    void getCurrentPrincipal_ShouldThrowForUnknownUser() {
+        CurrentPrincipalService underTest = new CurrentPrincipalService(userRepository, 30, 100);
+        when(userRepository.findPrincipalByFio("student")).thenReturn(Optional.empty());
+
+        Assertions.assertThrows(NotFoundException.class, underTest::getCurrentPrincipal);
+        verify(userRepository, never()).findPrincipalByEmail("student");
+    }
+}
@@ -5,44 +5,35 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.core.session.SessionInformation;
-import org.springframework.security.core.session.SessionRegistry;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import ru.sfedu.teamselection.config.security.EmailIndexedSessionRegistry;
 
-import java.util.Arrays;
 import java.util.List;
 import org.springframework.test.util.ReflectionTestUtils;
 
-import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class UserSessionServiceTest {
 
-    @Mock
-    private SessionRegistry sessionRegistry;
-
     @Mock
     private OidcUser oidcUser1;
 
     @Mock
     private OidcUser oidcUser2;
 
-    @Mock
-    private Object nonOidcPrincipal;
-
-    @Mock
-    private SessionInformation session1;
-
-    @Mock
-    private SessionInformation session2;
+    private final Object nonOidcPrincipal = "github-user";
 
-    @Mock
-    private SessionInformation session3;
+    private EmailIndexedSessionRegistry sessionRegistry;
 
     private UserSessionService userSessionService;
 
     @BeforeEach
     void setUp() {
+        sessionRegistry = new EmailIndexedSessionRegistry();
         // Since we're using @Lazy, we need to manually set the dependency
         userSessionService = new UserSessionService();
         ReflectionTestUtils.setField(userSessionService, "sessionRegistry", sessionRegistry);
@@ -52,107 +43,96 @@ class UserSessionServiceTest {
     void updateUserAuthorities_shouldExpireSessionsForMatchingEmail() {
         // Given
         String targetEmail = "user@example.com";
-
-        List<Object> principals = List.of(oidcUser1, oidcUser2, nonOidcPrincipal);
-
-        when(sessionRegistry.getAllPrincipals()).thenReturn(principals);
         when(oidcUser1.getEmail()).thenReturn("other@example.com");
         when(oidcUser2.getEmail()).thenReturn(targetEmail);
 
-        List<SessionInformation> userSessions = List.of(session1, session2);
-        when(sessionRegistry.getAllSessions(oidcUser2, false)).thenReturn(userSessions);
+        sessionRegistry.registerNewSession("session1", oidcUser2);
+        sessionRegistry.registerNewSession("session2", oidcUser2);
+        sessionRegistry.registerNewSession("session3", oidcUser1);
+        sessionRegistry.registerNewSession("session4", nonOidcPrincipal);
 
         // When
         userSessionService.updateUserAuthorities(targetEmail);
 
         // Then
-        verify(session1).expireNow();
-        verify(session2).expireNow();
-        verify(sessionRegistry).getAllPrincipals();
-        verify(sessionRegistry).getAllSessions(oidcUser2, false);
-
-        // Verify that non-OidcUser principal and non-matching emails are ignored
-        verify(sessionRegistry, never()).getAllSessions(oidcUser1, false);
-        verify(sessionRegistry, never()).getAllSessions(nonOidcPrincipal, false);
+        assertTrue(sessionRegistry.getSessionInformation("session1").isExpired());
+        assertTrue(sessionRegistry.getSessionInformation("session2").isExpired());
+        assertFalse(sessionRegistry.getSessionInformation("session3").isExpired());
+        assertFalse(sessionRegistry.getSessionInformation("session4").isExpired());
     }
 
     @Test
     void updateUserAuthorities_shouldNotExpireSessionsWhenNoMatchingEmail() {
         // Given
-        String targetEmail = "user@example.com";
-
-        List<Object> principals = Arrays.asList(oidcUser1, oidcUser2);
-
-        when(sessionRegistry.getAllPrincipals()).thenReturn(principals);
         when(oidcUser1.getEmail()).thenReturn("other1@example.com");
         when(oidcUser2.getEmail()).thenReturn("other2@example.com");
 
+        sessionRegistry.registerNewSession("session1", oidcUser1);
+        sessionRegistry.registerNewSession("session2", oidcUser2);
+
         // When
-        userSessionService.updateUserAuthorities(targetEmail);
+        userSessionService.updateUserAuthorities("user@example.com");
 
         // Then
-        verify(sessionRegistry, never()).getAllSessions(any(), anyBoolean());
-        verify(session1, never()).expireNow();
-        verify(session2, never()).expireNow();
-        verify(session3, never()).expireNow();
+        assertFalse(sessionRegistry.getSessionInformation("session1").isExpired());
+        assertFalse(sessionRegistry.getSessionInformation("session2").isExpired());
     }
 
     @Test
-    void updateUserAuthorities_shouldHandleEmptyPrincipalsList() {
-        // Given
-        String targetEmail = "user@example.com";
+    void updateUserAuthorities_shouldHandleEmptyRegistry() {
+        userSessionService.updateUserAuthorities("user@example.com");
 
-        List<Object> principals = List.of();
+        assertTrue(sessionRegistry.getAllPrincipals().isEmpty());
+    }
+
+    @Test
+    void updateUserAuthorities_shouldExpireSessionsOfSeveralUsersInOneCall() {
+        // Given
+        when(oidcUser1.getEmail()).thenReturn("first@example.com");
+        when(oidcUser2.getEmail()).thenReturn("second@example.com");
 
-        when(sessionRegistry.getAllPrincipals()).thenReturn(principals);
+        sessionRegistry.registerNewSession("session1", oidcUser1);
+        sessionRegistry.registerNewSession("session2", oidcUser2);
 
         // When
-        userSessionService.updateUserAuthorities(targetEmail);
+        int expired = sessionRegistry.expireSessions(List.of("first@example.com", "second@example.com"));
 
         // Then
-        verify(sessionRegistry).getAllPrincipals();
-        verifyNoMoreInteractions(sessionRegistry);
+        assertEquals(2, expired);
+        assertTrue(sessionRegistry.getSessionInformation("session1").isExpired());
+        assertTrue(sessionRegistry.getSessionInformation("session2").isExpired());
     }
 
     @Test
-    void updateUserAuthorities_shouldHandleMultipleSessionsForSameUser() {
+    void updateUserAuthorities_shouldIgnoreDestroyedSessions() {
         // Given
         String targetEmail = "user@example.com";
-
-        List<Object> principals = List.of(oidcUser1);
-
-        when(sessionRegistry.getAllPrincipals()).thenReturn(principals);
         when(oidcUser1.getEmail()).thenReturn(targetEmail);
 
-        List<SessionInformation> userSessions = Arrays.asList(session1, session2, session3);
-        when(sessionRegistry.getAllSessions(oidcUser1, false)).thenReturn(userSessions);
+        sessionRegistry.registerNewSession("session1", oidcUser1);
+        sessionRegistry.registerNewSession("session2", oidcUser1);
+        sessionRegistry.removeSessionInformation("session1");
 
         // When
-        userSessionService.updateUserAuthorities(targetEmail);
+        int expired = sessionRegistry.expireSessions(List.of(targetEmail));
 
         // Then
-        verify(session1).expireNow();
-        verify(session2).expireNow();
-        verify(session3).expireNow();
-        verify(sessionRegistry).getAllSessions(oidcUser1, false);
+        assertEquals(1, expired);
+        assertTrue(sessionRegistry.getSessionInformation("session2").isExpired());
     }
 
     @Test
-    void updateUserAuthorities_shouldHandleEmptySessionInformationList() {
+    void updateUserAuthorities_shouldNotCountAlreadyExpiredSessions() {
         // Given
         String targetEmail = "user@example.com";
-
-        List<Object> principals = List.of(oidcUser1);
-
-        when(sessionRegistry.getAllPrincipals()).thenReturn(principals);
         when(oidcUser1.getEmail()).thenReturn(targetEmail);
-        when(sessionRegistry.getAllSessions(oidcUser1, false)).thenReturn(List.of());
+        sessionRegistry.registerNewSession("session1", oidcUser1);
 
         // When
-        userSessionService.updateUserAuthorities(targetEmail);
+        sessionRegistry.expireSessions(List.of(targetEmail));
+        int expired = sessionRegistry.expireSessions(List.of(targetEmail));
 
         // Then
-        verify(sessionRegistry).getAllSessions(oidcUser1, false);
-        // No sessions to expire, so no expireNow() calls
+        assertEquals(0, expired);
     }
 }
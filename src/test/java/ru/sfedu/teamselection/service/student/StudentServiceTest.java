@@ -1,5 +1,6 @@
 package ru.sfedu.teamselection.service.student;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -34,12 +35,16 @@ import ru.sfedu.teamselection.dto.StudentUpdateTeamDto;
 import ru.sfedu.teamselection.dto.StudentUpdateUserDto;
 import ru.sfedu.teamselection.dto.student.StudentCreationDto;
 import ru.sfedu.teamselection.dto.student.StudentSearchOptionsDto;
+import ru.sfedu.teamselection.enums.TechnologyMatch;
 import ru.sfedu.teamselection.enums.TrackType;
 import ru.sfedu.teamselection.exception.ConstraintViolationException;
 import ru.sfedu.teamselection.mapper.TechnologyMapper;
 import ru.sfedu.teamselection.repository.StudentRepository;
 import ru.sfedu.teamselection.repository.TeamRepository;
 import ru.sfedu.teamselection.repository.TechnologyRepository;
+import ru.sfedu.teamselection.repository.specification.KeysetPage;
+import ru.sfedu.teamselection.repository.specification.KeysetRequest;
+import ru.sfedu.teamselection.repository.specification.NameSearch;
 import ru.sfedu.teamselection.service.StudentService;
 import ru.sfedu.teamselection.service.UserService;
 import ru.sfedu.teamselection.service.security.PermissionLevelUpdate;
@@ -253,6 +258,58 @@ class StudentServiceTest extends BasicTestContainerTest {
         Assertions.assertEquals(10, actual.getTotalElements());
     }
 
+    @Test
+    @Transactional
+    void scrollWithDetailsWalksAllPagesByCursor() {
+        List<Integer> groupParam = List.of(1);
+        Sort sort = Sort.by(Sort.Direction.ASC, "name");
+        List<Student> scrolled = new ArrayList<>();
+        String cursor = null;
+        Long total = null;
+        do {
+            KeysetPage<Student> page = underTest.scrollWithDetails(
+                    null, false, null, null, groupParam, null, null, null, TechnologyMatch.ANY,
+                    new KeysetRequest(sort, cursor, 5, true)
+            );
+            Assertions.assertTrue(page.content().size() <= 5);
+            scrolled.addAll(page.content());
+            total = page.totalElements();
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        Assertions.assertEquals(19, total);
+        Assertions.assertEquals(19, scrolled.size());
+        KeysetPage<Student> single = underTest.scrollWithDetails(
+                null, false, null, null, groupParam, null, null, null, TechnologyMatch.ANY,
+                new KeysetRequest(sort, null, 50, false)
+        );
+        Assertions.assertFalse(single.hasNext());
+        Assertions.assertEquals(
+                single.content().stream().map(Student::getId).toList(),
+                scrolled.stream().map(Student::getId).toList()
+        );
+    }
+
+    @Test
+    @Transactional
+    void scrollWithDetailsRejectsCursorOfAnotherSort() {
+        KeysetPage<Student> first = underTest.scrollWithDetails(
+                null, false, null, null, null, null, null, null, TechnologyMatch.ANY,
+                new KeysetRequest(Sort.by(Sort.Direction.ASC, "name"), null, 2, false)
+        );
+        Assertions.assertNull(first.totalElements());
+        Assertions.assertNotNull(first.nextCursor());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> underTest.scrollWithDetails(
+                null, false, null, null, null, null, null, null, TechnologyMatch.ANY,
+                new KeysetRequest(Sort.by(Sort.Direction.DESC, "course"), first.nextCursor(), 2, false)
+        ));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> underTest.scrollWithDetails(
+                "иван", false, null, null, null, null, null, null, TechnologyMatch.ANY,
+                new KeysetRequest(Sort.by(NameSearch.RELEVANCE_SORT), null, 2, false)
+        ));
+    }
+
     @Test
     @Transactional
     void searchByIsCaptain() {
@@ -303,6 +360,28 @@ class StudentServiceTest extends BasicTestContainerTest {
         Assertions.assertEquals(7, actual.getTotalElements());
     }
 
+    @Test
+    @Transactional
+    void searchByAllTechnologies() {
+        Page<Student> actual = underTest.searchWithDetails(
+                null,
+                false,
+                null,
+                null,
+                null,
+                null,
+                null,
+                List.of(1L, 2L),
+                TechnologyMatch.ALL,
+                pageable
+        );
+
+        Assertions.assertEquals(
+                List.of(7L, 13L),
+                actual.map(Student::getId).getContent().stream().sorted().toList()
+        );
+    }
+
     @Test
     @Transactional
     void updateFromStudentThemself() {